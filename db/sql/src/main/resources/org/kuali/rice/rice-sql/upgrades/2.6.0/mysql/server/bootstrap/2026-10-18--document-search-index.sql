@@ -0,0 +1,171 @@
+--
+-- Copyright 2005-2015 The Kuali Foundation
+--
+-- Licensed under the Educational Community License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+-- http://www.opensource.org/licenses/ecl2.php
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+-- denormalized document search index, one row per document of the document types which have the
+-- DOCUMENT_SEARCH_INDEX policy enabled.  The value columns are assigned to searchable attribute keys per document
+-- type in KREW_DOC_SRCH_IDX_COL_T, indexes on value columns no document type uses may be dropped.
+
+CREATE TABLE KREW_DOC_SRCH_IDX_T (
+  DOC_HDR_ID VARCHAR(40) NOT NULL,
+  DOC_TYP_NM VARCHAR(64) NOT NULL,
+  STR_VAL_1 VARCHAR(2000),
+  STR_VAL_2 VARCHAR(2000),
+  STR_VAL_3 VARCHAR(2000),
+  STR_VAL_4 VARCHAR(2000),
+  STR_VAL_5 VARCHAR(2000),
+  STR_VAL_6 VARCHAR(2000),
+  STR_VAL_7 VARCHAR(2000),
+  STR_VAL_8 VARCHAR(2000),
+  STR_VAL_9 VARCHAR(2000),
+  STR_VAL_10 VARCHAR(2000),
+  LONG_VAL_1 DECIMAL(22),
+  LONG_VAL_2 DECIMAL(22),
+  LONG_VAL_3 DECIMAL(22),
+  LONG_VAL_4 DECIMAL(22),
+  LONG_VAL_5 DECIMAL(22),
+  FLT_VAL_1 DECIMAL(30,15),
+  FLT_VAL_2 DECIMAL(30,15),
+  FLT_VAL_3 DECIMAL(30,15),
+  FLT_VAL_4 DECIMAL(30,15),
+  FLT_VAL_5 DECIMAL(30,15),
+  DT_VAL_1 DATETIME,
+  DT_VAL_2 DATETIME,
+  DT_VAL_3 DATETIME,
+  DT_VAL_4 DATETIME,
+  DT_VAL_5 DATETIME,
+  CONSTRAINT KREW_DOC_SRCH_IDX_TP1 PRIMARY KEY (DOC_HDR_ID)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8 COLLATE=utf8_bin
+/
+
+CREATE INDEX KREW_DOC_SRCH_IDX_TI1
+  ON KREW_DOC_SRCH_IDX_T
+  (DOC_TYP_NM, STR_VAL_1 (255))
+/
+CREATE INDEX KREW_DOC_SRCH_IDX_TI2
+  ON KREW_DOC_SRCH_IDX_T
+  (DOC_TYP_NM, STR_VAL_2 (255))
+/
+CREATE INDEX KREW_DOC_SRCH_IDX_TI3
+  ON KREW_DOC_SRCH_IDX_T
+  (DOC_TYP_NM, STR_VAL_3 (255))
+/
+CREATE INDEX KREW_DOC_SRCH_IDX_TI4
+  ON KREW_DOC_SRCH_IDX_T
+  (DOC_TYP_NM, STR_VAL_4 (255))
+/
+CREATE INDEX KREW_DOC_SRCH_IDX_TI5
+  ON KREW_DOC_SRCH_IDX_T
+  (DOC_TYP_NM, STR_VAL_5 (255))
+/
+CREATE INDEX KREW_DOC_SRCH_IDX_TI6
+  ON KREW_DOC_SRCH_IDX_T
+  (DOC_TYP_NM, STR_VAL_6 (255))
+/
+CREATE INDEX KREW_DOC_SRCH_IDX_TI7
+  ON KREW_DOC_SRCH_IDX_T
+  (DOC_TYP_NM, STR_VAL_7 (255))
+/
+CREATE INDEX KREW_DOC_SRCH_IDX_TI8
+  ON KREW_DOC_SRCH_IDX_T
+  (DOC_TYP_NM, STR_VAL_8 (255))
+/
+CREATE INDEX KREW_DOC_SRCH_IDX_TI9
+  ON KREW_DOC_SRCH_IDX_T
+  (DOC_TYP_NM, STR_VAL_9 (255))
+/
+CREATE INDEX KREW_DOC_SRCH_IDX_TI10
+  ON KREW_DOC_SRCH_IDX_T
+  (DOC_TYP_NM, STR_VAL_10 (255))
+/
+CREATE INDEX KREW_DOC_SRCH_IDX_TI11
+  ON KREW_DOC_SRCH_IDX_T
+  (DOC_TYP_NM, LONG_VAL_1)
+/
+CREATE INDEX KREW_DOC_SRCH_IDX_TI12
+  ON KREW_DOC_SRCH_IDX_T
+  (DOC_TYP_NM, LONG_VAL_2)
+/
+CREATE INDEX KREW_DOC_SRCH_IDX_TI13
+  ON KREW_DOC_SRCH_IDX_T
+  (DOC_TYP_NM, LONG_VAL_3)
+/
+CREATE INDEX KREW_DOC_SRCH_IDX_TI14
+  ON KREW_DOC_SRCH_IDX_T
+  (DOC_TYP_NM, LONG_VAL_4)
+/
+CREATE INDEX KREW_DOC_SRCH_IDX_TI15
+  ON KREW_DOC_SRCH_IDX_T
+  (DOC_TYP_NM, LONG_VAL_5)
+/
+CREATE INDEX KREW_DOC_SRCH_IDX_TI16
+  ON KREW_DOC_SRCH_IDX_T
+  (DOC_TYP_NM, FLT_VAL_1)
+/
+CREATE INDEX KREW_DOC_SRCH_IDX_TI17
+  ON KREW_DOC_SRCH_IDX_T
+  (DOC_TYP_NM, FLT_VAL_2)
+/
+CREATE INDEX KREW_DOC_SRCH_IDX_TI18
+  ON KREW_DOC_SRCH_IDX_T
+  (DOC_TYP_NM, FLT_VAL_3)
+/
+CREATE INDEX KREW_DOC_SRCH_IDX_TI19
+  ON KREW_DOC_SRCH_IDX_T
+  (DOC_TYP_NM, FLT_VAL_4)
+/
+CREATE INDEX KREW_DOC_SRCH_IDX_TI20
+  ON KREW_DOC_SRCH_IDX_T
+  (DOC_TYP_NM, FLT_VAL_5)
+/
+CREATE INDEX KREW_DOC_SRCH_IDX_TI21
+  ON KREW_DOC_SRCH_IDX_T
+  (DOC_TYP_NM, DT_VAL_1)
+/
+CREATE INDEX KREW_DOC_SRCH_IDX_TI22
+  ON KREW_DOC_SRCH_IDX_T
+  (DOC_TYP_NM, DT_VAL_2)
+/
+CREATE INDEX KREW_DOC_SRCH_IDX_TI23
+  ON KREW_DOC_SRCH_IDX_T
+  (DOC_TYP_NM, DT_VAL_3)
+/
+CREATE INDEX KREW_DOC_SRCH_IDX_TI24
+  ON KREW_DOC_SRCH_IDX_T
+  (DOC_TYP_NM, DT_VAL_4)
+/
+CREATE INDEX KREW_DOC_SRCH_IDX_TI25
+  ON KREW_DOC_SRCH_IDX_T
+  (DOC_TYP_NM, DT_VAL_5)
+/
+
+CREATE TABLE KREW_DOC_SRCH_IDX_COL_T (
+  DOC_TYP_NM VARCHAR(64) NOT NULL,
+  KEY_CD VARCHAR(256) NOT NULL,
+  COL_NM VARCHAR(30) NOT NULL,
+  MULTI_VAL_IND VARCHAR(1) DEFAULT 'N' NOT NULL,
+  CONSTRAINT KREW_DOC_SRCH_IDX_COL_TP1 PRIMARY KEY (DOC_TYP_NM, KEY_CD),
+  CONSTRAINT KREW_DOC_SRCH_IDX_COL_TC0 UNIQUE (DOC_TYP_NM, COL_NM)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8 COLLATE=utf8_bin
+/
+
+-- IDX_STAT_CD is B while the index of the document type is being built and A once searches may use it
+CREATE TABLE KREW_DOC_SRCH_IDX_TYP_T (
+  DOC_TYP_NM VARCHAR(64) NOT NULL,
+  IDX_STAT_CD VARCHAR(1) NOT NULL,
+  LAST_UPDT_DT DATETIME,
+  CONSTRAINT KREW_DOC_SRCH_IDX_TYP_TP1 PRIMARY KEY (DOC_TYP_NM)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8 COLLATE=utf8_bin
+/
@@ -0,0 +1,27 @@
+--
+-- Copyright 2005-2015 The Kuali Foundation
+--
+-- Licensed under the Educational Community License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+-- http://www.opensource.org/licenses/ecl2.php
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+-- messages are claimed by any node of the application through a lease, LEASE_OWNR_ID holds the bus instance id of
+-- the node currently processing the message and LEASE_EXP_DT when other nodes may take the message over
+
+ALTER TABLE KRSB_MSG_QUE_T ADD LEASE_OWNR_ID VARCHAR2(255)
+/
+ALTER TABLE KRSB_MSG_QUE_T ADD LEASE_EXP_DT DATE
+/
+CREATE INDEX KRSB_MSG_QUE_TI3
+  ON KRSB_MSG_QUE_T
+  (APPL_ID, LEASE_EXP_DT)
+/
@@ -0,0 +1,23 @@
+--
+-- Copyright 2005-2015 The Kuali Foundation
+--
+-- Licensed under the Educational Community License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+-- http://www.opensource.org/licenses/ecl2.php
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+-- message payloads are written in binary form to MSG_PYLD_BIN, MSG_PYLD only holds the base 64 encoded payloads of
+-- messages queued before the upgrade
+
+ALTER TABLE KRSB_MSG_PYLD_T ADD MSG_PYLD_BIN BLOB
+/
+ALTER TABLE KRSB_MSG_PYLD_T MODIFY (MSG_PYLD NULL)
+/
@@ -0,0 +1,35 @@
+--
+-- Copyright 2005-2015 The Kuali Foundation
+--
+-- Licensed under the Educational Community License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+-- http://www.opensource.org/licenses/ecl2.php
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+-- checkpoints of the bulk searchable attribute re-indexer, one row per document id range of a document type.  The
+-- range covers the ids after START_DOC_HDR_ID up to and including END_DOC_HDR_ID, a null bound leaves that end open.
+
+CREATE TABLE KREW_SRCH_ATTR_REIDX_T (
+  DOC_TYP_NM VARCHAR2(64) NOT NULL,
+  PART_NBR NUMBER(8) NOT NULL,
+  START_DOC_HDR_ID VARCHAR2(40),
+  END_DOC_HDR_ID VARCHAR2(40),
+  LAST_DOC_HDR_ID VARCHAR2(40),
+  STAT_CD VARCHAR2(1) NOT NULL,
+  DOC_CNT NUMBER(14) DEFAULT 0 NOT NULL,
+  LAST_UPDT_DT DATE
+)
+/
+
+ALTER TABLE KREW_SRCH_ATTR_REIDX_T
+    ADD CONSTRAINT KREW_SRCH_ATTR_REIDX_TP1
+PRIMARY KEY (DOC_TYP_NM, PART_NBR)
+/
@@ -15,6 +15,8 @@
  */
 package org.kuali.rice.krad.uif.util;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -41,6 +43,15 @@ class MockPersonService implements PersonService {
         return getMockPerson(principalId);
     }
 
+    @Override
+    public List<Person> getPeople(Collection<String> principalIds) {
+        List<Person> people = new ArrayList<Person>(principalIds.size());
+        for (String principalId : principalIds) {
+            people.add(getMockPerson(principalId));
+        }
+        return people;
+    }
+
     @Override
     public List<Person> getPersonByExternalIdentifier(String externalIdentifierTypeCode,
             String externalId) {
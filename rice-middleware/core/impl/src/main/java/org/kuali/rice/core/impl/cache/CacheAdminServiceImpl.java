@@ -45,6 +45,7 @@ public class CacheAdminServiceImpl implements CacheAdminService, InitializingBea
     public void flush(Collection<CacheTarget> cacheTargets) throws RiceIllegalArgumentException {
         if (CollectionUtils.isNotEmpty(cacheTargets)) {
             logCacheFlush(cacheTargets);
+            long start = System.nanoTime();
             for (CacheTarget cacheTarget : cacheTargets) {
                 if (cacheTarget == null) {
                     throw new RiceIllegalArgumentException("cacheTarget is null");
@@ -58,6 +59,7 @@ public class CacheAdminServiceImpl implements CacheAdminService, InitializingBea
                     }
                 }
             }
+            DistributedCacheStatistics.getInstance().recordReceived(cacheTargets.size(), System.nanoTime() - start);
         }
     }
 
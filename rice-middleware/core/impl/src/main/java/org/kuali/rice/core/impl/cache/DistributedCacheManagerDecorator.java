@@ -25,6 +25,7 @@ import org.kuali.rice.core.api.cache.CacheTarget;
 import org.kuali.rice.core.api.config.property.ConfigContext;
 import org.kuali.rice.ksb.api.KsbApiServiceLocator;
 import org.springframework.beans.factory.BeanNameAware;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.NamedBean;
 import org.springframework.cache.Cache;
@@ -39,9 +40,15 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A distributed cache manager that wraps a cache manager and adds distributed cache capabilities
@@ -57,18 +64,34 @@ import java.util.concurrent.LinkedBlockingQueue;
  * If not in a transaction, distributed messages are sent immediately.  This should be avoided and is likely
  * the result of a programming error.
  * </p>
+ *
+ * <p>
+ * When rice.cache.distributedFlushWindow is greater than zero, non-transactional flushes are held for that many
+ * milliseconds instead, so that many of them are combined into a single message.  They are only held in memory
+ * and are lost if the node goes down during the window.  The flushes of a transaction are never held, they are
+ * always sent as part of the transaction so the message is persisted along with the changes that caused it.
+ * Duplicate targets, and single entries of caches which are cleared entirely, are dropped from every message.
+ * </p>
  */
-public final class DistributedCacheManagerDecorator implements CacheManager, InitializingBean, BeanNameAware, NamedBean {
+public final class DistributedCacheManagerDecorator implements CacheManager, InitializingBean, DisposableBean, BeanNameAware, NamedBean {
 
     private static final Log LOG = LogFactory.getLog(DistributedCacheManagerDecorator.class);
 
     private static final String DISABLE_ALL_CACHES_PARAM = "rice.cache.disableAllCaches";
     private static final String DISABLE_DISTRIBUTED_CACHE_FLUSH_PARAM = "rice.cache.disableDistributedCacheFlush";
     private static final String DISABLED_CACHES_PARAM = "rice.cache.disabledCaches";
+    private static final String DISTRIBUTED_FLUSH_WINDOW_PARAM = "rice.cache.distributedFlushWindow";
 
     private CacheManager cacheManager;
     private String serviceName;
     private String name;
+    private CacheAdminService cacheAdminService;
+    private Long flushWindow;
+
+    private final Object pendingFlushLock = new Object();
+    private final List<CacheTarget> pendingFlushTargets = new ArrayList<CacheTarget>();
+    private int pendingCoalescedCount;
+    private boolean pendingFlushScheduled;
 
     @Override
     public Cache getCache(String name) {
@@ -89,20 +112,77 @@ public final class DistributedCacheManagerDecorator implements CacheManager, Ini
         return cache;
     }
 
-    private void sendFlushCacheMessages(Collection<CacheTarget> cacheTargets) {
+    private long getFlushWindow() {
+        return flushWindow != null ? flushWindow.longValue() : ConfigurationPropertiesHolder.distributedFlushWindow;
+    }
+
+    /**
+     * Sends the given non-transactional targets once the flush window has passed, along with any other targets
+     * flushed through this cache manager in the meantime.  They are sent immediately if no flush window is configured.
+     *
+     * @param cacheTargets the already coalesced cache targets
+     * @param coalescedCount the number of targets which were dropped while coalescing them
+     */
+    private void queueFlushCacheMessages(Collection<CacheTarget> cacheTargets, int coalescedCount) {
+        if (cacheTargets.isEmpty()) {
+            return;
+        }
+        final long window = getFlushWindow();
+        if (window <= 0) {
+            sendFlushCacheMessages(cacheTargets, coalescedCount);
+            return;
+        }
+        synchronized (pendingFlushLock) {
+            pendingFlushTargets.addAll(cacheTargets);
+            pendingCoalescedCount += coalescedCount;
+            if (pendingFlushScheduled) {
+                return;
+            }
+            pendingFlushScheduled = true;
+        }
+        try {
+            FlushSchedulerHolder.scheduler.schedule(new PendingFlushSender(Thread.currentThread().getContextClassLoader()),
+                    window, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            sendPendingFlushCacheMessages();
+        }
+    }
+
+    private void sendPendingFlushCacheMessages() {
+        final List<CacheTarget> targets;
+        final int coalescedCount;
+        synchronized (pendingFlushLock) {
+            targets = new ArrayList<CacheTarget>(pendingFlushTargets);
+            coalescedCount = pendingCoalescedCount;
+            pendingFlushTargets.clear();
+            pendingCoalescedCount = 0;
+            pendingFlushScheduled = false;
+        }
+        final Collection<CacheTarget> coalesced = coalesce(targets);
+        sendFlushCacheMessages(coalesced, coalescedCount + targets.size() - coalesced.size());
+    }
+
+    private void sendFlushCacheMessages(Collection<CacheTarget> cacheTargets, int coalescedCount) {
         try {
             if (!cacheTargets.isEmpty()) {
                 logFlushCache(cacheTargets);
                 // need to ensure that the list passed is serializable in order for the KSB messaging to work
                 cacheTargets = new ArrayList<CacheTarget>(cacheTargets);
-                CacheAdminService cacheAdminService = KsbApiServiceLocator.getMessageHelper().getServiceAsynchronously(QName.valueOf(serviceName));
-                cacheAdminService.flush(cacheTargets);
+                getCacheAdminService().flush(cacheTargets);
+                DistributedCacheStatistics.getInstance().recordSent(cacheTargets.size(), coalescedCount);
             }
         } catch (Throwable t) {
             LOG.error("failed to execute distributed flush for serviceName " + serviceName, t);
         }
     }
 
+    private CacheAdminService getCacheAdminService() {
+        if (cacheAdminService != null) {
+            return cacheAdminService;
+        }
+        return KsbApiServiceLocator.getMessageHelper().getServiceAsynchronously(QName.valueOf(serviceName));
+    }
+
     private void logFlushCache(Collection<CacheTarget> cacheTargets) {
         if (LOG.isDebugEnabled()) {
             Set<String> cacheNames = new HashSet<String>();
@@ -113,13 +193,42 @@ public final class DistributedCacheManagerDecorator implements CacheManager, Ini
         }
     }
 
+    /**
+     * Normalizes the given targets such that:
+     * (1) cache targets with keys will not be present in the returned collection if a cache target exists for the
+     * same cache but w/o a key (a complete cache flush);
+     * (2) duplicate targets (both complete cache flushes and specific keys) will be filtered so only unique
+     * targets will exist in the returned collection
+     *
+     * @param targets the targets to normalize
+     * @return a new collection containing CacheTargets
+     */
+    private static Collection<CacheTarget> coalesce(Collection<CacheTarget> targets) {
+        final Set<CacheTarget> normalized = new HashSet<CacheTarget>();
+        final Set<String> completeFlush = new HashSet<String>();
+
+        for (CacheTarget target : targets) {
+            normalized.add(target);
+            if (!target.containsKey()) {
+                completeFlush.add(target.getCache());
+            }
+        }
+
+        return new ArrayList<CacheTarget>(Collections2.filter(normalized, new Predicate<CacheTarget>() {
+            @Override
+            public boolean apply(CacheTarget input) {
+                return !input.containsKey() || !completeFlush.contains(input.getCache());
+            }
+        }));
+    }
+
     @Override
     public void afterPropertiesSet() {
         if (cacheManager == null) {
             throw new IllegalStateException("cacheManager was null");
         }
 
-        if (StringUtils.isBlank(serviceName)) {
+        if (cacheAdminService == null && StringUtils.isBlank(serviceName)) {
             throw new IllegalStateException("serviceName was null or blank");
         }
 
@@ -128,6 +237,14 @@ public final class DistributedCacheManagerDecorator implements CacheManager, Ini
         }
     }
 
+    /**
+     * Sends any flushes still waiting for the flush window so they are not lost on shutdown.
+     */
+    @Override
+    public void destroy() {
+        sendPendingFlushCacheMessages();
+    }
+
     public void setCacheManager(CacheManager cacheManager) {
         this.cacheManager = cacheManager;
     }
@@ -136,6 +253,26 @@ public final class DistributedCacheManagerDecorator implements CacheManager, Ini
         this.serviceName = serviceName;
     }
 
+    /**
+     * Sets the service flushes are sent to.  By default the cache admin service named by the service name is called
+     * asynchronously over the service bus.
+     *
+     * @param cacheAdminService the service flushes are sent to
+     */
+    public void setCacheAdminService(CacheAdminService cacheAdminService) {
+        this.cacheAdminService = cacheAdminService;
+    }
+
+    /**
+     * Sets the milliseconds non-transactional flushes are held so they can be sent as one message.  Defaults to the
+     * rice.cache.distributedFlushWindow configuration parameter.
+     *
+     * @param flushWindow the flush window in milliseconds, 0 sends every flush immediately
+     */
+    public void setFlushWindow(long flushWindow) {
+        this.flushWindow = Long.valueOf(flushWindow);
+    }
+
     @Override
     public String getBeanName() {
         return name;
@@ -235,7 +372,7 @@ public final class DistributedCacheManagerDecorator implements CacheManager, Ini
                 //adding to internal queue.  the Synchronization is already registered at this point
                 ts.add(target);
             } else {
-                sendFlushCacheMessages(Collections.singleton(target));
+                queueFlushCacheMessages(Collections.singleton(target), 0);
             }
         }
 
@@ -281,10 +418,12 @@ public final class DistributedCacheManagerDecorator implements CacheManager, Ini
     private final class CacheMessageSendingTransactionSynchronization extends TransactionSynchronizationAdapter {
 
         private final LinkedBlockingQueue<CacheTarget> flushQueue = new LinkedBlockingQueue<CacheTarget>();
+        private int addedCount;
 
         private void add(CacheTarget target) throws DistributedCacheException {
             try {
                 flushQueue.put(target);
+                addedCount++;
             } catch (InterruptedException e) {
                 throw new DistributedCacheException(e);
             }
@@ -307,10 +446,15 @@ public final class DistributedCacheManagerDecorator implements CacheManager, Ini
          * latter is used, we end up with exceptions about using a persistence broker which is already closed
          * because this behavior would interfere with the OJB synchronization process which happens during
          * beforeCompletion.</p>
+         *
+         * <p>The messages are sent regardless of the flush window so that they are persisted within this
+         * transaction and cannot be lost once it has committed.</p>
          */
         @Override
         public void beforeCommit(boolean readOnly) {
-            sendFlushCacheMessages(exhaustQueue(flushQueue));
+            final Collection<CacheTarget> targets = exhaustQueue(flushQueue);
+            sendFlushCacheMessages(targets, addedCount - targets.size());
+            addedCount = 0;
         }
 
         /**
@@ -326,23 +470,39 @@ public final class DistributedCacheManagerDecorator implements CacheManager, Ini
          * @return a new collection containing CacheTargets
          */
         private Collection<CacheTarget> exhaustQueue(Queue<CacheTarget> targets) {
-            final Set<CacheTarget> normalized = new HashSet<CacheTarget>();
-            final Set<String> completeFlush = new HashSet<String>();    
+            final List<CacheTarget> exhausted = new ArrayList<CacheTarget>();
 
             CacheTarget target;
             while ((target = targets.poll()) != null) {
-                normalized.add(target);
-                if (!target.containsKey()) {
-                    completeFlush.add(target.getCache());
-                }
+                exhausted.add(target);
             }
 
-            return Collections2.filter(normalized, new Predicate<CacheTarget>() {
-                @Override
-                public boolean apply(CacheTarget input) {
-                    return !input.containsKey() || (input.containsKey() && !completeFlush.contains(input.getCache()));
-                }
-            });
+            return coalesce(exhausted);
+        }
+    }
+
+    /**
+     * Sends the flushes collected during a flush window.  Runs with the context class loader of the thread which
+     * opened the window so the service bus of that application is used.
+     */
+    private final class PendingFlushSender implements Runnable {
+
+        private final ClassLoader contextClassLoader;
+
+        private PendingFlushSender(ClassLoader contextClassLoader) {
+            this.contextClassLoader = contextClassLoader;
+        }
+
+        @Override
+        public void run() {
+            final Thread thread = Thread.currentThread();
+            final ClassLoader original = thread.getContextClassLoader();
+            thread.setContextClassLoader(contextClassLoader);
+            try {
+                sendPendingFlushCacheMessages();
+            } finally {
+                thread.setContextClassLoader(original);
+            }
         }
     }
 
@@ -359,6 +519,8 @@ public final class DistributedCacheManagerDecorator implements CacheManager, Ini
         static final boolean disableDistributedCacheFlush =
                 ConfigContext.getCurrentContextConfig().getBooleanProperty(DISABLE_DISTRIBUTED_CACHE_FLUSH_PARAM, false);
         static final Set<String> disabledCaches = getDisabledCachesConfig();
+        static final long distributedFlushWindow =
+                ConfigContext.getCurrentContextConfig().getNumericProperty(DISTRIBUTED_FLUSH_WINDOW_PARAM, 0);
 
         private static Set<String> getDisabledCachesConfig() {
             Set<String> disabledCaches = new HashSet<String>();
@@ -378,6 +540,19 @@ public final class DistributedCacheManagerDecorator implements CacheManager, Ini
         }
     }
 
+    // lazy initialization holder class, the scheduler is only started once a flush window is used
+    private static final class FlushSchedulerHolder {
+        static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        final Thread thread = new Thread(runnable, "rice-distributed-cache-flush");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+    }
+
     private static final class NoOpCache implements Cache {
 
         private final Cache inner;
@@ -0,0 +1,113 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.core.impl.cache;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the distributed cache flush messages sent by the {@link DistributedCacheManagerDecorator}s and received by
+ * the {@link CacheAdminServiceImpl}s of this JVM, along with how long received flushes took to apply.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class DistributedCacheStatistics {
+
+    private static final DistributedCacheStatistics INSTANCE = new DistributedCacheStatistics();
+
+    private final AtomicLong sentMessages = new AtomicLong();
+    private final AtomicLong sentTargets = new AtomicLong();
+    private final AtomicLong coalescedTargets = new AtomicLong();
+    private final AtomicLong receivedMessages = new AtomicLong();
+    private final AtomicLong receivedTargets = new AtomicLong();
+    private final AtomicLong applyNanos = new AtomicLong();
+    private final AtomicLong maxApplyNanos = new AtomicLong();
+
+    public static DistributedCacheStatistics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Records a flush message sent to the other nodes.
+     *
+     * @param targetCount the number of cache targets in the message
+     * @param coalescedCount the number of cache targets which were dropped from the message because they duplicated
+     * or were covered by another target
+     */
+    public void recordSent(int targetCount, int coalescedCount) {
+        sentMessages.incrementAndGet();
+        sentTargets.addAndGet(targetCount);
+        coalescedTargets.addAndGet(coalescedCount);
+    }
+
+    public void recordReceived(int targetCount, long applyNanos) {
+        receivedMessages.incrementAndGet();
+        receivedTargets.addAndGet(targetCount);
+        this.applyNanos.addAndGet(applyNanos);
+        long current = maxApplyNanos.get();
+        while (applyNanos > current && !maxApplyNanos.compareAndSet(current, applyNanos)) {
+            current = maxApplyNanos.get();
+        }
+    }
+
+    public long getSentMessageCount() {
+        return sentMessages.get();
+    }
+
+    public long getSentTargetCount() {
+        return sentTargets.get();
+    }
+
+    public long getCoalescedTargetCount() {
+        return coalescedTargets.get();
+    }
+
+    public long getReceivedMessageCount() {
+        return receivedMessages.get();
+    }
+
+    public long getReceivedTargetCount() {
+        return receivedTargets.get();
+    }
+
+    public long getAverageApplyMicros() {
+        long count = receivedMessages.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(applyNanos.get() / count);
+    }
+
+    public long getMaxApplyMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(maxApplyNanos.get());
+    }
+
+    public void reset() {
+        sentMessages.set(0);
+        sentTargets.set(0);
+        coalescedTargets.set(0);
+        receivedMessages.set(0);
+        receivedTargets.set(0);
+        applyNanos.set(0);
+        maxApplyNanos.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return getSentMessageCount() + " messages sent (" + getSentTargetCount() + " targets, "
+                + getCoalescedTargetCount() + " coalesced), " + getReceivedMessageCount() + " messages received ("
+                + getReceivedTargetCount() + " targets), apply avg " + getAverageApplyMicros() + " us max "
+                + getMaxApplyMicros() + " us";
+    }
+
+}
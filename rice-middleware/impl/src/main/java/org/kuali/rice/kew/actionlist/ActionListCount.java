@@ -0,0 +1,81 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.actionlist;
+
+import java.io.Serializable;
+import java.sql.Timestamp;
+
+/**
+ * The cached action list counters for a single principal.
+ *
+ * <p>The counts are counts of distinct documents, loaded with the same aggregate queries which answer uncached count
+ * requests.  Instances are immutable, they are evicted and reloaded when the principal's action items change.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public final class ActionListCount implements Serializable {
+
+    private static final long serialVersionUID = -3851873457283613023L;
+
+    /**
+     * The name of the cache which holds the action list counts, keyed by principal id.
+     */
+    public static final String CACHE_NAME = "http://rice.kuali.org/kew/v2_0/ActionListCountType";
+
+    private final String principalId;
+    private final int count;
+    private final int totalCount;
+    private final Timestamp maxDateAssigned;
+
+    public ActionListCount(String principalId, int count, int totalCount, Timestamp maxDateAssigned) {
+        this.principalId = principalId;
+        this.count = count;
+        this.totalCount = totalCount;
+        this.maxDateAssigned = maxDateAssigned;
+    }
+
+    public String getPrincipalId() {
+        return principalId;
+    }
+
+    /**
+     * @return the number of documents in the principal's primary action list (does not include secondary delegations)
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return the number of documents with any action item for the principal
+     */
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * @return the most recent date assigned of the principal's action items, or null if there are none
+     */
+    public Timestamp getMaxDateAssigned() {
+        return maxDateAssigned;
+    }
+
+    @Override
+    public String toString() {
+        return "ActionListCount[principalId=" + principalId + ", count=" + count + ", totalCount=" + totalCount
+                + ", maxDateAssigned=" + maxDateAssigned + "]";
+    }
+
+}
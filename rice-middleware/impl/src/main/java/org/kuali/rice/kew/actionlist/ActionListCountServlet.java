@@ -15,6 +15,9 @@
  */
 package org.kuali.rice.kew.actionlist;
 
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.math.NumberUtils;
+import org.kuali.rice.core.api.config.property.ConfigContext;
 import org.kuali.rice.kew.service.KEWServiceLocator;
 import org.kuali.rice.kim.api.identity.Person;
 import org.kuali.rice.kim.api.identity.principal.Principal;
@@ -28,13 +31,27 @@ import java.io.IOException;
 import java.io.PrintWriter;
 
 
-
+/**
+ * Returns the number of items in a user's primary action list as plain text.
+ *
+ * <p>Clients which pass the last count they received in the {@code count} parameter along with a {@code wait}
+ * parameter (in seconds) are held until the count changes or the wait elapses, so they do not need to poll.  The wait
+ * is capped by the {@code kew.actionList.count.maxWaitSeconds} configuration parameter, 0 disables waiting.</p>
+ *
+ * <p>The wait blocks the request thread, asynchronous request processing is not enabled for the Rice web
+ * applications, so every waiting client holds one of the container's threads for the whole wait.  Deployments with
+ * many clients polling at once should keep the maximum wait short or disable it.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
 public class ActionListCountServlet extends HttpServlet {
 
 	private static final long serialVersionUID = 260649920715567145L;
 
 	private static final org.apache.log4j.Logger LOG = org.apache.log4j.Logger.getLogger(ActionListCountServlet.class);
 
+	private static final String MAX_WAIT_SECONDS_PARAM = "kew.actionList.count.maxWaitSeconds";
+
 	@Override
 	protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
 		response.setContentType("text/plain");
@@ -71,13 +88,30 @@ public class ActionListCountServlet extends HttpServlet {
 			if (principalId == null) {
 				return 0;
 			}
+			long waitMillis = getWaitMillis(request);
+			String lastKnownCount = request.getParameter("count");
+			if (waitMillis > 0 && NumberUtils.isDigits(lastKnownCount)) {
+				return KEWServiceLocator.getActionListService().awaitCountChange(principalId,
+						Integer.parseInt(lastKnownCount), waitMillis);
+			}
 			return KEWServiceLocator.getActionListService().getCount(principalId);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return 0;
 		} catch (Throwable t) {
 			LOG.error("Fatal error when querying for Action List Count", t);
 			return 0;
 		}
 	}
 
-
+	private long getWaitMillis(HttpServletRequest request) {
+		String wait = request.getParameter("wait");
+		if (!NumberUtils.isDigits(wait)) {
+			return 0;
+		}
+		String maxWait = ConfigContext.getCurrentContextConfig().getProperty(MAX_WAIT_SECONDS_PARAM);
+		long maxWaitSeconds = StringUtils.isBlank(maxWait) ? 0 : Long.parseLong(maxWait.trim());
+		return Math.min(Long.parseLong(wait), maxWaitSeconds) * 1000;
+	}
 
 }
@@ -0,0 +1,65 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.actionlist;
+
+import org.kuali.rice.kew.actionitem.ActionItem;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A single page of a user's action list, holding at most one action item per document.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public final class ActionListPage implements Serializable {
+
+    private static final long serialVersionUID = -2493212873000463917L;
+
+    private final List<ActionItem> actionItems;
+    private final int fullListSize;
+    private final ActionListPageKey nextPageKey;
+
+    public ActionListPage(List<ActionItem> actionItems, int fullListSize, ActionListPageKey nextPageKey) {
+        this.actionItems = Collections.unmodifiableList(actionItems);
+        this.fullListSize = fullListSize;
+        this.nextPageKey = nextPageKey;
+    }
+
+    public List<ActionItem> getActionItems() {
+        return actionItems;
+    }
+
+    /**
+     * @return the number of documents in the (filtered) action list across all pages
+     */
+    public int getFullListSize() {
+        return fullListSize;
+    }
+
+    /**
+     * @return the key to pass when requesting the following page, or null if this is the last page
+     */
+    public ActionListPageKey getNextPageKey() {
+        return nextPageKey;
+    }
+
+    public boolean hasNextPage() {
+        return nextPageKey != null;
+    }
+
+}
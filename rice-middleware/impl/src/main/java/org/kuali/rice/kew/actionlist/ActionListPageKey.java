@@ -0,0 +1,63 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.actionlist;
+
+import java.io.Serializable;
+
+/**
+ * Identifies the last entry of a page of the action list, the next page starts with the entry sorting directly after
+ * it.  Keys are only valid for the sort field they were created for.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public final class ActionListPageKey implements Serializable {
+
+    private static final long serialVersionUID = 6123780419533617754L;
+
+    private final ActionListSortField sortField;
+    private final Object sortValue;
+    private final String documentId;
+
+    public ActionListPageKey(ActionListSortField sortField, Object sortValue, String documentId) {
+        if (sortField == null) {
+            throw new IllegalArgumentException("sortField was null");
+        }
+        if (documentId == null) {
+            throw new IllegalArgumentException("documentId was null");
+        }
+        this.sortField = sortField;
+        this.sortValue = sortValue;
+        this.documentId = documentId;
+    }
+
+    public ActionListSortField getSortField() {
+        return sortField;
+    }
+
+    public Object getSortValue() {
+        return sortValue;
+    }
+
+    public String getDocumentId() {
+        return documentId;
+    }
+
+    @Override
+    public String toString() {
+        return "ActionListPageKey[" + sortField + "=" + sortValue + ", documentId=" + documentId + "]";
+    }
+
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.actionlist;
+
+import org.kuali.rice.core.api.criteria.OrderByField;
+import org.kuali.rice.core.api.criteria.OrderDirection;
+import org.kuali.rice.core.api.criteria.Predicate;
+import org.kuali.rice.kew.actionitem.ActionItem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.kuali.rice.core.api.criteria.PredicateFactory.*;
+
+/**
+ * The columns a paged action list can be sorted on in the database.
+ *
+ * <p>Only document level values which are never null are offered.  Every action item of a document shares these
+ * values, which keeps the items of one document next to each other in the sorted results so they can be reduced to a
+ * single action list entry, and allows simple keyset predicates to be used for paging.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public enum ActionListSortField {
+
+    DOCUMENT_ID("documentId") {
+        @Override
+        public Object getValue(ActionItem actionItem) {
+            return actionItem.getDocumentId();
+        }
+    },
+    DOCUMENT_TYPE("docLabel") {
+        @Override
+        public Object getValue(ActionItem actionItem) {
+            return actionItem.getDocLabel();
+        }
+    },
+    DOCUMENT_CREATE_DATE("routeHeader.createDate") {
+        @Override
+        public Object getValue(ActionItem actionItem) {
+            return actionItem.getRouteHeaderCreateDate();
+        }
+    },
+    ROUTE_STATUS("routeHeader.docRouteStatus") {
+        @Override
+        public Object getValue(ActionItem actionItem) {
+            return actionItem.getRouteHeaderRouteStatus();
+        }
+    };
+
+    /**
+     * The sort used by the action list when the user has not chosen one.
+     */
+    public static final ActionListSortField DEFAULT = DOCUMENT_CREATE_DATE;
+
+    private static final String DOCUMENT_ID_PATH = "documentId";
+
+    private final String propertyPath;
+
+    private ActionListSortField(String propertyPath) {
+        this.propertyPath = propertyPath;
+    }
+
+    public String getPropertyPath() {
+        return propertyPath;
+    }
+
+    public abstract Object getValue(ActionItem actionItem);
+
+    /**
+     * @return the key of the action list entry for the given action item
+     */
+    public ActionListPageKey keyOf(ActionItem actionItem) {
+        return new ActionListPageKey(this, getValue(actionItem), actionItem.getDocumentId());
+    }
+
+    /**
+     * Orders by this field, using the document id to break ties.
+     */
+    public List<OrderByField> getOrderByFields(boolean ascending) {
+        OrderDirection direction = ascending ? OrderDirection.ASCENDING : OrderDirection.DESCENDING;
+        List<OrderByField> orderByFields = new ArrayList<OrderByField>(2);
+        orderByFields.add(OrderByField.Builder.create(propertyPath, direction).build());
+        if (this != DOCUMENT_ID) {
+            orderByFields.add(OrderByField.Builder.create(DOCUMENT_ID_PATH, direction).build());
+        }
+        return orderByFields;
+    }
+
+    /**
+     * Builds the predicate matching the action items which sort after the given key.
+     */
+    public Predicate after(ActionListPageKey key, boolean ascending) {
+        if (key.getSortField() != this) {
+            throw new IllegalArgumentException("Page key for " + key.getSortField() + " cannot be used to page by "
+                    + this);
+        }
+        if (this == DOCUMENT_ID) {
+            return ascending ? greaterThan(DOCUMENT_ID_PATH, key.getDocumentId()) :
+                    lessThan(DOCUMENT_ID_PATH, key.getDocumentId());
+        }
+        Object value = key.getSortValue();
+        if (ascending) {
+            return or(greaterThan(propertyPath, value),
+                    and(equal(propertyPath, value), greaterThan(DOCUMENT_ID_PATH, key.getDocumentId())));
+        }
+        return or(lessThan(propertyPath, value),
+                and(equal(propertyPath, value), lessThan(DOCUMENT_ID_PATH, key.getDocumentId())));
+    }
+
+}
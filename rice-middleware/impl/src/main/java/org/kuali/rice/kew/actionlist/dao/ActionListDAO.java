@@ -18,6 +18,7 @@ package org.kuali.rice.kew.actionlist.dao;
 import java.util.List;
 
 import org.kuali.rice.kew.actionitem.ActionItem;
+import org.kuali.rice.kew.actionlist.ActionListCount;
 import org.kuali.rice.kew.routeheader.DocumentRouteHeaderValue;
 
 
@@ -42,6 +43,12 @@ public interface ActionListDAO {
      */
     public List<Object> getMaxActionItemDateAssignedAndCountForUser(String principalId);
 
+    /**
+     * Loads the action list counters for the given principal, combines {@link #getCount(String)} and
+     * {@link #getMaxActionItemDateAssignedAndCountForUser(String)} so that the result can be cached.
+     */
+    public ActionListCount getActionListCount(String principalId);
+
     /**
      * Pulls a proxied version of the document route header with only the properties needed by the
      * action list display.
@@ -15,12 +15,14 @@
  */
 package org.kuali.rice.kew.actionlist.dao.impl;
 
+import org.kuali.rice.kew.actionlist.ActionListCount;
 import org.kuali.rice.kew.actionlist.dao.ActionListDAO;
 import org.kuali.rice.kew.routeheader.DocumentRouteHeaderValue;
 
 import javax.persistence.EntityGraph;
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
+import java.sql.Timestamp;
 import java.util.Arrays;
 import java.util.List;
 
@@ -57,6 +59,17 @@ public class ActionListDAOJpaImpl implements ActionListDAO {
         return Arrays.asList( query.getSingleResult() );
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ActionListCount getActionListCount(String principalId) {
+        List<Object> maxDateAndTotalCount = getMaxActionItemDateAssignedAndCountForUser(principalId);
+        Number totalCount = (Number) maxDateAndTotalCount.get(1);
+        return new ActionListCount(principalId, getCount(principalId), totalCount == null ? 0 : totalCount.intValue(),
+                (Timestamp) maxDateAndTotalCount.get(0));
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -20,7 +20,11 @@ import java.util.List;
 
 import org.kuali.rice.kew.actionitem.ActionItem;
 import org.kuali.rice.kew.actionitem.OutboxItem;
+import org.kuali.rice.kew.actionlist.ActionListCount;
 import org.kuali.rice.kew.actionlist.ActionListFilter;
+import org.kuali.rice.kew.actionlist.ActionListPage;
+import org.kuali.rice.kew.actionlist.ActionListPageKey;
+import org.kuali.rice.kew.actionlist.ActionListSortField;
 import org.kuali.rice.kew.actionrequest.ActionRequestValue;
 import org.kuali.rice.kew.actionrequest.Recipient;
 import org.kuali.rice.kew.routeheader.DocumentRouteHeaderValue;
@@ -37,8 +41,34 @@ import org.kuali.rice.kew.routeheader.DocumentRouteHeaderValue;
 public interface ActionListService {
     public ActionItem createActionItemForActionRequest(ActionRequestValue actionRequest);
 
+    /**
+     * Creates one action item for each of the given principals from the given action request.  The document and
+     * delegation information shared by all of the items is resolved only once.
+     *
+     * @param actionRequest the action request to create the action items for
+     * @param principalIds the ids of the principals which should receive an action item
+     * @return the new, unsaved action items in the same order as the given principal ids
+     */
+    public List<ActionItem> createActionItemsForActionRequest(ActionRequestValue actionRequest, List<String> principalIds);
+
     public Collection<ActionItem> getActionList(String principalId, ActionListFilter filter);
 
+    /**
+     * Retrieves a single page of the user's Action List.  Filtering, sorting and paging are done by the database so
+     * only the action items of the requested page are loaded.  The filter is applied the same way as by
+     * {@link #getActionList(String, ActionListFilter)}.
+     *
+     * @param principalId the owner of the action list
+     * @param filter the action list filter, may be null
+     * @param sortField the field to sort on, {@link ActionListSortField#DEFAULT} if null
+     * @param ascending the sort direction
+     * @param after the key of the last entry of the previous page, or null for the first page
+     * @param pageSize the maximum number of entries on the page
+     * @return the page, never null
+     */
+    public ActionListPage getActionListPage(String principalId, ActionListFilter filter, ActionListSortField sortField,
+            boolean ascending, ActionListPageKey after, int pageSize);
+
     public Collection<ActionItem> getActionListForSingleDocument(String documentId);
 
     /**
@@ -57,6 +87,15 @@ public interface ActionListService {
 
     public ActionItem saveActionItem(ActionItem actionItem);
 
+    /**
+     * Saves the given action items as a single batch, flushing them to the database together so that the inserts can
+     * be issued as a JDBC batch.
+     *
+     * @param actionItems the action items to save
+     * @return the saved action items in the same order as they were given
+     */
+    public List<ActionItem> saveActionItems(List<ActionItem> actionItems);
+
     public void deleteActionItemNoOutbox(ActionItem actionItem);
 
     public void deleteActionItem(ActionItem actionItem);
@@ -89,6 +128,20 @@ public interface ActionListService {
      */
     public List<Object> getMaxActionItemDateAssignedAndCountForUser(String principalId);
 
+    /**
+     * Retrieves the action list counters for the given user.  These are cached until the user's action items
+     * change, so this is cheap enough to be called on every poll.
+     */
+    public ActionListCount getActionListCount(String principalId);
+
+    /**
+     * Waits until the number of items in the given user's primary Action List differs from the last known count or
+     * the timeout elapses, whichever happens first.
+     *
+     * @return the current number of items in the user's primary Action List
+     */
+    public int awaitCountChange(String principalId, int lastKnownCount, long timeoutMillis) throws InterruptedException;
+
     public Collection<ActionItem> findByActionRequestId(String actionRequestId);
 
     /**
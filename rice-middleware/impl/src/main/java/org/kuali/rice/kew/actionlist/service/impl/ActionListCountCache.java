@@ -0,0 +1,287 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.actionlist.service.impl;
+
+import org.apache.commons.lang.StringUtils;
+import org.kuali.rice.core.api.cache.CacheAdminService;
+import org.kuali.rice.core.api.cache.CacheTarget;
+import org.kuali.rice.kew.actionlist.ActionListCount;
+import org.kuali.rice.kew.actionlist.dao.ActionListDAO;
+import org.kuali.rice.ksb.api.KsbApiServiceLocator;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.Ordered;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.xml.namespace.QName;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Maintains the per principal {@link ActionListCount}s used to answer action list count requests without running an
+ * aggregate query against the action item table on every poll.
+ *
+ * <p>Counts are loaded once per principal and kept until one of the principal's action items changes.  Changes are
+ * recorded against the current transaction, and the counts of the affected principals are evicted from the local
+ * cache once the transaction commits.  If the transaction rolls back nothing is evicted.  When distribution is
+ * enabled a flush message for the affected principals is also sent over the KSB so that other nodes in the cluster
+ * drop their copies.</p>
+ *
+ * <p>The counts are not updated in place.  The flush message is delivered to every node including this one, and
+ * would evict an updated entry again anyway.  The cache configuration should give entries a time to live so that a
+ * load racing a commit on another node cannot serve a stale count indefinitely.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class ActionListCountCache {
+
+    private static final org.apache.log4j.Logger LOG = org.apache.log4j.Logger.getLogger(ActionListCountCache.class);
+
+    private static final int LOCK_STRIPES = 64;
+    private static final long DEFAULT_RECHECK_INTERVAL = 5000;
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    /**
+     * bumped (under the stripe lock) whenever committed changes evict counts, so that loads which started before the
+     * commit are not put into the cache afterwards
+     */
+    private final long[] versions = new long[LOCK_STRIPES];
+
+    private CacheManager cacheManager;
+    private ActionListDAO actionListDAO;
+    private boolean enabled = true;
+    private boolean distributed = true;
+    private String flushServiceName;
+    private long recheckInterval = DEFAULT_RECHECK_INTERVAL;
+
+    public ActionListCountCache() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled && cacheManager != null && getCache() != null;
+    }
+
+    /**
+     * Returns the action list counts for the given principal, loading them if they are not cached yet.
+     */
+    public ActionListCount getActionListCount(String principalId) {
+        Cache cache = getCache();
+        ActionListCount actionListCount = getCached(cache, principalId);
+        if (actionListCount != null) {
+            return actionListCount;
+        }
+        int stripe = stripe(principalId);
+        long version;
+        synchronized (locks[stripe]) {
+            version = versions[stripe];
+        }
+        actionListCount = actionListDAO.getActionListCount(principalId);
+        // never cache what this transaction can see but others can't yet
+        if (!hasPendingChanges(principalId)) {
+            synchronized (locks[stripe]) {
+                if (versions[stripe] == version) {
+                    cache.put(principalId, actionListCount);
+                }
+            }
+        }
+        return actionListCount;
+    }
+
+    /**
+     * Blocks until the primary action list count of the given principal differs from the last known count, or the
+     * timeout elapses.  Changes committed on this node wake waiters immediately, changes made elsewhere in the
+     * cluster are picked up when the flush message arrives and the counts are next checked.
+     *
+     * @return the current primary action list count
+     */
+    public int awaitCountChange(String principalId, int lastKnownCount, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        int stripe = stripe(principalId);
+        while (true) {
+            int count = getActionListCount(principalId).getCount();
+            long remaining = deadline - System.currentTimeMillis();
+            if (count != lastKnownCount || remaining <= 0) {
+                return count;
+            }
+            synchronized (locks[stripe]) {
+                locks[stripe].wait(Math.min(remaining, recheckInterval));
+            }
+        }
+    }
+
+    /**
+     * Records that one of the principal's action items was created, modified or deleted, its counts will be reloaded
+     * once the current transaction commits.
+     */
+    public void actionItemChanged(String principalId) {
+        if (StringUtils.isBlank(principalId)) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && TransactionSynchronizationManager.isActualTransactionActive()) {
+            getSynchronization().principalIds.add(principalId);
+        } else {
+            evict(principalId);
+            if (distributed) {
+                sendFlushMessage(Collections.singleton(principalId));
+            }
+        }
+    }
+
+    /**
+     * Evicts the locally cached counts of the principal after a committed change and wakes any waiters.
+     */
+    protected void evict(String principalId) {
+        int stripe = stripe(principalId);
+        synchronized (locks[stripe]) {
+            versions[stripe]++;
+            getCache().evict(principalId);
+            locks[stripe].notifyAll();
+        }
+    }
+
+    protected void sendFlushMessage(Collection<String> principalIds) {
+        if (StringUtils.isBlank(flushServiceName) || principalIds.isEmpty()) {
+            return;
+        }
+        try {
+            List<CacheTarget> cacheTargets = new ArrayList<CacheTarget>(principalIds.size());
+            for (String principalId : principalIds) {
+                cacheTargets.add(CacheTarget.singleEntry(ActionListCount.CACHE_NAME, principalId));
+            }
+            CacheAdminService cacheAdminService = KsbApiServiceLocator.getMessageHelper().getServiceAsynchronously(
+                    QName.valueOf(flushServiceName));
+            cacheAdminService.flush(cacheTargets);
+        } catch (Throwable t) {
+            LOG.error("failed to send action list count flush for serviceName " + flushServiceName, t);
+        }
+    }
+
+    private boolean hasPendingChanges(String principalId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        for (TransactionSynchronization ts : TransactionSynchronizationManager.getSynchronizations()) {
+            if (ts instanceof CountSynchronization && ((CountSynchronization) ts).principalIds.contains(principalId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private CountSynchronization getSynchronization() {
+        for (TransactionSynchronization ts : TransactionSynchronizationManager.getSynchronizations()) {
+            if (ts instanceof CountSynchronization && ((CountSynchronization) ts).getOwner() == this) {
+                return (CountSynchronization) ts;
+            }
+        }
+        CountSynchronization ts = new CountSynchronization();
+        TransactionSynchronizationManager.registerSynchronization(ts);
+        return ts;
+    }
+
+    private ActionListCount getCached(Cache cache, String principalId) {
+        Cache.ValueWrapper wrapper = cache.get(principalId);
+        return wrapper == null ? null : (ActionListCount) wrapper.get();
+    }
+
+    private Cache getCache() {
+        return cacheManager.getCache(ActionListCount.CACHE_NAME);
+    }
+
+    private static int stripe(String principalId) {
+        return (principalId.hashCode() & Integer.MAX_VALUE) % LOCK_STRIPES;
+    }
+
+    /**
+     * The local (not distributed) KEW cache manager, this class sends its own keyed flush messages.
+     */
+    public void setCacheManager(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    public void setActionListDAO(ActionListDAO actionListDAO) {
+        this.actionListDAO = actionListDAO;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void setDistributed(boolean distributed) {
+        this.distributed = distributed;
+    }
+
+    /**
+     * The name of the {@link CacheAdminService} which distributes count flushes across the cluster.
+     */
+    public void setFlushServiceName(String flushServiceName) {
+        this.flushServiceName = flushServiceName;
+    }
+
+    /**
+     * How often waiters check the counts while no local change has been committed, picks up changes made on other
+     * nodes.
+     */
+    public void setRecheckInterval(long recheckInterval) {
+        this.recheckInterval = recheckInterval;
+    }
+
+    /**
+     * Holds the principals whose action items changed during a transaction.  Flush messages are sent before commit
+     * since KSB messages are dispatched after the transaction commits, the local counts are only evicted once the
+     * commit succeeded.
+     */
+    private final class CountSynchronization extends TransactionSynchronizationAdapter {
+
+        private final Set<String> principalIds = new LinkedHashSet<String>();
+
+        private ActionListCountCache getOwner() {
+            return ActionListCountCache.this;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (distributed) {
+                sendFlushMessage(principalIds);
+            }
+        }
+
+        @Override
+        public void afterCommit() {
+            for (String principalId : principalIds) {
+                evict(principalId);
+            }
+        }
+
+    }
+
+}
@@ -18,6 +18,7 @@ package org.kuali.rice.kew.actionlist.service.impl;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang.StringUtils;
 import org.kuali.rice.core.api.config.property.ConfigContext;
+import org.kuali.rice.core.api.criteria.CountFlag;
 import org.kuali.rice.core.api.criteria.Predicate;
 import org.kuali.rice.core.api.criteria.QueryByCriteria;
 import org.kuali.rice.core.api.criteria.QueryResults;
@@ -27,7 +28,11 @@ import org.kuali.rice.coreservice.framework.CoreFrameworkServiceLocator;
 import org.kuali.rice.kew.actionitem.ActionItem;
 import org.kuali.rice.kew.actionitem.ActionItemBase;
 import org.kuali.rice.kew.actionitem.OutboxItem;
+import org.kuali.rice.kew.actionlist.ActionListCount;
 import org.kuali.rice.kew.actionlist.ActionListFilter;
+import org.kuali.rice.kew.actionlist.ActionListPage;
+import org.kuali.rice.kew.actionlist.ActionListPageKey;
+import org.kuali.rice.kew.actionlist.ActionListSortField;
 import org.kuali.rice.kew.actionlist.dao.ActionListDAO;
 import org.kuali.rice.kew.actionlist.dao.impl.ActionListPriorityComparator;
 import org.kuali.rice.kew.actionlist.service.ActionListService;
@@ -57,6 +62,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -81,6 +87,7 @@ public class ActionListServiceImpl implements ActionListService {
     protected RouteHeaderService routeHeaderService;
 
     protected ActionListDAO actionListDAO;
+    protected ActionListCountCache actionListCountCache;
 
     @Override
     public Collection<Recipient> findUserSecondaryDelegators(String principalId) {
@@ -159,6 +166,109 @@ public class ActionListServiceImpl implements ActionListService {
         return createActionListForUser(results.getResults());
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Action items are read in sort order in batches, starting after the given key, and reduced to one item per
+     * document until the page is full.  Since the sort fields are document level values all items of a document are
+     * adjacent in the results; the last document of a full batch may continue in the next one, so it is deferred to
+     * the following batch.</p>
+     */
+    @Override
+    public ActionListPage getActionListPage(String principalId, ActionListFilter filter, ActionListSortField sortField,
+            boolean ascending, ActionListPageKey after, int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pageSize must be greater than 0, was " + pageSize);
+        }
+        if (sortField == null) {
+            sortField = ActionListSortField.DEFAULT;
+        }
+        List<String> filteredByItems = new ArrayList<String>();
+        List<Predicate> crit = handleActionItemCriteria(principalId, filter, filteredByItems);
+        if (filter != null) {
+            filter.setFilterOn(!filteredByItems.isEmpty());
+            filter.setFilterLegend(StringUtils.join(filteredByItems, ", "));
+        }
+
+        List<ActionItem> page = new ArrayList<ActionItem>(pageSize);
+        ActionListPageKey key = after;
+        int batchSize = pageSize * 2;
+        boolean moreAvailable = true;
+        while (page.size() < pageSize && moreAvailable) {
+            List<Predicate> batchCrit = new ArrayList<Predicate>(crit);
+            if (key != null) {
+                batchCrit.add(sortField.after(key, ascending));
+            }
+            QueryByCriteria.Builder query = QueryByCriteria.Builder.create();
+            query.setPredicates(batchCrit.toArray(new Predicate[batchCrit.size()]));
+            query.setOrderByFields(sortField.getOrderByFields(ascending));
+            query.setMaxResults(batchSize);
+            List<ActionItem> batch = dataObjectService.findMatching(ActionItem.class, query.build()).getResults();
+
+            moreAvailable = batch.size() >= batchSize;
+            List<List<ActionItem>> documents = groupByDocument(batch);
+            if (moreAvailable) {
+                documents.remove(documents.size() - 1);
+                if (documents.isEmpty()) {
+                    // a single document has more action items than the batch, widen the batch
+                    batchSize *= 2;
+                    continue;
+                }
+            }
+            for (int index = 0; index < documents.size(); index++) {
+                if (page.size() == pageSize) {
+                    moreAvailable = true;
+                    break;
+                }
+                List<ActionItem> documentItems = documents.get(index);
+                page.add(createActionListForUser(documentItems).iterator().next());
+                key = sortField.keyOf(documentItems.get(0));
+            }
+        }
+        if ( LOG.isDebugEnabled() ) {
+            LOG.debug("found page of " + page.size() + " action list entries for user " + principalId + " after " + after);
+        }
+        return new ActionListPage(page, getActionListSize(principalId, filter, crit, filteredByItems),
+                moreAvailable ? key : null);
+    }
+
+    /**
+     * Groups consecutive action items of the same document.
+     */
+    protected List<List<ActionItem>> groupByDocument(List<ActionItem> actionItems) {
+        Map<String, List<ActionItem>> documents = new LinkedHashMap<String, List<ActionItem>>();
+        for (ActionItem actionItem : actionItems) {
+            List<ActionItem> documentItems = documents.get(actionItem.getDocumentId());
+            if (documentItems == null) {
+                documentItems = new ArrayList<ActionItem>();
+                documents.put(actionItem.getDocumentId(), documentItems);
+            }
+            documentItems.add(actionItem);
+        }
+        return new ArrayList<List<ActionItem>>(documents.values());
+    }
+
+    /**
+     * Counts the documents in the filtered action list.  The unfiltered action list is the user's primary action
+     * list, which is answered by {@link #getCount(String)}, otherwise the matching documents are counted in the
+     * database.
+     */
+    protected int getActionListSize(String principalId, ActionListFilter filter, List<Predicate> crit,
+            List<String> filteredByItems) {
+        if (filter != null && filteredByItems.isEmpty() && filter.isExcludeDelegationType()
+                && DelegationType.SECONDARY.getCode().equals(filter.getDelegationType())) {
+            return getCount(principalId);
+        }
+        List<Predicate> subQueryCrit = new ArrayList<Predicate>(crit);
+        subQueryCrit.add(equalsProperty("documentId", null, "parent.documentId"));
+        QueryByCriteria.Builder query = QueryByCriteria.Builder.create();
+        query.setPredicates(existsSubquery(ActionItem.class.getName(),
+                and(subQueryCrit.toArray(new Predicate[subQueryCrit.size()]))));
+        query.setCountFlag(CountFlag.ONLY);
+        Integer count = dataObjectService.findMatching(DocumentRouteHeaderValue.class, query.build()).getTotalRowCount();
+        return count == null ? 0 : count.intValue();
+    }
+
     protected List<Predicate> handleActionItemCriteria( String principalId, ActionListFilter filter, List<String> filteredByItems ) {
         LOG.debug("setting up Action List criteria");
         ArrayList<Predicate> crit = new ArrayList<Predicate>();
@@ -512,6 +622,9 @@ public class ActionListServiceImpl implements ActionListService {
 
     protected void deleteActionItem(ActionItem actionItem, boolean forceIntoOutbox, boolean putInOutbox) {
         dataObjectService.delete(actionItem);
+        if (isCountCacheEnabled()) {
+            actionListCountCache.actionItemChanged(actionItem.getPrincipalId());
+        }
         // remove notification from KCB
         notificationService.removeNotification(Collections.singletonList(ActionItem.to(actionItem)));
         if (putInOutbox) {
@@ -521,6 +634,11 @@ public class ActionListServiceImpl implements ActionListService {
 
     @Override
     public void deleteByDocumentId(String documentId) {
+        if (isCountCacheEnabled()) {
+            for (ActionItem actionItem : findByDocumentId(documentId)) {
+                actionListCountCache.actionItemChanged(actionItem.getPrincipalId());
+            }
+        }
         dataObjectService.deleteMatching(ActionItem.class, QueryByCriteria.Builder.forAttribute("documentId", documentId).build());
     }
 
@@ -559,6 +677,46 @@ public class ActionListServiceImpl implements ActionListService {
         return results.getResults();
     }
 
+    @Override
+    public List<ActionItem> createActionItemsForActionRequest(ActionRequestValue actionRequest,
+            List<String> principalIds) {
+        List<ActionItem> actionItems = new ArrayList<ActionItem>(principalIds.size());
+        if (principalIds.isEmpty()) {
+            return actionItems;
+        }
+        ActionItem template = createActionItemForActionRequest(actionRequest);
+        for (String principalId : principalIds) {
+            ActionItem actionItem = copyActionItem(template);
+            actionItem.setPrincipalId(principalId);
+            actionItems.add(actionItem);
+        }
+        return actionItems;
+    }
+
+    /**
+     * Copies the values of the given (unsaved) action item to a new action item.
+     */
+    protected ActionItem copyActionItem(ActionItem template) {
+        ActionItem actionItem = new ActionItem();
+        actionItem.setActionRequestCd(template.getActionRequestCd());
+        actionItem.setActionRequestId(template.getActionRequestId());
+        actionItem.setDocName(template.getDocName());
+        actionItem.setRoleName(template.getRoleName());
+        actionItem.setPrincipalId(template.getPrincipalId());
+        actionItem.setDocumentId(template.getDocumentId());
+        actionItem.setDateAssigned(template.getDateAssigned());
+        actionItem.setDocHandlerURL(template.getDocHandlerURL());
+        actionItem.setDocLabel(template.getDocLabel());
+        actionItem.setDocTitle(template.getDocTitle());
+        actionItem.setGroupId(template.getGroupId());
+        actionItem.setResponsibilityId(template.getResponsibilityId());
+        actionItem.setDelegationType(template.getDelegationType());
+        actionItem.setRequestLabel(template.getRequestLabel());
+        actionItem.setDelegatorPrincipalId(template.getDelegatorPrincipalId());
+        actionItem.setDelegatorGroupId(template.getDelegatorGroupId());
+        return actionItem;
+    }
+
     @Override
     public ActionItem createActionItemForActionRequest(ActionRequestValue actionRequest) {
         ActionItem actionItem = new ActionItem();
@@ -602,7 +760,48 @@ public class ActionListServiceImpl implements ActionListService {
 
     @Override
     public ActionItem saveActionItem(ActionItem actionItem) {
-        return saveActionItemBase(actionItem);
+        ActionItem savedActionItem = saveActionItemBase(actionItem);
+        recordActionItemSaved(savedActionItem);
+        return savedActionItem;
+    }
+
+    @Override
+    public List<ActionItem> saveActionItems(List<ActionItem> actionItems) {
+        List<ActionItem> savedActionItems = new ArrayList<ActionItem>(actionItems.size());
+        if (actionItems.isEmpty()) {
+            return savedActionItems;
+        }
+        long startTime = System.currentTimeMillis();
+        Timestamp dateAssigned = dateTimeService.getCurrentTimestamp();
+        for (ActionItem actionItem : actionItems) {
+            if (actionItem.getDateAssigned() == null) {
+                actionItem.setDateAssigned(dateAssigned);
+            }
+            ActionItem savedActionItem = dataObjectService.save(actionItem);
+            recordActionItemSaved(savedActionItem);
+            savedActionItems.add(savedActionItem);
+        }
+        // flush once so the inserts for the whole batch are written together
+        dataObjectService.flush(ActionItem.class);
+        if (LOG.isDebugEnabled()) {
+            long elapsed = Math.max(System.currentTimeMillis() - startTime, 1);
+            LOG.debug("Saved batch of " + savedActionItems.size() + " action items in " + elapsed + "ms ("
+                    + (savedActionItems.size() * 1000L / elapsed) + " items/sec)");
+        }
+        return savedActionItems;
+    }
+
+    /**
+     * Has the cached action list counts of the item's principal reloaded once the transaction commits.
+     */
+    protected void recordActionItemSaved(ActionItem actionItem) {
+        if (isCountCacheEnabled()) {
+            actionListCountCache.actionItemChanged(actionItem.getPrincipalId());
+        }
+    }
+
+    protected boolean isCountCacheEnabled() {
+        return actionListCountCache != null && actionListCountCache.isEnabled();
     }
 
     @Override
@@ -628,9 +827,28 @@ public class ActionListServiceImpl implements ActionListService {
 
     @Override
     public int getCount(String principalId) {
+        if (isCountCacheEnabled()) {
+            return actionListCountCache.getActionListCount(principalId).getCount();
+        }
         return actionListDAO.getCount(principalId);
     }
 
+    @Override
+    public ActionListCount getActionListCount(String principalId) {
+        if (isCountCacheEnabled()) {
+            return actionListCountCache.getActionListCount(principalId);
+        }
+        return actionListDAO.getActionListCount(principalId);
+    }
+
+    @Override
+    public int awaitCountChange(String principalId, int lastKnownCount, long timeoutMillis) throws InterruptedException {
+        if (!isCountCacheEnabled()) {
+            return getCount(principalId);
+        }
+        return actionListCountCache.awaitCountChange(principalId, lastKnownCount, timeoutMillis);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -639,7 +857,15 @@ public class ActionListServiceImpl implements ActionListService {
         // KULRICE-12318 IU contribution, not sure if this is still needed with the JPA implementation
         // as no result should cause a no result exception, going to add it to make sure.
         List<Object> verifiedList = new ArrayList<Object>();
-        List<Object> maxDateAndUserCount =  getActionListDAO().getMaxActionItemDateAssignedAndCountForUser(principalId);
+        List<Object> maxDateAndUserCount;
+        if (isCountCacheEnabled()) {
+            ActionListCount actionListCount = actionListCountCache.getActionListCount(principalId);
+            maxDateAndUserCount = new ArrayList<Object>(2);
+            maxDateAndUserCount.add(actionListCount.getMaxDateAssigned());
+            maxDateAndUserCount.add(Long.valueOf(actionListCount.getTotalCount()));
+        } else {
+            maxDateAndUserCount = getActionListDAO().getMaxActionItemDateAssignedAndCountForUser(principalId);
+        }
 
         verifiedList.add(0, verifyMaxActionItemDateAssigned(maxDateAndUserCount));
         verifiedList.add(1, verifyCountForUser(maxDateAndUserCount));
@@ -865,6 +1091,10 @@ public class ActionListServiceImpl implements ActionListService {
         this.userOptionsService = userOptionsService;
     }
 
+    public void setActionListCountCache(ActionListCountCache actionListCountCache) {
+        this.actionListCountCache = actionListCountCache;
+    }
+
     public void setRouteHeaderService(RouteHeaderService routeHeaderService) {
         this.routeHeaderService = routeHeaderService;
     }
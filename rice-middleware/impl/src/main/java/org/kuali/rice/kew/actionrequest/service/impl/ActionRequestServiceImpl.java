@@ -315,13 +315,10 @@ public class ActionRequestServiceImpl implements ActionRequestService {
         }
         List<ActionItem> actionItemsToReturn = new ArrayList<ActionItem>(actionItems.size());
         if (!activationContext.isSimulation()) {
-            for (ActionItem actionItem: actionItems) {
-            	if ( LOG.isDebugEnabled() ) {
-            		LOG.debug("Saving action item: " + actionItems);
-            	}
-                actionItem = getActionListService().saveActionItem(actionItem);
-                actionItemsToReturn.add(actionItem);
-            }
+        	if ( LOG.isDebugEnabled() ) {
+        		LOG.debug("Saving action items: " + actionItems);
+        	}
+            actionItemsToReturn.addAll(getActionListService().saveActionItems(actionItems));
         } else {
         	actionRequest.getSimulatedActionItems().addAll(actionItems);
         	actionItemsToReturn.addAll(actionItems);
@@ -330,17 +327,12 @@ public class ActionRequestServiceImpl implements ActionRequestService {
     }
 
     private List<ActionItem> createActionItemsForPrincipals(ActionRequestValue actionRequest, List<String> principalIds) {
-        List<ActionItem> actionItems = new ArrayList<ActionItem>();
-        for (String principalId: principalIds) {
-
-            ActionItem actionItem = getActionListService().createActionItemForActionRequest(actionRequest);
-            actionItem.setPrincipalId(principalId);
-            actionItem.setRoleName(actionRequest.getQualifiedRoleName());
-
-            //KULRICE-3307 Prevent workflow from attempting to activate requests for null principals
-            String ignoreUnknownPrincipalIdsValue = ConfigContext.getCurrentContextConfig().getProperty(KewApiConstants.WORKFLOW_ACTION_IGNORE_UNKOWN_PRINCIPAL_IDS);
-            boolean ignoreUnknownPrincipalIds = Boolean.parseBoolean(ignoreUnknownPrincipalIdsValue);
+        //KULRICE-3307 Prevent workflow from attempting to activate requests for null principals
+        String ignoreUnknownPrincipalIdsValue = ConfigContext.getCurrentContextConfig().getProperty(KewApiConstants.WORKFLOW_ACTION_IGNORE_UNKOWN_PRINCIPAL_IDS);
+        boolean ignoreUnknownPrincipalIds = Boolean.parseBoolean(ignoreUnknownPrincipalIdsValue);
 
+        List<String> recipientPrincipalIds = new ArrayList<String>(principalIds.size());
+        for (String principalId: principalIds) {
             if(principalId==null && ignoreUnknownPrincipalIds)
             {
                 LOG.warn("Ignoring action item with actionRequestID of " + actionRequest.getActionRequestId()  + " due to null principalId.");
@@ -355,11 +347,12 @@ public class ActionRequestServiceImpl implements ActionRequestService {
                 }
                 else
                 {
-                    actionItems.add(actionItem);
+                    recipientPrincipalIds.add(principalId);
                 }
             }
         }
-        return actionItems;
+        // the document and delegation details are shared by every member of the group, so resolve them only once
+        return getActionListService().createActionItemsForActionRequest(actionRequest, recipientPrincipalIds);
     }
 
     private void processResponsibilityId(ActionRequestValue actionRequest) {
@@ -0,0 +1,115 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.docsearch;
+
+import java.io.Serializable;
+import java.sql.Timestamp;
+
+/**
+ * The position of a document in the document search ordering (newest first by create date, then by document id).
+ * A streaming document search resumes directly after the document identified by a cursor, so fetching further
+ * results does not re-read the rows which were already returned.  A cursor can be passed between requests in its
+ * {@link #encode() encoded} form.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public final class DocumentSearchCursor implements Serializable {
+
+    private static final long serialVersionUID = -4410981375029283651L;
+
+    private static final String SEPARATOR = ":";
+
+    private final Timestamp dateCreated;
+    private final String documentId;
+
+    public DocumentSearchCursor(Timestamp dateCreated, String documentId) {
+        if (dateCreated == null) {
+            throw new IllegalArgumentException("dateCreated was null");
+        }
+        if (documentId == null) {
+            throw new IllegalArgumentException("documentId was null");
+        }
+        this.dateCreated = new Timestamp(dateCreated.getTime());
+        this.dateCreated.setNanos(dateCreated.getNanos());
+        this.documentId = documentId;
+    }
+
+    public Timestamp getDateCreated() {
+        Timestamp copy = new Timestamp(dateCreated.getTime());
+        copy.setNanos(dateCreated.getNanos());
+        return copy;
+    }
+
+    public String getDocumentId() {
+        return documentId;
+    }
+
+    /**
+     * Encodes this cursor as a string which {@link #decode(String)} turns back into an equal cursor.
+     *
+     * @return the encoded cursor
+     */
+    public String encode() {
+        return dateCreated.getTime() + SEPARATOR + dateCreated.getNanos() + SEPARATOR + documentId;
+    }
+
+    /**
+     * Decodes a cursor encoded by {@link #encode()}.
+     *
+     * @param encoded the encoded cursor
+     * @return the cursor
+     * @throws IllegalArgumentException if the given value is not an encoded cursor
+     */
+    public static DocumentSearchCursor decode(String encoded) {
+        if (encoded == null) {
+            throw new IllegalArgumentException("encoded was null");
+        }
+        String[] parts = encoded.split(SEPARATOR, 3);
+        if (parts.length != 3 || parts[2].length() == 0) {
+            throw new IllegalArgumentException("Not an encoded document search cursor: " + encoded);
+        }
+        try {
+            Timestamp dateCreated = new Timestamp(Long.parseLong(parts[0]));
+            dateCreated.setNanos(Integer.parseInt(parts[1]));
+            return new DocumentSearchCursor(dateCreated, parts[2]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not an encoded document search cursor: " + encoded, e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof DocumentSearchCursor)) {
+            return false;
+        }
+        DocumentSearchCursor other = (DocumentSearchCursor) object;
+        return dateCreated.equals(other.dateCreated) && documentId.equals(other.documentId);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * dateCreated.hashCode() + documentId.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "DocumentSearchCursor[dateCreated=" + dateCreated + ", documentId=" + documentId + "]";
+    }
+
+}
@@ -0,0 +1,175 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.docsearch;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Describes the denormalized document search index of a single document type: whether searches may use it yet and
+ * which column of the index table holds the value of each searchable attribute key.
+ *
+ * <p>Keys are assigned the next free column of their type the first time a value is indexed for them.  A key which
+ * has been seen with more than one value on the same document cannot be represented by a single column and is marked
+ * multi-valued, searches on it keep using the searchable attribute tables.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class DocumentSearchIndexDefinition implements Serializable {
+
+    private static final long serialVersionUID = -4870246236713655321L;
+
+    public static final String TABLE_NAME = "KREW_DOC_SRCH_IDX_T";
+
+    public static final String CACHE_NAME = "http://rice.kuali.org/kew/v2_0/DocumentSearchIndexDefinitionType";
+
+    public static final String STATUS_BUILDING = "B";
+    public static final String STATUS_AVAILABLE = "A";
+
+    private final String documentTypeName;
+    private final String statusCode;
+    private final Map<String, String> columnNames = new LinkedHashMap<String, String>();
+    private final Set<String> multiValuedKeys = new HashSet<String>();
+
+    public DocumentSearchIndexDefinition(String documentTypeName, String statusCode) {
+        this.documentTypeName = documentTypeName;
+        this.statusCode = statusCode;
+    }
+
+    public String getDocumentTypeName() {
+        return documentTypeName;
+    }
+
+    public String getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @return true if the index has been fully built and may be used by document search
+     */
+    public boolean isAvailable() {
+        return STATUS_AVAILABLE.equals(statusCode);
+    }
+
+    public void addColumn(String key, String columnName, boolean multiValued) {
+        columnNames.put(key, columnName);
+        if (multiValued) {
+            multiValuedKeys.add(key);
+        } else {
+            multiValuedKeys.remove(key);
+        }
+    }
+
+    /**
+     * @return the column assigned to the key, regardless of whether it is multi-valued, or null if none is assigned
+     */
+    public String getAssignedColumnName(String key) {
+        return columnNames.get(key);
+    }
+
+    /**
+     * @return the column which can be searched for the key, or null if the key is not covered by the index
+     */
+    public String getSearchableColumnName(String key) {
+        if (multiValuedKeys.contains(key)) {
+            return null;
+        }
+        return columnNames.get(key);
+    }
+
+    public boolean isMultiValued(String key) {
+        return multiValuedKeys.contains(key);
+    }
+
+    public Map<String, String> getColumnNames() {
+        return Collections.unmodifiableMap(columnNames);
+    }
+
+    /**
+     * @return the first column of the given type which is not assigned to a key yet, or null if all are in use
+     */
+    public String getNextFreeColumnName(ColumnType columnType) {
+        for (String columnName : columnType.getColumnNames()) {
+            if (!columnNames.containsValue(columnName)) {
+                return columnName;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The typed value columns of the index table, one group per searchable attribute table.
+     */
+    public enum ColumnType {
+
+        STRING("KREW_DOC_HDR_EXT_T", "STR_VAL_", 10),
+        LONG("KREW_DOC_HDR_EXT_LONG_T", "LONG_VAL_", 5),
+        FLOAT("KREW_DOC_HDR_EXT_FLT_T", "FLT_VAL_", 5),
+        DATE_TIME("KREW_DOC_HDR_EXT_DT_T", "DT_VAL_", 5);
+
+        private final String attributeTableName;
+        private final List<String> columnNames;
+
+        private ColumnType(String attributeTableName, String columnPrefix, int columnCount) {
+            this.attributeTableName = attributeTableName;
+            List<String> names = new ArrayList<String>(columnCount);
+            for (int i = 1; i <= columnCount; i++) {
+                names.add(columnPrefix + i);
+            }
+            this.columnNames = Collections.unmodifiableList(names);
+        }
+
+        public String getAttributeTableName() {
+            return attributeTableName;
+        }
+
+        public List<String> getColumnNames() {
+            return columnNames;
+        }
+
+        /**
+         * @return the column type holding values of the given searchable attribute table, or null if unknown
+         */
+        public static ColumnType forAttributeTable(String attributeTableName) {
+            for (ColumnType columnType : values()) {
+                if (columnType.attributeTableName.equalsIgnoreCase(attributeTableName)) {
+                    return columnType;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return the type of the given index column, or null if it is not a value column
+         */
+        public static ColumnType forColumn(String columnName) {
+            for (ColumnType columnType : values()) {
+                if (columnType.columnNames.contains(columnName)) {
+                    return columnType;
+                }
+            }
+            return null;
+        }
+
+    }
+
+}
@@ -0,0 +1,53 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.docsearch;
+
+import org.kuali.rice.kew.api.document.search.DocumentSearchResults;
+
+import java.io.Serializable;
+
+/**
+ * A page of results from a streaming document search together with the position to continue from.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public final class DocumentSearchPage implements Serializable {
+
+    private static final long serialVersionUID = 1953274510624380072L;
+
+    private final DocumentSearchResults results;
+    private final DocumentSearchCursor nextPosition;
+
+    public DocumentSearchPage(DocumentSearchResults results, DocumentSearchCursor nextPosition) {
+        this.results = results;
+        this.nextPosition = nextPosition;
+    }
+
+    /**
+     * @return the results of this page, {@link DocumentSearchResults#isOverThreshold()} is true if more pages follow
+     */
+    public DocumentSearchResults getResults() {
+        return results;
+    }
+
+    /**
+     * @return the cursor to pass when fetching the next page, or null if there are no more results
+     */
+    public DocumentSearchCursor getNextPosition() {
+        return nextPosition;
+    }
+
+}
@@ -0,0 +1,36 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.docsearch;
+
+import org.kuali.rice.kew.api.document.search.DocumentSearchResult;
+
+/**
+ * Receives the results of a streaming document search one at a time, in search order.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public interface DocumentSearchResultHandler {
+
+    /**
+     * Handles a single search result.
+     *
+     * @param result the search result, with all rows for the document combined
+     * @param position the position of the result, the search can later be resumed after it
+     * @return true to continue receiving results, false to stop the search
+     */
+    boolean handleResult(DocumentSearchResult.Builder result, DocumentSearchCursor position);
+
+}
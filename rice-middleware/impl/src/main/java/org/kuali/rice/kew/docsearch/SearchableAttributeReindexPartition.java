@@ -0,0 +1,111 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.docsearch;
+
+import java.io.Serializable;
+
+/**
+ * A document id range of a bulk searchable attribute re-index along with how far the re-index has got within it.
+ *
+ * <p>The range covers the ids after {@link #getStartDocumentId()} up to and including {@link #getEndDocumentId()}, a
+ * null bound leaves that end of the range open.  The last document id is the checkpoint a resumed re-index continues
+ * after.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class SearchableAttributeReindexPartition implements Serializable {
+
+    private static final long serialVersionUID = 2741869253317744125L;
+
+    public static final String STATUS_PENDING = "P";
+    public static final String STATUS_COMPLETE = "C";
+
+    private final String documentTypeName;
+    private final int partitionNumber;
+    private final String startDocumentId;
+    private final String endDocumentId;
+    private String lastDocumentId;
+    private String statusCode = STATUS_PENDING;
+    private long documentCount;
+
+    public SearchableAttributeReindexPartition(String documentTypeName, int partitionNumber, String startDocumentId,
+            String endDocumentId) {
+        this.documentTypeName = documentTypeName;
+        this.partitionNumber = partitionNumber;
+        this.startDocumentId = startDocumentId;
+        this.endDocumentId = endDocumentId;
+    }
+
+    public String getDocumentTypeName() {
+        return documentTypeName;
+    }
+
+    public int getPartitionNumber() {
+        return partitionNumber;
+    }
+
+    public String getStartDocumentId() {
+        return startDocumentId;
+    }
+
+    public String getEndDocumentId() {
+        return endDocumentId;
+    }
+
+    public String getLastDocumentId() {
+        return lastDocumentId;
+    }
+
+    public void setLastDocumentId(String lastDocumentId) {
+        this.lastDocumentId = lastDocumentId;
+    }
+
+    /**
+     * @return the id the next batch of the partition starts after, null to start at the beginning of the id range
+     */
+    public String getResumeDocumentId() {
+        return lastDocumentId != null ? lastDocumentId : startDocumentId;
+    }
+
+    public String getStatusCode() {
+        return statusCode;
+    }
+
+    public void setStatusCode(String statusCode) {
+        this.statusCode = statusCode;
+    }
+
+    public boolean isComplete() {
+        return STATUS_COMPLETE.equals(statusCode);
+    }
+
+    /**
+     * @return the number of documents re-indexed in the partition so far
+     */
+    public long getDocumentCount() {
+        return documentCount;
+    }
+
+    public void setDocumentCount(long documentCount) {
+        this.documentCount = documentCount;
+    }
+
+    @Override
+    public String toString() {
+        return documentTypeName + " partition " + partitionNumber + " (" + startDocumentId + ", " + endDocumentId + "]";
+    }
+
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.docsearch;
+
+import java.io.Serializable;
+
+/**
+ * A snapshot of the progress of a bulk searchable attribute re-index of one document type.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public final class SearchableAttributeReindexProgress implements Serializable {
+
+    private static final long serialVersionUID = -6101726408377416209L;
+
+    private final String documentTypeName;
+    private final boolean running;
+    private final int partitionCount;
+    private final int completedPartitionCount;
+    private final int failedPartitionCount;
+    private final long documentCount;
+    private final long failedDocumentCount;
+    private final long rowCount;
+    private final long elapsedMillis;
+
+    public SearchableAttributeReindexProgress(String documentTypeName, boolean running, int partitionCount,
+            int completedPartitionCount, int failedPartitionCount, long documentCount, long failedDocumentCount,
+            long rowCount, long elapsedMillis) {
+        this.documentTypeName = documentTypeName;
+        this.running = running;
+        this.partitionCount = partitionCount;
+        this.completedPartitionCount = completedPartitionCount;
+        this.failedPartitionCount = failedPartitionCount;
+        this.documentCount = documentCount;
+        this.failedDocumentCount = failedDocumentCount;
+        this.rowCount = rowCount;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public String getDocumentTypeName() {
+        return documentTypeName;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    public int getCompletedPartitionCount() {
+        return completedPartitionCount;
+    }
+
+    /**
+     * @return the number of partitions which stopped on an error, they are picked up again when the re-index is resumed
+     */
+    public int getFailedPartitionCount() {
+        return failedPartitionCount;
+    }
+
+    /**
+     * @return the number of documents re-indexed by this run, documents re-indexed before a resume are not included
+     */
+    public long getDocumentCount() {
+        return documentCount;
+    }
+
+    /**
+     * @return the number of documents whose searchable attributes could not be extracted, their existing values are
+     * left in place
+     */
+    public long getFailedDocumentCount() {
+        return failedDocumentCount;
+    }
+
+    /**
+     * @return the number of searchable attribute rows written by this run
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public double getDocumentsPerSecond() {
+        return perSecond(documentCount);
+    }
+
+    public double getRowsPerSecond() {
+        return perSecond(rowCount);
+    }
+
+    private double perSecond(long count) {
+        return elapsedMillis > 0 ? count * 1000d / elapsedMillis : 0d;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %s, %d of %d partitions complete (%d failed), %d documents (%d failed), %d rows"
+                + " in %d ms (%.1f documents/s, %.1f rows/s)", documentTypeName, running ? "running" : "stopped",
+                completedPartitionCount, partitionCount, failedPartitionCount, documentCount, failedDocumentCount,
+                rowCount, elapsedMillis, getDocumentsPerSecond(), getRowsPerSecond());
+    }
+
+}
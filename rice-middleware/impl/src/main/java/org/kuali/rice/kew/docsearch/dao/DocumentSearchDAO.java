@@ -18,6 +18,8 @@ package org.kuali.rice.kew.docsearch.dao;
 import org.kuali.rice.core.api.uif.RemotableAttributeField;
 import org.kuali.rice.kew.api.document.search.DocumentSearchCriteria;
 import org.kuali.rice.kew.api.document.search.DocumentSearchResults;
+import org.kuali.rice.kew.docsearch.DocumentSearchCursor;
+import org.kuali.rice.kew.docsearch.DocumentSearchResultHandler;
 import org.kuali.rice.kew.impl.document.search.DocumentSearchGenerator;
 
 import java.util.List;
@@ -26,6 +28,14 @@ import java.util.List;
 public interface DocumentSearchDAO {
 
     public DocumentSearchResults.Builder findDocuments(DocumentSearchGenerator docSearchGenerator, DocumentSearchCriteria criteria, boolean criteriaModified, List<RemotableAttributeField> searchFields);
+
+    /**
+     * Executes the search and passes the results to the handler as they are read, resuming after the given cursor if
+     * one is passed.  Rows are queried in keyset pages of the given size, so memory use does not grow with the number
+     * of results even on databases whose drivers read a whole result set into memory.
+     */
+    public void streamDocuments(DocumentSearchGenerator docSearchGenerator, DocumentSearchCriteria criteria, List<RemotableAttributeField> searchFields, DocumentSearchCursor after, int fetchSize, DocumentSearchResultHandler handler);
+
     public int getMaxResultCap(DocumentSearchCriteria criteria);
     public int getFetchMoreIterationLimit();
 }
@@ -0,0 +1,67 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.docsearch.dao;
+
+import org.kuali.rice.kew.docsearch.DocumentSearchIndexDefinition;
+import org.kuali.rice.kew.docsearch.SearchableAttributeValue;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data access for the denormalized document search index tables.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public interface DocumentSearchIndexDAO {
+
+    /**
+     * @return the index definition of the document type, or null if no index has been set up for it
+     */
+    DocumentSearchIndexDefinition findIndexDefinition(String documentTypeName);
+
+    void saveIndexStatus(String documentTypeName, String statusCode);
+
+    /**
+     * Assigns the column to the key.
+     *
+     * @throws org.springframework.dao.DataIntegrityViolationException if the key or the column is already assigned
+     */
+    void insertColumn(String documentTypeName, String key, String columnName);
+
+    void markMultiValued(String documentTypeName, String key);
+
+    /**
+     * Replaces the index row of the document with the given column values, columns which are not passed are null.
+     */
+    void saveIndexEntry(String documentId, String documentTypeName, Map<String, Object> columnValues);
+
+    /**
+     * Removes the index rows, column assignments and status of the document type.
+     */
+    void deleteIndex(String documentTypeName);
+
+    /**
+     * @return up to maxResults ids of documents of the document type ordered by id, starting after the given id
+     */
+    List<String> findDocumentIds(String documentTypeName, String afterDocumentId, int maxResults);
+
+    /**
+     * @return the searchable attribute values stored for the given documents, keyed by document id
+     */
+    Map<String, List<SearchableAttributeValue>> findSearchableAttributeValues(List<String> documentIds);
+
+}
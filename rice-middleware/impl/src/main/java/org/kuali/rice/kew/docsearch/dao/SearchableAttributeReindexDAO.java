@@ -0,0 +1,71 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.docsearch.dao;
+
+import org.kuali.rice.kew.docsearch.SearchableAttributeReindexPartition;
+import org.kuali.rice.kew.docsearch.SearchableAttributeValue;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Data access for the bulk searchable attribute re-indexer: the document id ranges it works through and batched
+ * writes of the searchable attribute tables.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public interface SearchableAttributeReindexDAO {
+
+    /**
+     * Scans the document ids of the document type in order and returns every partitionSize'th id, which are used as
+     * the inclusive upper bounds of the id ranges.
+     */
+    List<String> findPartitionBoundaries(String documentTypeName, int partitionSize);
+
+    /**
+     * @return up to maxResults ids of documents of the document type ordered by id, after afterDocumentId and up to
+     * and including upToDocumentId, either bound may be null
+     */
+    List<String> findDocumentIds(String documentTypeName, String afterDocumentId, String upToDocumentId,
+            int maxResults);
+
+    /**
+     * @return the id ranges of the last re-index of the document type ordered by partition number, empty if none
+     */
+    List<SearchableAttributeReindexPartition> findPartitions(String documentTypeName);
+
+    void insertPartitions(List<SearchableAttributeReindexPartition> partitions);
+
+    /**
+     * Saves the checkpoint, status and document count of the partition.
+     */
+    void updatePartition(SearchableAttributeReindexPartition partition);
+
+    void deletePartitions(String documentTypeName);
+
+    /**
+     * Removes the searchable attribute values of the given documents from all of the searchable attribute tables.
+     *
+     * @return the number of rows removed
+     */
+    int deleteSearchableAttributeValues(Collection<String> documentIds);
+
+    /**
+     * Inserts the searchable attribute values using one batched statement per searchable attribute table.
+     */
+    void insertSearchableAttributeValues(List<SearchableAttributeValue> searchableAttributeValues);
+
+}
@@ -19,7 +19,10 @@ import org.apache.commons.lang.StringUtils;
 import org.kuali.rice.core.api.uif.RemotableAttributeField;
 import org.kuali.rice.coreservice.framework.CoreFrameworkServiceLocator;
 import org.kuali.rice.kew.api.document.search.DocumentSearchCriteria;
+import org.kuali.rice.kew.api.document.search.DocumentSearchResult;
 import org.kuali.rice.kew.api.document.search.DocumentSearchResults;
+import org.kuali.rice.kew.docsearch.DocumentSearchCursor;
+import org.kuali.rice.kew.docsearch.DocumentSearchResultHandler;
 import org.kuali.rice.kew.impl.document.search.DocumentSearchGenerator;
 import org.kuali.rice.kew.docsearch.dao.DocumentSearchDAO;
 import org.kuali.rice.kew.api.KewApiConstants;
@@ -32,6 +35,7 @@ import org.springframework.jdbc.datasource.TransactionAwareDataSourceProxy;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -118,6 +122,101 @@ public class DocumentSearchDAOJdbcImpl implements DocumentSearchDAO {
         }
     }
 
+    /**
+     * Streams the results a page of rows at a time, each page being a separate query which resumes after the last
+     * document of the previous page.  A single query with a small fetch size does not stream on every database, the
+     * MySQL driver for one reads the whole result set into memory unless it is told to stream row by row, which in
+     * turn would not allow the search attribute queries to run on the same connection while the rows are read.
+     */
+    @Override
+    public void streamDocuments(final DocumentSearchGenerator documentSearchGenerator, final DocumentSearchCriteria criteria, final List<RemotableAttributeField> searchFields, final DocumentSearchCursor after, final int fetchSize, final DocumentSearchResultHandler handler) {
+        try {
+            final JdbcTemplate template = new JdbcTemplate(dataSource);
+
+            template.execute(new ConnectionCallback<Object>() {
+                @Override
+                public Object doInConnection(final Connection con) throws SQLException {
+                    DocumentSearchCursor position = after;
+                    int pageRows = fetchSize;
+                    while (true) {
+                        KeysetPageHandler pageHandler = new KeysetPageHandler(handler);
+                        int rows = streamPage(con, documentSearchGenerator, criteria, searchFields, position, pageRows, pageHandler);
+                        if (pageHandler.isStopped()) {
+                            return null;
+                        }
+                        if (rows < pageRows) {
+                            // this was the last page, so its last document has all of its rows
+                            pageHandler.forwardPending();
+                            return null;
+                        }
+                        if (pageHandler.getLastPosition() == null) {
+                            // the rows of a single document filled the whole page, read it again with a larger page
+                            pageRows *= 2;
+                        } else {
+                            position = pageHandler.getLastPosition();
+                            pageRows = fetchSize;
+                        }
+                    }
+                }
+            });
+
+        } catch (DataAccessException dae) {
+            String errorMsg = "DataAccessException: " + dae.getMessage();
+            LOG.error("streamDocuments() " + errorMsg, dae);
+            throw new RuntimeException(errorMsg, dae);
+        }
+    }
+
+    /**
+     * Queries a single page of at most the given number of rows after the given position.
+     *
+     * @return the number of rows read
+     */
+    protected int streamPage(Connection con, DocumentSearchGenerator documentSearchGenerator, DocumentSearchCriteria criteria, List<RemotableAttributeField> searchFields, DocumentSearchCursor after, int pageRows, DocumentSearchResultHandler handler) throws SQLException {
+        PerformanceLogger perfLog = new PerformanceLogger();
+        String sql = documentSearchGenerator.generateSearchSql(criteria, searchFields, after);
+        perfLog.log("Time to generate streaming search sql from documentSearchGenerator class: " + documentSearchGenerator
+                .getClass().getName(), true);
+        final PreparedStatement statement = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        try {
+            statement.setFetchSize(pageRows);
+            statement.setMaxRows(pageRows);
+            if (after != null) {
+                statement.setTimestamp(1, after.getDateCreated());
+                statement.setTimestamp(2, after.getDateCreated());
+                statement.setString(3, after.getDocumentId());
+            }
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Executing streaming document search after " + after + " for at most " + pageRows + " rows");
+            }
+            final ResultSet rs = statement.executeQuery();
+            try {
+                final Statement searchAttributeStatement = con.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+                try {
+                    return documentSearchGenerator.streamResultSet(criteria, searchAttributeStatement, rs, handler);
+                } finally {
+                    try {
+                        searchAttributeStatement.close();
+                    } catch (SQLException e) {
+                        LOG.warn("Could not close search attribute statement.");
+                    }
+                }
+            } finally {
+                try {
+                    rs.close();
+                } catch (SQLException e) {
+                    LOG.warn("Could not close result set.");
+                }
+            }
+        } finally {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                LOG.warn("Could not close statement.");
+            }
+        }
+    }
+
     /**
      * Returns the maximum number of results that should be returned from the document search.
      *
@@ -172,4 +271,53 @@ public class DocumentSearchDAOJdbcImpl implements DocumentSearchDAO {
         return fetchMoreLimit;
     }
 
+    /**
+     * Holds back the last document read from a page, since the page may have ended part way through that document's
+     * rows.  The document is only passed on once the next document has been read, or once it is known to be the last.
+     */
+    private static final class KeysetPageHandler implements DocumentSearchResultHandler {
+
+        private final DocumentSearchResultHandler handler;
+        private DocumentSearchResult.Builder pendingResult;
+        private DocumentSearchCursor pendingPosition;
+        private DocumentSearchCursor lastPosition;
+        private boolean stopped = false;
+
+        private KeysetPageHandler(DocumentSearchResultHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public boolean handleResult(DocumentSearchResult.Builder result, DocumentSearchCursor position) {
+            if (!forwardPending()) {
+                return false;
+            }
+            pendingResult = result;
+            pendingPosition = position;
+            return true;
+        }
+
+        private boolean forwardPending() {
+            if (pendingResult != null) {
+                stopped = !handler.handleResult(pendingResult, pendingPosition);
+                lastPosition = pendingPosition;
+                pendingResult = null;
+                pendingPosition = null;
+            }
+            return !stopped;
+        }
+
+        /**
+         * @return the position of the last document passed on, or null if none has been
+         */
+        private DocumentSearchCursor getLastPosition() {
+            return lastPosition;
+        }
+
+        private boolean isStopped() {
+            return stopped;
+        }
+
+    }
+
 }
@@ -0,0 +1,201 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.docsearch.dao.impl;
+
+import org.apache.commons.lang.StringUtils;
+import org.kuali.rice.kew.docsearch.DocumentSearchIndexDefinition;
+import org.kuali.rice.kew.docsearch.DocumentSearchIndexDefinition.ColumnType;
+import org.kuali.rice.kew.docsearch.SearchableAttributeDateTimeValue;
+import org.kuali.rice.kew.docsearch.SearchableAttributeFloatValue;
+import org.kuali.rice.kew.docsearch.SearchableAttributeLongValue;
+import org.kuali.rice.kew.docsearch.SearchableAttributeStringValue;
+import org.kuali.rice.kew.docsearch.SearchableAttributeValue;
+import org.kuali.rice.kew.docsearch.dao.DocumentSearchIndexDAO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.TransactionAwareDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spring JdbcTemplate implementation of DocumentSearchIndexDAO.  Plain JDBC is used since the value columns of the
+ * index table are chosen at runtime.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class DocumentSearchIndexDAOJdbcImpl implements DocumentSearchIndexDAO {
+
+    private static final String TYPE_TABLE_NAME = "KREW_DOC_SRCH_IDX_TYP_T";
+    private static final String COLUMN_TABLE_NAME = "KREW_DOC_SRCH_IDX_COL_T";
+
+    private DataSource dataSource;
+
+    public void setDataSource(DataSource dataSource) {
+        this.dataSource = new TransactionAwareDataSourceProxy(dataSource);
+    }
+
+    @Override
+    public DocumentSearchIndexDefinition findIndexDefinition(String documentTypeName) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        List<String> statusCodes = template.queryForList("select IDX_STAT_CD from " + TYPE_TABLE_NAME
+                + " where DOC_TYP_NM = ?", String.class, documentTypeName);
+        if (statusCodes.isEmpty()) {
+            return null;
+        }
+        final DocumentSearchIndexDefinition definition = new DocumentSearchIndexDefinition(documentTypeName,
+                statusCodes.get(0));
+        template.query("select KEY_CD, COL_NM, MULTI_VAL_IND from " + COLUMN_TABLE_NAME + " where DOC_TYP_NM = ?",
+                new Object[] {documentTypeName}, new RowCallbackHandler() {
+            @Override
+            public void processRow(ResultSet rs) throws SQLException {
+                definition.addColumn(rs.getString("KEY_CD"), rs.getString("COL_NM"), "Y".equals(rs.getString(
+                        "MULTI_VAL_IND")));
+            }
+        });
+        return definition;
+    }
+
+    @Override
+    public void saveIndexStatus(String documentTypeName, String statusCode) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        int updated = template.update("update " + TYPE_TABLE_NAME + " set IDX_STAT_CD = ?, LAST_UPDT_DT = ?"
+                + " where DOC_TYP_NM = ?", statusCode, now, documentTypeName);
+        if (updated == 0) {
+            template.update("insert into " + TYPE_TABLE_NAME + " (DOC_TYP_NM, IDX_STAT_CD, LAST_UPDT_DT)"
+                    + " values (?, ?, ?)", documentTypeName, statusCode, now);
+        }
+    }
+
+    @Override
+    public void insertColumn(String documentTypeName, String key, String columnName) {
+        validateColumnName(columnName);
+        new JdbcTemplate(dataSource).update("insert into " + COLUMN_TABLE_NAME
+                + " (DOC_TYP_NM, KEY_CD, COL_NM, MULTI_VAL_IND) values (?, ?, ?, 'N')", documentTypeName, key,
+                columnName);
+    }
+
+    @Override
+    public void markMultiValued(String documentTypeName, String key) {
+        new JdbcTemplate(dataSource).update("update " + COLUMN_TABLE_NAME + " set MULTI_VAL_IND = 'Y'"
+                + " where DOC_TYP_NM = ? and KEY_CD = ?", documentTypeName, key);
+    }
+
+    @Override
+    public void saveIndexEntry(String documentId, String documentTypeName, Map<String, Object> columnValues) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.update("delete from " + DocumentSearchIndexDefinition.TABLE_NAME + " where DOC_HDR_ID = ?",
+                documentId);
+        StringBuilder columns = new StringBuilder("DOC_HDR_ID, DOC_TYP_NM");
+        StringBuilder placeholders = new StringBuilder("?, ?");
+        List<Object> args = new ArrayList<Object>(columnValues.size() + 2);
+        args.add(documentId);
+        args.add(documentTypeName);
+        for (Map.Entry<String, Object> columnValue : columnValues.entrySet()) {
+            if (columnValue.getValue() == null) {
+                continue;
+            }
+            validateColumnName(columnValue.getKey());
+            columns.append(", ").append(columnValue.getKey());
+            placeholders.append(", ?");
+            args.add(columnValue.getValue());
+        }
+        template.update("insert into " + DocumentSearchIndexDefinition.TABLE_NAME + " (" + columns + ") values ("
+                + placeholders + ")", args.toArray());
+    }
+
+    @Override
+    public void deleteIndex(String documentTypeName) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.update("delete from " + DocumentSearchIndexDefinition.TABLE_NAME + " where DOC_TYP_NM = ?",
+                documentTypeName);
+        template.update("delete from " + COLUMN_TABLE_NAME + " where DOC_TYP_NM = ?", documentTypeName);
+        template.update("delete from " + TYPE_TABLE_NAME + " where DOC_TYP_NM = ?", documentTypeName);
+    }
+
+    @Override
+    public List<String> findDocumentIds(String documentTypeName, String afterDocumentId, int maxResults) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setMaxRows(maxResults);
+        String sql = "select DOC_HDR.DOC_HDR_ID from KREW_DOC_HDR_T DOC_HDR, KREW_DOC_TYP_T DOC1"
+                + " where DOC_HDR.DOC_TYP_ID = DOC1.DOC_TYP_ID and DOC1.DOC_TYP_NM = ?";
+        if (StringUtils.isBlank(afterDocumentId)) {
+            return template.queryForList(sql + " order by DOC_HDR.DOC_HDR_ID", String.class, documentTypeName);
+        }
+        return template.queryForList(sql + " and DOC_HDR.DOC_HDR_ID > ? order by DOC_HDR.DOC_HDR_ID", String.class,
+                documentTypeName, afterDocumentId);
+    }
+
+    @Override
+    public Map<String, List<SearchableAttributeValue>> findSearchableAttributeValues(List<String> documentIds) {
+        if (documentIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        final Map<String, List<SearchableAttributeValue>> values = new HashMap<String, List<SearchableAttributeValue>>();
+        String inClause = StringUtils.repeat("?", ", ", documentIds.size());
+        for (final ColumnType columnType : ColumnType.values()) {
+            template.query("select DOC_HDR_ID, KEY_CD, VAL from " + columnType.getAttributeTableName()
+                    + " where DOC_HDR_ID in (" + inClause + ")", documentIds.toArray(), new RowCallbackHandler() {
+                @Override
+                public void processRow(ResultSet rs) throws SQLException {
+                    SearchableAttributeValue value = newSearchableAttributeValue(columnType);
+                    value.setDocumentId(rs.getString("DOC_HDR_ID"));
+                    value.setSearchableAttributeKey(rs.getString("KEY_CD"));
+                    value.setupAttributeValue(rs, "VAL");
+                    List<SearchableAttributeValue> documentValues = values.get(value.getDocumentId());
+                    if (documentValues == null) {
+                        documentValues = new ArrayList<SearchableAttributeValue>();
+                        values.put(value.getDocumentId(), documentValues);
+                    }
+                    documentValues.add(value);
+                }
+            });
+        }
+        return values;
+    }
+
+    private static SearchableAttributeValue newSearchableAttributeValue(ColumnType columnType) {
+        switch (columnType) {
+            case LONG:
+                return new SearchableAttributeLongValue();
+            case FLOAT:
+                return new SearchableAttributeFloatValue();
+            case DATE_TIME:
+                return new SearchableAttributeDateTimeValue();
+            default:
+                return new SearchableAttributeStringValue();
+        }
+    }
+
+    /**
+     * Column names are concatenated into the sql, make sure they are one of the known value columns.
+     */
+    private static void validateColumnName(String columnName) {
+        if (ColumnType.forColumn(columnName) == null) {
+            throw new IllegalArgumentException("Not a document search index column: " + columnName);
+        }
+    }
+
+}
@@ -0,0 +1,201 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.docsearch.dao.impl;
+
+import org.apache.commons.lang.StringUtils;
+import org.kuali.rice.kew.docsearch.DocumentSearchIndexDefinition.ColumnType;
+import org.kuali.rice.kew.docsearch.SearchableAttributeReindexPartition;
+import org.kuali.rice.kew.docsearch.SearchableAttributeValue;
+import org.kuali.rice.kew.docsearch.dao.SearchableAttributeReindexDAO;
+import org.kuali.rice.krad.data.platform.MaxValueIncrementerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.TransactionAwareDataSourceProxy;
+import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Spring JdbcTemplate implementation of SearchableAttributeReindexDAO.  The searchable attribute rows are written with
+ * JDBC batches rather than through the entity manager, which saves them one statement at a time.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class SearchableAttributeReindexDAOJdbcImpl implements SearchableAttributeReindexDAO {
+
+    private static final String PARTITION_TABLE_NAME = "KREW_SRCH_ATTR_REIDX_T";
+    private static final String SEARCHABLE_ATTRIBUTE_SEQUENCE = "KREW_SRCH_ATTR_S";
+    private static final int ID_SCAN_FETCH_SIZE = 1000;
+
+    private static final String DOCUMENT_IDS_SQL = "select DOC_HDR.DOC_HDR_ID from KREW_DOC_HDR_T DOC_HDR,"
+            + " KREW_DOC_TYP_T DOC1 where DOC_HDR.DOC_TYP_ID = DOC1.DOC_TYP_ID and DOC1.DOC_TYP_NM = ?";
+
+    private DataSource dataSource;
+
+    public void setDataSource(DataSource dataSource) {
+        this.dataSource = new TransactionAwareDataSourceProxy(dataSource);
+    }
+
+    @Override
+    public List<String> findPartitionBoundaries(String documentTypeName, final int partitionSize) {
+        final List<String> boundaries = new ArrayList<String>();
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(ID_SCAN_FETCH_SIZE);
+        template.query(DOCUMENT_IDS_SQL + " order by DOC_HDR.DOC_HDR_ID", new Object[] {documentTypeName},
+                new RowCallbackHandler() {
+            private int count;
+
+            @Override
+            public void processRow(ResultSet rs) throws SQLException {
+                if (++count % partitionSize == 0) {
+                    boundaries.add(rs.getString(1));
+                }
+            }
+        });
+        return boundaries;
+    }
+
+    @Override
+    public List<String> findDocumentIds(String documentTypeName, String afterDocumentId, String upToDocumentId,
+            int maxResults) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setMaxRows(maxResults);
+        StringBuilder sql = new StringBuilder(DOCUMENT_IDS_SQL);
+        List<Object> args = new ArrayList<Object>(3);
+        args.add(documentTypeName);
+        if (StringUtils.isNotBlank(afterDocumentId)) {
+            sql.append(" and DOC_HDR.DOC_HDR_ID > ?");
+            args.add(afterDocumentId);
+        }
+        if (StringUtils.isNotBlank(upToDocumentId)) {
+            sql.append(" and DOC_HDR.DOC_HDR_ID <= ?");
+            args.add(upToDocumentId);
+        }
+        sql.append(" order by DOC_HDR.DOC_HDR_ID");
+        return template.queryForList(sql.toString(), String.class, args.toArray());
+    }
+
+    @Override
+    public List<SearchableAttributeReindexPartition> findPartitions(String documentTypeName) {
+        return new JdbcTemplate(dataSource).query("select DOC_TYP_NM, PART_NBR, START_DOC_HDR_ID, END_DOC_HDR_ID,"
+                + " LAST_DOC_HDR_ID, STAT_CD, DOC_CNT from " + PARTITION_TABLE_NAME + " where DOC_TYP_NM = ?"
+                + " order by PART_NBR", new Object[] {documentTypeName},
+                new RowMapper<SearchableAttributeReindexPartition>() {
+            @Override
+            public SearchableAttributeReindexPartition mapRow(ResultSet rs, int rowNum) throws SQLException {
+                SearchableAttributeReindexPartition partition = new SearchableAttributeReindexPartition(
+                        rs.getString("DOC_TYP_NM"), rs.getInt("PART_NBR"), rs.getString("START_DOC_HDR_ID"),
+                        rs.getString("END_DOC_HDR_ID"));
+                partition.setLastDocumentId(rs.getString("LAST_DOC_HDR_ID"));
+                partition.setStatusCode(rs.getString("STAT_CD"));
+                partition.setDocumentCount(rs.getLong("DOC_CNT"));
+                return partition;
+            }
+        });
+    }
+
+    @Override
+    public void insertPartitions(List<SearchableAttributeReindexPartition> partitions) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> batchArgs = new ArrayList<Object[]>(partitions.size());
+        for (SearchableAttributeReindexPartition partition : partitions) {
+            batchArgs.add(new Object[] {partition.getDocumentTypeName(), partition.getPartitionNumber(),
+                    partition.getStartDocumentId(), partition.getEndDocumentId(), partition.getLastDocumentId(),
+                    partition.getStatusCode(), partition.getDocumentCount(), now});
+        }
+        new JdbcTemplate(dataSource).batchUpdate("insert into " + PARTITION_TABLE_NAME + " (DOC_TYP_NM, PART_NBR,"
+                + " START_DOC_HDR_ID, END_DOC_HDR_ID, LAST_DOC_HDR_ID, STAT_CD, DOC_CNT, LAST_UPDT_DT)"
+                + " values (?, ?, ?, ?, ?, ?, ?, ?)", batchArgs, new int[] {Types.VARCHAR, Types.INTEGER,
+                Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.BIGINT, Types.TIMESTAMP});
+    }
+
+    @Override
+    public void updatePartition(SearchableAttributeReindexPartition partition) {
+        new JdbcTemplate(dataSource).update("update " + PARTITION_TABLE_NAME + " set LAST_DOC_HDR_ID = ?,"
+                + " STAT_CD = ?, DOC_CNT = ?, LAST_UPDT_DT = ? where DOC_TYP_NM = ? and PART_NBR = ?",
+                new Object[] {partition.getLastDocumentId(), partition.getStatusCode(), partition.getDocumentCount(),
+                new Timestamp(System.currentTimeMillis()), partition.getDocumentTypeName(),
+                partition.getPartitionNumber()}, new int[] {Types.VARCHAR, Types.VARCHAR, Types.BIGINT,
+                Types.TIMESTAMP, Types.VARCHAR, Types.INTEGER});
+    }
+
+    @Override
+    public void deletePartitions(String documentTypeName) {
+        new JdbcTemplate(dataSource).update("delete from " + PARTITION_TABLE_NAME + " where DOC_TYP_NM = ?",
+                documentTypeName);
+    }
+
+    @Override
+    public int deleteSearchableAttributeValues(Collection<String> documentIds) {
+        if (documentIds.isEmpty()) {
+            return 0;
+        }
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        String inClause = StringUtils.repeat("?", ", ", documentIds.size());
+        int deleted = 0;
+        for (ColumnType columnType : ColumnType.values()) {
+            deleted += template.update("delete from " + columnType.getAttributeTableName() + " where DOC_HDR_ID in ("
+                    + inClause + ")", documentIds.toArray());
+        }
+        return deleted;
+    }
+
+    @Override
+    public void insertSearchableAttributeValues(List<SearchableAttributeValue> searchableAttributeValues) {
+        if (searchableAttributeValues.isEmpty()) {
+            return;
+        }
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        DataFieldMaxValueIncrementer incrementer = MaxValueIncrementerFactory.getIncrementer(dataSource,
+                SEARCHABLE_ATTRIBUTE_SEQUENCE);
+        for (ColumnType columnType : ColumnType.values()) {
+            List<Object[]> batchArgs = new ArrayList<Object[]>();
+            for (SearchableAttributeValue value : searchableAttributeValues) {
+                if (columnType.getAttributeTableName().equals(value.getAttributeTableName())) {
+                    batchArgs.add(new Object[] {incrementer.nextStringValue(), value.getDocumentId(),
+                            value.getSearchableAttributeKey(), value.getSearchableAttributeValue()});
+                }
+            }
+            if (!batchArgs.isEmpty()) {
+                template.batchUpdate("insert into " + columnType.getAttributeTableName() + " (DOC_HDR_EXT_ID,"
+                        + " DOC_HDR_ID, KEY_CD, VAL) values (?, ?, ?, ?)", batchArgs, new int[] {Types.VARCHAR,
+                        Types.VARCHAR, Types.VARCHAR, getValueSqlType(columnType)});
+            }
+        }
+    }
+
+    private static int getValueSqlType(ColumnType columnType) {
+        switch (columnType) {
+            case LONG:
+                return Types.BIGINT;
+            case FLOAT:
+                return Types.DECIMAL;
+            case DATE_TIME:
+                return Types.TIMESTAMP;
+            default:
+                return Types.VARCHAR;
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.docsearch.service;
+
+import org.kuali.rice.kew.docsearch.DocumentSearchIndexDefinition;
+import org.kuali.rice.kew.docsearch.SearchableAttributeValue;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the denormalized document search index of the document types which have the
+ * {@link org.kuali.rice.kew.api.doctype.DocumentTypePolicy#DOCUMENT_SEARCH_INDEX} policy enabled.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public interface DocumentSearchIndexService {
+
+    /**
+     * Returns the index definition of the document type.  The definition may be cached and shared between callers,
+     * so it must not be modified.
+     *
+     * @return the index definition of the document type, or null if its index has not been built
+     */
+    DocumentSearchIndexDefinition getIndexDefinition(String documentTypeName);
+
+    /**
+     * Writes the index row of a document from its freshly extracted searchable attribute values.  Does nothing if
+     * the index of the document type has not been set up by {@link #rebuildIndex(String)} yet.  If the document type
+     * is no longer indexed, its index is marked as building so that it is rebuilt before searches use it again.
+     */
+    void indexDocument(String documentTypeName, String documentId, List<SearchableAttributeValue> searchableAttributeValues);
+
+    /**
+     * Writes the index rows of several documents of the same document type, see
+     * {@link #indexDocument(String, String, java.util.List)}.
+     *
+     * @param searchableAttributeValues the searchable attribute values keyed by document id
+     */
+    void indexDocuments(String documentTypeName, Map<String, List<SearchableAttributeValue>> searchableAttributeValues);
+
+    /**
+     * Builds the index of the document type from the searchable attribute values already stored for its documents.
+     * Searches do not use the index until the rebuild has completed.  Existing column assignments are kept, use
+     * {@link #dropIndex(String)} first to start from scratch after the document type's searchable attributes changed.
+     *
+     * @return the number of documents indexed
+     */
+    int rebuildIndex(String documentTypeName);
+
+    /**
+     * Removes the index of the document type, searches go back to the searchable attribute tables.
+     */
+    void dropIndex(String documentTypeName);
+
+}
@@ -19,6 +19,9 @@ import org.kuali.rice.core.api.util.KeyValue;
 import org.kuali.rice.kew.api.document.search.DocumentSearchCriteria;
 import org.kuali.rice.kew.api.document.search.DocumentSearchResults;
 import org.kuali.rice.kew.impl.document.search.DocumentSearchGenerator;
+import org.kuali.rice.kew.docsearch.DocumentSearchCursor;
+import org.kuali.rice.kew.docsearch.DocumentSearchPage;
+import org.kuali.rice.kew.docsearch.DocumentSearchResultHandler;
 import org.kuali.rice.kew.doctype.bo.DocumentType;
 
 import java.util.List;
@@ -52,6 +55,34 @@ public interface DocumentSearchService {
      */
     DocumentSearchResults lookupDocuments(String principalId, DocumentSearchCriteria criteria, boolean saveSearch);
 
+    /**
+     * Executes a document search and passes the results to the given handler as they are read from the database,
+     * newest documents first, without applying the result cap.  Result customizations and document security are
+     * applied just as for {@link #lookupDocuments(String, DocumentSearchCriteria)}, results the principal may not see
+     * are never passed to the handler.  The search stops as soon as the handler returns false.
+     *
+     * @param principalId the id of the principal who is executing the search, this may be null to indicate the
+     * search could be executed by an arbitrary user
+     * @param criteria criteria to use to search documents
+     * @param after the position of the last result already seen, or null to start with the first result
+     * @param handler receives each result together with the position to resume the search from
+     */
+    void streamDocuments(String principalId, DocumentSearchCriteria criteria, DocumentSearchCursor after,
+            DocumentSearchResultHandler handler);
+
+    /**
+     * Returns a single page of search results, resuming after the given position.  Unlike the "fetch more" behavior
+     * of {@link #lookupDocuments(String, DocumentSearchCriteria)}, earlier results are not read again.
+     *
+     * @param principalId the id of the principal who is executing the search, may be null
+     * @param criteria criteria to use to search documents
+     * @param after the next position of the previous page, or null for the first page
+     * @param pageSize the maximum number of results on the page
+     * @return the page, will never return null
+     */
+    DocumentSearchPage lookupDocumentPage(String principalId, DocumentSearchCriteria criteria,
+            DocumentSearchCursor after, int pageSize);
+
     /**
      * Returns a saved search criteria, either explicitly named by the user, or saved automatically as a recent search
      * @param principalId the user principal id
@@ -0,0 +1,66 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.docsearch.service;
+
+import org.kuali.rice.kew.docsearch.SearchableAttributeReindexProgress;
+
+/**
+ * Re-extracts the searchable attribute values of all documents of a document type in bulk, for example after the
+ * searchable attributes of the document type have changed.
+ *
+ * <p>The documents are split into id ranges which are worked through in parallel, each batch of documents having its
+ * values replaced in one transaction.  The progress through each range is saved along with the batch so an
+ * interrupted or failed re-index continues where it stopped the next time it is run.</p>
+ *
+ * <p>The re-index has to run where the searchable attributes of the document type can be loaded, just like the
+ * {@link org.kuali.rice.kew.api.document.attribute.DocumentAttributeIndexingQueue}.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public interface SearchableAttributeReindexService {
+
+    /**
+     * Re-indexes the documents of the document type, resuming the previous re-index if it did not complete.  Blocks
+     * until every id range has been worked through or the re-index is cancelled.
+     *
+     * @return the progress of the re-index at the time it stopped
+     * @throws org.kuali.rice.core.api.exception.RiceIllegalArgumentException if the document type does not exist
+     * @throws IllegalStateException if the document type is already being re-indexed on this node
+     */
+    SearchableAttributeReindexProgress reindexDocuments(String documentTypeName);
+
+    /**
+     * Runs {@link #reindexDocuments(String)} on a background thread.
+     */
+    void startReindex(String documentTypeName);
+
+    /**
+     * Stops a running re-index of the document type once its current batches are done, it can be resumed later.
+     */
+    void cancelReindex(String documentTypeName);
+
+    /**
+     * Discards the saved progress of the document type so that the next re-index starts from the first document.
+     */
+    void resetReindex(String documentTypeName);
+
+    /**
+     * @return the progress of the running or last re-index of the document type on this node, or null if there was
+     * none
+     */
+    SearchableAttributeReindexProgress getProgress(String documentTypeName);
+
+}
@@ -0,0 +1,366 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.docsearch.service.impl;
+
+import org.apache.commons.lang.StringUtils;
+import org.kuali.rice.core.api.exception.RiceIllegalArgumentException;
+import org.kuali.rice.kew.api.doctype.DocumentTypePolicy;
+import org.kuali.rice.kew.docsearch.DocumentSearchIndexDefinition;
+import org.kuali.rice.kew.docsearch.DocumentSearchIndexDefinition.ColumnType;
+import org.kuali.rice.kew.docsearch.SearchableAttributeValue;
+import org.kuali.rice.kew.docsearch.dao.DocumentSearchIndexDAO;
+import org.kuali.rice.kew.docsearch.service.DocumentSearchIndexService;
+import org.kuali.rice.kew.doctype.bo.DocumentType;
+import org.kuali.rice.kew.service.KEWServiceLocator;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Default implementation of the {@link DocumentSearchIndexService}.
+ *
+ * <p>Column assignments are written in their own transactions so that they are visible to the other nodes right
+ * away and a conflicting assignment made concurrently elsewhere in the cluster does not fail the indexing of the
+ * document.</p>
+ *
+ * <p>Index definitions are cached per document type for document search, including the absence of an index.  The
+ * cached definition of a document type is evicted whenever its index definition is saved, and the whole cache
+ * whenever a document type is saved.  Indexing always reads the current definition since it may assign columns.</p>
+ *
+ * <p>Documents of a document type whose policy has been turned off are not indexed, so the first such document marks
+ * an available index as building again.  Searches ignore it from then on, until it has been rebuilt after the policy
+ * was turned back on.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class DocumentSearchIndexServiceImpl implements DocumentSearchIndexService {
+
+    private static final org.apache.log4j.Logger LOG = org.apache.log4j.Logger.getLogger(DocumentSearchIndexServiceImpl.class);
+
+    private static final int DEFAULT_BATCH_SIZE = 500;
+
+    private DocumentSearchIndexDAO documentSearchIndexDAO;
+    private PlatformTransactionManager transactionManager;
+    private CacheManager cacheManager;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    @Override
+    public DocumentSearchIndexDefinition getIndexDefinition(String documentTypeName) {
+        if (StringUtils.isBlank(documentTypeName)) {
+            return null;
+        }
+        Cache cache = getCache();
+        if (cache == null) {
+            return documentSearchIndexDAO.findIndexDefinition(documentTypeName);
+        }
+        Cache.ValueWrapper cached = cache.get(documentTypeName);
+        if (cached != null) {
+            return (DocumentSearchIndexDefinition) cached.get();
+        }
+        DocumentSearchIndexDefinition definition = documentSearchIndexDAO.findIndexDefinition(documentTypeName);
+        cache.put(documentTypeName, definition);
+        return definition;
+    }
+
+    @Override
+    public void indexDocument(String documentTypeName, String documentId,
+            List<SearchableAttributeValue> searchableAttributeValues) {
+        DocumentType documentType = KEWServiceLocator.getDocumentTypeService().findByName(documentTypeName);
+        if (!isIndexed(documentType)) {
+            invalidateIndex(documentType);
+            return;
+        }
+        DocumentSearchIndexDefinition definition = documentSearchIndexDAO.findIndexDefinition(documentType.getName());
+        if (definition != null) {
+            writeIndexEntry(definition, documentId, searchableAttributeValues);
+        }
+    }
+
+    @Override
+    public void indexDocuments(String documentTypeName,
+            Map<String, List<SearchableAttributeValue>> searchableAttributeValues) {
+        DocumentType documentType = KEWServiceLocator.getDocumentTypeService().findByName(documentTypeName);
+        if (searchableAttributeValues.isEmpty()) {
+            return;
+        }
+        if (!isIndexed(documentType)) {
+            invalidateIndex(documentType);
+            return;
+        }
+        DocumentSearchIndexDefinition definition = documentSearchIndexDAO.findIndexDefinition(documentType.getName());
+        if (definition != null) {
+            for (Map.Entry<String, List<SearchableAttributeValue>> entry : searchableAttributeValues.entrySet()) {
+                writeIndexEntry(definition, entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    @Override
+    public int rebuildIndex(String documentTypeName) {
+        DocumentType documentType = KEWServiceLocator.getDocumentTypeService().findByName(documentTypeName);
+        if (!isIndexed(documentType)) {
+            throw new RiceIllegalArgumentException("Document type " + documentTypeName + " does not exist or does not "
+                    + "have the " + DocumentTypePolicy.DOCUMENT_SEARCH_INDEX.getCode() + " policy enabled");
+        }
+        final String name = documentType.getName();
+        long start = System.currentTimeMillis();
+        LOG.info("Rebuilding the document search index of " + name);
+        saveIndexStatus(name, DocumentSearchIndexDefinition.STATUS_BUILDING);
+
+        int indexed = 0;
+        String lastDocumentId = null;
+        while (true) {
+            final List<String> documentIds = documentSearchIndexDAO.findDocumentIds(name, lastDocumentId, batchSize);
+            if (documentIds.isEmpty()) {
+                break;
+            }
+            newTransactionTemplate().execute(new TransactionCallbackWithoutResult() {
+                @Override
+                protected void doInTransactionWithoutResult(TransactionStatus status) {
+                    indexBatch(name, documentIds);
+                }
+            });
+            indexed += documentIds.size();
+            lastDocumentId = documentIds.get(documentIds.size() - 1);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Indexed " + indexed + " documents of " + name + " up to document " + lastDocumentId);
+            }
+            if (documentIds.size() < batchSize) {
+                break;
+            }
+        }
+
+        saveIndexStatus(name, DocumentSearchIndexDefinition.STATUS_AVAILABLE);
+        LOG.info("Rebuilt the document search index of " + name + " with " + indexed + " documents in "
+                + (System.currentTimeMillis() - start) + " ms");
+        return indexed;
+    }
+
+    @Override
+    public void dropIndex(final String documentTypeName) {
+        newTransactionTemplate().execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                documentSearchIndexDAO.deleteIndex(documentTypeName);
+                evict(documentTypeName);
+            }
+        });
+        LOG.info("Dropped the document search index of " + documentTypeName);
+    }
+
+    protected boolean isIndexed(DocumentType documentType) {
+        return documentType != null && documentType.getDocumentSearchIndexPolicy().getPolicyValue().booleanValue();
+    }
+
+    /**
+     * Marks the available index of a document type which is no longer indexed as building, since the documents which
+     * are not indexed while its policy is turned off would be missing from it.
+     */
+    protected void invalidateIndex(DocumentType documentType) {
+        if (documentType == null) {
+            return;
+        }
+        DocumentSearchIndexDefinition definition = getIndexDefinition(documentType.getName());
+        if (definition != null && definition.isAvailable()) {
+            LOG.info("The " + DocumentTypePolicy.DOCUMENT_SEARCH_INDEX.getCode() + " policy of " + documentType.getName()
+                    + " is turned off, its document search index has to be rebuilt before searches use it again");
+            saveIndexStatus(documentType.getName(), DocumentSearchIndexDefinition.STATUS_BUILDING);
+        }
+    }
+
+    /**
+     * Indexes a batch of documents from their stored searchable attribute values.
+     */
+    protected void indexBatch(String documentTypeName, List<String> documentIds) {
+        DocumentSearchIndexDefinition definition = documentSearchIndexDAO.findIndexDefinition(documentTypeName);
+        Map<String, List<SearchableAttributeValue>> values = documentSearchIndexDAO.findSearchableAttributeValues(
+                documentIds);
+        for (String documentId : documentIds) {
+            List<SearchableAttributeValue> documentValues = values.get(documentId);
+            writeIndexEntry(definition, documentId, documentValues == null ?
+                    Collections.<SearchableAttributeValue>emptyList() : documentValues);
+        }
+    }
+
+    /**
+     * Writes the index row of the document, assigning columns to keys seen for the first time.
+     */
+    protected void writeIndexEntry(DocumentSearchIndexDefinition definition, String documentId,
+            List<SearchableAttributeValue> searchableAttributeValues) {
+        Map<String, List<Object>> valuesByKey = new LinkedHashMap<String, List<Object>>();
+        Map<String, ColumnType> columnTypesByKey = new HashMap<String, ColumnType>();
+        for (SearchableAttributeValue searchableAttributeValue : searchableAttributeValues) {
+            if (searchableAttributeValue == null || searchableAttributeValue.getSearchableAttributeValue() == null) {
+                continue;
+            }
+            ColumnType columnType = ColumnType.forAttributeTable(searchableAttributeValue.getAttributeTableName());
+            if (columnType == null) {
+                continue;
+            }
+            String key = searchableAttributeValue.getSearchableAttributeKey();
+            List<Object> keyValues = valuesByKey.get(key);
+            if (keyValues == null) {
+                keyValues = new ArrayList<Object>(1);
+                valuesByKey.put(key, keyValues);
+                columnTypesByKey.put(key, columnType);
+            }
+            if (!keyValues.contains(searchableAttributeValue.getSearchableAttributeValue())) {
+                keyValues.add(searchableAttributeValue.getSearchableAttributeValue());
+            }
+        }
+
+        Map<String, Object> columnValues = new HashMap<String, Object>();
+        for (Map.Entry<String, List<Object>> entry : valuesByKey.entrySet()) {
+            String key = entry.getKey();
+            ColumnType columnType = columnTypesByKey.get(key);
+            String columnName = definition.getAssignedColumnName(key);
+            if (columnName == null) {
+                columnName = assignColumn(definition, key, columnType);
+            }
+            // a key whose data type changed keeps its old column, document search sees the mismatch and skips the index
+            if (columnName == null || ColumnType.forColumn(columnName) != columnType) {
+                continue;
+            }
+            if (entry.getValue().size() > 1 && !definition.isMultiValued(key)) {
+                markMultiValued(definition, key, columnName);
+            }
+            if (!definition.isMultiValued(key)) {
+                columnValues.put(columnName, entry.getValue().get(0));
+            }
+        }
+        documentSearchIndexDAO.saveIndexEntry(documentId, definition.getDocumentTypeName(), columnValues);
+    }
+
+    /**
+     * Assigns the next free column of the given type to the key.
+     *
+     * @return the assigned column, or null if all columns of the type are in use
+     */
+    protected String assignColumn(final DocumentSearchIndexDefinition definition, final String key,
+            ColumnType columnType) {
+        final String columnName = definition.getNextFreeColumnName(columnType);
+        if (columnName == null) {
+            LOG.warn("No free " + columnType + " column left in the document search index of "
+                    + definition.getDocumentTypeName() + ", searches on " + key + " will not use the index");
+            return null;
+        }
+        try {
+            newTransactionTemplate().execute(new TransactionCallbackWithoutResult() {
+                @Override
+                protected void doInTransactionWithoutResult(TransactionStatus status) {
+                    documentSearchIndexDAO.insertColumn(definition.getDocumentTypeName(), key, columnName);
+                    evict(definition.getDocumentTypeName());
+                }
+            });
+            definition.addColumn(key, columnName, false);
+            return columnName;
+        } catch (DataIntegrityViolationException e) {
+            // another node assigned the key or the column in the meantime, pick up its assignments and try again
+            DocumentSearchIndexDefinition current = documentSearchIndexDAO.findIndexDefinition(
+                    definition.getDocumentTypeName());
+            if (current == null) {
+                return null;
+            }
+            for (Map.Entry<String, String> assignment : current.getColumnNames().entrySet()) {
+                definition.addColumn(assignment.getKey(), assignment.getValue(), current.isMultiValued(
+                        assignment.getKey()));
+            }
+            String assignedColumnName = definition.getAssignedColumnName(key);
+            return assignedColumnName != null ? assignedColumnName : assignColumn(definition, key, columnType);
+        }
+    }
+
+    protected void markMultiValued(final DocumentSearchIndexDefinition definition, final String key,
+            String columnName) {
+        LOG.info("Found more than one value for " + key + " on a document of " + definition.getDocumentTypeName()
+                + ", searches on it will not use the document search index");
+        newTransactionTemplate().execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                documentSearchIndexDAO.markMultiValued(definition.getDocumentTypeName(), key);
+                evict(definition.getDocumentTypeName());
+            }
+        });
+        definition.addColumn(key, columnName, true);
+    }
+
+    private void saveIndexStatus(final String documentTypeName, final String statusCode) {
+        newTransactionTemplate().execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                documentSearchIndexDAO.saveIndexStatus(documentTypeName, statusCode);
+                evict(documentTypeName);
+            }
+        });
+    }
+
+    /**
+     * Evicts the cached index definition of the document type.  Called within the transaction which saves the
+     * definition, so that the flush reaches the other nodes when it commits.
+     */
+    protected void evict(String documentTypeName) {
+        Cache cache = getCache();
+        if (cache != null) {
+            cache.evict(documentTypeName);
+        }
+    }
+
+    private Cache getCache() {
+        return cacheManager == null ? null : cacheManager.getCache(DocumentSearchIndexDefinition.CACHE_NAME);
+    }
+
+    private TransactionTemplate newTransactionTemplate() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+
+    public void setDocumentSearchIndexDAO(DocumentSearchIndexDAO documentSearchIndexDAO) {
+        this.documentSearchIndexDAO = documentSearchIndexDAO;
+    }
+
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
+    }
+
+    /**
+     * The cache manager holding the index definitions, they are not cached if it is not set.
+     */
+    public void setCacheManager(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * The number of documents indexed per transaction by {@link #rebuildIndex(String)}, should stay below the number
+     * of values the database allows in an in list.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+}
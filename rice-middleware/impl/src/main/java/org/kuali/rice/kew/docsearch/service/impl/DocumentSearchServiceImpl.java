@@ -34,8 +34,11 @@ import org.kuali.rice.kew.api.document.attribute.DocumentAttributeFactory;
 import org.kuali.rice.kew.api.document.search.DocumentSearchCriteria;
 import org.kuali.rice.kew.api.document.search.DocumentSearchResult;
 import org.kuali.rice.kew.api.document.search.DocumentSearchResults;
+import org.kuali.rice.kew.docsearch.DocumentSearchCursor;
 import org.kuali.rice.kew.docsearch.DocumentSearchCustomizationMediator;
 import org.kuali.rice.kew.docsearch.DocumentSearchInternalUtils;
+import org.kuali.rice.kew.docsearch.DocumentSearchPage;
+import org.kuali.rice.kew.docsearch.DocumentSearchResultHandler;
 import org.kuali.rice.kew.docsearch.dao.DocumentSearchDAO;
 import org.kuali.rice.kew.docsearch.service.DocumentSearchService;
 import org.kuali.rice.kew.doctype.SecuritySession;
@@ -77,6 +80,10 @@ public class DocumentSearchServiceImpl implements DocumentSearchService {
 	private static final org.apache.log4j.Logger LOG = org.apache.log4j.Logger.getLogger(DocumentSearchServiceImpl.class);
 
 	private static final int MAX_SEARCH_ITEMS = 5;
+    /**
+     * the number of results streamed searches fetch, customize and security check at a time
+     */
+    private static final int STREAMING_BATCH_SIZE = 100;
 	private static final String LAST_SEARCH_ORDER_OPTION = "DocSearch.LastSearch.Order";
 	private static final String NAMED_SEARCH_ORDER_BASE = "DocSearch.NamedSearch.";
 	private static final String LAST_SEARCH_BASE_NAME = "DocSearch.LastSearch.Holding";
@@ -174,6 +181,65 @@ public class DocumentSearchServiceImpl implements DocumentSearchService {
     public DocumentSearchResults lookupDocuments(String principalId, DocumentSearchCriteria criteria, boolean saveSearch) {
         DocumentSearchGenerator docSearchGenerator = getStandardDocumentSearchGenerator();
         DocumentType documentType = KEWServiceLocator.getDocumentTypeService().findByNameCaseInsensitive(criteria.getDocumentTypeName());
+        DocumentSearchCriteria builtCriteria = prepareCriteria(docSearchGenerator, documentType, criteria);
+        boolean criteriaModified = !criteria.equals(builtCriteria);
+        List<RemotableAttributeField> searchFields = determineSearchFields(documentType);
+        DocumentSearchResults.Builder searchResults = docSearchDao.findDocuments(docSearchGenerator, builtCriteria, criteriaModified, searchFields);
+        customizeResults(principalId, documentType, builtCriteria, searchResults);
+        if (StringUtils.isNotBlank(principalId)) {
+            filterSecuredResults(principalId, searchResults, new SecuritySession(principalId));
+        }
+        if(saveSearch){
+            saveSearch(principalId, builtCriteria);
+        }
+        return searchResults.build();
+    }
+
+    @Override
+    public void streamDocuments(String principalId, DocumentSearchCriteria criteria, DocumentSearchCursor after,
+            DocumentSearchResultHandler handler) {
+        DocumentSearchGenerator docSearchGenerator = getStandardDocumentSearchGenerator();
+        DocumentType documentType = KEWServiceLocator.getDocumentTypeService().findByNameCaseInsensitive(criteria.getDocumentTypeName());
+        DocumentSearchCriteria builtCriteria = prepareCriteria(docSearchGenerator, documentType, criteria);
+        List<RemotableAttributeField> searchFields = determineSearchFields(documentType);
+        BatchingResultHandler batchingHandler = new BatchingResultHandler(principalId, documentType, builtCriteria, handler);
+        docSearchDao.streamDocuments(docSearchGenerator, builtCriteria, searchFields, after, STREAMING_BATCH_SIZE, batchingHandler);
+        batchingHandler.forwardBatch();
+    }
+
+    @Override
+    public DocumentSearchPage lookupDocumentPage(String principalId, DocumentSearchCriteria criteria,
+            DocumentSearchCursor after, final int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pageSize must be at least 1 but was " + pageSize);
+        }
+        final List<DocumentSearchResult.Builder> pageResults = new ArrayList<DocumentSearchResult.Builder>(pageSize);
+        final DocumentSearchCursor[] lastPosition = new DocumentSearchCursor[1];
+        final boolean[] moreResults = new boolean[1];
+        streamDocuments(principalId, criteria, after, new DocumentSearchResultHandler() {
+            @Override
+            public boolean handleResult(DocumentSearchResult.Builder result, DocumentSearchCursor position) {
+                if (pageResults.size() == pageSize) {
+                    moreResults[0] = true;
+                    return false;
+                }
+                pageResults.add(result);
+                lastPosition[0] = position;
+                return true;
+            }
+        });
+        DocumentSearchResults.Builder searchResults = DocumentSearchResults.Builder.create(
+                DocumentSearchCriteria.Builder.create(criteria));
+        searchResults.setSearchResults(pageResults);
+        searchResults.setOverThreshold(moreResults[0]);
+        return new DocumentSearchPage(searchResults.build(), moreResults[0] ? lastPosition[0] : null);
+    }
+
+    /**
+     * Validates the criteria and applies the document type's criteria customizations and the search defaults.
+     */
+    protected DocumentSearchCriteria prepareCriteria(DocumentSearchGenerator docSearchGenerator, DocumentType documentType,
+            DocumentSearchCriteria criteria) {
         DocumentSearchCriteria.Builder criteriaBuilder = DocumentSearchCriteria.Builder.create(criteria);
         validateDocumentSearchCriteria(docSearchGenerator, criteriaBuilder);
         DocumentSearchCriteria builtCriteria = applyCriteriaCustomizations(documentType, criteriaBuilder.build());
@@ -188,10 +254,14 @@ public class DocumentSearchServiceImpl implements DocumentSearchService {
             builtCriteria = patchedCriteria.build();
         }
 
-        builtCriteria = applyCriteriaDefaults(builtCriteria);
-        boolean criteriaModified = !criteria.equals(builtCriteria);
-        List<RemotableAttributeField> searchFields = determineSearchFields(documentType);
-        DocumentSearchResults.Builder searchResults = docSearchDao.findDocuments(docSearchGenerator, builtCriteria, criteriaModified, searchFields);
+        return applyCriteriaDefaults(builtCriteria);
+    }
+
+    /**
+     * Applies the document type's result customizations to the given search results.
+     */
+    protected void customizeResults(String principalId, DocumentType documentType, DocumentSearchCriteria builtCriteria,
+            DocumentSearchResults.Builder searchResults) {
         if (documentType != null) {
             // Pass in the principalId as part of searchCriteria to result customizers
             //TODO: The right way  to do this should have been to update the API for document customizer
@@ -214,35 +284,37 @@ public class DocumentSearchServiceImpl implements DocumentSearchService {
                 }
             }
         }
+    }
 
-        if (StringUtils.isNotBlank(principalId) && !searchResults.getSearchResults().isEmpty()) {
-            DocumentSearchResults builtResults = searchResults.build();
-            Set<String> authorizedDocumentIds = KEWServiceLocator.getDocumentSecurityService().documentSearchResultAuthorized(
-                    principalId, builtResults, new SecuritySession(principalId));
-            if (CollectionUtils.isNotEmpty(authorizedDocumentIds)) {
-                int numFiltered = 0;
-                List<DocumentSearchResult.Builder> finalResults = new ArrayList<DocumentSearchResult.Builder>();
-                for (DocumentSearchResult.Builder result : searchResults.getSearchResults()) {
-                    if (authorizedDocumentIds.contains(result.getDocument().getDocumentId())) {
-                        finalResults.add(result);
-                    } else {
-                        numFiltered++;
-                    }
+    /**
+     * Removes the results the principal is not authorized to see and records how many were removed.
+     */
+    protected void filterSecuredResults(String principalId, DocumentSearchResults.Builder searchResults,
+            SecuritySession securitySession) {
+        if (searchResults.getSearchResults().isEmpty()) {
+            return;
+        }
+        DocumentSearchResults builtResults = searchResults.build();
+        Set<String> authorizedDocumentIds = KEWServiceLocator.getDocumentSecurityService().documentSearchResultAuthorized(
+                principalId, builtResults, securitySession);
+        if (CollectionUtils.isNotEmpty(authorizedDocumentIds)) {
+            int numFiltered = 0;
+            List<DocumentSearchResult.Builder> finalResults = new ArrayList<DocumentSearchResult.Builder>();
+            for (DocumentSearchResult.Builder result : searchResults.getSearchResults()) {
+                if (authorizedDocumentIds.contains(result.getDocument().getDocumentId())) {
+                    finalResults.add(result);
+                } else {
+                    numFiltered++;
                 }
-                searchResults.setSearchResults(finalResults);
-                searchResults.setNumberOfSecurityFilteredResults(numFiltered);
-            } else {
-                searchResults.setNumberOfSecurityFilteredResults(searchResults.getSearchResults().size());
-                searchResults.setSearchResults(Collections.<DocumentSearchResult.Builder>emptyList());
             }
+            searchResults.setSearchResults(finalResults);
+            searchResults.setNumberOfSecurityFilteredResults(numFiltered);
+        } else {
+            searchResults.setNumberOfSecurityFilteredResults(searchResults.getSearchResults().size());
+            searchResults.setSearchResults(Collections.<DocumentSearchResult.Builder>emptyList());
         }
-        if(saveSearch){
-            saveSearch(principalId, builtCriteria);
-        }
-        return searchResults.build();
     }
 
-
     protected void applyResultCustomization(DocumentSearchResult.Builder result, DocumentSearchResultValue value) {
         Map<String, List<DocumentAttribute.AbstractBuilder<?>>> customizedAttributeMap =
                 new LinkedHashMap<String, List<DocumentAttribute.AbstractBuilder<?>>>();
@@ -775,4 +847,61 @@ public class DocumentSearchServiceImpl implements DocumentSearchService {
         return docSearchDao.getFetchMoreIterationLimit();
     }
 
+    /**
+     * Customizes and security checks streamed results in batches before passing them on, which keeps the per batch
+     * lookups the regular search does while only ever holding a single batch in memory.
+     */
+    private final class BatchingResultHandler implements DocumentSearchResultHandler {
+
+        private final String principalId;
+        private final DocumentType documentType;
+        private final DocumentSearchCriteria criteria;
+        private final DocumentSearchResultHandler handler;
+        private final SecuritySession securitySession;
+        private final List<DocumentSearchResult.Builder> batch = new ArrayList<DocumentSearchResult.Builder>(STREAMING_BATCH_SIZE);
+        private final Map<String, DocumentSearchCursor> positions = new HashMap<String, DocumentSearchCursor>();
+        private boolean stopped = false;
+
+        private BatchingResultHandler(String principalId, DocumentType documentType, DocumentSearchCriteria criteria,
+                DocumentSearchResultHandler handler) {
+            this.principalId = principalId;
+            this.documentType = documentType;
+            this.criteria = criteria;
+            this.handler = handler;
+            this.securitySession = StringUtils.isBlank(principalId) ? null : new SecuritySession(principalId);
+        }
+
+        @Override
+        public boolean handleResult(DocumentSearchResult.Builder result, DocumentSearchCursor position) {
+            batch.add(result);
+            positions.put(result.getDocument().getDocumentId(), position);
+            if (batch.size() >= STREAMING_BATCH_SIZE) {
+                forwardBatch();
+            }
+            return !stopped;
+        }
+
+        private void forwardBatch() {
+            if (batch.isEmpty() || stopped) {
+                return;
+            }
+            DocumentSearchResults.Builder searchResults = DocumentSearchResults.Builder.create(
+                    DocumentSearchCriteria.Builder.create(criteria));
+            searchResults.setSearchResults(new ArrayList<DocumentSearchResult.Builder>(batch));
+            customizeResults(principalId, documentType, criteria, searchResults);
+            if (securitySession != null) {
+                filterSecuredResults(principalId, searchResults, securitySession);
+            }
+            for (DocumentSearchResult.Builder result : searchResults.getSearchResults()) {
+                if (!handler.handleResult(result, positions.get(result.getDocument().getDocumentId()))) {
+                    stopped = true;
+                    break;
+                }
+            }
+            batch.clear();
+            positions.clear();
+        }
+
+    }
+
 }
@@ -0,0 +1,506 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.docsearch.service.impl;
+
+import org.kuali.rice.core.api.exception.RiceIllegalArgumentException;
+import org.kuali.rice.kew.api.document.Document;
+import org.kuali.rice.kew.api.document.DocumentContent;
+import org.kuali.rice.kew.docsearch.SearchableAttributeReindexPartition;
+import org.kuali.rice.kew.docsearch.SearchableAttributeReindexProgress;
+import org.kuali.rice.kew.docsearch.SearchableAttributeValue;
+import org.kuali.rice.kew.docsearch.dao.SearchableAttributeReindexDAO;
+import org.kuali.rice.kew.docsearch.service.SearchableAttributeReindexService;
+import org.kuali.rice.kew.doctype.bo.DocumentType;
+import org.kuali.rice.kew.framework.document.attribute.SearchableAttribute;
+import org.kuali.rice.kew.impl.document.attribute.DocumentAttributeIndexingQueueImpl;
+import org.kuali.rice.kew.routeheader.DocumentRouteHeaderValue;
+import org.kuali.rice.kew.routeheader.DocumentRouteHeaderValueContent;
+import org.kuali.rice.kew.service.KEWServiceLocator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Default implementation of the {@link SearchableAttributeReindexService}.
+ *
+ * <p>The id ranges of a re-index are handed to a fork/join pool, which splits them down to single ranges and keeps
+ * every worker busy even when the ranges take very different amounts of time.  Within a range the documents are read
+ * in batches ordered by id; each batch loads its route headers and content with one query each, deletes the old
+ * searchable attribute rows with one statement per table and inserts the new ones as JDBC batches.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class SearchableAttributeReindexServiceImpl implements SearchableAttributeReindexService {
+
+    private static final org.apache.log4j.Logger LOG = org.apache.log4j.Logger.getLogger(
+            SearchableAttributeReindexServiceImpl.class);
+
+    private static final int DEFAULT_PARALLELISM = 4;
+    private static final int DEFAULT_PARTITION_SIZE = 10000;
+    private static final int DEFAULT_BATCH_SIZE = 100;
+
+    private final ConcurrentMap<String, ReindexRun> runs = new ConcurrentHashMap<String, ReindexRun>();
+
+    private SearchableAttributeReindexDAO searchableAttributeReindexDAO;
+    private PlatformTransactionManager transactionManager;
+    private int parallelism = DEFAULT_PARALLELISM;
+    private int partitionSize = DEFAULT_PARTITION_SIZE;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int maxDocumentsPerSecond;
+
+    @Override
+    public SearchableAttributeReindexProgress reindexDocuments(String documentTypeName) {
+        DocumentType documentType = KEWServiceLocator.getDocumentTypeService().findByName(documentTypeName);
+        if (documentType == null) {
+            throw new RiceIllegalArgumentException("Document type " + documentTypeName + " does not exist");
+        }
+        String name = documentType.getName();
+        ReindexRun run = new ReindexRun(name, maxDocumentsPerSecond);
+        synchronized (runs) {
+            ReindexRun previousRun = runs.get(name);
+            if (previousRun != null && previousRun.isRunning()) {
+                throw new IllegalStateException("Document type " + name + " is already being re-indexed");
+            }
+            runs.put(name, run);
+        }
+
+        ForkJoinPool pool = null;
+        try {
+            List<SearchableAttributeReindexPartition> partitions = loadPartitions(name);
+            List<SearchableAttributeReindexPartition> pendingPartitions =
+                    new ArrayList<SearchableAttributeReindexPartition>();
+            for (SearchableAttributeReindexPartition partition : partitions) {
+                if (!partition.isComplete()) {
+                    pendingPartitions.add(partition);
+                }
+            }
+            run.start(partitions.size(), partitions.size() - pendingPartitions.size());
+            LOG.info("Re-indexing the searchable attributes of " + name + ", " + pendingPartitions.size() + " of "
+                    + partitions.size() + " document id ranges left to do");
+            if (!pendingPartitions.isEmpty()) {
+                pool = new ForkJoinPool(parallelism, new ReindexThreadFactory(name,
+                        Thread.currentThread().getContextClassLoader()), null, false);
+                pool.invoke(new PartitionTask(run, pendingPartitions, 0, pendingPartitions.size()));
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+            run.finish();
+        }
+        SearchableAttributeReindexProgress progress = run.getProgress();
+        LOG.info("Finished re-indexing the searchable attributes of " + progress);
+        return progress;
+    }
+
+    @Override
+    public void startReindex(final String documentTypeName) {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    reindexDocuments(documentTypeName);
+                } catch (RuntimeException e) {
+                    LOG.error("Failed to re-index the searchable attributes of " + documentTypeName, e);
+                }
+            }
+        }, "SearchableAttributeReindex-" + documentTypeName);
+        thread.setContextClassLoader(Thread.currentThread().getContextClassLoader());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void cancelReindex(String documentTypeName) {
+        ReindexRun run = runs.get(documentTypeName);
+        if (run != null && run.isRunning()) {
+            LOG.info("Cancelling the re-index of the searchable attributes of " + documentTypeName);
+            run.cancel();
+        }
+    }
+
+    @Override
+    public void resetReindex(final String documentTypeName) {
+        ReindexRun run = runs.get(documentTypeName);
+        if (run != null && run.isRunning()) {
+            throw new IllegalStateException("Document type " + documentTypeName + " is being re-indexed");
+        }
+        newTransactionTemplate().execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                searchableAttributeReindexDAO.deletePartitions(documentTypeName);
+            }
+        });
+    }
+
+    @Override
+    public SearchableAttributeReindexProgress getProgress(String documentTypeName) {
+        ReindexRun run = runs.get(documentTypeName);
+        return run == null ? null : run.getProgress();
+    }
+
+    /**
+     * Returns the id ranges of an unfinished re-index of the document type, or splits its documents into new ranges
+     * when the last re-index completed.
+     */
+    protected List<SearchableAttributeReindexPartition> loadPartitions(final String documentTypeName) {
+        List<SearchableAttributeReindexPartition> partitions = searchableAttributeReindexDAO.findPartitions(
+                documentTypeName);
+        for (SearchableAttributeReindexPartition partition : partitions) {
+            if (!partition.isComplete()) {
+                return partitions;
+            }
+        }
+        return newTransactionTemplate().execute(new TransactionCallback<List<SearchableAttributeReindexPartition>>() {
+            @Override
+            public List<SearchableAttributeReindexPartition> doInTransaction(TransactionStatus status) {
+                searchableAttributeReindexDAO.deletePartitions(documentTypeName);
+                List<String> boundaries = searchableAttributeReindexDAO.findPartitionBoundaries(documentTypeName,
+                        partitionSize);
+                List<SearchableAttributeReindexPartition> newPartitions =
+                        new ArrayList<SearchableAttributeReindexPartition>(boundaries.size() + 1);
+                String startDocumentId = null;
+                for (String boundary : boundaries) {
+                    newPartitions.add(new SearchableAttributeReindexPartition(documentTypeName,
+                            newPartitions.size() + 1, startDocumentId, boundary));
+                    startDocumentId = boundary;
+                }
+                // the last range is left open so it picks up documents created since the ranges were set up
+                newPartitions.add(new SearchableAttributeReindexPartition(documentTypeName, newPartitions.size() + 1,
+                        startDocumentId, null));
+                searchableAttributeReindexDAO.insertPartitions(newPartitions);
+                return newPartitions;
+            }
+        });
+    }
+
+    /**
+     * Works through the documents of the id range batch by batch.  A failure stops the range at its last saved
+     * checkpoint without affecting the other ranges.
+     */
+    protected void reindexPartition(ReindexRun run, SearchableAttributeReindexPartition partition) {
+        try {
+            while (!partition.isComplete()) {
+                if (run.isCancelled()) {
+                    return;
+                }
+                List<String> documentIds = searchableAttributeReindexDAO.findDocumentIds(
+                        partition.getDocumentTypeName(), partition.getResumeDocumentId(),
+                        partition.getEndDocumentId(), batchSize);
+                run.acquire(documentIds.size());
+                reindexBatch(run, partition, documentIds);
+            }
+            run.partitionCompleted();
+            if (LOG.isInfoEnabled()) {
+                LOG.info("Re-indexed " + partition + ", " + run.getProgress());
+            }
+        } catch (RuntimeException e) {
+            run.partitionFailed();
+            LOG.error("Failed to re-index " + partition + " after document " + partition.getLastDocumentId()
+                    + ", it will be continued from there when the re-index is resumed", e);
+        }
+    }
+
+    /**
+     * Replaces the searchable attribute values of a batch of documents and saves the checkpoint of the id range in
+     * the same transaction.  An empty or short batch completes the range.
+     */
+    protected void reindexBatch(final ReindexRun run, final SearchableAttributeReindexPartition partition,
+            final List<String> documentIds) {
+        final int[] counts = new int[2];
+        newTransactionTemplate().execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                Map<String, List<SearchableAttributeValue>> values = buildSearchableAttributeValues(run,
+                        partition.getDocumentTypeName(), documentIds);
+                List<SearchableAttributeValue> allValues = new ArrayList<SearchableAttributeValue>();
+                for (List<SearchableAttributeValue> documentValues : values.values()) {
+                    allValues.addAll(documentValues);
+                }
+                searchableAttributeReindexDAO.deleteSearchableAttributeValues(values.keySet());
+                searchableAttributeReindexDAO.insertSearchableAttributeValues(allValues);
+                KEWServiceLocator.getDocumentSearchIndexService().indexDocuments(partition.getDocumentTypeName(),
+                        values);
+
+                if (!documentIds.isEmpty()) {
+                    partition.setLastDocumentId(documentIds.get(documentIds.size() - 1));
+                    partition.setDocumentCount(partition.getDocumentCount() + documentIds.size());
+                }
+                if (documentIds.size() < batchSize) {
+                    partition.setStatusCode(SearchableAttributeReindexPartition.STATUS_COMPLETE);
+                }
+                searchableAttributeReindexDAO.updatePartition(partition);
+                counts[0] = values.size();
+                counts[1] = allValues.size();
+            }
+        });
+        run.batchCompleted(counts[0], counts[1]);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Re-indexed " + documentIds.size() + " documents of " + partition + " up to document "
+                    + partition.getLastDocumentId());
+        }
+    }
+
+    /**
+     * Extracts the searchable attribute values of the documents, leaving out documents whose extraction fails so
+     * that their current values are kept.
+     *
+     * @return the values keyed by document id
+     */
+    protected Map<String, List<SearchableAttributeValue>> buildSearchableAttributeValues(ReindexRun run,
+            String documentTypeName, List<String> documentIds) {
+        Map<String, List<SearchableAttributeValue>> values = new LinkedHashMap<String, List<SearchableAttributeValue>>();
+        if (documentIds.isEmpty()) {
+            return values;
+        }
+        DocumentType documentType = KEWServiceLocator.getDocumentTypeService().findByName(documentTypeName);
+        List<DocumentType.ExtensionHolder<SearchableAttribute>> searchableAttributes =
+                documentType.loadSearchableAttributes();
+        Map<String, DocumentRouteHeaderValueContent> contents = KEWServiceLocator.getRouteHeaderService().getContents(
+                documentIds);
+        for (DocumentRouteHeaderValue routeHeader : KEWServiceLocator.getRouteHeaderService().getRouteHeaders(
+                documentIds)) {
+            String documentId = routeHeader.getDocumentId();
+            try {
+                Document document = DocumentRouteHeaderValue.to(routeHeader);
+                DocumentContent documentContent = DocumentRouteHeaderValueContent.to(contents.get(documentId));
+                values.put(documentId, DocumentAttributeIndexingQueueImpl.buildSearchableAttributeValues(
+                        searchableAttributes, document, documentContent));
+            } catch (RuntimeException e) {
+                run.documentFailed();
+                LOG.warn("Failed to extract the searchable attributes of document " + documentId
+                        + ", its existing values are kept", e);
+            }
+        }
+        return values;
+    }
+
+    private TransactionTemplate newTransactionTemplate() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+
+    public void setSearchableAttributeReindexDAO(SearchableAttributeReindexDAO searchableAttributeReindexDAO) {
+        this.searchableAttributeReindexDAO = searchableAttributeReindexDAO;
+    }
+
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
+    }
+
+    /**
+     * The number of id ranges re-indexed at the same time.
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * The number of documents per id range, which is also the granularity at which failed ranges are retried.
+     */
+    public void setPartitionSize(int partitionSize) {
+        this.partitionSize = partitionSize;
+    }
+
+    /**
+     * The number of documents re-indexed per transaction, should stay below the number of values the database allows
+     * in an in list.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Limits the rate at which documents are re-indexed across all ranges, zero or less for no limit.
+     */
+    public void setMaxDocumentsPerSecond(int maxDocumentsPerSecond) {
+        this.maxDocumentsPerSecond = maxDocumentsPerSecond;
+    }
+
+    /**
+     * Splits the id ranges in halves until each task holds a single range.
+     */
+    private final class PartitionTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 5417302956613826364L;
+
+        private final ReindexRun run;
+        private final List<SearchableAttributeReindexPartition> partitions;
+        private final int from;
+        private final int to;
+
+        PartitionTask(ReindexRun run, List<SearchableAttributeReindexPartition> partitions, int from, int to) {
+            this.run = run;
+            this.partitions = partitions;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                reindexPartition(run, partitions.get(from));
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new PartitionTask(run, partitions, from, middle), new PartitionTask(run, partitions, middle, to));
+        }
+    }
+
+    /**
+     * The workers have to see the same context class loader as the caller to find the KEW services.
+     */
+    private static final class ReindexThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+
+        private final String documentTypeName;
+        private final ClassLoader contextClassLoader;
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        ReindexThreadFactory(String documentTypeName, ClassLoader contextClassLoader) {
+            this.documentTypeName = documentTypeName;
+            this.contextClassLoader = contextClassLoader;
+        }
+
+        @Override
+        public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+            ForkJoinWorkerThread thread = new ReindexWorkerThread(pool);
+            thread.setName("SearchableAttributeReindex-" + documentTypeName + "-" + threadNumber.incrementAndGet());
+            thread.setContextClassLoader(contextClassLoader);
+            return thread;
+        }
+    }
+
+    private static final class ReindexWorkerThread extends ForkJoinWorkerThread {
+        ReindexWorkerThread(ForkJoinPool pool) {
+            super(pool);
+        }
+    }
+
+    /**
+     * The state of a single re-index of a document type: its counters, cancellation and throttling.
+     */
+    protected static final class ReindexRun {
+
+        private final String documentTypeName;
+        private final long nanosPerDocument;
+        private final AtomicInteger completedPartitions = new AtomicInteger();
+        private final AtomicInteger failedPartitions = new AtomicInteger();
+        private final AtomicLong documents = new AtomicLong();
+        private final AtomicLong failedDocuments = new AtomicLong();
+        private final AtomicLong rows = new AtomicLong();
+        private volatile int partitionCount;
+        private volatile long startTime = System.currentTimeMillis();
+        private volatile long endTime;
+        private volatile boolean running = true;
+        private volatile boolean cancelled;
+        private long nextPermitNanos = System.nanoTime();
+
+        ReindexRun(String documentTypeName, int maxDocumentsPerSecond) {
+            this.documentTypeName = documentTypeName;
+            this.nanosPerDocument = maxDocumentsPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / maxDocumentsPerSecond :
+                    0;
+        }
+
+        void start(int partitionCount, int completedPartitionCount) {
+            this.partitionCount = partitionCount;
+            this.completedPartitions.set(completedPartitionCount);
+            this.startTime = System.currentTimeMillis();
+        }
+
+        void finish() {
+            endTime = System.currentTimeMillis();
+            running = false;
+        }
+
+        boolean isRunning() {
+            return running;
+        }
+
+        void cancel() {
+            cancelled = true;
+        }
+
+        boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Waits until the given number of documents may be re-indexed without going over the configured rate.
+         */
+        void acquire(int documentCount) {
+            if (nanosPerDocument == 0 || documentCount == 0) {
+                return;
+            }
+            long waitNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                long permitNanos = Math.max(nextPermitNanos, now);
+                nextPermitNanos = permitNanos + nanosPerDocument * documentCount;
+                waitNanos = permitNanos - now;
+            }
+            if (waitNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(waitNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    cancel();
+                }
+            }
+        }
+
+        void batchCompleted(int documentCount, int rowCount) {
+            documents.addAndGet(documentCount);
+            rows.addAndGet(rowCount);
+        }
+
+        void documentFailed() {
+            failedDocuments.incrementAndGet();
+        }
+
+        void partitionCompleted() {
+            completedPartitions.incrementAndGet();
+        }
+
+        void partitionFailed() {
+            failedPartitions.incrementAndGet();
+        }
+
+        SearchableAttributeReindexProgress getProgress() {
+            long end = running ? System.currentTimeMillis() : endTime;
+            return new SearchableAttributeReindexProgress(documentTypeName, running, partitionCount,
+                    completedPartitions.get(), failedPartitions.get(), documents.get(), failedDocuments.get(),
+                    rows.get(), end - startTime);
+        }
+    }
+
+}
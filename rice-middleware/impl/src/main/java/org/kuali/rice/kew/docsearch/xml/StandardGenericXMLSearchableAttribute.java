@@ -59,7 +59,8 @@ import org.kuali.rice.kew.docsearch.CaseAwareSearchableAttributeValue;
 import org.kuali.rice.kew.docsearch.DocumentSearchInternalUtils;
 import org.kuali.rice.kew.docsearch.SearchableAttributeValue;
 import org.kuali.rice.kew.framework.document.attribute.SearchableAttribute;
-import org.kuali.rice.kew.rule.xmlrouting.XPathHelper;
+import org.kuali.rice.kew.rule.xmlrouting.SharedDocumentContent;
+import org.kuali.rice.kew.rule.xmlrouting.XPathExpressionCache;
 import org.kuali.rice.kim.api.group.Group;
 import org.kuali.rice.kim.api.group.GroupService;
 import org.kuali.rice.kim.api.services.KimApiServiceLocator;
@@ -167,7 +168,7 @@ public class StandardGenericXMLSearchableAttribute implements SearchableAttribut
         }
         Document document;
         try {
-            document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new InputSource(new BufferedReader(new StringReader(fullDocumentContent))));
+            document = SharedDocumentContent.parse(fullDocumentContent);
         } catch (Exception e){
             LOG.error("error parsing docContent: "+documentWithContent.getDocumentContent(), e);
             throw new RuntimeException("Error trying to parse docContent: "+documentWithContent.getDocumentContent(), e);
@@ -181,7 +182,17 @@ public class StandardGenericXMLSearchableAttribute implements SearchableAttribut
         } catch (ParserConfigurationException pce) {
             throw new RuntimeException("Error parsing searchable attribute content", pce);
         }
-        XPath xpath = XPathHelper.newXPath(document);
+        XPath xpath = XPathExpressionCache.acquire(document);
+        try {
+            extractFieldValues(xpath, document, fields, searchStorageValues);
+        } finally {
+            XPathExpressionCache.release(xpath);
+        }
+        return searchStorageValues;
+    }
+
+    private void extractFieldValues(XPath xpath, Document document, List<XMLSearchableAttributeContent.FieldDef> fields,
+            List<DocumentAttribute> searchStorageValues) {
         for (XMLSearchableAttributeContent.FieldDef field: fields) {
             if (StringUtils.isNotEmpty(field.fieldEvaluationExpr)) {
                 List<String> values = new ArrayList<String>();
@@ -227,7 +238,6 @@ public class StandardGenericXMLSearchableAttribute implements SearchableAttribut
                 }
             }
         }
-        return searchStorageValues;
     }
 
     private DocumentAttribute setupSearchableAttributeValue(String dataType, String key, String value) {
@@ -25,7 +25,7 @@ import org.kuali.rice.core.api.util.xml.XmlHelper;
 import org.kuali.rice.core.api.util.xml.XmlJotter;
 import org.kuali.rice.kew.api.KewApiConstants;
 import org.kuali.rice.kew.api.extension.ExtensionDefinition;
-import org.kuali.rice.kew.rule.xmlrouting.XPathHelper;
+import org.kuali.rice.kew.rule.xmlrouting.XPathExpressionCache;
 import org.kuali.rice.kew.util.Utilities;
 import org.kuali.rice.kim.api.group.Group;
 import org.kuali.rice.kim.api.group.GroupService;
@@ -86,10 +86,14 @@ class XMLSearchableAttributeContent {
 
     Node getSearchingConfig() throws XPathExpressionException, ParserConfigurationException {
         if (searchingConfig == null) {
-            XPath xpath = XPathHelper.newXPath();
-            // technically this should probably only be "searchingConfig", and not search the whole tree
-            String searchingConfigExpr = "//searchingConfig";
-            searchingConfig = (Node) xpath.evaluate(searchingConfigExpr, getAttributeConfig(), XPathConstants.NODE);
+            XPath xpath = XPathExpressionCache.acquire();
+            try {
+                // technically this should probably only be "searchingConfig", and not search the whole tree
+                String searchingConfigExpr = "//searchingConfig";
+                searchingConfig = (Node) xpath.evaluate(searchingConfigExpr, getAttributeConfig(), XPathConstants.NODE);
+            } finally {
+                XPathExpressionCache.release(xpath);
+            }
         }
         return searchingConfig;
     }
@@ -97,8 +101,13 @@ class XMLSearchableAttributeContent {
     String getSearchContent() throws XPathExpressionException, ParserConfigurationException {
         if (searchContent == null) {
             Node cfg = getSearchingConfig();
-            XPath xpath = XPathHelper.newXPath();
-            Node n = (Node) xpath.evaluate("xmlSearchContent", cfg, XPathConstants.NODE);
+            XPath xpath = XPathExpressionCache.acquire();
+            Node n;
+            try {
+                n = (Node) xpath.evaluate("xmlSearchContent", cfg, XPathConstants.NODE);
+            } finally {
+                XPathExpressionCache.release(xpath);
+            }
             if (n != null) {
                 StringBuilder sb = new StringBuilder();
                 NodeList list = n.getChildNodes();
@@ -173,13 +182,17 @@ class XMLSearchableAttributeContent {
     Map<String, FieldDef> getFieldDefs() throws XPathExpressionException, ParserConfigurationException {
         if (fieldDefs == null) {
             fieldDefs = new LinkedHashMap<String, FieldDef>();
-            XPath xpath = XPathHelper.newXPath();
             Node searchingConfig = getSearchingConfig();
             if (searchingConfig != null) {
-                NodeList list = (NodeList) xpath.evaluate("fieldDef", searchingConfig, XPathConstants.NODESET);
-                for (int i = 0; i < list.getLength(); i++) {
-                    FieldDef def = new FieldDef(list.item(i));
-                    fieldDefs.put(def.name, def);
+                XPath xpath = XPathExpressionCache.acquire();
+                try {
+                    NodeList list = (NodeList) xpath.evaluate("fieldDef", searchingConfig, XPathConstants.NODESET);
+                    for (int i = 0; i < list.getLength(); i++) {
+                        FieldDef def = new FieldDef(xpath, list.item(i));
+                        fieldDefs.put(def.name, def);
+                    }
+                } finally {
+                    XPathExpressionCache.release(xpath);
                 }
             }
         }
@@ -215,8 +228,7 @@ class XMLSearchableAttributeContent {
         final Boolean showResultColumn;
         final Lookup lookup;
 
-        FieldDef(Node n) throws XPathExpressionException {
-            XPath xpath = XPathHelper.newXPath();
+        FieldDef(XPath xpath, Node n) throws XPathExpressionException {
             this.name = getStringAttr(n, "name");
             this.title= getStringAttr(n, "title");
             this.defaultValue = getNodeText(xpath, n, "value");
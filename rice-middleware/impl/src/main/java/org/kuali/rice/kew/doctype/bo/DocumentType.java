@@ -403,6 +403,16 @@ public class DocumentType extends PersistableBusinessObjectBase implements Mutab
         return getPolicyByName(DOC_SEARCH_TARGET.getCode(), (String) null);
     }
 
+    /**
+     * Returns the DOCUMENT_SEARCH_INDEX policy on the document if defined, or
+     * the default value for this policy which is false.
+     * @return the DOCUMENT_SEARCH_INDEX document type policy
+     * @since 2.6.0
+     */
+    public DocumentTypePolicy getDocumentSearchIndexPolicy() {
+        return getPolicyByName(DOCUMENT_SEARCH_INDEX.getCode(), Boolean.FALSE);
+    }
+
     /**
      * This method returns a boolean denoting whether the KEW Route Status is to be displayed.
      * The KEW Route Status is updated by the workflow engine regardless of whether it is to be displayed or not.
@@ -17,6 +17,7 @@ package org.kuali.rice.kew.doctype.service;
 
 import org.kuali.rice.core.framework.impex.xml.XmlExporter;
 import org.kuali.rice.kew.api.rule.Rule;
+import org.kuali.rice.kew.docsearch.DocumentSearchIndexDefinition;
 import org.kuali.rice.kew.doctype.bo.DocumentType;
 import org.kuali.rice.kim.api.permission.Permission;
 import org.springframework.cache.annotation.CacheEvict;
@@ -31,10 +32,10 @@ import java.util.List;
  * @author Kuali Rice Team (rice.collab@kuali.org)
  */
 public interface DocumentTypeService extends DocumentTypeQueryService, XmlExporter {
-    @CacheEvict(value={Rule.Cache.NAME, org.kuali.rice.kew.api.doctype.DocumentType.Cache.NAME, Permission.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={Rule.Cache.NAME, org.kuali.rice.kew.api.doctype.DocumentType.Cache.NAME, Permission.Cache.NAME, Permission.Cache.EFFECTIVE_NAME, DocumentSearchIndexDefinition.CACHE_NAME}, allEntries = true)
     DocumentType versionAndSave(DocumentType documentType);
 
-    @CacheEvict(value={Rule.Cache.NAME, org.kuali.rice.kew.api.doctype.DocumentType.Cache.NAME, Permission.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={Rule.Cache.NAME, org.kuali.rice.kew.api.doctype.DocumentType.Cache.NAME, Permission.Cache.NAME, Permission.Cache.EFFECTIVE_NAME, DocumentSearchIndexDefinition.CACHE_NAME}, allEntries = true)
     DocumentType save(DocumentType documentType);
 
     @Cacheable(value= org.kuali.rice.kew.api.doctype.DocumentType.Cache.NAME, key="'{BO}allCurrentRootDocuments'")
@@ -46,6 +46,12 @@ public class RouteContext implements Serializable {
 
 	private DocumentContent documentContent;
 
+	/**
+	 * The raw content which {@link #documentContent} was parsed from by this context, or null if the document content
+	 * was supplied by the caller.
+	 */
+	private transient String parsedDocContent;
+
 	private RouteNodeInstance nodeInstance;
 
 	private EngineState engineState;
@@ -123,19 +129,56 @@ public class RouteContext implements Serializable {
 
 	public void setDocument(DocumentRouteHeaderValue routeHeader) {
 		this.routeHeader = routeHeader;
-		try {
-			setDocumentContent(new StandardDocumentContent(routeHeader.getDocContent(), this));
-		} catch (Exception e) {
-			throw new WorkflowRuntimeException(e);
-		}
+		refreshDocumentContent();
 	}
 
+	/**
+	 * Returns the parsed content of the document.  The content is parsed once and shared by every consumer during the
+	 * routing pass, it is only parsed again once the content of the document has been modified.
+	 */
 	public DocumentContent getDocumentContent() {
+		if (parsedDocContent != null) {
+			refreshDocumentContent();
+		}
 		return documentContent;
 	}
 
 	public void setDocumentContent(DocumentContent documentContent) {
 		this.documentContent = documentContent;
+		this.parsedDocContent = null;
+	}
+
+	/**
+	 * Returns the parsed document content held by this context if it was parsed from the given raw content, allowing
+	 * code which only has the raw content at hand to avoid parsing it again.
+	 *
+	 * @return the parsed content, or null if this context does not hold a parse of the given content
+	 */
+	public DocumentContent findDocumentContent(String docContent) {
+		if (parsedDocContent != null && isSameContent(parsedDocContent, docContent)) {
+			return documentContent;
+		}
+		return null;
+	}
+
+	private void refreshDocumentContent() {
+		if (routeHeader == null) {
+			return;
+		}
+		String docContent = routeHeader.getDocContent();
+		if (documentContent != null && parsedDocContent != null && isSameContent(parsedDocContent, docContent)) {
+			return;
+		}
+		try {
+			this.documentContent = new StandardDocumentContent(docContent, this);
+			this.parsedDocContent = docContent == null ? "" : docContent;
+		} catch (Exception e) {
+			throw new WorkflowRuntimeException(e);
+		}
+	}
+
+	private static boolean isSameContent(String parsedContent, String docContent) {
+		return parsedContent == docContent || parsedContent.equals(docContent == null ? "" : docContent);
 	}
 
 	public RouteNodeInstance getNodeInstance() {
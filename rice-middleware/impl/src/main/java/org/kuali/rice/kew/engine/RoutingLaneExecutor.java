@@ -0,0 +1,284 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.engine;
+
+import org.apache.log4j.Logger;
+import org.kuali.rice.core.api.config.property.ConfigContext;
+import org.kuali.rice.ksb.util.KSBConstants;
+import org.springframework.beans.factory.InitializingBean;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Partitions routing work by document id onto a fixed set of "lanes".
+ *
+ * <p>A given document id always hashes to the same lane, and only one thread at a time works on a lane, so all
+ * processing of a document submitted through this executor on this node is serialized in memory before it reaches
+ * the KREW_DOC_HDR_T row lock.  This only reduces contention on the row lock, it does not replace it: the
+ * {@link StandardWorkflowEngine} still takes the pessimistic lock on the route header, since other nodes and callers
+ * outside of the lanes may be processing the same document.</p>
+ *
+ * <p>The work runs on the calling thread, in the caller's transaction, so it commits or rolls back together with
+ * whatever else the caller does, such as KSB deleting the message which requested the processing.  A lane is just a
+ * lock, lanes don't add threads, so the number of documents routing concurrently is bounded by the callers, usually
+ * the KSB thread pool.  Since unrelated documents which hash to the same lane wait for each other, there are many more
+ * lanes than routing threads by default.  A caller which waited longer than the lock timeout for its lane goes ahead
+ * without it and relies on the row lock alone, so a caller which already holds a lane or a row lock can't deadlock on
+ * another lane.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class RoutingLaneExecutor implements InitializingBean {
+
+    private static final Logger LOG = Logger.getLogger(RoutingLaneExecutor.class);
+
+    public static final int DEFAULT_LANE_COUNT = 64;
+    public static final long DEFAULT_LOCK_TIMEOUT = 30000;
+
+    private boolean enabled;
+    private int laneCount;
+    private long lockTimeout = DEFAULT_LOCK_TIMEOUT;
+
+    private volatile List<RoutingLane> lanes = Collections.emptyList();
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        if (!enabled) {
+            return;
+        }
+        if (isSynchronousMessaging()) {
+            // the caller may already hold the route header lock of another document in its own transaction, so waiting
+            // on a lane would only add to the row lock waits
+            LOG.warn("Routing lanes are not supported with synchronous message delivery, routing lanes disabled");
+            return;
+        }
+        if (laneCount < 1) {
+            laneCount = DEFAULT_LANE_COUNT;
+        }
+        if (lockTimeout < 0) {
+            throw new IllegalStateException("lockTimeout must not be negative, was " + lockTimeout);
+        }
+        List<RoutingLane> newLanes = new ArrayList<RoutingLane>(laneCount);
+        for (int index = 0; index < laneCount; index++) {
+            newLanes.add(new RoutingLane(index));
+        }
+        this.lanes = Collections.unmodifiableList(newLanes);
+        LOG.info("Started " + laneCount + " routing lanes with a lock timeout of " + lockTimeout + " ms");
+    }
+
+    /**
+     * Returns true if work will be dispatched onto the routing lanes.
+     */
+    public boolean isActive() {
+        return enabled && !lanes.isEmpty();
+    }
+
+    /**
+     * Executes the given work on the calling thread once it holds the lane which owns the given document id.
+     *
+     * <p>Lanes are re-entrant, a thread which already holds the lane for this document (re-entrant processing from
+     * within the engine) executes the work right away.</p>
+     *
+     * @param documentId the id of the document the work will route, must not be null
+     * @param work the work to execute
+     * @param <T> the result type of the work
+     * @return the result of the work
+     * @throws Exception if the work throws an exception or the caller is interrupted while waiting
+     */
+    public <T> T execute(String documentId, Callable<T> work) throws Exception {
+        if (documentId == null) {
+            throw new IllegalArgumentException("documentId was null");
+        }
+        if (!isActive()) {
+            throw new IllegalStateException("Routing lanes are not active");
+        }
+        RoutingLane lane = getLane(documentId);
+        long waitStartedAt = System.nanoTime();
+        boolean locked = lane.lock.tryLock(lockTimeout, TimeUnit.MILLISECONDS);
+        long startedAt = System.nanoTime();
+        lane.waitTime.record(startedAt - waitStartedAt);
+        if (!locked) {
+            lane.lockTimeouts.incrementAndGet();
+            LOG.warn("Timed out after " + lockTimeout + " ms waiting for routing lane " + lane.index + ", processing document "
+                    + documentId + " without it");
+        }
+        boolean success = false;
+        try {
+            T result = work.call();
+            success = true;
+            return result;
+        } finally {
+            if (locked) {
+                lane.lock.unlock();
+            }
+            lane.executionTime.record(System.nanoTime() - startedAt);
+            if (success) {
+                lane.processed.incrementAndGet();
+            } else {
+                lane.failed.incrementAndGet();
+            }
+        }
+    }
+
+    protected boolean isSynchronousMessaging() {
+        return ConfigContext.getCurrentContextConfig() != null && KSBConstants.MESSAGING_SYNCHRONOUS.equals(
+                ConfigContext.getCurrentContextConfig().getProperty(KSBConstants.Config.MESSAGE_DELIVERY));
+    }
+
+    protected RoutingLane getLane(String documentId) {
+        List<RoutingLane> currentLanes = this.lanes;
+        // spread the hash so that sequential document ids do not cluster on neighbouring lanes
+        int hash = documentId.hashCode();
+        hash ^= (hash >>> 16);
+        return currentLanes.get((hash & Integer.MAX_VALUE) % currentLanes.size());
+    }
+
+    /**
+     * Returns the index of the lane which owns the given document id.
+     */
+    public int getLaneIndex(String documentId) {
+        return getLane(documentId).index;
+    }
+
+    public List<RoutingLaneStatistics> getLaneStatistics() {
+        List<RoutingLaneStatistics> statistics = new ArrayList<RoutingLaneStatistics>(lanes.size());
+        for (RoutingLane lane : lanes) {
+            statistics.add(lane.getStatistics());
+        }
+        return statistics;
+    }
+
+    public int getWaitingCount() {
+        int waiting = 0;
+        for (RoutingLane lane : lanes) {
+            waiting += lane.lock.getQueueLength();
+        }
+        return waiting;
+    }
+
+    public long getProcessedCount() {
+        long processed = 0;
+        for (RoutingLane lane : lanes) {
+            processed += lane.processed.get();
+        }
+        return processed;
+    }
+
+    public long getFailedCount() {
+        long failed = 0;
+        for (RoutingLane lane : lanes) {
+            failed += lane.failed.get();
+        }
+        return failed;
+    }
+
+    public long getLockTimeoutCount() {
+        long lockTimeouts = 0;
+        for (RoutingLane lane : lanes) {
+            lockTimeouts += lane.lockTimeouts.get();
+        }
+        return lockTimeouts;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getLaneCount() {
+        return laneCount;
+    }
+
+    /**
+     * Sets the number of lanes, a value less than 1 creates {@value #DEFAULT_LANE_COUNT} lanes.
+     */
+    public void setLaneCount(int laneCount) {
+        this.laneCount = laneCount;
+    }
+
+    public long getLockTimeout() {
+        return lockTimeout;
+    }
+
+    /**
+     * Sets how many milliseconds a caller waits for its lane before it processes the document without it.
+     */
+    public void setLockTimeout(long lockTimeout) {
+        this.lockTimeout = lockTimeout;
+    }
+
+    /**
+     * A lane, the lock which serializes the work on the documents hashing to it.
+     */
+    protected static class RoutingLane {
+
+        private final int index;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong lockTimeouts = new AtomicLong();
+        private final LatencyRecorder waitTime = new LatencyRecorder();
+        private final LatencyRecorder executionTime = new LatencyRecorder();
+
+        RoutingLane(int index) {
+            this.index = index;
+        }
+
+        RoutingLaneStatistics getStatistics() {
+            return new RoutingLaneStatistics(index, lock.getQueueLength(), processed.get(), failed.get(),
+                    lockTimeouts.get(), waitTime.getAverageMillis(), waitTime.getMaxMillis(),
+                    executionTime.getAverageMillis(), executionTime.getMaxMillis());
+        }
+    }
+
+    /**
+     * Lock-free accumulator of latency samples in nanoseconds.
+     */
+    private static class LatencyRecorder {
+
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong total = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+
+        void record(long nanos) {
+            count.incrementAndGet();
+            total.addAndGet(nanos);
+            long currentMax = max.get();
+            while (nanos > currentMax && !max.compareAndSet(currentMax, nanos)) {
+                currentMax = max.get();
+            }
+        }
+
+        double getAverageMillis() {
+            long samples = count.get();
+            return samples == 0 ? 0 : (total.get() / (double) samples) / 1000000d;
+        }
+
+        double getMaxMillis() {
+            return max.get() / 1000000d;
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.engine;
+
+import java.io.Serializable;
+
+/**
+ * An immutable snapshot of the metrics for a single lane of the {@link RoutingLaneExecutor}.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public final class RoutingLaneStatistics implements Serializable {
+
+    private static final long serialVersionUID = 3472853624370298301L;
+
+    private final int laneIndex;
+    private final int waitingCount;
+    private final long processedCount;
+    private final long failedCount;
+    private final long lockTimeoutCount;
+    private final double averageWaitMillis;
+    private final double maxWaitMillis;
+    private final double averageExecutionMillis;
+    private final double maxExecutionMillis;
+
+    public RoutingLaneStatistics(int laneIndex, int waitingCount, long processedCount, long failedCount,
+            long lockTimeoutCount, double averageWaitMillis, double maxWaitMillis,
+            double averageExecutionMillis, double maxExecutionMillis) {
+        this.laneIndex = laneIndex;
+        this.waitingCount = waitingCount;
+        this.processedCount = processedCount;
+        this.failedCount = failedCount;
+        this.lockTimeoutCount = lockTimeoutCount;
+        this.averageWaitMillis = averageWaitMillis;
+        this.maxWaitMillis = maxWaitMillis;
+        this.averageExecutionMillis = averageExecutionMillis;
+        this.maxExecutionMillis = maxExecutionMillis;
+    }
+
+    public int getLaneIndex() {
+        return laneIndex;
+    }
+
+    /**
+     * @return the number of threads currently waiting for the lane
+     */
+    public int getWaitingCount() {
+        return waitingCount;
+    }
+
+    public long getProcessedCount() {
+        return processedCount;
+    }
+
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    /**
+     * @return the number of callers which timed out waiting for the lane and processed their document without it
+     */
+    public long getLockTimeoutCount() {
+        return lockTimeoutCount;
+    }
+
+    public double getAverageWaitMillis() {
+        return averageWaitMillis;
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    public double getAverageExecutionMillis() {
+        return averageExecutionMillis;
+    }
+
+    public double getMaxExecutionMillis() {
+        return maxExecutionMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "RoutingLane[" + laneIndex + "] waiting=" + waitingCount + ", processed=" + processedCount + ", failed="
+                + failedCount + ", lockTimeouts=" + lockTimeoutCount + ", avgWaitMs=" + averageWaitMillis
+                + ", maxWaitMs=" + maxWaitMillis + ", avgExecMs=" + averageExecutionMillis + ", maxExecMs="
+                + maxExecutionMillis;
+    }
+
+}
@@ -20,7 +20,7 @@ import org.apache.commons.lang.StringUtils;
 import org.kuali.rice.core.api.exception.RiceRuntimeException;
 import org.kuali.rice.kew.doctype.bo.DocumentType;
 import org.kuali.rice.kew.routeheader.DocumentRouteHeaderValue;
-import org.kuali.rice.kew.rule.xmlrouting.XPathHelper;
+import org.kuali.rice.kew.rule.xmlrouting.XPathExpressionCache;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
@@ -28,6 +28,7 @@ import org.xml.sax.InputSource;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import java.io.StringReader;
 import java.util.ArrayList;
@@ -78,7 +79,12 @@ public final class RouteNodeUtils {
 			try {
 				DocumentBuilder db = DocumentBuilderFactory.newInstance().newDocumentBuilder();
 				Document document = db.parse(new InputSource(new StringReader(contentFragment)));	
-				elementValue = XPathHelper.newXPath().evaluate("//" + propertyName, document);
+				XPath xpath = XPathExpressionCache.acquire();
+				try {
+					elementValue = xpath.evaluate("//" + propertyName, document);
+				} finally {
+					XPathExpressionCache.release(xpath);
+				}
 			} catch (Exception e) {
 				throw new RiceRuntimeException("Error when attempting to parse Route Node content fragment for property name: " + propertyName, e);
 			}
@@ -94,7 +100,12 @@ public final class RouteNodeUtils {
 			try {
 				DocumentBuilder db = DocumentBuilderFactory.newInstance().newDocumentBuilder();
 				Document document = db.parse(new InputSource(new StringReader(contentFragment)));
-				nodeList = (NodeList)XPathHelper.newXPath().evaluate("//" + elementName, document, XPathConstants.NODESET);
+				XPath xpath = XPathExpressionCache.acquire();
+				try {
+					nodeList = (NodeList)xpath.evaluate("//" + elementName, document, XPathConstants.NODESET);
+				} finally {
+					XPathExpressionCache.release(xpath);
+				}
 			} catch (Exception e) {
 				throw new RiceRuntimeException("Error when attempting to parse Route Node content fragment for element name: " + elementName, e);
 			}
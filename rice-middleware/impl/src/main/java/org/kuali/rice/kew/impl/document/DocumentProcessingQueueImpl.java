@@ -23,11 +23,13 @@ import org.kuali.rice.kew.api.document.DocumentProcessingOptions;
 import org.kuali.rice.kew.api.document.DocumentProcessingQueue;
 import org.kuali.rice.kew.api.document.attribute.DocumentAttributeIndexingQueue;
 import org.kuali.rice.kew.engine.OrchestrationConfig;
+import org.kuali.rice.kew.engine.RoutingLaneExecutor;
 import org.kuali.rice.kew.engine.WorkflowEngine;
 import org.kuali.rice.kew.engine.WorkflowEngineFactory;
 
 import javax.jws.WebParam;
 import java.util.Collections;
+import java.util.concurrent.Callable;
 
 /**
  * Reference implementation of the {@code DocumentProcessingQueue}.
@@ -40,12 +42,18 @@ public class DocumentProcessingQueueImpl implements DocumentProcessingQueue {
 
     private WorkflowEngineFactory workflowEngineFactory;
     private DocumentAttributeIndexingQueue documentAttributeIndexingQueue;
+    private RoutingLaneExecutor routingLaneExecutor;
 
     @Override
     public void process(@WebParam(name = "documentId") String documentId) {
         processWithOptions(documentId, null);
     }
 
+    /**
+     * Processes the document through the workflow engine.  If partitioned routing is active the engine is invoked once
+     * the calling thread holds the routing lane which owns the document.  Either way the engine runs on the calling
+     * thread, in its transaction.
+     */
     @Override
     public void processWithOptions(@WebParam(name = "documentId") String documentId,
             @WebParam(name = "options") DocumentProcessingOptions options) {
@@ -57,9 +65,20 @@ public class DocumentProcessingQueueImpl implements DocumentProcessingQueue {
         }
         OrchestrationConfig config = new OrchestrationConfig(OrchestrationConfig.EngineCapability.STANDARD,
                 Collections.<String>emptySet(), null, options.isSendNotifications(), options.isRunPostProcessor());
-        WorkflowEngine engine = getWorkflowEngineFactory().newEngine(config);
+        final WorkflowEngine engine = getWorkflowEngineFactory().newEngine(config);
         try {
-			engine.process(documentId, null);
+            if (routingLaneExecutor != null && routingLaneExecutor.isActive()) {
+                final String laneDocumentId = documentId;
+                routingLaneExecutor.execute(documentId, new Callable<Object>() {
+                    @Override
+                    public Object call() throws Exception {
+                        engine.process(laneDocumentId, null);
+                        return null;
+                    }
+                });
+            } else {
+                engine.process(documentId, null);
+            }
 		} catch (Exception e) {
 			LOG.error("Failed to process document through the workflow engine", e);
             if (e instanceof RuntimeException) {
@@ -80,6 +99,14 @@ public class DocumentProcessingQueueImpl implements DocumentProcessingQueue {
         this.workflowEngineFactory = workflowEngineFactory;
     }
 
+    public RoutingLaneExecutor getRoutingLaneExecutor() {
+        return routingLaneExecutor;
+    }
+
+    public void setRoutingLaneExecutor(RoutingLaneExecutor routingLaneExecutor) {
+        this.routingLaneExecutor = routingLaneExecutor;
+    }
+
     public DocumentAttributeIndexingQueue getDocumentAttributeIndexingQueue() {
         return documentAttributeIndexingQueue;
     }
@@ -39,6 +39,7 @@ import org.kuali.rice.kew.docsearch.SearchableAttributeStringValue;
 import org.kuali.rice.kew.docsearch.SearchableAttributeValue;
 import org.kuali.rice.kew.doctype.bo.DocumentType;
 import org.kuali.rice.kew.framework.document.attribute.SearchableAttribute;
+import org.kuali.rice.kew.rule.xmlrouting.SharedDocumentContent;
 import org.kuali.rice.kew.service.KEWServiceLocator;
 
 import java.math.BigInteger;
@@ -72,6 +73,8 @@ public class DocumentAttributeIndexingQueueImpl implements DocumentAttributeInde
                     KewApiServiceLocator.getWorkflowDocumentService().getDocumentContent(documentId);
             List<SearchableAttributeValue> attributes = buildSearchableAttributeValues(document, documentContent);
             KEWServiceLocator.getRouteHeaderService().updateRouteHeaderSearchValues(documentId, attributes);
+            KEWServiceLocator.getDocumentSearchIndexService().indexDocument(document.getDocumentTypeName(), documentId,
+                    attributes);
             long t2 = System.currentTimeMillis();
             LOG.info("...finished indexing document " + documentId + " for document search, total time = " + (t2 - t1) +
                     " ms.");
@@ -85,9 +88,31 @@ public class DocumentAttributeIndexingQueueImpl implements DocumentAttributeInde
      * which will be saved.
      */
 	private List<SearchableAttributeValue> buildSearchableAttributeValues(Document document, DocumentContent documentContent) {
-		List<SearchableAttributeValue> searchableAttributeValues = new ArrayList<SearchableAttributeValue>();
         DocumentType documentTypeBo = KEWServiceLocator.getDocumentTypeService().findByName(document.getDocumentTypeName());
-		for (DocumentType.ExtensionHolder<SearchableAttribute> searchableAttributeHolder : documentTypeBo.loadSearchableAttributes()) {
+        return buildSearchableAttributeValues(documentTypeBo.loadSearchableAttributes(), document, documentContent);
+    }
+
+    /**
+     * Determines the {@link DocumentAttribute}s for the given document using the already loaded searchable attributes
+     * of its document type, so that bulk indexing only has to load them once.
+     */
+	public static List<SearchableAttributeValue> buildSearchableAttributeValues(
+            List<DocumentType.ExtensionHolder<SearchableAttribute>> searchableAttributeHolders, Document document,
+            DocumentContent documentContent) {
+        // the attributes of the document parse its content once between them
+        SharedDocumentContent.begin();
+        try {
+            return extractSearchableAttributeValues(searchableAttributeHolders, document, documentContent);
+        } finally {
+            SharedDocumentContent.end();
+        }
+    }
+
+	private static List<SearchableAttributeValue> extractSearchableAttributeValues(
+            List<DocumentType.ExtensionHolder<SearchableAttribute>> searchableAttributeHolders, Document document,
+            DocumentContent documentContent) {
+		List<SearchableAttributeValue> searchableAttributeValues = new ArrayList<SearchableAttributeValue>();
+		for (DocumentType.ExtensionHolder<SearchableAttribute> searchableAttributeHolder : searchableAttributeHolders) {
             DocumentWithContent documentWithContent = DocumentWithContent.create(document, documentContent);
             SearchableAttribute searchableAttribute = searchableAttributeHolder.getExtension();
             if ( searchableAttribute == null ) {
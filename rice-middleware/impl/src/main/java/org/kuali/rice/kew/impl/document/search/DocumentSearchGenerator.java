@@ -19,6 +19,8 @@ import org.kuali.rice.core.api.uif.RemotableAttributeError;
 import org.kuali.rice.core.api.uif.RemotableAttributeField;
 import org.kuali.rice.kew.api.document.search.DocumentSearchCriteria;
 import org.kuali.rice.kew.api.document.search.DocumentSearchResults;
+import org.kuali.rice.kew.docsearch.DocumentSearchCursor;
+import org.kuali.rice.kew.docsearch.DocumentSearchResultHandler;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -38,6 +40,21 @@ public interface DocumentSearchGenerator {
     String generateSearchSql(DocumentSearchCriteria criteria, List<RemotableAttributeField> searchFields);
 
     DocumentSearchResults.Builder processResultSet(DocumentSearchCriteria criteria, boolean criteriaModified, Statement searchAttributeStatement, ResultSet resultSet, int actualMaxResults, int fetchLimit) throws SQLException;
+
+    /**
+     * Generates the sql for a streaming search, ordered by create date and document id (both descending).  If a
+     * cursor is given the sql only selects documents after it and has three parameters to bind: the cursor's create
+     * date twice, followed by its document id.
+     */
+    String generateSearchSql(DocumentSearchCriteria criteria, List<RemotableAttributeField> searchFields, DocumentSearchCursor after);
+
+    /**
+     * Passes each document in the result set of a streaming search to the handler, until the results are exhausted
+     * or the handler asks to stop.
+     *
+     * @return the number of rows read from the result set
+     */
+    int streamResultSet(DocumentSearchCriteria criteria, Statement searchAttributeStatement, ResultSet resultSet, DocumentSearchResultHandler handler) throws SQLException;
     
     DocumentSearchCriteria clearSearch(DocumentSearchCriteria criteria);
 
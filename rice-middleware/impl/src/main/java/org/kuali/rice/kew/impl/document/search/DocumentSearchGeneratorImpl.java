@@ -37,7 +37,10 @@ import org.kuali.rice.kew.api.document.search.DocumentSearchCriteria;
 import org.kuali.rice.kew.api.document.search.DocumentSearchResult;
 import org.kuali.rice.kew.api.document.search.DocumentSearchResults;
 import org.kuali.rice.kew.api.document.search.RouteNodeLookupLogic;
+import org.kuali.rice.kew.docsearch.DocumentSearchCursor;
+import org.kuali.rice.kew.docsearch.DocumentSearchIndexDefinition;
 import org.kuali.rice.kew.docsearch.DocumentSearchInternalUtils;
+import org.kuali.rice.kew.docsearch.DocumentSearchResultHandler;
 import org.kuali.rice.kew.docsearch.QueryComponent;
 import org.kuali.rice.kew.docsearch.SearchableAttributeValue;
 import org.kuali.rice.kew.doctype.bo.DocumentType;
@@ -185,6 +188,93 @@ public class DocumentSearchGeneratorImpl implements DocumentSearchGenerator {
         return new QueryComponent("", fromSql.toString(), whereClausePrefix + " " + finalCriteria.buildWhere());
     }
 
+    /**
+     * Builds the searchable attribute criteria against the denormalized document search index, matching every
+     * criterion against the single index row of the document instead of joining an attribute table per criterion.
+     */
+    public QueryComponent getSearchIndexSql(DocumentSearchIndexDefinition searchIndex, Map<String, List<String>> documentAttributeValues, List<RemotableAttributeField> searchFields, String whereClausePredicatePrefix) {
+        String tableAlias = "IDX";
+        Criteria finalCriteria = null;
+        SqlBuilder sqlBuilder = this.getSqlBuilder();
+
+        for (String documentAttributeName : documentAttributeValues.keySet()) {
+            List<String> searchValues = documentAttributeValues.get(documentAttributeName);
+            if (CollectionUtils.isEmpty(searchValues) || documentAttributeName.contains(KRADConstants.CHECKBOX_PRESENT_ON_FORM_ANNOTATION)) {
+                continue;
+            }
+            RemotableAttributeField searchField = getSearchFieldByName(documentAttributeName, searchFields);
+            String columnName = searchIndex.getSearchableColumnName(getDocumentAttributeNameForSql(documentAttributeName));
+            boolean caseSensitive = DocumentSearchInternalUtils.isLookupCaseSensitive(searchField);
+            Class<?> dataTypeClass = DocumentSearchInternalUtils.getDataTypeClass(searchField);
+
+            Criteria crit = null;
+            if (searchValues.size() > 1) {
+                crit = new Criteria(DocumentSearchIndexDefinition.TABLE_NAME, tableAlias);
+                crit.setDbPlatform(sqlBuilder.getDbPlatform());
+                crit.in(columnName, searchValues, dataTypeClass);
+            } else {
+                crit = sqlBuilder.createCriteria(columnName, searchValues.get(0), DocumentSearchIndexDefinition.TABLE_NAME, tableAlias, dataTypeClass, !caseSensitive);
+            }
+
+            if (finalCriteria == null) {
+                finalCriteria = crit;
+            } else {
+                sqlBuilder.andCriteria(finalCriteria, crit);
+            }
+        }
+
+        if (finalCriteria == null) {
+            return new QueryComponent("", "", "");
+        }
+        sqlBuilder.andCriteria("DOC_HDR_ID", tableAlias + ".DOC_HDR_ID", "KREW_DOC_HDR_T", "DOC_HDR", SqlBuilder.JoinType.class, false, false, finalCriteria);
+
+        return new QueryComponent("", generateSearchableAttributeFromSql(DocumentSearchIndexDefinition.TABLE_NAME, tableAlias).toString(), whereClausePredicatePrefix + " " + finalCriteria.buildWhere());
+    }
+
+    /**
+     * Returns the document search index which can answer all searchable attribute criteria of the search, or null if
+     * the attribute tables have to be searched.  The index is only used for searches on a single document type
+     * without child document types, whose index is fully built and has a single-valued column of the right data type
+     * for every criterion.
+     */
+    protected DocumentSearchIndexDefinition getCoveringSearchIndex(DocumentSearchCriteria criteria, List<RemotableAttributeField> searchFields) {
+        String documentTypeName = criteria.getDocumentTypeName();
+        if (StringUtils.isBlank(documentTypeName) || documentTypeName.contains("*") || documentTypeName.contains("%")
+                || !criteria.getAdditionalDocumentTypeNames().isEmpty()) {
+            return null;
+        }
+        DocumentType documentType = KEWServiceLocator.getDocumentTypeService().findByNameCaseInsensitive(documentTypeName.trim());
+        if (documentType == null || CollectionUtils.isNotEmpty(documentType.getChildrenDocTypes())
+                || !documentType.getDocumentSearchIndexPolicy().getPolicyValue().booleanValue()) {
+            return null;
+        }
+        DocumentSearchIndexDefinition searchIndex = KEWServiceLocator.getDocumentSearchIndexService().getIndexDefinition(documentType.getName());
+        if (searchIndex == null || !searchIndex.isAvailable()) {
+            return null;
+        }
+        for (Map.Entry<String, List<String>> documentAttributeValue : criteria.getDocumentAttributeValues().entrySet()) {
+            String documentAttributeName = documentAttributeValue.getKey();
+            if (CollectionUtils.isEmpty(documentAttributeValue.getValue()) || documentAttributeName.contains(KRADConstants.CHECKBOX_PRESENT_ON_FORM_ANNOTATION)) {
+                continue;
+            }
+            String columnName = searchIndex.getSearchableColumnName(getDocumentAttributeNameForSql(documentAttributeName));
+            RemotableAttributeField searchField = getSearchFieldByName(documentAttributeName, searchFields);
+            if (columnName == null || DocumentSearchIndexDefinition.ColumnType.forColumn(columnName)
+                    != DocumentSearchIndexDefinition.ColumnType.forAttributeTable(DocumentSearchInternalUtils.getAttributeTableName(searchField))) {
+                return null;
+            }
+        }
+        LOG.debug("Using the document search index of " + documentType.getName() + " for searchable attribute criteria");
+        return searchIndex;
+    }
+
+    private String getDocumentAttributeNameForSql(String documentAttributeName) {
+        if (documentAttributeName.contains(KewApiConstants.DOCUMENT_ATTRIBUTE_FIELD_PREFIX)) {
+            return documentAttributeName.replaceFirst(KewApiConstants.DOCUMENT_ATTRIBUTE_FIELD_PREFIX, "");
+        }
+        return documentAttributeName;
+    }
+
     private RemotableAttributeField getSearchFieldByName(String fieldName, List<RemotableAttributeField> searchFields) {
         for (RemotableAttributeField searchField : searchFields) {
             if (searchField.getName().equals(fieldName)
@@ -274,6 +364,35 @@ public class DocumentSearchGeneratorImpl implements DocumentSearchGenerator {
         return results;
     }
 
+    @Override
+    public int streamResultSet(DocumentSearchCriteria criteria, Statement searchAttributeStatement, ResultSet resultSet, DocumentSearchResultHandler handler) throws SQLException {
+        PerformanceLogger perfLog = new PerformanceLogger();
+        DocumentSearchResult.Builder current = null;
+        DocumentSearchCursor currentPosition = null;
+        int rows = 0;
+        boolean more = true;
+        while (more && resultSet.next()) {
+            rows++;
+            DocumentSearchResult.Builder resultBuilder = processRow(criteria, searchAttributeStatement, resultSet);
+            String documentId = resultBuilder.getDocument().getDocumentId();
+            // rows for the same document are adjacent since the document id is part of the ordering
+            if (current != null && current.getDocument().getDocumentId().equals(documentId)) {
+                handleMultipleDocumentRows(current, resultBuilder);
+                continue;
+            }
+            if (current != null) {
+                more = handler.handleResult(current, currentPosition);
+            }
+            current = resultBuilder;
+            currentPosition = new DocumentSearchCursor(resultSet.getTimestamp("CRTE_DT"), documentId);
+        }
+        if (more && current != null) {
+            handler.handleResult(current, currentPosition);
+        }
+        perfLog.log("Time to stream " + rows + " doc search result rows.", true);
+        return rows;
+    }
+
     /**
      * Handles multiple document rows by collapsing them into the list of document attributes on the existing row.
      * The two rows must represent the same document.
@@ -380,14 +499,27 @@ public class DocumentSearchGeneratorImpl implements DocumentSearchGenerator {
         perfLog.log("Time to execute doc search search attribute queries.", true);
     }
 
-    @SuppressWarnings("deprecation")
     public String generateSearchSql(DocumentSearchCriteria criteria, List<RemotableAttributeField> searchFields) {
+        return buildSearchSql(criteria, searchFields, ") FINAL_SEARCH order by FINAL_SEARCH.CRTE_DT desc");
+    }
+
+    @Override
+    public String generateSearchSql(DocumentSearchCriteria criteria, List<RemotableAttributeField> searchFields, DocumentSearchCursor after) {
+        StringBuilder sqlSuffix = new StringBuilder(") FINAL_SEARCH ");
+        if (after != null) {
+            sqlSuffix.append("where FINAL_SEARCH.CRTE_DT < ? or (FINAL_SEARCH.CRTE_DT = ? and FINAL_SEARCH.DOC_HDR_ID < ?) ");
+        }
+        sqlSuffix.append("order by FINAL_SEARCH.CRTE_DT desc, FINAL_SEARCH.DOC_HDR_ID desc");
+        return buildSearchSql(criteria, searchFields, sqlSuffix.toString());
+    }
+
+    @SuppressWarnings("deprecation")
+    protected String buildSearchSql(DocumentSearchCriteria criteria, List<RemotableAttributeField> searchFields, String sqlSuffix) {
 
         String docTypeTableAlias   = "DOC1";
         String docHeaderTableAlias = "DOC_HDR";
 
         String sqlPrefix = "Select * from (";
-        String sqlSuffix = ") FINAL_SEARCH order by FINAL_SEARCH.CRTE_DT desc";
 
         // the DISTINCT here is important as it filters out duplicate rows which could occur as the result of doc search extension values...
         StringBuilder selectSQL = new StringBuilder("select DISTINCT("+ docHeaderTableAlias +".DOC_HDR_ID), "
@@ -463,8 +595,15 @@ public class DocumentSearchGeneratorImpl implements DocumentSearchGenerator {
         }
 
         if (!criteria.getDocumentAttributeValues().isEmpty()) {
-            QueryComponent queryComponent = getSearchableAttributeSql(criteria.getDocumentAttributeValues(), searchFields, getGeneratedPredicatePrefix(
-                    whereSQL.length()));
+            DocumentSearchIndexDefinition searchIndex = getCoveringSearchIndex(criteria, searchFields);
+            QueryComponent queryComponent;
+            if (searchIndex != null) {
+                queryComponent = getSearchIndexSql(searchIndex, criteria.getDocumentAttributeValues(), searchFields,
+                        getGeneratedPredicatePrefix(whereSQL.length()));
+            } else {
+                queryComponent = getSearchableAttributeSql(criteria.getDocumentAttributeValues(), searchFields,
+                        getGeneratedPredicatePrefix(whereSQL.length()));
+            }
             selectSQL.append(queryComponent.getSelectSql());
             fromSQL.append(queryComponent.getFromSql());
             whereSQL.append(queryComponent.getWhereSql());
@@ -22,7 +22,7 @@ import org.kuali.rice.kew.api.KewApiConstants;
 import org.kuali.rice.kew.api.extension.ExtensionDefinition;
 import org.kuali.rice.kew.engine.RouteContext;
 import org.kuali.rice.kew.rule.XmlConfiguredAttribute;
-import org.kuali.rice.kew.rule.xmlrouting.XPathHelper;
+import org.kuali.rice.kew.rule.xmlrouting.XPathExpressionCache;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -130,7 +130,7 @@ public class XPathQualifierResolver implements QualifierResolver, XmlConfiguredA
 	public List<Map<String, String>> resolve(RouteContext context) {
 			ResolverConfig config = parseResolverConfig();
 			Document xmlContent = context.getDocumentContent().getDocument();
-			XPath xPath = XPathHelper.newXPath();
+			XPath xPath = XPathExpressionCache.acquire(xmlContent);
 			boolean isCompoundMap = config.getExpressionMap().size() > 1;
 			try {
 				List<Map<String, String>> maps = new ArrayList<Map<String, String>>();
@@ -149,6 +149,8 @@ public class XPathQualifierResolver implements QualifierResolver, XmlConfiguredA
 				return maps;
 			} catch (XPathExpressionException e) {
 				throw new RiceRuntimeException("Encountered an issue executing XPath.", e);
+			} finally {
+				XPathExpressionCache.release(xPath);
 			}
 	}
 	
@@ -191,10 +193,10 @@ public class XPathQualifierResolver implements QualifierResolver, XmlConfiguredA
                && extensionDefinition.getConfiguration().get(KewApiConstants.ATTRIBUTE_XML_CONFIG_DATA) == null) {
 			throw new RiceRuntimeException("Failed to locate a RuleAttribute for the given XPathQualifierResolver");
 		}
+		XPath xPath = XPathExpressionCache.acquire();
 		try {
 			ResolverConfig resolverConfig = new ResolverConfig();
 			String xmlConfig = extensionDefinition.getConfiguration().get(KewApiConstants.ATTRIBUTE_XML_CONFIG_DATA);
-			XPath xPath = XPathHelper.newXPath();
 			String baseExpression = xPath.evaluate("//resolverConfig/baseXPathExpression", new InputSource(new StringReader(xmlConfig)));
 			if (!StringUtils.isEmpty(baseExpression)) {
 				resolverConfig.setBaseXPathExpression(baseExpression);
@@ -237,6 +239,8 @@ public class XPathQualifierResolver implements QualifierResolver, XmlConfiguredA
 			return resolverConfig;
 		} catch (XPathExpressionException e) {
 			throw new RiceRuntimeException("Encountered an error parsing resolver config.", e);
+		} finally {
+			XPathExpressionCache.release(xPath);
 		}
 	}
 
@@ -16,6 +16,7 @@
 package org.kuali.rice.kew.routeheader;
 
 import org.kuali.rice.core.api.util.xml.XmlJotter;
+import org.kuali.rice.kew.engine.RouteContext;
 
 import javax.persistence.Basic;
 import javax.persistence.Column;
@@ -24,6 +25,7 @@ import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.Id;
 import javax.persistence.Lob;
+import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
 import javax.persistence.Table;
 import java.io.Serializable;
@@ -31,8 +33,12 @@ import java.util.Map;
 
 @Entity
 @Table(name="KREW_DOC_HDR_CNTNT_T")
-@NamedQuery(name="DocumentRouteHeaderValueContent.FindByDocumentId", query="select d from "
-        + "DocumentRouteHeaderValueContent as d where d.documentId = :documentId")
+@NamedQueries({
+        @NamedQuery(name="DocumentRouteHeaderValueContent.FindByDocumentId", query="select d from "
+                + "DocumentRouteHeaderValueContent as d where d.documentId = :documentId"),
+        @NamedQuery(name="DocumentRouteHeaderValueContent.FindByDocumentIds", query="select d from "
+                + "DocumentRouteHeaderValueContent as d where d.documentId in :documentIds")
+})
 public class DocumentRouteHeaderValueContent implements Serializable {
 
 	private static final long serialVersionUID = 1L;
@@ -86,7 +92,12 @@ public class DocumentRouteHeaderValueContent implements Serializable {
 		builder.setApplicationContent("");
 		builder.setAttributeContent("");
 		builder.setSearchableContent("");
-		DocumentContent documentContent = new StandardDocumentContent(content.getDocumentContent());
+		// reuse the content already parsed while routing the document if there is one
+		DocumentContent documentContent = RouteContext.getCurrentRouteContext().findDocumentContent(
+				content.getDocumentContent());
+		if (documentContent == null) {
+			documentContent = new StandardDocumentContent(content.getDocumentContent());
+		}
 		if (documentContent.getApplicationContent() != null) {
 			builder.setApplicationContent(XmlJotter.jotNode(documentContent.getApplicationContent()));
 		}
@@ -50,6 +50,11 @@ public interface DocumentRouteHeaderDAO {
 
     DocumentRouteHeaderValueContent getContent(String documentId);
 
+    /**
+     * @return the content of the given documents, documents without content are left out
+     */
+    Collection<DocumentRouteHeaderValueContent> findContents(Collection<String> documentIds);
+
     boolean hasSearchableAttributeValue(String documentId, String searchableAttributeKey,
             String searchableAttributeValue);
 
@@ -178,6 +178,17 @@ public class DocumentRouteHeaderDAOJpa implements DocumentRouteHeaderDAO {
         return content;
     }
 
+    @Override
+    public Collection<DocumentRouteHeaderValueContent> findContents(Collection<String> documentIds) {
+        if (documentIds.isEmpty()) {
+            return new ArrayList<DocumentRouteHeaderValueContent>();
+        }
+        TypedQuery<DocumentRouteHeaderValueContent> query = getEntityManager().createNamedQuery(
+                "DocumentRouteHeaderValueContent.FindByDocumentIds", DocumentRouteHeaderValueContent.class);
+        query.setParameter("documentIds", documentIds);
+        return query.getResultList();
+    }
+
     @Override
     public boolean hasSearchableAttributeValue(String documentId, String searchableAttributeKey, String searchableAttributeValue) {
         Query query = getEntityManager().createNamedQuery("SearchableAttributeValue.HasSearchableAttributeValue");
@@ -81,6 +81,14 @@ public interface RouteHeaderService {
 
     DocumentRouteHeaderValueContent getContent(String documentId);
 
+    /**
+     * Loads the content of several documents at once.
+     *
+     * @return the content of the given documents keyed by document id, documents without stored content get an empty
+     * content like {@link #getContent(String)} returns
+     */
+    Map<String, DocumentRouteHeaderValueContent> getContents(Collection<String> documentIds);
+
     boolean hasSearchableAttributeValue(String documentId, String searchableAttributeKey, String searchableAttributeValue);
 
     String getDocumentStatus(String documentId);
@@ -222,6 +222,19 @@ public class RouteHeaderServiceImpl implements RouteHeaderService {
     	return content;
     }
 
+    public Map<String, DocumentRouteHeaderValueContent> getContents(Collection<String> documentIds) {
+        Map<String, DocumentRouteHeaderValueContent> contents = new HashMap<String, DocumentRouteHeaderValueContent>();
+        for (DocumentRouteHeaderValueContent content : getRouteHeaderDAO().findContents(documentIds)) {
+            contents.put(content.getDocumentId(), content);
+        }
+        for (String documentId : documentIds) {
+            if (!contents.containsKey(documentId)) {
+                contents.put(documentId, new DocumentRouteHeaderValueContent(documentId));
+            }
+        }
+        return contents;
+    }
+
     public boolean hasSearchableAttributeValue(String documentId, String searchableAttributeKey, String searchableAttributeValue) {
 	return getRouteHeaderDAO().hasSearchableAttributeValue(documentId, searchableAttributeKey, searchableAttributeValue);
     }
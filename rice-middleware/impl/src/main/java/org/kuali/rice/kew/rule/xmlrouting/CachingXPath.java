@@ -0,0 +1,164 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.rule.xmlrouting;
+
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.namespace.QName;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFunctionResolver;
+import javax.xml.xpath.XPathVariableResolver;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An XPath which keeps the expressions compiled through it, see {@link XPathExpressionCache}.  The cached expressions
+ * are bound to its namespace context and resolvers, so replacing any of them drops the compiled expressions and keeps
+ * the XPath from going back into the pool, the caller which configured it is the only one to use it.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+final class CachingXPath implements XPath {
+
+    private final XPath xpath;
+    private final WorkflowFunctionResolver functionResolver;
+    private final Map<String, XPathExpression> expressions;
+    private int generation;
+    private boolean configured;
+
+    CachingXPath(final int maxExpressions) {
+        this.xpath = XPathHelper.newXPath();
+        this.functionResolver = XPathHelper.extractFunctionResolver(xpath);
+        this.expressions = new LinkedHashMap<String, XPathExpression>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, XPathExpression> eldest) {
+                if (size() > maxExpressions) {
+                    XPathExpressionCache.recordEviction();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Resets the per evaluation state of the function resolver and drops the compiled expressions if the cache has
+     * been cleared since they were compiled.
+     */
+    void prepare(Node rootNode, int currentGeneration) {
+        functionResolver.setRootNode(rootNode);
+        functionResolver.setRuleExtensions(null);
+        if (generation != currentGeneration) {
+            expressions.clear();
+            generation = currentGeneration;
+        }
+    }
+
+    /**
+     * @return true if the namespace context or a resolver has been replaced since the XPath was created
+     */
+    boolean isConfigured() {
+        return configured;
+    }
+
+    private void configurationChanged() {
+        expressions.clear();
+        configured = true;
+    }
+
+    @Override
+    public XPathExpression compile(String expression) throws XPathExpressionException {
+        if (expression == null) {
+            throw new NullPointerException("expression was null");
+        }
+        XPathExpression compiled = expressions.get(expression);
+        if (compiled != null) {
+            XPathExpressionCache.recordHit();
+            return compiled;
+        }
+        long start = System.nanoTime();
+        compiled = xpath.compile(expression);
+        XPathExpressionCache.recordMiss(System.nanoTime() - start);
+        expressions.put(expression, compiled);
+        return compiled;
+    }
+
+    @Override
+    public Object evaluate(String expression, Object item, QName returnType) throws XPathExpressionException {
+        return compile(expression).evaluate(item, returnType);
+    }
+
+    @Override
+    public String evaluate(String expression, Object item) throws XPathExpressionException {
+        return compile(expression).evaluate(item);
+    }
+
+    @Override
+    public Object evaluate(String expression, InputSource source, QName returnType) throws XPathExpressionException {
+        return compile(expression).evaluate(source, returnType);
+    }
+
+    @Override
+    public String evaluate(String expression, InputSource source) throws XPathExpressionException {
+        return compile(expression).evaluate(source);
+    }
+
+    @Override
+    public void reset() {
+        functionResolver.setRootNode(null);
+        functionResolver.setRuleExtensions(null);
+    }
+
+    @Override
+    public NamespaceContext getNamespaceContext() {
+        return xpath.getNamespaceContext();
+    }
+
+    @Override
+    public void setNamespaceContext(NamespaceContext namespaceContext) {
+        xpath.setNamespaceContext(namespaceContext);
+        configurationChanged();
+    }
+
+    @Override
+    public XPathFunctionResolver getXPathFunctionResolver() {
+        return xpath.getXPathFunctionResolver();
+    }
+
+    @Override
+    public void setXPathFunctionResolver(XPathFunctionResolver resolver) {
+        xpath.setXPathFunctionResolver(resolver);
+        configurationChanged();
+    }
+
+    @Override
+    public XPathVariableResolver getXPathVariableResolver() {
+        return xpath.getXPathVariableResolver();
+    }
+
+    @Override
+    public void setXPathVariableResolver(XPathVariableResolver resolver) {
+        xpath.setXPathVariableResolver(resolver);
+        configurationChanged();
+    }
+
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.rule.xmlrouting;
+
+import org.kuali.rice.core.api.config.property.Config;
+import org.kuali.rice.core.api.config.property.ConfigContext;
+import org.kuali.rice.kew.engine.RouteContext;
+import org.kuali.rice.kew.routeheader.DocumentContent;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.StringReader;
+
+/**
+ * Lets the attributes evaluated for one document on the current thread share a single parsed DOM of the document's
+ * content instead of each of them parsing it again.
+ *
+ * <p>The DOM is only shared between a call to {@link #begin()} and the matching {@link #end()}, outside of that
+ * {@link #parse(String)} only reuses the DOM the current {@link RouteContext} parsed from the same content.  Attributes
+ * using a shared DOM must not modify it.  Sharing can be turned off with the {@value #ENABLED_PARAM} parameter.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public final class SharedDocumentContent {
+
+    public static final String ENABLED_PARAM = "kew.xpath.sharedDocument.enabled";
+
+    private static final ThreadLocal<SharedDocumentContent> CURRENT = new ThreadLocal<SharedDocumentContent>();
+
+    private int depth;
+    private String content;
+    private Document document;
+
+    private SharedDocumentContent() {
+    }
+
+    /**
+     * Starts sharing the parsed DOM on the current thread, calls may be nested.
+     */
+    public static void begin() {
+        SharedDocumentContent current = CURRENT.get();
+        if (current == null) {
+            current = new SharedDocumentContent();
+            CURRENT.set(current);
+        }
+        current.depth++;
+    }
+
+    /**
+     * Ends the sharing started by the matching {@link #begin()}, the outermost call drops the shared DOM.
+     */
+    public static void end() {
+        SharedDocumentContent current = CURRENT.get();
+        if (current != null && --current.depth <= 0) {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Parses the given document content, returning the DOM parsed earlier for the same content while sharing.
+     */
+    public static Document parse(String content) throws ParserConfigurationException, SAXException, IOException {
+        SharedDocumentContent current = CURRENT.get();
+        if (current != null && current.document != null && (content == current.content || content.equals(
+                current.content))) {
+            return current.document;
+        }
+        boolean enabled = isEnabled();
+        if (enabled) {
+            DocumentContent routedContent = RouteContext.getCurrentRouteContext().findDocumentContent(content);
+            if (routedContent != null && routedContent.getDocument() != null) {
+                return routedContent.getDocument();
+            }
+        }
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new InputSource(
+                new StringReader(content)));
+        if (current != null && enabled) {
+            current.content = content;
+            current.document = document;
+        }
+        return document;
+    }
+
+    private static boolean isEnabled() {
+        Config config = ConfigContext.getCurrentContextConfig();
+        return config == null || config.getBooleanProperty(ENABLED_PARAM, true);
+    }
+
+}
@@ -26,10 +26,8 @@ import org.kuali.rice.kew.api.WorkflowRuntimeException;
 import org.kuali.rice.kew.api.extension.ExtensionDefinition;
 import org.kuali.rice.kew.api.rule.RuleExtension;
 import org.kuali.rice.kew.attribute.XMLAttributeUtils;
-import org.kuali.rice.kew.engine.RouteContext;
 import org.kuali.rice.kew.exception.WorkflowServiceError;
 import org.kuali.rice.kew.exception.WorkflowServiceErrorImpl;
-import org.kuali.rice.kew.engine.node.RouteNodeInstance;
 import org.kuali.rice.kew.routeheader.DocumentContent;
 import org.kuali.rice.kew.rule.RuleExtensionBo;
 import org.kuali.rice.kew.rule.RuleExtensionValue;
@@ -43,6 +41,7 @@ import org.w3c.dom.NodeList;
 import org.xml.sax.InputSource;
 
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpressionException;
@@ -95,6 +94,7 @@ public class StandardGenericXMLRuleAttribute implements GenericXMLRuleAttribute,
     private static final org.apache.log4j.Logger LOG = org.apache.log4j.Logger.getLogger(StandardGenericXMLRuleAttribute.class);
 
     private static final String FIELD_DEF_E = "fieldDef";
+    private static final String DEFER_NODE_EXPANSION_FEATURE = "http://apache.org/xml/features/dom/defer-node-expansion";
 
     private boolean evaluateForMissingExtensions = false;
 
@@ -229,12 +229,14 @@ public class StandardGenericXMLRuleAttribute implements GenericXMLRuleAttribute,
     private List ruleRows = new ArrayList();
     private List routingDataRows = new ArrayList();
     private boolean required;
+    private volatile ConfigXML configXML;
 
     public StandardGenericXMLRuleAttribute() {
     }
 
     public void setExtensionDefinition(ExtensionDefinition extensionDefinition) {
         this.extensionDefinition = extensionDefinition;
+        this.configXML = null;
     }
 
 //    public boolean isMatch(DocumentContent docContent, List ruleExtensions) {
@@ -295,42 +297,32 @@ public class StandardGenericXMLRuleAttribute implements GenericXMLRuleAttribute,
 //    }
 
     public boolean isMatch(DocumentContent docContent, List<RuleExtension> ruleExtensions) {
-        XPath xpath = null;
-        String xPathCacheKey = null;
-        RouteNodeInstance rni = docContent.getRouteContext().getNodeInstance();
-        if (rni != null) {
-            xPathCacheKey = "xPath" + rni.getRouteNodeInstanceId() + "-" + rni.getName();
-            if(docContent.getRouteContext().getParameters().containsKey(xPathCacheKey)) {
-                xpath = (XPath)docContent.getRouteContext().getParameters().get(xPathCacheKey);
-            } else {
-                xpath = XPathHelper.newXPath(docContent.getDocument());
-                docContent.getRouteContext().getParameters().put(xPathCacheKey, xpath);
-            }
-        } else {
-            xpath = XPathHelper.newXPath(docContent.getDocument());
-            docContent.getRouteContext().getParameters().put(xPathCacheKey, xpath);
-        }
-        WorkflowFunctionResolver resolver = XPathHelper.extractFunctionResolver(xpath);
-        resolver.setRuleExtensions(ruleExtensions);
-        List<String> xPathExpressionsToEvaluate = extractExpressionsToEvaluate(xpath, docContent, ruleExtensions);
-        for (String xPathExpressionToEvaluate : xPathExpressionsToEvaluate) {
-            if (LOG.isDebugEnabled()) {
-                LOG.debug("Evaluating xPath expression: " + xPathExpressionToEvaluate);
-            }
-            try {
-                Boolean match = (Boolean) xpath.evaluate(xPathExpressionToEvaluate, docContent.getDocument(), XPathConstants.BOOLEAN);
+        XPath xpath = XPathExpressionCache.acquire(docContent.getDocument());
+        try {
+            WorkflowFunctionResolver resolver = XPathHelper.extractFunctionResolver(xpath);
+            resolver.setRuleExtensions(ruleExtensions);
+            List<String> xPathExpressionsToEvaluate = extractExpressionsToEvaluate(xpath, docContent, ruleExtensions);
+            for (String xPathExpressionToEvaluate : xPathExpressionsToEvaluate) {
                 if (LOG.isDebugEnabled()) {
-                    LOG.debug("Expression match result: " + match);
+                    LOG.debug("Evaluating xPath expression: " + xPathExpressionToEvaluate);
                 }
-                if (match != null && !match.booleanValue()) {
-                    return false;
+                try {
+                    Boolean match = (Boolean) xpath.evaluate(xPathExpressionToEvaluate, docContent.getDocument(), XPathConstants.BOOLEAN);
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("Expression match result: " + match);
+                    }
+                    if (match != null && !match.booleanValue()) {
+                        return false;
+                    }
+                } catch (XPathExpressionException e) {
+                    LOG.error("Error in isMatch ", e);
+                    throw new RuntimeException("Error trying to evalute xml content with xpath expression: " + xPathExpressionToEvaluate, e);
                 }
-            } catch (XPathExpressionException e) {
-                LOG.error("Error in isMatch ", e);
-                throw new RuntimeException("Error trying to evalute xml content with xpath expression: " + xPathExpressionToEvaluate, e);
             }
+            return true;
+        } finally {
+            XPathExpressionCache.release(xpath);
         }
-        return true;
     }
 
     /**
@@ -631,11 +623,28 @@ public class StandardGenericXMLRuleAttribute implements GenericXMLRuleAttribute,
         return required;
     }
 
+    /**
+     * Returns the parsed routing configuration of this attribute, which is only parsed again if the configuration of
+     * the extension definition changes.  The attribute may be shared between threads, so the configuration is parsed
+     * into a fully expanded DOM which callers must only read.
+     */
     public Element getConfigXML() {
         try {
-            return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new InputSource(new BufferedReader(
-                    new StringReader(extensionDefinition.getConfiguration().get(
-                            KewApiConstants.ATTRIBUTE_XML_CONFIG_DATA))))).getDocumentElement();
+            String xmlConfigData = extensionDefinition.getConfiguration().get(KewApiConstants.ATTRIBUTE_XML_CONFIG_DATA);
+            ConfigXML parsed = configXML;
+            if (parsed == null || !StringUtils.equals(xmlConfigData, parsed.data)) {
+                DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+                try {
+                    // a deferred DOM expands its nodes as they are read, which isn't safe across threads
+                    factory.setFeature(DEFER_NODE_EXPANSION_FEATURE, false);
+                } catch (ParserConfigurationException e) {
+                    LOG.debug("The XML parser does not support " + DEFER_NODE_EXPANSION_FEATURE, e);
+                }
+                parsed = new ConfigXML(xmlConfigData, factory.newDocumentBuilder().parse(new InputSource(
+                        new BufferedReader(new StringReader(xmlConfigData)))).getDocumentElement());
+                configXML = parsed;
+            }
+            return parsed.element;
         } catch (Exception e) {
             String str = extensionDefinition == null ? "null" : extensionDefinition.getName();
             LOG.error("error parsing xml data from rule attribute: " + str, e);
@@ -693,5 +702,18 @@ public class StandardGenericXMLRuleAttribute implements GenericXMLRuleAttribute,
         this.evaluateForMissingExtensions = evaluateForMissingExtensions;
     }
 
+    /**
+     * The routing configuration parsed from the given configuration data, replaced as a whole when the data changes.
+     */
+    private static final class ConfigXML {
+
+        private final String data;
+        private final Element element;
+
+        ConfigXML(String data, Element element) {
+            this.data = data;
+            this.element = element;
+        }
+    }
 
 }
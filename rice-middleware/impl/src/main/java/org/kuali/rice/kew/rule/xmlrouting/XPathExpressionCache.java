@@ -0,0 +1,200 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.rule.xmlrouting;
+
+import org.kuali.rice.core.api.config.property.Config;
+import org.kuali.rice.core.api.config.property.ConfigContext;
+import org.w3c.dom.Node;
+
+import javax.xml.xpath.XPath;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the compiled XPath expressions evaluated by the KEW attributes, which evaluate the same expressions against
+ * every document that is routed or indexed.
+ *
+ * <p>A compiled expression is bound to the {@link WorkflowFunctionResolver} of the XPath it was compiled with and is
+ * not thread safe, so compiled expressions are not shared between threads.  Instead each thread keeps a small pool of
+ * XPath instances, each caching the expressions compiled through it keyed by the expression (they all use the
+ * {@link WorkflowNamespaceContext}).  A caller may still replace the namespace context or resolvers of the XPath it
+ * acquired, that XPath is then not reused by anyone else.  Hit, miss and compile time statistics are kept across all threads.</p>
+ *
+ * <p>An XPath taken from the cache must be given back once the caller is done with it:</p>
+ * <pre>
+ * XPath xpath = XPathExpressionCache.acquire(document);
+ * try {
+ *     ...
+ * } finally {
+ *     XPathExpressionCache.release(xpath);
+ * }
+ * </pre>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public final class XPathExpressionCache {
+
+    /**
+     * The maximum number of compiled expressions kept by each cached XPath.
+     */
+    public static final String MAX_EXPRESSIONS_PARAM = "kew.xpath.cache.maxExpressions";
+
+    private static final int DEFAULT_MAX_EXPRESSIONS = 256;
+    private static final int MAX_POOLED_PER_THREAD = 4;
+
+    private static final ThreadLocal<Deque<CachingXPath>> POOL = new ThreadLocal<Deque<CachingXPath>>() {
+        @Override
+        protected Deque<CachingXPath> initialValue() {
+            return new ArrayDeque<CachingXPath>(MAX_POOLED_PER_THREAD);
+        }
+    };
+
+    private static final AtomicInteger generation = new AtomicInteger();
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong evictions = new AtomicLong();
+    private static final AtomicLong compileNanos = new AtomicLong();
+
+    private XPathExpressionCache() {
+        throw new UnsupportedOperationException("do not call");
+    }
+
+    /**
+     * Returns an XPath of the current thread which caches the expressions compiled through it.
+     */
+    public static XPath acquire() {
+        return acquire(null);
+    }
+
+    /**
+     * Returns an XPath of the current thread which caches the expressions compiled through it, with the root node of
+     * its {@link WorkflowFunctionResolver} set to the given node as {@link XPathHelper#newXPath(Node)} does.
+     */
+    public static XPath acquire(Node rootNode) {
+        CachingXPath xpath = POOL.get().pollFirst();
+        if (xpath == null) {
+            xpath = new CachingXPath(getMaxExpressions());
+        }
+        xpath.prepare(rootNode, generation.get());
+        return xpath;
+    }
+
+    /**
+     * Gives back an XPath obtained from {@link #acquire(Node)} so it can be reused by the current thread.  An XPath
+     * whose namespace context or resolvers have been replaced is discarded instead.
+     */
+    public static void release(XPath xpath) {
+        if (!(xpath instanceof CachingXPath)) {
+            return;
+        }
+        CachingXPath cachingXPath = (CachingXPath) xpath;
+        if (cachingXPath.isConfigured()) {
+            return;
+        }
+        cachingXPath.prepare(null, generation.get());
+        Deque<CachingXPath> pool = POOL.get();
+        if (pool.size() < MAX_POOLED_PER_THREAD && !pool.contains(cachingXPath)) {
+            pool.offerFirst(cachingXPath);
+        }
+    }
+
+    /**
+     * Discards all compiled expressions, the pooled XPath instances drop theirs the next time they are acquired.
+     */
+    public static void clear() {
+        generation.incrementAndGet();
+    }
+
+    public static Statistics getStatistics() {
+        return new Statistics(hits.get(), misses.get(), evictions.get(), compileNanos.get());
+    }
+
+    static void recordHit() {
+        hits.incrementAndGet();
+    }
+
+    static void recordMiss(long nanos) {
+        misses.incrementAndGet();
+        compileNanos.addAndGet(nanos);
+    }
+
+    static void recordEviction() {
+        evictions.incrementAndGet();
+    }
+
+    private static int getMaxExpressions() {
+        Config config = ConfigContext.getCurrentContextConfig();
+        if (config == null) {
+            return DEFAULT_MAX_EXPRESSIONS;
+        }
+        return (int) config.getNumericProperty(MAX_EXPRESSIONS_PARAM, DEFAULT_MAX_EXPRESSIONS);
+    }
+
+    /**
+     * A snapshot of the statistics of the cache.
+     */
+    public static final class Statistics {
+
+        private final long hitCount;
+        private final long missCount;
+        private final long evictionCount;
+        private final long compileTimeNanos;
+
+        Statistics(long hitCount, long missCount, long evictionCount, long compileTimeNanos) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+            this.compileTimeNanos = compileTimeNanos;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        /**
+         * @return the number of expressions compiled
+         */
+        public long getMissCount() {
+            return missCount;
+        }
+
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        public double getHitRatio() {
+            long requests = hitCount + missCount;
+            return requests == 0 ? 0d : (double) hitCount / requests;
+        }
+
+        /**
+         * @return the total time spent compiling expressions
+         */
+        public long getCompileTimeMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(compileTimeNanos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d hits, %d misses (%.1f%% hit ratio), %d evictions, %d ms compiling", hitCount,
+                    missCount, getHitRatio() * 100, evictionCount, getCompileTimeMillis());
+        }
+    }
+
+}
@@ -28,6 +28,8 @@ import org.kuali.rice.kew.actiontaken.service.ActionTakenService;
 import org.kuali.rice.kew.api.KewApiConstants;
 import org.kuali.rice.kew.batch.XmlPollerService;
 import org.kuali.rice.kew.docsearch.DocumentSearchCustomizationMediator;
+import org.kuali.rice.kew.docsearch.service.DocumentSearchIndexService;
+import org.kuali.rice.kew.docsearch.service.SearchableAttributeReindexService;
 import org.kuali.rice.kew.docsearch.service.DocumentSearchService;
 import org.kuali.rice.kew.doctype.service.DocumentSecurityService;
 import org.kuali.rice.kew.doctype.service.DocumentTypePermissionService;
@@ -88,6 +90,10 @@ public final class KEWServiceLocator {
 
 	public static final String DOCUMENT_SEARCH_SERVICE = "enDocumentSearchService";
 
+	public static final String DOCUMENT_SEARCH_INDEX_SERVICE = "enDocumentSearchIndexService";
+
+	public static final String SEARCHABLE_ATTRIBUTE_REINDEX_SERVICE = "enSearchableAttributeReindexService";
+
 	public static final String ACTION_TAKEN_SRV = "enActionTakenService";
 
 	public static final String ACTION_REQUEST_SRV = "enActionRequestService";
@@ -365,6 +371,14 @@ public final class KEWServiceLocator {
     	return (DocumentSearchService) getBean(DOCUMENT_SEARCH_SERVICE);
     }
 
+    public static DocumentSearchIndexService getDocumentSearchIndexService() {
+        return (DocumentSearchIndexService) getBean(DOCUMENT_SEARCH_INDEX_SERVICE);
+    }
+
+    public static SearchableAttributeReindexService getSearchableAttributeReindexService() {
+        return (SearchableAttributeReindexService) getBean(SEARCHABLE_ATTRIBUTE_REINDEX_SERVICE);
+    }
+
     public static ExtractService getExtractService() {
 	return (ExtractService) getBean(EXTRACT_SERVICE);
     }
@@ -52,7 +52,7 @@ public interface UiDocumentService {
 	 * 	  
 	 * @param identityManagementPersonDocument
 	 */
-    @CacheEvict(value={Entity.Cache.NAME, EntityDefault.Cache.NAME, Principal.Cache.NAME, Role.Cache.NAME, GroupMember.Cache.NAME, RoleMember.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={Entity.Cache.NAME, EntityDefault.Cache.NAME, Principal.Cache.NAME, Role.Cache.NAME, GroupMember.Cache.NAME, RoleMember.Cache.NAME, Permission.Cache.EFFECTIVE_NAME}, allEntries = true)
     void saveEntityPerson(IdentityManagementPersonDocument identityManagementPersonDocument);
     
     /**
@@ -102,7 +102,7 @@ public interface UiDocumentService {
 	 * 
 	 * @param identityManagementRoleDocument
 	 */
-    @CacheEvict(value={Role.Cache.NAME, RoleMember.Cache.NAME, Permission.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={Role.Cache.NAME, RoleMember.Cache.NAME, Permission.Cache.NAME, Permission.Cache.EFFECTIVE_NAME}, allEntries = true)
 	public void saveRole(IdentityManagementRoleDocument identityManagementRoleDocument);
 
 
@@ -120,7 +120,7 @@ public interface UiDocumentService {
 	 * 
 	 * @param identityManagementGroupDocument
 	 */
-    @CacheEvict(value={Group.Cache.NAME,GroupMember.Cache.NAME, Role.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={Group.Cache.NAME,GroupMember.Cache.NAME, Role.Cache.NAME, Permission.Cache.EFFECTIVE_NAME}, allEntries = true)
 	public void saveGroup(IdentityManagementGroupDocument identityManagementGroupDocument);
 
 	public Object getMember(MemberType memberType, String memberId);
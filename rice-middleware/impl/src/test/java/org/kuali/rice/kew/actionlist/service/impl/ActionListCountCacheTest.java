@@ -0,0 +1,142 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.actionlist.service.impl;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kuali.rice.kew.actionlist.ActionListCount;
+import org.kuali.rice.kew.actionlist.dao.ActionListDAO;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the eviction of cached counts by the {@link ActionListCountCache}.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class ActionListCountCacheTest {
+
+    private ActionListDAO actionListDAO;
+    private ActionListCountCache actionListCountCache;
+
+    @Before
+    public void setUp() {
+        actionListDAO = mock(ActionListDAO.class);
+        when(actionListDAO.getActionListCount("user1")).thenReturn(new ActionListCount("user1", 0, 0, null));
+        actionListCountCache = new ActionListCountCache();
+        actionListCountCache.setCacheManager(new ConcurrentMapCacheManager(ActionListCount.CACHE_NAME));
+        actionListCountCache.setActionListDAO(actionListDAO);
+        actionListCountCache.setDistributed(false);
+    }
+
+    @After
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    public void testCountsAreLoadedOnce() {
+        actionListCountCache.getActionListCount("user1");
+        actionListCountCache.getActionListCount("user1");
+
+        verify(actionListDAO, times(1)).getActionListCount("user1");
+    }
+
+    @Test
+    public void testChangeOutsideOfATransactionEvicts() {
+        actionListCountCache.getActionListCount("user1");
+        actionListCountCache.actionItemChanged("user1");
+        actionListCountCache.getActionListCount("user1");
+
+        verify(actionListDAO, times(2)).getActionListCount("user1");
+    }
+
+    @Test
+    public void testChangeInATransactionEvictsOnCommit() {
+        actionListCountCache.getActionListCount("user1");
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        actionListCountCache.actionItemChanged("user1");
+        // the cached counts stay in place until the change is committed
+        actionListCountCache.getActionListCount("user1");
+        verify(actionListDAO, times(1)).getActionListCount("user1");
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.beforeCommit(false);
+            synchronization.afterCommit();
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+
+        actionListCountCache.getActionListCount("user1");
+        actionListCountCache.getActionListCount("user1");
+        verify(actionListDAO, times(2)).getActionListCount("user1");
+    }
+
+    @Test
+    public void testRolledBackChangeDoesNotEvict() {
+        actionListCountCache.getActionListCount("user1");
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        actionListCountCache.actionItemChanged("user1");
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+
+        actionListCountCache.getActionListCount("user1");
+        verify(actionListDAO, times(1)).getActionListCount("user1");
+    }
+
+    @Test
+    public void testCommittedChangeWakesWaiters() throws Exception {
+        actionListCountCache.setRecheckInterval(60000);
+        actionListCountCache.getActionListCount("user1");
+        final ActionListCount changed = new ActionListCount("user1", 1, 1, null);
+
+        Thread committer = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                when(actionListDAO.getActionListCount("user1")).thenReturn(changed);
+                actionListCountCache.actionItemChanged("user1");
+            }
+        };
+        committer.start();
+        long start = System.currentTimeMillis();
+        int count = actionListCountCache.awaitCountChange("user1", 0, 30000);
+        committer.join();
+
+        assertEquals(1, count);
+        assertTrue("The waiter should have been woken by the change", System.currentTimeMillis() - start < 30000);
+    }
+
+}
@@ -0,0 +1,356 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.actionlist.service.impl;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kuali.rice.core.api.criteria.AndPredicate;
+import org.kuali.rice.core.api.criteria.CompositePredicate;
+import org.kuali.rice.core.api.criteria.EqualPredicate;
+import org.kuali.rice.core.api.criteria.GenericQueryResults;
+import org.kuali.rice.core.api.criteria.GreaterThanPredicate;
+import org.kuali.rice.core.api.criteria.LessThanPredicate;
+import org.kuali.rice.core.api.criteria.OrPredicate;
+import org.kuali.rice.core.api.criteria.OrderByField;
+import org.kuali.rice.core.api.criteria.OrderDirection;
+import org.kuali.rice.core.api.criteria.Predicate;
+import org.kuali.rice.core.api.criteria.QueryByCriteria;
+import org.kuali.rice.core.api.criteria.QueryResults;
+import org.kuali.rice.core.api.criteria.SingleValuedPredicate;
+import org.kuali.rice.core.api.datetime.DateTimeService;
+import org.kuali.rice.core.api.delegation.DelegationType;
+import org.kuali.rice.kew.actionitem.ActionItem;
+import org.kuali.rice.kew.actionlist.ActionListPage;
+import org.kuali.rice.kew.actionlist.ActionListPageKey;
+import org.kuali.rice.kew.actionlist.ActionListSortField;
+import org.kuali.rice.kew.actionrequest.ActionRequestValue;
+import org.kuali.rice.kew.actionrequest.service.ActionRequestService;
+import org.kuali.rice.kew.doctype.bo.DocumentType;
+import org.kuali.rice.kew.routeheader.DocumentRouteHeaderValue;
+import org.kuali.rice.krad.data.DataObjectService;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the batched creation and saving of action items and the keyset paged action list of the
+ * {@link ActionListServiceImpl}.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class ActionListServiceImplTest {
+
+    private static final List<String> PRINCIPAL_IDS = Arrays.asList("p1", "p2", "p3");
+
+    private DataObjectService dataObjectService;
+    private ActionListCountCache actionListCountCache;
+    private ActionListServiceImpl actionListService;
+    private ActionRequestValue actionRequest;
+
+    /** the action items of the paged action list */
+    private final List<ActionItem> actionItems = new ArrayList<ActionItem>();
+
+    @Before
+    public void setUp() {
+        dataObjectService = mock(DataObjectService.class);
+        when(dataObjectService.save(any(ActionItem.class))).thenAnswer(new Answer<ActionItem>() {
+            @Override
+            public ActionItem answer(InvocationOnMock invocation) {
+                return (ActionItem) invocation.getArguments()[0];
+            }
+        });
+        DateTimeService dateTimeService = mock(DateTimeService.class);
+        when(dateTimeService.getCurrentTimestamp()).thenReturn(new Timestamp(System.currentTimeMillis()));
+        actionListCountCache = mock(ActionListCountCache.class);
+        when(actionListCountCache.isEnabled()).thenReturn(true);
+
+        DocumentType documentType = mock(DocumentType.class);
+        when(documentType.getName()).thenReturn("TestDocumentType");
+        when(documentType.getLabel()).thenReturn("Test Document Type");
+        when(documentType.getResolvedDocumentHandlerUrl()).thenReturn("http://localhost/handler");
+        DocumentRouteHeaderValue routeHeader = mock(DocumentRouteHeaderValue.class);
+        when(routeHeader.getDocumentType()).thenReturn(documentType);
+        when(routeHeader.getDocTitle()).thenReturn("Test Document");
+
+        actionRequest = mock(ActionRequestValue.class);
+        when(actionRequest.getRouteHeader()).thenReturn(routeHeader);
+        when(actionRequest.getActionRequested()).thenReturn("A");
+        when(actionRequest.getActionRequestId()).thenReturn("1000");
+        when(actionRequest.getQualifiedRoleName()).thenReturn("Approvers");
+        when(actionRequest.getDocumentId()).thenReturn("2000");
+        when(actionRequest.getGroupId()).thenReturn("g1");
+        when(actionRequest.getResponsibilityId()).thenReturn("3000");
+        when(actionRequest.getDelegationType()).thenReturn(DelegationType.SECONDARY);
+        when(actionRequest.getRequestLabel()).thenReturn("Label");
+
+        ActionRequestValue delegatorRequest = mock(ActionRequestValue.class);
+        when(delegatorRequest.getPrincipalId()).thenReturn("delegator");
+        when(delegatorRequest.getGroupId()).thenReturn("delegatorGroup");
+        ActionRequestService actionRequestService = mock(ActionRequestService.class);
+        when(actionRequestService.findDelegatorRequest(actionRequest)).thenReturn(delegatorRequest);
+
+        when(dataObjectService.findMatching(eq(ActionItem.class), any(QueryByCriteria.class))).thenAnswer(
+                new Answer<QueryResults<ActionItem>>() {
+            @Override
+            public QueryResults<ActionItem> answer(InvocationOnMock invocation) {
+                return findActionItems((QueryByCriteria) invocation.getArguments()[1]);
+            }
+        });
+        when(dataObjectService.findMatching(eq(DocumentRouteHeaderValue.class), any(QueryByCriteria.class))).thenAnswer(
+                new Answer<QueryResults<DocumentRouteHeaderValue>>() {
+            @Override
+            public QueryResults<DocumentRouteHeaderValue> answer(InvocationOnMock invocation) {
+                GenericQueryResults.Builder<DocumentRouteHeaderValue> results = GenericQueryResults.Builder.create();
+                results.setTotalRowCount(groupedDocumentIds().size());
+                return results.build();
+            }
+        });
+
+        actionListService = new ActionListServiceImpl();
+        actionListService.setDataObjectService(dataObjectService);
+        actionListService.setDateTimeService(dateTimeService);
+        actionListService.setActionRequestService(actionRequestService);
+        actionListService.setActionListCountCache(actionListCountCache);
+    }
+
+    private List<ActionItem> savePerItem() {
+        List<ActionItem> savedActionItems = new ArrayList<ActionItem>();
+        for (String principalId : PRINCIPAL_IDS) {
+            ActionItem actionItem = actionListService.createActionItemForActionRequest(actionRequest);
+            actionItem.setPrincipalId(principalId);
+            savedActionItems.add(actionListService.saveActionItem(actionItem));
+        }
+        return savedActionItems;
+    }
+
+    private List<ActionItem> saveBatch() {
+        return actionListService.saveActionItems(actionListService.createActionItemsForActionRequest(actionRequest,
+                PRINCIPAL_IDS));
+    }
+
+    /**
+     * The values of the action item, apart from the time it was assigned which both paths set on their own.
+     */
+    private List<Object> valuesOf(ActionItem actionItem) {
+        assertNotNull(actionItem.getDateAssigned());
+        return Arrays.<Object>asList(actionItem.getPrincipalId(), actionItem.getActionRequestCd(),
+                actionItem.getActionRequestId(), actionItem.getDocName(), actionItem.getRoleName(),
+                actionItem.getDocumentId(), actionItem.getDocHandlerURL(), actionItem.getDocLabel(),
+                actionItem.getDocTitle(), actionItem.getGroupId(), actionItem.getResponsibilityId(),
+                actionItem.getDelegationType(), actionItem.getRequestLabel(), actionItem.getDelegatorPrincipalId(),
+                actionItem.getDelegatorGroupId());
+    }
+
+    @Test
+    public void testBatchSavesTheSameItemsAsSavingEachItem() {
+        List<ActionItem> perItem = savePerItem();
+        List<ActionItem> batch = saveBatch();
+
+        assertEquals(PRINCIPAL_IDS.size(), batch.size());
+        for (int i = 0; i < perItem.size(); i++) {
+            assertEquals(valuesOf(perItem.get(i)), valuesOf(batch.get(i)));
+        }
+        verify(dataObjectService, times(PRINCIPAL_IDS.size() * 2)).save(any(ActionItem.class));
+    }
+
+    @Test
+    public void testBatchRecordsEveryPrincipalAndFlushesOnce() {
+        saveBatch();
+
+        for (String principalId : PRINCIPAL_IDS) {
+            verify(actionListCountCache).actionItemChanged(principalId);
+        }
+        verify(dataObjectService, times(1)).flush(ActionItem.class);
+    }
+
+    private void addActionItems(String documentId, String docLabel, int count) {
+        for (int i = 0; i < count; i++) {
+            ActionItem actionItem = new ActionItem();
+            actionItem.setId(documentId + "-" + i);
+            actionItem.setPrincipalId("p1");
+            actionItem.setDocumentId(documentId);
+            actionItem.setDocLabel(docLabel);
+            actionItem.setActionRequestCd("A");
+            actionItems.add(actionItem);
+        }
+    }
+
+    private List<String> groupedDocumentIds() {
+        List<String> documentIds = new ArrayList<String>();
+        for (ActionItem actionItem : actionItems) {
+            if (!documentIds.contains(actionItem.getDocumentId())) {
+                documentIds.add(actionItem.getDocumentId());
+            }
+        }
+        return documentIds;
+    }
+
+    /**
+     * Runs the query against the action items in memory, supporting the predicates used by the paged action list.
+     */
+    private QueryResults<ActionItem> findActionItems(QueryByCriteria query) {
+        List<ActionItem> matching = new ArrayList<ActionItem>();
+        for (ActionItem actionItem : actionItems) {
+            if (query.getPredicate() == null || matches(query.getPredicate(), actionItem)) {
+                matching.add(actionItem);
+            }
+        }
+        final List<OrderByField> orderByFields = query.getOrderByFields();
+        Collections.sort(matching, new Comparator<ActionItem>() {
+            @Override
+            public int compare(ActionItem actionItem1, ActionItem actionItem2) {
+                for (OrderByField orderByField : orderByFields) {
+                    int result = compareValues(valueOf(orderByField.getFieldName(), actionItem1),
+                            valueOf(orderByField.getFieldName(), actionItem2));
+                    if (result != 0) {
+                        return orderByField.getOrderDirection() == OrderDirection.ASCENDING ? result : -result;
+                    }
+                }
+                return 0;
+            }
+        });
+        if (query.getMaxResults() != null && matching.size() > query.getMaxResults()) {
+            matching = matching.subList(0, query.getMaxResults());
+        }
+        GenericQueryResults.Builder<ActionItem> results = GenericQueryResults.Builder.create();
+        results.setResults(new ArrayList<ActionItem>(matching));
+        return results.build();
+    }
+
+    private boolean matches(Predicate predicate, ActionItem actionItem) {
+        if (predicate instanceof CompositePredicate) {
+            boolean and = predicate instanceof AndPredicate;
+            assertTrue(and || predicate instanceof OrPredicate);
+            for (Predicate child : ((CompositePredicate) predicate).getPredicates()) {
+                if (matches(child, actionItem) != and) {
+                    return !and;
+                }
+            }
+            return and;
+        }
+        SingleValuedPredicate singleValued = (SingleValuedPredicate) predicate;
+        int result = compareValues(valueOf(singleValued.getPropertyPath(), actionItem),
+                (String) singleValued.getValue().getValue());
+        if (predicate instanceof EqualPredicate) {
+            return result == 0;
+        } else if (predicate instanceof GreaterThanPredicate) {
+            return result > 0;
+        } else if (predicate instanceof LessThanPredicate) {
+            return result < 0;
+        }
+        throw new IllegalArgumentException("Unsupported predicate " + predicate);
+    }
+
+    private String valueOf(String propertyPath, ActionItem actionItem) {
+        if ("principalId".equals(propertyPath)) {
+            return actionItem.getPrincipalId();
+        } else if ("documentId".equals(propertyPath)) {
+            return actionItem.getDocumentId();
+        } else if ("docLabel".equals(propertyPath)) {
+            return actionItem.getDocLabel();
+        }
+        throw new IllegalArgumentException("Unsupported property " + propertyPath);
+    }
+
+    private int compareValues(String value1, String value2) {
+        return value1.compareTo(value2);
+    }
+
+    /**
+     * Reads the whole action list page by page, checking that each page has one entry per document.
+     */
+    private List<List<String>> readPages(boolean ascending, int pageSize) {
+        List<List<String>> pages = new ArrayList<List<String>>();
+        ActionListPageKey key = null;
+        do {
+            ActionListPage page = actionListService.getActionListPage("p1", null, ActionListSortField.DOCUMENT_TYPE,
+                    ascending, key, pageSize);
+            assertEquals(groupedDocumentIds().size(), page.getFullListSize());
+            List<String> documentIds = new ArrayList<String>();
+            for (ActionItem actionItem : page.getActionItems()) {
+                documentIds.add(actionItem.getDocumentId());
+            }
+            pages.add(documentIds);
+            key = page.getNextPageKey();
+            assertTrue("Too many pages read", pages.size() <= actionItems.size() + 1);
+        } while (key != null);
+        return pages;
+    }
+
+    @Test
+    public void testPagesSplitTiedSortValuesWithoutSkippingOrRepeatingDocuments() {
+        addActionItems("1", "A", 2);
+        addActionItems("2", "B", 3);
+        addActionItems("3", "B", 1);
+        addActionItems("4", "B", 2);
+        addActionItems("5", "C", 1);
+
+        assertEquals(Arrays.asList(Arrays.asList("1", "2"), Arrays.asList("3", "4"), Arrays.asList("5")),
+                readPages(true, 2));
+        assertEquals(Arrays.asList(Arrays.asList("5", "4"), Arrays.asList("3", "2"), Arrays.asList("1")),
+                readPages(false, 2));
+    }
+
+    @Test
+    public void testEveryTiedDocumentIsOnItsOwnPage() {
+        addActionItems("1", "A", 1);
+        addActionItems("2", "A", 4);
+        addActionItems("3", "A", 1);
+
+        assertEquals(Arrays.asList(Arrays.asList("1"), Arrays.asList("2"), Arrays.asList("3")), readPages(true, 1));
+    }
+
+    @Test
+    public void testFullLastPageHasNoNextPage() {
+        addActionItems("1", "A", 1);
+        addActionItems("2", "B", 2);
+        addActionItems("3", "B", 1);
+        addActionItems("4", "C", 1);
+
+        ActionListPage first = actionListService.getActionListPage("p1", null, ActionListSortField.DOCUMENT_TYPE,
+                true, null, 2);
+        assertTrue(first.hasNextPage());
+        ActionListPage last = actionListService.getActionListPage("p1", null, ActionListSortField.DOCUMENT_TYPE,
+                true, first.getNextPageKey(), 2);
+
+        assertEquals(2, last.getActionItems().size());
+        assertEquals("4", last.getActionItems().get(1).getDocumentId());
+        assertFalse(last.hasNextPage());
+        assertNull(last.getNextPageKey());
+    }
+
+    @Test
+    public void testEmptyActionListHasSingleEmptyPage() {
+        ActionListPage page = actionListService.getActionListPage("p1", null, ActionListSortField.DOCUMENT_TYPE, true,
+                null, 10);
+
+        assertTrue(page.getActionItems().isEmpty());
+        assertEquals(0, page.getFullListSize());
+        assertFalse(page.hasNextPage());
+    }
+
+}
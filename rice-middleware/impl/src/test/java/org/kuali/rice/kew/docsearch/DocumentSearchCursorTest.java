@@ -0,0 +1,78 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.docsearch;
+
+import org.junit.Test;
+
+import java.sql.Timestamp;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the DocumentSearchCursor class.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class DocumentSearchCursorTest {
+
+    private static Timestamp timestamp(long time, int nanos) {
+        Timestamp timestamp = new Timestamp(time);
+        timestamp.setNanos(nanos);
+        return timestamp;
+    }
+
+    @Test
+    public void encodedCursorDecodesToAnEqualCursor() {
+        DocumentSearchCursor cursor = new DocumentSearchCursor(timestamp(1400000000123L, 123456789), "3005");
+
+        DocumentSearchCursor decoded = DocumentSearchCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+        assertEquals(123456789, decoded.getDateCreated().getNanos());
+        assertEquals("3005", decoded.getDocumentId());
+    }
+
+    @Test
+    public void documentIdMayContainTheSeparator() {
+        DocumentSearchCursor cursor = new DocumentSearchCursor(timestamp(1400000000000L, 0), "doc:1:2");
+
+        assertEquals(cursor, DocumentSearchCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    public void cursorsDifferingOnlyInNanosAreNotEqual() {
+        DocumentSearchCursor cursor = new DocumentSearchCursor(timestamp(1400000000000L, 1000), "3005");
+        DocumentSearchCursor other = new DocumentSearchCursor(timestamp(1400000000000L, 2000), "3005");
+
+        assertFalse(cursor.equals(other));
+        assertFalse(cursor.encode().equals(other.encode()));
+    }
+
+    @Test
+    public void malformedCursorsAreRejected() {
+        String[] malformed = { "", "1400000000000", "1400000000000:0", "1400000000000:0:", "abc:0:3005",
+                "1400000000000:abc:3005", "1400000000000:-1:3005" };
+        for (String encoded : malformed) {
+            try {
+                DocumentSearchCursor.decode(encoded);
+                fail("Expected an IllegalArgumentException for " + encoded);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.docsearch;
+
+import org.junit.Test;
+import org.kuali.rice.kew.docsearch.DocumentSearchIndexDefinition.ColumnType;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the DocumentSearchIndexDefinition class.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class DocumentSearchIndexDefinitionTest {
+
+    @Test
+    public void assignsFreeColumnsPerType() {
+        DocumentSearchIndexDefinition definition = new DocumentSearchIndexDefinition("TestDoc",
+                DocumentSearchIndexDefinition.STATUS_AVAILABLE);
+        assertEquals("STR_VAL_1", definition.getNextFreeColumnName(ColumnType.STRING));
+        definition.addColumn("account", "STR_VAL_1", false);
+        definition.addColumn("amount", "FLT_VAL_1", false);
+        assertEquals("STR_VAL_2", definition.getNextFreeColumnName(ColumnType.STRING));
+        assertEquals("LONG_VAL_1", definition.getNextFreeColumnName(ColumnType.LONG));
+        assertEquals("FLT_VAL_2", definition.getNextFreeColumnName(ColumnType.FLOAT));
+
+        for (int i = 2; i <= 5; i++) {
+            definition.addColumn("date" + i, "DT_VAL_" + (i - 1), false);
+        }
+        definition.addColumn("date6", "DT_VAL_5", false);
+        assertNull(definition.getNextFreeColumnName(ColumnType.DATE_TIME));
+    }
+
+    @Test
+    public void multiValuedKeysAreNotSearchable() {
+        DocumentSearchIndexDefinition definition = new DocumentSearchIndexDefinition("TestDoc",
+                DocumentSearchIndexDefinition.STATUS_BUILDING);
+        assertFalse(definition.isAvailable());
+        definition.addColumn("account", "STR_VAL_1", true);
+        assertEquals("STR_VAL_1", definition.getAssignedColumnName("account"));
+        assertNull(definition.getSearchableColumnName("account"));
+        assertNull(definition.getSearchableColumnName("unknown"));
+    }
+
+    @Test
+    public void columnTypes() {
+        assertEquals(ColumnType.LONG, ColumnType.forAttributeTable("KREW_DOC_HDR_EXT_LONG_T"));
+        assertEquals(ColumnType.DATE_TIME, ColumnType.forColumn("DT_VAL_3"));
+        assertNull(ColumnType.forColumn("DOC_HDR_ID"));
+        assertNull(ColumnType.forColumn("STR_VAL_11"));
+    }
+
+}
@@ -0,0 +1,55 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.docsearch;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the SearchableAttributeReindexPartition and SearchableAttributeReindexProgress classes.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class SearchableAttributeReindexProgressTest {
+
+    @Test
+    public void partitionResumesAfterCheckpoint() {
+        SearchableAttributeReindexPartition partition = new SearchableAttributeReindexPartition("TestDoc", 2, "1000",
+                "2000");
+        assertEquals("1000", partition.getResumeDocumentId());
+        assertFalse(partition.isComplete());
+        partition.setLastDocumentId("1500");
+        assertEquals("1500", partition.getResumeDocumentId());
+        partition.setStatusCode(SearchableAttributeReindexPartition.STATUS_COMPLETE);
+        assertTrue(partition.isComplete());
+
+        assertNull(new SearchableAttributeReindexPartition("TestDoc", 1, null, "1000").getResumeDocumentId());
+    }
+
+    @Test
+    public void rates() {
+        SearchableAttributeReindexProgress progress = new SearchableAttributeReindexProgress("TestDoc", true, 10, 4, 1,
+                500, 2, 2000, 2000);
+        assertEquals(250d, progress.getDocumentsPerSecond(), 0.001d);
+        assertEquals(1000d, progress.getRowsPerSecond(), 0.001d);
+
+        SearchableAttributeReindexProgress justStarted = new SearchableAttributeReindexProgress("TestDoc", true, 10, 0,
+                0, 0, 0, 0, 0);
+        assertEquals(0d, justStarted.getRowsPerSecond(), 0d);
+    }
+
+}
@@ -0,0 +1,245 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.docsearch.dao.impl;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kuali.rice.core.api.uif.RemotableAttributeField;
+import org.kuali.rice.kew.api.document.Document;
+import org.kuali.rice.kew.api.document.search.DocumentSearchCriteria;
+import org.kuali.rice.kew.api.document.search.DocumentSearchResult;
+import org.kuali.rice.kew.docsearch.DocumentSearchCursor;
+import org.kuali.rice.kew.docsearch.DocumentSearchResultHandler;
+import org.kuali.rice.kew.impl.document.search.DocumentSearchGenerator;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests that the {@link DocumentSearchDAOJdbcImpl} streams documents in keyset pages, resuming after the last complete
+ * document of each page.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class DocumentSearchDAOJdbcImplTest {
+
+    private static final Timestamp NEWER = new Timestamp(1400000002000L);
+    private static final Timestamp OLDER = new Timestamp(1400000001000L);
+
+    private PreparedStatement statement;
+    private DocumentSearchGenerator generator;
+    private DocumentSearchDAOJdbcImpl documentSearchDao;
+
+    /** the rows of the search, in search order */
+    private List<Row> rows;
+    private final List<DocumentSearchCursor> queriedAfter = new ArrayList<DocumentSearchCursor>();
+    private final Map<DocumentSearchResult.Builder, Integer> rowCounts =
+            new IdentityHashMap<DocumentSearchResult.Builder, Integer>();
+    private int maxRows;
+
+    @Before
+    public void setUp() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(statement);
+        when(connection.createStatement(anyInt(), anyInt())).thenReturn(mock(Statement.class));
+        when(statement.executeQuery()).thenReturn(mock(ResultSet.class));
+        doAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) {
+                maxRows = (Integer) invocation.getArguments()[0];
+                return null;
+            }
+        }).when(statement).setMaxRows(anyInt());
+
+        generator = mock(DocumentSearchGenerator.class);
+        when(generator.generateSearchSql(any(DocumentSearchCriteria.class), anyListOf(RemotableAttributeField.class),
+                any(DocumentSearchCursor.class))).thenAnswer(new Answer<String>() {
+            @Override
+            public String answer(InvocationOnMock invocation) {
+                queriedAfter.add((DocumentSearchCursor) invocation.getArguments()[2]);
+                return "select";
+            }
+        });
+        when(generator.streamResultSet(any(DocumentSearchCriteria.class), any(Statement.class), any(ResultSet.class),
+                any(DocumentSearchResultHandler.class))).thenAnswer(new Answer<Integer>() {
+            @Override
+            public Integer answer(InvocationOnMock invocation) {
+                return streamPage((DocumentSearchResultHandler) invocation.getArguments()[3]);
+            }
+        });
+
+        documentSearchDao = new DocumentSearchDAOJdbcImpl();
+        documentSearchDao.setDataSource(dataSource);
+    }
+
+    /**
+     * Streams the rows after the cursor of the last query, limited to the statement's max rows, the same way the
+     * document search generator combines the rows of a document.
+     */
+    private int streamPage(DocumentSearchResultHandler handler) {
+        DocumentSearchCursor after = queriedAfter.get(queriedAfter.size() - 1);
+        List<Row> page = new ArrayList<Row>();
+        for (Row row : rows) {
+            if (page.size() < maxRows && row.isAfter(after)) {
+                page.add(row);
+            }
+        }
+        int read = 0;
+        Row current = null;
+        int currentRows = 0;
+        boolean more = true;
+        for (Row row : page) {
+            if (!more) {
+                break;
+            }
+            read++;
+            if (current != null && current.documentId.equals(row.documentId)) {
+                currentRows++;
+                continue;
+            }
+            if (current != null) {
+                more = handler.handleResult(result(current, currentRows), current.cursor());
+            }
+            current = row;
+            currentRows = 1;
+        }
+        if (more && current != null) {
+            handler.handleResult(result(current, currentRows), current.cursor());
+        }
+        return read;
+    }
+
+    private DocumentSearchResult.Builder result(Row row, int rowCount) {
+        DocumentSearchResult.Builder result = DocumentSearchResult.Builder.create(Document.Builder.create(
+                row.documentId, "initiator", "TestDoc", "1"));
+        rowCounts.put(result, rowCount);
+        return result;
+    }
+
+    private List<String> stream(DocumentSearchCursor after, int fetchSize, final int limit) {
+        final List<String> streamed = new ArrayList<String>();
+        documentSearchDao.streamDocuments(generator, DocumentSearchCriteria.Builder.create().build(),
+                Collections.<RemotableAttributeField>emptyList(), after, fetchSize, new DocumentSearchResultHandler() {
+            @Override
+            public boolean handleResult(DocumentSearchResult.Builder result, DocumentSearchCursor position) {
+                assertEquals(result.getDocument().getDocumentId(), position.getDocumentId());
+                streamed.add(result.getDocument().getDocumentId() + "x" + rowCounts.get(result));
+                return streamed.size() < limit;
+            }
+        });
+        return streamed;
+    }
+
+    @Test
+    public void documentsSpanningPagesAreStreamedOnceWithAllRows() {
+        rows = Arrays.asList(new Row(NEWER, "5"), new Row(NEWER, "4"), new Row(NEWER, "4"), new Row(NEWER, "4"),
+                new Row(NEWER, "3"), new Row(OLDER, "2"), new Row(OLDER, "2"), new Row(OLDER, "1"));
+
+        List<String> streamed = stream(null, 2, Integer.MAX_VALUE);
+
+        assertEquals(Arrays.asList("5x1", "4x3", "3x1", "2x2", "1x1"), streamed);
+        assertNull("The first page starts at the beginning", queriedAfter.get(0));
+        assertTrue("Later pages should resume after earlier ones", queriedAfter.size() > 1);
+    }
+
+    @Test
+    public void documentWithMoreRowsThanAPageIsStreamedWithAllRows() {
+        rows = Arrays.asList(new Row(NEWER, "2"), new Row(NEWER, "2"), new Row(NEWER, "2"), new Row(NEWER, "2"),
+                new Row(NEWER, "2"), new Row(OLDER, "1"));
+
+        assertEquals(Arrays.asList("2x5", "1x1"), stream(null, 2, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void streamResumesAfterTheGivenCursor() throws Exception {
+        rows = Arrays.asList(new Row(NEWER, "5"), new Row(NEWER, "4"), new Row(NEWER, "3"), new Row(OLDER, "9"),
+                new Row(OLDER, "1"));
+
+        List<String> streamed = stream(new DocumentSearchCursor(NEWER, "4"), 10, Integer.MAX_VALUE);
+
+        assertEquals(Arrays.asList("3x1", "9x1", "1x1"), streamed);
+        assertEquals(new DocumentSearchCursor(NEWER, "4"), queriedAfter.get(0));
+        verify(statement).setTimestamp(1, NEWER);
+        verify(statement).setTimestamp(2, NEWER);
+        verify(statement).setString(3, "4");
+    }
+
+    @Test
+    public void streamStopsWhenTheHandlerDoes() {
+        rows = Arrays.asList(new Row(NEWER, "5"), new Row(NEWER, "4"), new Row(NEWER, "3"), new Row(NEWER, "2"),
+                new Row(NEWER, "1"));
+
+        assertEquals(Arrays.asList("5x1", "4x1"), stream(null, 2, 2));
+        assertEquals("No page should be queried once the handler stops", 2, queriedAfter.size());
+    }
+
+    @Test
+    public void emptySearchStreamsNothing() {
+        rows = Collections.emptyList();
+
+        assertTrue(stream(null, 2, Integer.MAX_VALUE).isEmpty());
+        assertEquals(1, queriedAfter.size());
+    }
+
+    /**
+     * A single row of the search.
+     */
+    private static final class Row {
+
+        private final Timestamp dateCreated;
+        private final String documentId;
+
+        private Row(Timestamp dateCreated, String documentId) {
+            this.dateCreated = dateCreated;
+            this.documentId = documentId;
+        }
+
+        private DocumentSearchCursor cursor() {
+            return new DocumentSearchCursor(dateCreated, documentId);
+        }
+
+        private boolean isAfter(DocumentSearchCursor cursor) {
+            if (cursor == null) {
+                return true;
+            }
+            return dateCreated.before(cursor.getDateCreated()) || (dateCreated.equals(cursor.getDateCreated())
+                    && documentId.compareTo(cursor.getDocumentId()) < 0);
+        }
+    }
+
+}
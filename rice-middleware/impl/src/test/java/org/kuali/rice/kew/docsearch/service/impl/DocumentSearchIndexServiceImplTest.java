@@ -0,0 +1,113 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.docsearch.service.impl;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kuali.rice.kew.docsearch.DocumentSearchIndexDefinition;
+import org.kuali.rice.kew.docsearch.SearchableAttributeStringValue;
+import org.kuali.rice.kew.docsearch.SearchableAttributeValue;
+import org.kuali.rice.kew.docsearch.dao.DocumentSearchIndexDAO;
+import org.kuali.rice.kew.doctype.bo.DocumentType;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the caching of index definitions by the {@link DocumentSearchIndexServiceImpl}.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class DocumentSearchIndexServiceImplTest {
+
+    private static final String DOCUMENT_TYPE_NAME = "TestDocumentType";
+
+    private DocumentSearchIndexDAO documentSearchIndexDAO;
+    private DocumentSearchIndexServiceImpl documentSearchIndexService;
+
+    @Before
+    public void setUp() {
+        documentSearchIndexDAO = mock(DocumentSearchIndexDAO.class);
+        when(documentSearchIndexDAO.findIndexDefinition(DOCUMENT_TYPE_NAME)).thenReturn(new DocumentSearchIndexDefinition(
+                DOCUMENT_TYPE_NAME, DocumentSearchIndexDefinition.STATUS_AVAILABLE));
+        documentSearchIndexService = new DocumentSearchIndexServiceImpl();
+        documentSearchIndexService.setDocumentSearchIndexDAO(documentSearchIndexDAO);
+        documentSearchIndexService.setTransactionManager(mock(PlatformTransactionManager.class));
+        documentSearchIndexService.setCacheManager(new ConcurrentMapCacheManager(
+                DocumentSearchIndexDefinition.CACHE_NAME));
+    }
+
+    @Test
+    public void testIndexDefinitionIsLoadedOnce() {
+        DocumentSearchIndexDefinition definition = documentSearchIndexService.getIndexDefinition(DOCUMENT_TYPE_NAME);
+
+        assertSame(definition, documentSearchIndexService.getIndexDefinition(DOCUMENT_TYPE_NAME));
+        verify(documentSearchIndexDAO, times(1)).findIndexDefinition(DOCUMENT_TYPE_NAME);
+    }
+
+    @Test
+    public void testMissingIndexDefinitionIsCached() {
+        assertNull(documentSearchIndexService.getIndexDefinition("NotIndexed"));
+        assertNull(documentSearchIndexService.getIndexDefinition("NotIndexed"));
+
+        verify(documentSearchIndexDAO, times(1)).findIndexDefinition("NotIndexed");
+    }
+
+    @Test
+    public void testColumnAssignmentEvicts() {
+        documentSearchIndexService.getIndexDefinition(DOCUMENT_TYPE_NAME);
+        SearchableAttributeStringValue value = new SearchableAttributeStringValue();
+        value.setSearchableAttributeKey("key");
+        value.setupAttributeValue("value");
+
+        documentSearchIndexService.writeIndexEntry(documentSearchIndexDAO.findIndexDefinition(DOCUMENT_TYPE_NAME),
+                "1", Collections.<SearchableAttributeValue>singletonList(value));
+        documentSearchIndexService.getIndexDefinition(DOCUMENT_TYPE_NAME);
+
+        verify(documentSearchIndexDAO).insertColumn(DOCUMENT_TYPE_NAME, "key", "STR_VAL_1");
+        // once by the first lookup, once by the test itself and once after the eviction
+        verify(documentSearchIndexDAO, times(3)).findIndexDefinition(DOCUMENT_TYPE_NAME);
+    }
+
+    @Test
+    public void testDropIndexEvicts() {
+        documentSearchIndexService.getIndexDefinition(DOCUMENT_TYPE_NAME);
+        documentSearchIndexService.dropIndex(DOCUMENT_TYPE_NAME);
+        when(documentSearchIndexDAO.findIndexDefinition(DOCUMENT_TYPE_NAME)).thenReturn(null);
+
+        assertNull(documentSearchIndexService.getIndexDefinition(DOCUMENT_TYPE_NAME));
+    }
+
+    @Test
+    public void testTurningThePolicyOffInvalidatesTheIndex() {
+        DocumentType documentType = new DocumentType();
+        documentType.setName(DOCUMENT_TYPE_NAME);
+
+        documentSearchIndexService.invalidateIndex(documentType);
+        verify(documentSearchIndexDAO).saveIndexStatus(DOCUMENT_TYPE_NAME, DocumentSearchIndexDefinition.STATUS_BUILDING);
+
+        when(documentSearchIndexDAO.findIndexDefinition(DOCUMENT_TYPE_NAME)).thenReturn(new DocumentSearchIndexDefinition(
+                DOCUMENT_TYPE_NAME, DocumentSearchIndexDefinition.STATUS_BUILDING));
+        documentSearchIndexService.invalidateIndex(documentType);
+        assertFalse(documentSearchIndexService.getIndexDefinition(DOCUMENT_TYPE_NAME).isAvailable());
+        verify(documentSearchIndexDAO, times(1)).saveIndexStatus(anyString(), anyString());
+    }
+
+}
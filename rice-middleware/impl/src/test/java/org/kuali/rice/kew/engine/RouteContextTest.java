@@ -0,0 +1,73 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.engine;
+
+import org.junit.Test;
+import org.kuali.rice.kew.routeheader.DocumentContent;
+import org.kuali.rice.kew.routeheader.DocumentRouteHeaderValue;
+import org.kuali.rice.kew.routeheader.DocumentRouteHeaderValueContent;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the parsed document content held by a {@link RouteContext}.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class RouteContextTest {
+
+    private static final String CONTENT = "<documentContent><attributeContent><amount>10</amount></attributeContent>"
+            + "</documentContent>";
+
+    @Test
+    public void parsesDocumentContentOncePerModification() {
+        DocumentRouteHeaderValue document = newDocument(CONTENT);
+        RouteContext context = new RouteContext();
+        context.setDocument(document);
+        DocumentContent documentContent = context.getDocumentContent();
+        assertNotNull(documentContent.getAttributeContent());
+
+        context.setDocument(document);
+        assertSame(documentContent, context.getDocumentContent());
+        assertSame(documentContent, context.findDocumentContent(new String(CONTENT)));
+
+        document.setDocContent("<documentContent><applicationContent><a/></applicationContent></documentContent>");
+        DocumentContent modifiedContent = context.getDocumentContent();
+        assertNotSame(documentContent, modifiedContent);
+        assertNull(modifiedContent.getAttributeContent());
+        assertNull(context.findDocumentContent(CONTENT));
+    }
+
+    @Test
+    public void keepsDocumentContentSetByCaller() {
+        RouteContext context = new RouteContext();
+        context.setDocument(newDocument(CONTENT));
+        DocumentContent documentContent = context.getDocumentContent();
+        context.setDocumentContent(documentContent);
+        context.getDocument().setDocContent("<documentContent/>");
+        assertSame(documentContent, context.getDocumentContent());
+        assertNull(context.findDocumentContent(CONTENT));
+    }
+
+    private static DocumentRouteHeaderValue newDocument(String content) {
+        DocumentRouteHeaderValue document = new DocumentRouteHeaderValue();
+        document.setDocumentId("1234");
+        document.setDocumentContent(new DocumentRouteHeaderValueContent("1234"));
+        document.setDocContent(content);
+        return document;
+    }
+
+}
@@ -0,0 +1,161 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.engine;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the RoutingLaneExecutor class.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class RoutingLaneExecutorTest {
+
+    private RoutingLaneExecutor executor;
+
+    @Before
+    public void setup() throws Exception {
+        executor = new RoutingLaneExecutor();
+        executor.setEnabled(true);
+        executor.setLaneCount(4);
+        executor.setLockTimeout(TimeUnit.SECONDS.toMillis(10));
+        executor.afterPropertiesSet();
+    }
+
+    @Test
+    public void workRunsReentrantlyOnTheCallingThread() throws Exception {
+        assertTrue(executor.isActive());
+        final Thread caller = Thread.currentThread();
+        Boolean onCaller = executor.execute("1234", new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                return Thread.currentThread() == caller && executor.execute("1234", new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() throws Exception {
+                        return Thread.currentThread() == caller;
+                    }
+                });
+            }
+        });
+        assertTrue(onCaller);
+        assertEquals(executor.getLaneIndex("1234"), executor.getLaneIndex("1234"));
+        assertEquals(2, executor.getProcessedCount());
+        assertEquals(0, executor.getLockTimeoutCount());
+    }
+
+    @Test
+    public void workRunsWithoutTheLaneAfterTheLockTimeout() throws Exception {
+        executor.setLockTimeout(10);
+        final CountDownLatch laneHeld = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        ExecutorService holder = Executors.newSingleThreadExecutor();
+        try {
+            Future<Object> held = holder.submit(new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    return executor.execute("1234", new Callable<Object>() {
+                        @Override
+                        public Object call() throws Exception {
+                            laneHeld.countDown();
+                            release.await();
+                            return null;
+                        }
+                    });
+                }
+            });
+            assertTrue(laneHeld.await(10, TimeUnit.SECONDS));
+            String result = executor.execute("1234", new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    return "processed";
+                }
+            });
+            assertEquals("processed", result);
+            assertEquals(1, executor.getLockTimeoutCount());
+            release.countDown();
+            held.get();
+        } finally {
+            release.countDown();
+            holder.shutdown();
+        }
+        assertEquals(2, executor.getProcessedCount());
+    }
+
+    @Test
+    public void checkedExceptionsArePropagated() throws Exception {
+        try {
+            executor.execute("1234", new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    throw new Exception("failed");
+                }
+            });
+            fail("Exception should have been thrown");
+        } catch (Exception e) {
+            assertEquals("failed", e.getMessage());
+        }
+        assertEquals(1, executor.getFailedCount());
+    }
+
+    @Test
+    public void workForOneDocumentIsSerialized() throws Exception {
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        final Callable<Object> work = new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                int current = inFlight.incrementAndGet();
+                maxInFlight.set(Math.max(maxInFlight.get(), current));
+                Thread.sleep(2);
+                inFlight.decrementAndGet();
+                return null;
+            }
+        };
+        ExecutorService submitters = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Object>> futures = new ArrayList<Future<Object>>();
+            for (int i = 0; i < 40; i++) {
+                futures.add(submitters.submit(new Callable<Object>() {
+                    @Override
+                    public Object call() throws Exception {
+                        return executor.execute("1234", work);
+                    }
+                }));
+            }
+            for (Future<Object> future : futures) {
+                future.get();
+            }
+        } finally {
+            submitters.shutdown();
+        }
+        assertEquals(1, maxInFlight.get());
+        assertEquals(40, executor.getProcessedCount());
+    }
+
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.rule.xmlrouting;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+
+import javax.xml.namespace.QName;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathVariableResolver;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the XPathExpressionCache and SharedDocumentContent classes.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class XPathExpressionCacheTest {
+
+    private static final String CONTENT = "<documentContent><field name=\"amount\"><value>10</value></field>"
+            + "</documentContent>";
+
+    @Test
+    public void reusesCompiledExpressions() throws Exception {
+        Document document = SharedDocumentContent.parse(CONTENT);
+        XPathExpressionCache.Statistics before = XPathExpressionCache.getStatistics();
+        XPath xpath = XPathExpressionCache.acquire(document);
+        try {
+            assertEquals("10", xpath.evaluate("//field[@name='amount']/value", document));
+            assertEquals(Boolean.TRUE, xpath.evaluate("wf:empty(//field[@name='missing']/value)", document,
+                    XPathConstants.BOOLEAN));
+            assertEquals("10", xpath.evaluate("//field[@name='amount']/value", document));
+        } finally {
+            XPathExpressionCache.release(xpath);
+        }
+        XPathExpressionCache.Statistics after = XPathExpressionCache.getStatistics();
+        assertEquals(2, after.getMissCount() - before.getMissCount());
+        assertEquals(1, after.getHitCount() - before.getHitCount());
+
+        XPath reused = XPathExpressionCache.acquire();
+        try {
+            assertSame(xpath, reused);
+            assertNull(XPathHelper.extractFunctionResolver(reused).getRootNode());
+        } finally {
+            XPathExpressionCache.release(reused);
+        }
+    }
+
+    @Test
+    public void nestedAcquiresGetTheirOwnXPath() {
+        XPath outer = XPathExpressionCache.acquire();
+        try {
+            XPath inner = XPathExpressionCache.acquire();
+            try {
+                assertNotSame(outer, inner);
+            } finally {
+                XPathExpressionCache.release(inner);
+            }
+        } finally {
+            XPathExpressionCache.release(outer);
+        }
+    }
+
+    @Test
+    public void configuredXPathIsNotReused() throws Exception {
+        Document document = SharedDocumentContent.parse(CONTENT);
+        XPath xpath = XPathExpressionCache.acquire(document);
+        try {
+            assertEquals("10", xpath.evaluate("//field[@name='amount']/value", document));
+            xpath.setXPathVariableResolver(new XPathVariableResolver() {
+                @Override
+                public Object resolveVariable(QName variableName) {
+                    return "amount";
+                }
+            });
+            assertEquals("10", xpath.evaluate("//field[@name=$name]/value", document));
+        } finally {
+            XPathExpressionCache.release(xpath);
+        }
+
+        XPath next = XPathExpressionCache.acquire();
+        try {
+            assertNotSame(xpath, next);
+            assertNull(next.getXPathVariableResolver());
+        } finally {
+            XPathExpressionCache.release(next);
+        }
+    }
+
+    @Test
+    public void sharesParsedDocumentOnlyWithinScope() throws Exception {
+        assertNotSame(SharedDocumentContent.parse(CONTENT), SharedDocumentContent.parse(CONTENT));
+        SharedDocumentContent.begin();
+        try {
+            Document document = SharedDocumentContent.parse(CONTENT);
+            assertSame(document, SharedDocumentContent.parse(new String(CONTENT)));
+            assertNotSame(document, SharedDocumentContent.parse("<documentContent/>"));
+        } finally {
+            SharedDocumentContent.end();
+        }
+        assertNotSame(SharedDocumentContent.parse(CONTENT), SharedDocumentContent.parse(CONTENT));
+    }
+
+}
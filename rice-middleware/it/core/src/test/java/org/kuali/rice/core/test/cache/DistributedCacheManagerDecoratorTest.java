@@ -18,18 +18,31 @@ package org.kuali.rice.core.test.cache;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Queues;
 import org.apache.cxf.common.util.CollectionUtils;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.kuali.rice.core.api.cache.CacheAdminService;
 import org.kuali.rice.core.api.cache.CacheTarget;
 import org.kuali.rice.core.impl.cache.DistributedCacheManagerDecorator;
 import org.kuali.rice.core.test.CORETestCase;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 
@@ -47,11 +60,137 @@ public class DistributedCacheManagerDecoratorTest extends CORETestCase {
     private static final String PERMISSION_TYPE = "http://rice.kuali.org/kim/v2_0/PermissionType";
     private static final String INNER_CLASS = "CacheMessageSendingTransactionSynchronization";
 
+    private final BlockingQueue<List<CacheTarget>> sentFlushes = new LinkedBlockingQueue<List<CacheTarget>>();
+
     @Before
     public void setUp() throws Exception {
         super.setUp();
     }
 
+    @After
+    public void tearDown() throws Exception {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        super.tearDown();
+    }
+
+    private DistributedCacheManagerDecorator newCacheManager(long flushWindow) {
+        DistributedCacheManagerDecorator cacheManager = new DistributedCacheManagerDecorator();
+        cacheManager.setCacheManager(new ConcurrentMapCacheManager(ROLE_TYPE_CACHE, ROLE_MEMBER_TYPE));
+        cacheManager.setCacheAdminService(new CacheAdminService() {
+            @Override
+            public void flush(Collection<CacheTarget> cacheTargets) {
+                sentFlushes.add(new ArrayList<CacheTarget>(cacheTargets));
+            }
+        });
+        cacheManager.setFlushWindow(flushWindow);
+        cacheManager.afterPropertiesSet();
+        return cacheManager;
+    }
+
+    private void beginTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+
+    private void endTransaction() {
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    /**
+     * Test that the flushes of a transaction are coalesced and sent as one message before the transaction commits,
+     * even when a flush window is configured.
+     */
+    @Test
+    public void testTransactionalFlushesAreSentBeforeCommit() {
+        Cache cache = newCacheManager(60000).getCache(ROLE_MEMBER_TYPE);
+        beginTransaction();
+
+        cache.evict("key1");
+        cache.evict("key1");
+        cache.evict("key2");
+        assertTrue("Nothing should be sent before the transaction commits", sentFlushes.isEmpty());
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.beforeCommit(false);
+        }
+        endTransaction();
+
+        assertEquals(1, sentFlushes.size());
+        assertEquals(new HashSet<CacheTarget>(Lists.newArrayList(CacheTarget.singleEntry(ROLE_MEMBER_TYPE, "key1"),
+                CacheTarget.singleEntry(ROLE_MEMBER_TYPE, "key2"))), new HashSet<CacheTarget>(sentFlushes.poll()));
+    }
+
+    /**
+     * Test that the flushes of a rolled back transaction are never sent.
+     */
+    @Test
+    public void testRolledBackFlushesAreNotSent() {
+        Cache cache = newCacheManager(0).getCache(ROLE_MEMBER_TYPE);
+        beginTransaction();
+
+        cache.evict("key1");
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        endTransaction();
+
+        assertTrue(sentFlushes.isEmpty());
+    }
+
+    /**
+     * Test that without a flush window every non-transactional flush is sent immediately.
+     */
+    @Test
+    public void testFlushesAreSentImmediatelyWithoutAWindow() {
+        Cache cache = newCacheManager(0).getCache(ROLE_MEMBER_TYPE);
+
+        cache.evict("key1");
+        cache.evict("key2");
+
+        assertEquals(2, sentFlushes.size());
+        assertEquals(Lists.newArrayList(CacheTarget.singleEntry(ROLE_MEMBER_TYPE, "key1")), sentFlushes.poll());
+        assertEquals(Lists.newArrayList(CacheTarget.singleEntry(ROLE_MEMBER_TYPE, "key2")), sentFlushes.poll());
+    }
+
+    /**
+     * Test that the non-transactional flushes of a flush window are coalesced and sent as one message once the
+     * window has passed.
+     */
+    @Test
+    public void testFlushesWithinAWindowAreCoalesced() throws Exception {
+        DistributedCacheManagerDecorator cacheManager = newCacheManager(500);
+        Cache memberCache = cacheManager.getCache(ROLE_MEMBER_TYPE);
+        Cache typeCache = cacheManager.getCache(ROLE_TYPE_CACHE);
+
+        memberCache.evict("key1");
+        memberCache.evict("key1");
+        memberCache.clear();
+        typeCache.evict("key2");
+        assertTrue("Nothing should be sent before the window has passed", sentFlushes.isEmpty());
+
+        List<CacheTarget> sent = sentFlushes.poll(10, TimeUnit.SECONDS);
+        assertEquals(new HashSet<CacheTarget>(Lists.newArrayList(CacheTarget.entireCache(ROLE_MEMBER_TYPE),
+                CacheTarget.singleEntry(ROLE_TYPE_CACHE, "key2"))), new HashSet<CacheTarget>(sent));
+        assertNull("The window should be sent as a single message", sentFlushes.poll(1, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Test that flushes still waiting for their window are sent when the cache manager is destroyed.
+     */
+    @Test
+    public void testPendingFlushesAreSentOnDestroy() {
+        DistributedCacheManagerDecorator cacheManager = newCacheManager(60000);
+
+        cacheManager.getCache(ROLE_MEMBER_TYPE).evict("key1");
+        cacheManager.destroy();
+
+        assertEquals(Lists.newArrayList(CacheTarget.singleEntry(ROLE_MEMBER_TYPE, "key1")), sentFlushes.poll());
+    }
+
     /**
      * Test that duplicate cache flushes are filtered by
      * DistributedCacheManagerDecorator.CacheMessageSendingTransactionSynchronization.exhaustQueue(...)
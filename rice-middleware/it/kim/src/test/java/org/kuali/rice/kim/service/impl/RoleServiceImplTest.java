@@ -45,6 +45,7 @@ import org.kuali.rice.krad.data.PersistenceOption;
 
 import javax.xml.namespace.QName;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -795,4 +796,77 @@ public class RoleServiceImplTest extends KIMTestCase {
             // expected
         }
     }
+
+    private static final List<String> BULK_PRINCIPAL_IDS = Arrays.asList("p1", "p2", "p3", "p4", "p5", "p6", "p7", "p8",
+            "p9", "p10", "entity123pId", "admin", "nonexistent-principal");
+
+    /**
+     * Checks that getPrincipalIdSubListWithRoleIds returns exactly the principals for which principalHasRole is true,
+     * both with nothing cached and with the per principal results already cached.
+     */
+    private void assertBulkMatchesPrincipalHasRole(List<String> roleIds, Map<String, String> qualification) {
+        clearNamedCache(Role.Cache.NAME);
+        List<String> bulk = roleService.getPrincipalIdSubListWithRoleIds(BULK_PRINCIPAL_IDS, roleIds, qualification);
+
+        clearNamedCache(Role.Cache.NAME);
+        List<String> expected = new ArrayList<String>();
+        for (String principalId : BULK_PRINCIPAL_IDS) {
+            if (roleService.principalHasRole(principalId, roleIds, qualification)) {
+                expected.add(principalId);
+            }
+        }
+
+        assertEquals("bulk check of " + roleIds + " with " + qualification + " does not match principalHasRole",
+                expected, bulk);
+        assertEquals("cached bulk check of " + roleIds + " with " + qualification + " does not match principalHasRole",
+                expected, roleService.getPrincipalIdSubListWithRoleIds(BULK_PRINCIPAL_IDS, roleIds, qualification));
+    }
+
+    @Test
+    public void testBulkRoleCheckOfDirectAndGroupMembers() {
+        assertBulkMatchesPrincipalHasRole(Collections.singletonList("r1"), Collections.<String, String>emptyMap());
+        // r2 has p3 directly and the members of g1 through the group
+        assertBulkMatchesPrincipalHasRole(Collections.singletonList("r2"), Collections.<String, String>emptyMap());
+        assertBulkMatchesPrincipalHasRole(Collections.singletonList("r4"), Collections.<String, String>emptyMap());
+        assertBulkMatchesPrincipalHasRole(Arrays.asList("r3", "r4"), Collections.<String, String>emptyMap());
+    }
+
+    @Test
+    public void testBulkRoleCheckOfNestedRoles() {
+        // r2 contains r1, r6 contains r4
+        assertBulkMatchesPrincipalHasRole(Collections.singletonList("r2"), Collections.<String, String>emptyMap());
+        assertBulkMatchesPrincipalHasRole(Collections.singletonList("r6"), Collections.<String, String>emptyMap());
+        // r-campus-2 contains r4 for BL and r1 for FW, so the qualification is converted for the nested roles
+        assertBulkMatchesPrincipalHasRole(Collections.singletonList("r-campus-2"),
+                Collections.singletonMap(KimConstants.AttributeConstants.CAMPUS_CODE, "BL"));
+        assertBulkMatchesPrincipalHasRole(Collections.singletonList("r-campus-2"),
+                Collections.singletonMap(KimConstants.AttributeConstants.CAMPUS_CODE, "FW"));
+        assertBulkMatchesPrincipalHasRole(Collections.singletonList("r-campus-2"),
+                Collections.<String, String>emptyMap());
+    }
+
+    @Test
+    public void testBulkRoleCheckOfDelegations() {
+        // r5 delegates to p7 and r4 as well as to g7
+        assertBulkMatchesPrincipalHasRole(Collections.singletonList("r5"), Collections.<String, String>emptyMap());
+    }
+
+    @Test
+    public void testBulkRoleCheckOfDerivedRoles() {
+        // KUALI User is derived from the active principals
+        assertBulkMatchesPrincipalHasRole(Collections.singletonList("1"), Collections.<String, String>emptyMap());
+        assertBulkMatchesPrincipalHasRole(Arrays.asList("1", "r3"), Collections.<String, String>emptyMap());
+    }
+
+    @Test
+    public void testBulkRoleCheckWithExactMatchQualifiers() {
+        assertBulkMatchesPrincipalHasRole(Collections.singletonList("r-campus"),
+                Collections.singletonMap(KimConstants.AttributeConstants.CAMPUS_CODE, "BL"));
+        assertBulkMatchesPrincipalHasRole(Collections.singletonList("r-campus"),
+                Collections.singletonMap(KimConstants.AttributeConstants.CAMPUS_CODE, "FW"));
+        assertBulkMatchesPrincipalHasRole(Collections.singletonList("r-campus"),
+                Collections.<String, String>emptyMap());
+        assertBulkMatchesPrincipalHasRole(Arrays.asList("r-campus", "r2"),
+                Collections.singletonMap(KimConstants.AttributeConstants.CAMPUS_CODE, "FW"));
+    }
 }
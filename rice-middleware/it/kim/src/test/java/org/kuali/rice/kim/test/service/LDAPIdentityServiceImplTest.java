@@ -28,6 +28,7 @@ import org.kuali.rice.kim.api.identity.principal.Principal;
 import org.kuali.rice.kim.api.identity.privacy.EntityPrivacyPreferences;
 import org.kuali.rice.kim.api.identity.type.EntityTypeContactInfo;
 
+import org.kuali.rice.kim.dao.impl.LdapPrincipalDaoImpl;
 import org.kuali.rice.kim.service.KIMServiceLocatorInternal;
 import org.kuali.rice.kim.test.KIMTestCase;
 
@@ -40,7 +41,10 @@ import org.springframework.ldap.core.support.LdapContextSource;
 import org.springframework.ldap.test.LdapTestUtils;
 
 import javax.xml.namespace.QName;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -140,6 +144,31 @@ public class LDAPIdentityServiceImplTest extends KIMTestCase {
                 .getPrincipalName());
     }
 
+    @Test
+    public void testGetEntityDefaultsByPrincipalIds() {
+        List<EntityDefault> entities = identityService.getEntityDefaultsByPrincipalIds(Arrays.asList("williamh",
+                "notInLdap"));
+        assertEquals("Only the LDAP entity should be found", 1, entities.size());
+        assertEquals("Entity name matched expected result", "williamh", entities.get(0).getPrincipals().get(0)
+                .getPrincipalName());
+    }
+
+    @Test
+    public void testPagedSearch() {
+        LdapPrincipalDaoImpl principalDao = (LdapPrincipalDaoImpl) KIMServiceLocatorInternal.getBean(
+                "ldapPrincipalDao");
+        Map<String, Object> criteria = Collections.<String, Object>singletonMap("uid", "*");
+        int pageSize = principalDao.getPageSize();
+        List<Principal> unpaged = principalDao.search(Principal.class, criteria);
+        try {
+            principalDao.setPageSize(1);
+            List<Principal> paged = principalDao.search(Principal.class, criteria);
+            assertEquals("Paged search should find the same principals", unpaged.size(), paged.size());
+        } finally {
+            principalDao.setPageSize(pageSize);
+        }
+    }
+
     @Test
     public void testGetEntityPrivacyPreferences() {
         EntityPrivacyPreferences entityPrivacyPreferences = identityService.getEntityPrivacyPreferences("williamh");
@@ -81,6 +81,8 @@ public class MessageFetcherTest extends KSBTestCase {
         assertEquals("Should have 500 messages in the queue.", 500, messages.size());
     
         turnOnMessaging();
+        // the messages stay leased to this node until it restarts, as their invokers never ran
+        KSBServiceLocator.getMessageQueueService().releaseLeases();
         new MessageFetcher((Integer) null).run();
         synchronized (TestHarnessSharedTopic.LOCK) {
             TestHarnessSharedTopic.LOCK.wait(5 * 60 * 1000);
@@ -117,7 +119,7 @@ public class MessageFetcherTest extends KSBTestCase {
         turnOnMessaging();
 
         // fetch and deliver one message
-        new MessageFetcher(messages.get(0).getRouteQueueId()).run();
+        new MessageFetcher(messages.get(0).getRouteQueueId(), messages.get(0).getLockVerNbr()).run();
         synchronized (TestHarnessSharedTopic.LOCK) {
             TestHarnessSharedTopic.LOCK.wait(3 * 1000);
         }
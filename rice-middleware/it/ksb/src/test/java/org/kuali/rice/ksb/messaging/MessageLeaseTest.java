@@ -0,0 +1,205 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import javax.xml.namespace.QName;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kuali.rice.core.api.config.property.ConfigContext;
+import org.kuali.rice.ksb.api.KsbApiServiceLocator;
+import org.kuali.rice.ksb.messaging.service.KSBJavaService;
+import org.kuali.rice.ksb.messaging.service.MessageQueueService;
+import org.kuali.rice.ksb.service.KSBServiceLocator;
+import org.kuali.rice.ksb.test.KSBTestCase;
+import org.kuali.rice.ksb.util.KSBConstants;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+
+/**
+ * Tests the leases through which nodes claim persisted messages.  Messaging is turned off so that messages stay in the
+ * queue, and the nodes competing for them are simulated by switching the bus instance id.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class MessageLeaseTest extends KSBTestCase {
+
+    private static final String NODE_A = "leaseTestNodeA";
+    private static final String NODE_B = "leaseTestNodeB";
+
+    private String originalInstanceId;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        ConfigContext.getCurrentContextConfig().putProperty(KSBConstants.Config.MESSAGING_OFF, "true");
+        originalInstanceId = ConfigContext.getCurrentContextConfig().getProperty(KSBConstants.Config.INSTANCE_ID);
+        switchToNode(NODE_A);
+    }
+
+    @After
+    @Override
+    public void tearDown() throws Exception {
+        if (originalInstanceId != null) {
+            switchToNode(originalInstanceId);
+        }
+        super.tearDown();
+    }
+
+    @Test
+    public void testSentMessageIsLeasedToTheSender() throws Exception {
+        sendMessage();
+
+        List<PersistedMessageBO> messages = getMessageQueueService().getNextDocuments(null);
+        assertEquals(1, messages.size());
+        assertEquals(NODE_A, messages.get(0).getLeaseOwner());
+        assertTrue("Lease should expire in the future",
+                messages.get(0).getLeaseExpirationDate().getTime() > System.currentTimeMillis());
+        assertTrue("The sender's own fetches should leave the message to its invoker",
+                getMessageQueueService().claimNextMessages(10).isEmpty());
+
+        switchToNode(NODE_B);
+        assertTrue("Another node should not claim a message its sender is about to invoke",
+                getMessageQueueService().claimNextMessages(10).isEmpty());
+    }
+
+    @Test
+    public void testLeaseIsAcquiredOncePerVersion() throws Exception {
+        sendMessage();
+        PersistedMessageBO message = getMessageQueueService().getNextDocuments(null).get(0);
+
+        // two invokers handed the same message, like the sender's invoker and a fetch
+        assertNotNull("The first invoker should get the lease",
+                getMessageQueueService().acquireLease(message.getRouteQueueId(), message.getLockVerNbr()));
+        assertNull("An invoker handed the same version should not get the lease as well",
+                getMessageQueueService().acquireLease(message.getRouteQueueId(), message.getLockVerNbr()));
+    }
+
+    @Test
+    public void testClaimLeasesMessagesToThisNode() throws Exception {
+        sendUnleasedMessage();
+        sendUnleasedMessage();
+
+        List<PersistedMessageBO> claimed = getMessageQueueService().claimNextMessages(10);
+        assertEquals("Both messages should have been claimed", 2, claimed.size());
+        for (PersistedMessageBO message : claimed) {
+            assertEquals(NODE_A, message.getLeaseOwner());
+            assertEquals(KSBConstants.ROUTE_QUEUE_ROUTING, message.getQueueStatus());
+            assertTrue("Lease should expire in the future",
+                    message.getLeaseExpirationDate().getTime() > System.currentTimeMillis());
+        }
+
+        assertTrue("Leased messages should not be claimed again", getMessageQueueService().claimNextMessages(10).isEmpty());
+        assertNotNull("The owner should be able to renew its lease",
+                getMessageQueueService().acquireLease(claimed.get(0).getRouteQueueId(), claimed.get(0).getLockVerNbr()));
+    }
+
+    @Test
+    public void testCompetingClaims() throws Exception {
+        sendUnleasedMessage();
+        List<PersistedMessageBO> claimed = getMessageQueueService().claimNextMessages(10);
+        assertEquals(1, claimed.size());
+        Long routeQueueId = claimed.get(0).getRouteQueueId();
+
+        switchToNode(NODE_B);
+        assertTrue("Another node should not claim a leased message", getMessageQueueService().claimNextMessages(10).isEmpty());
+        assertNull("Another node should not acquire a leased message", getMessageQueueService().acquireLease(routeQueueId,
+                claimed.get(0).getLockVerNbr()));
+
+        PersistedMessageBO message = getMessageQueueService().findByRouteQueueId(routeQueueId);
+        assertEquals("The lease should still be held by the first node", NODE_A, message.getLeaseOwner());
+    }
+
+    @Test
+    public void testExpiredLeaseIsTakenOver() throws Exception {
+        sendUnleasedMessage();
+        PersistedMessageBO message = getMessageQueueService().claimNextMessages(10).get(0);
+        message.setLeaseExpirationDate(new Timestamp(System.currentTimeMillis() - 60000));
+        message = save(message);
+
+        switchToNode(NODE_B);
+        List<PersistedMessageBO> claimed = getMessageQueueService().claimNextMessages(10);
+        assertEquals("The expired message should have been claimed", 1, claimed.size());
+        assertEquals(NODE_B, claimed.get(0).getLeaseOwner());
+
+        switchToNode(NODE_A);
+        assertNull("The first node should not get its expired lease back once it was taken over",
+                getMessageQueueService().acquireLease(message.getRouteQueueId(), message.getLockVerNbr()));
+    }
+
+    @Test
+    public void testMessageWaitingForRetryIsNotClaimed() throws Exception {
+        sendUnleasedMessage();
+        PersistedMessageBO message = getMessageQueueService().claimNextMessages(10).get(0);
+        // what DefaultMessageExceptionHandler does when it schedules a retry
+        Timestamp retryDate = new Timestamp(System.currentTimeMillis() + 60000);
+        message.setQueueStatus(KSBConstants.ROUTE_QUEUE_QUEUED);
+        message.setQueueDate(retryDate);
+        message.setLeaseOwner(MessageLease.getOwner());
+        message.setLeaseExpirationDate(MessageLease.newExpirationDate(retryDate));
+        message = save(message);
+
+        switchToNode(NODE_B);
+        assertTrue("A message waiting for its retry should not be claimed",
+                getMessageQueueService().claimNextMessages(10).isEmpty());
+
+        switchToNode(NODE_A);
+        assertEquals("Releasing leases on startup should leave retries alone", 0, getMessageQueueService().releaseLeases());
+        assertNotNull("The retry should acquire the lease of the node which scheduled it",
+                getMessageQueueService().acquireLease(message.getRouteQueueId(), message.getLockVerNbr()));
+    }
+
+    /**
+     * Sends a message and releases the sender's lease on it, as happens when the sender restarts before invoking it.
+     */
+    private void sendUnleasedMessage() {
+        sendMessage();
+        getMessageQueueService().releaseLeases();
+    }
+
+    private void sendMessage() {
+        QName serviceName = QName.valueOf("{testAppsSharedTopic}sharedTopic");
+        KSBJavaService testJavaAsyncService = (KSBJavaService) KsbApiServiceLocator.getMessageHelper().getServiceAsynchronously(serviceName);
+        testJavaAsyncService.invoke(new ClientAppServiceSharedPayloadObj("message content", false));
+    }
+
+    private PersistedMessageBO save(final PersistedMessageBO message) {
+        return KSBServiceLocator.getTransactionTemplate().execute(new TransactionCallback<PersistedMessageBO>() {
+            public PersistedMessageBO doInTransaction(TransactionStatus status) {
+                return getMessageQueueService().save(message);
+            }
+        });
+    }
+
+    private void switchToNode(String instanceId) {
+        ConfigContext.getCurrentContextConfig().putProperty(KSBConstants.Config.INSTANCE_ID, instanceId);
+    }
+
+    private MessageQueueService getMessageQueueService() {
+        return KSBServiceLocator.getMessageQueueService();
+    }
+
+}
@@ -162,7 +162,15 @@ public enum DocumentTypePolicy implements Coded {
      */
     @XmlEnumValue(Codes.DOC_SEARCH_TARGET) DOC_SEARCH_TARGET(Codes.DOC_SEARCH_TARGET),
 
-    @XmlEnumValue(Codes.SUPPRESS_ACKNOWLEDGEMENTS_ON_DISAPPROVE) SUPPRESS_ACKNOWLEDGEMENTS_ON_DISAPPROVE(Codes.SUPPRESS_ACKNOWLEDGEMENTS_ON_DISAPPROVE);
+    @XmlEnumValue(Codes.SUPPRESS_ACKNOWLEDGEMENTS_ON_DISAPPROVE) SUPPRESS_ACKNOWLEDGEMENTS_ON_DISAPPROVE(Codes.SUPPRESS_ACKNOWLEDGEMENTS_ON_DISAPPROVE),
+
+    /**
+     * Specifies whether the searchable attribute values of the document type's documents are also kept in the
+     * denormalized document search index, which lets document search match all attribute criteria against a single
+     * row per document instead of joining the attribute tables once per criterion.  Defaults to false.
+     * @since 2.6.0
+     */
+    @XmlEnumValue(Codes.DOCUMENT_SEARCH_INDEX) DOCUMENT_SEARCH_INDEX(Codes.DOCUMENT_SEARCH_INDEX);
 
     private final String code;
 
@@ -215,6 +223,7 @@ public enum DocumentTypePolicy implements Coded {
         private static final String SUPPRESS_IMMEDIATE_EMAILS_ON_SU_ACTION = "SUPPRESS_IMMEDIATE_EMAILS_ON_SU_ACTION";
         private static final String DOC_SEARCH_TARGET = "DOC_SEARCH_TARGET";
         private static final String SUPPRESS_ACKNOWLEDGEMENTS_ON_DISAPPROVE = "SUPPRESS_ACKNOWLEDGEMENTS_ON_DISAPPROVE";
+        private static final String DOCUMENT_SEARCH_INDEX = "DOCUMENT_SEARCH_INDEX";
     }
 
 }
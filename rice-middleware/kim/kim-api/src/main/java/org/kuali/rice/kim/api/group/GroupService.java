@@ -21,6 +21,7 @@ import org.kuali.rice.core.api.exception.RiceIllegalArgumentException;
 import org.kuali.rice.core.api.util.jaxb.DateTimeAdapter;
 import org.kuali.rice.core.api.util.jaxb.MapStringStringAdapter;
 import org.kuali.rice.kim.api.KimConstants;
+import org.kuali.rice.kim.api.permission.Permission;
 import org.kuali.rice.kim.api.role.Role;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
@@ -499,7 +500,7 @@ public interface GroupService {
      */
     @WebMethod(operationName = "createGroup")
     @WebResult(name = "group")
-    @CacheEvict(value={Group.Cache.NAME, GroupMember.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={Group.Cache.NAME, GroupMember.Cache.NAME, Permission.Cache.EFFECTIVE_NAME}, allEntries = true)
 	Group createGroup(@WebParam(name="group") Group group) throws RiceIllegalArgumentException;
 
     /**
@@ -516,7 +517,7 @@ public interface GroupService {
      */
     @WebMethod(operationName = "updateGroup")
     @WebResult(name = "group")
-    @CacheEvict(value={Group.Cache.NAME, GroupMember.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={Group.Cache.NAME, GroupMember.Cache.NAME, Permission.Cache.EFFECTIVE_NAME}, allEntries = true)
 	Group updateGroup(@WebParam(name="group") Group group) throws RiceIllegalArgumentException;
 
 	/**
@@ -534,7 +535,7 @@ public interface GroupService {
      */
     @WebMethod(operationName = "updateGroupWithId")
     @WebResult(name = "group")
-    @CacheEvict(value={Group.Cache.NAME, GroupMember.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={Group.Cache.NAME, GroupMember.Cache.NAME, Permission.Cache.EFFECTIVE_NAME}, allEntries = true)
     Group updateGroup(@WebParam(name="groupId") String groupId, @WebParam(name="group") Group group) throws RiceIllegalArgumentException;
 
     /**
@@ -550,7 +551,7 @@ public interface GroupService {
      */
     @WebMethod(operationName = "createGroupMember")
     @WebResult(name = "groupMember")
-    @CacheEvict(value={GroupMember.Cache.NAME, Role.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={GroupMember.Cache.NAME, Role.Cache.NAME, Permission.Cache.EFFECTIVE_NAME}, allEntries = true)
 	GroupMember createGroupMember(@WebParam(name="groupMember") GroupMember groupMember) throws RiceIllegalArgumentException;
 
     /**
@@ -567,7 +568,7 @@ public interface GroupService {
      */
     @WebMethod(operationName = "updateGroupMember")
     @WebResult(name = "groupMember")
-    @CacheEvict(value={GroupMember.Cache.NAME, Role.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={GroupMember.Cache.NAME, Role.Cache.NAME, Permission.Cache.EFFECTIVE_NAME}, allEntries = true)
 	GroupMember updateGroupMember(@WebParam(name="groupMember") GroupMember groupMember) throws RiceIllegalArgumentException;
 
     /**
@@ -580,7 +581,7 @@ public interface GroupService {
      */
     @WebMethod(operationName = "addGroupToGroup")
     @WebResult(name = "addedToGroup")
-    @CacheEvict(value={GroupMember.Cache.NAME, Role.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={GroupMember.Cache.NAME, Role.Cache.NAME, Permission.Cache.EFFECTIVE_NAME}, allEntries = true)
     boolean addGroupToGroup(@WebParam(name="childId") String childId, @WebParam(name="parentId") String parentId) throws RiceIllegalArgumentException;
 
     /**
@@ -593,7 +594,7 @@ public interface GroupService {
      */
     @WebMethod(operationName = "removeGroupFromGroup")
     @WebResult(name = "removedFromGroup")
-    @CacheEvict(value={GroupMember.Cache.NAME, Role.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={GroupMember.Cache.NAME, Role.Cache.NAME, Permission.Cache.EFFECTIVE_NAME}, allEntries = true)
     boolean removeGroupFromGroup(@WebParam(name="childId") String childId, @WebParam(name="parentId") String parentId) throws RiceIllegalArgumentException;
 
     /**
@@ -606,7 +607,7 @@ public interface GroupService {
      */
     @WebMethod(operationName = "addPrincipalToGroup")
     @WebResult(name = "addedToGroup")
-    @CacheEvict(value={GroupMember.Cache.NAME, Role.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={GroupMember.Cache.NAME, Role.Cache.NAME, Permission.Cache.EFFECTIVE_NAME}, allEntries = true)
     boolean addPrincipalToGroup(@WebParam(name="principalId") String principalId, @WebParam(name="groupId") String groupId) throws RiceIllegalArgumentException;
 
     /**
@@ -619,7 +620,7 @@ public interface GroupService {
      */
     @WebMethod(operationName = "removePrincipalFromGroup")
     @WebResult(name = "removedFromGroup")
-    @CacheEvict(value={GroupMember.Cache.NAME, Role.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={GroupMember.Cache.NAME, Role.Cache.NAME, Permission.Cache.EFFECTIVE_NAME}, allEntries = true)
     boolean removePrincipalFromGroup(@WebParam(name="principalId") String principalId, @WebParam(name="groupId") String groupId) throws RiceIllegalArgumentException;
 
     /**
@@ -629,7 +630,7 @@ public interface GroupService {
      * @throws RiceIllegalArgumentException if the groupId is null or blank
      */
     @WebMethod(operationName = "removeAllMembers")
-    @CacheEvict(value={GroupMember.Cache.NAME, Role.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={GroupMember.Cache.NAME, Role.Cache.NAME, Permission.Cache.EFFECTIVE_NAME}, allEntries = true)
     void removeAllMembers( @WebParam(name="groupId") String groupId ) throws RiceIllegalArgumentException;
 
 
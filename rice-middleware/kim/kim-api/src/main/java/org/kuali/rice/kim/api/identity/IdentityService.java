@@ -284,6 +284,24 @@ public interface IdentityService {
     @Cacheable(value= EntityDefault.Cache.NAME, key="'employeeId=' + #p0")
     EntityDefault getEntityDefaultByEmployeeId(@WebParam(name = "employeeId") String employeeId)  throws RiceIllegalArgumentException;
 
+    /**
+     * Gets the {@link org.kuali.rice.kim.api.identity.entity.EntityDefault}s of the entities owning the given
+     * principals, loading all of them at once rather than one principal at a time.
+     *
+     * <p>
+     *   This method will only return the entities that exist, each of them once even if several of its principals
+     *   were given.
+     * </p>
+     *
+     * @param principalIds the principal ids to retrieve the entities by. cannot be null.
+     * @return a list of {@link org.kuali.rice.kim.api.identity.entity.EntityDefault}
+     * @throws RiceIllegalArgumentException if the principalIds is null
+     * @since 2.6
+     */
+    @WebMethod(operationName = "getEntityDefaultsByPrincipalIds")
+    @WebResult(name = "entityDefaults")
+    List<EntityDefault> getEntityDefaultsByPrincipalIds(@WebParam(name = "principalIds") List<String> principalIds)  throws RiceIllegalArgumentException;
+
 
     /**
      * Gets a {@link org.kuali.rice.kim.api.identity.principal.Principal} from an principalId.
@@ -15,6 +15,7 @@
  */
 package org.kuali.rice.kim.api.identity;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -46,6 +47,14 @@ public interface PersonService {
 	 * Retrieve a single Person object by Principal ID.
 	 */
 	Person getPerson( String principalId );
+
+	/**
+	 * Retrieves the Person objects for all of the given principal IDs at once, in the order the IDs were given.
+	 * Each person is returned once, and principals which cannot be found are left out.
+	 *
+	 * @since 2.6
+	 */
+	List<Person> getPeople( Collection<String> principalIds );
 	
 	/**
 	 * Retrieve a person by an arbitrary external identifier.  This method could
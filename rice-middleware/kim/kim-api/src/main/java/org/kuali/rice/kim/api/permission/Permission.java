@@ -378,5 +378,13 @@ public final class Permission extends AbstractDataTransferObject implements Perm
 
     public static class Cache {
         public static final String NAME = KimConstants.Namespaces.KIM_NAMESPACE_2_0 + "/" + Permission.Constants.TYPE_NAME;
+
+        /**
+         * Holds the effective permissions of each principal.  It is flushed along with any change to roles, their
+         * members, groups or permissions, since all of these may change what a principal is authorized to do.
+         *
+         * @since 2.6
+         */
+        public static final String EFFECTIVE_NAME = NAME + "{Effective}";
     }
 }
@@ -76,7 +76,7 @@ public interface PermissionService {
      */
     @WebMethod(operationName="createPermission")
     @WebResult(name = "permission")
-    @CacheEvict(value={Permission.Cache.NAME, Template.Cache.NAME + "{Permission}"}, allEntries = true)
+    @CacheEvict(value={Permission.Cache.NAME, Template.Cache.NAME + "{Permission}", Permission.Cache.EFFECTIVE_NAME}, allEntries = true)
     Permission createPermission(@WebParam(name = "permission") Permission permission)
             throws RiceIllegalArgumentException, RiceIllegalStateException;
 
@@ -90,7 +90,7 @@ public interface PermissionService {
      */
     @WebMethod(operationName="updatePermission")
     @WebResult(name = "permission")
-    @CacheEvict(value={Permission.Cache.NAME, Template.Cache.NAME + "{Permission}"}, allEntries = true)
+    @CacheEvict(value={Permission.Cache.NAME, Template.Cache.NAME + "{Permission}", Permission.Cache.EFFECTIVE_NAME}, allEntries = true)
     Permission updatePermission(@WebParam(name = "permission") Permission permission)
             throws RiceIllegalArgumentException, RiceIllegalStateException;
 
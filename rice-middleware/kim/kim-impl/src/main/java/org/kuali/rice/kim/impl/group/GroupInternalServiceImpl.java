@@ -25,8 +25,10 @@ import org.apache.commons.collections.ListUtils;
 import org.apache.commons.lang.StringUtils;
 import org.kuali.rice.kew.api.KewApiConstants;
 import org.kuali.rice.kew.api.KewApiServiceLocator;
+import org.kuali.rice.kim.api.group.GroupMember;
 import org.kuali.rice.kim.api.group.GroupService;
 import org.kuali.rice.kim.api.services.KimApiServiceLocator;
+import org.kuali.rice.kim.impl.services.KimImplServiceLocator;
 import org.kuali.rice.krad.data.DataObjectService;
 import org.kuali.rice.krad.data.PersistenceOption;
 import org.kuali.rice.krad.service.KRADServiceLocator;
@@ -55,6 +57,9 @@ public class GroupInternalServiceImpl implements GroupInternalService {
             oldIds = ims.getMemberPrincipalIds(group.getId());
         }
         group = getDataObjectService().save(group,PersistenceOption.FLUSH);
+        // the saved members may change nested memberships, which the principal ids below are resolved through
+        KimImplServiceLocator.getLocalCacheManager().getCache(GroupMember.Cache.NAME).evict(
+                GroupMembershipIndex.CACHE_KEY);
         List<String> newIds = ims.getMemberPrincipalIds(group.getId());
         updateForWorkgroupChange(group.getId(), oldIds, newIds);
         return group;
@@ -0,0 +1,236 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kim.impl.group;
+
+import org.joda.time.DateTime;
+
+import java.io.Serializable;
+import java.sql.Timestamp;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An in memory index of the group to group memberships, used to answer nested membership questions without querying
+ * each level of a group hierarchy.
+ *
+ * <p>The index holds every group to group membership along with its active from and to dates, so it can answer
+ * questions as of any date.  The closure of a group (all of the groups it transitively contains, or is contained by)
+ * is computed on first use and remembered for as long as none of the memberships become active or inactive, which
+ * covers the common case of asking about the current date.</p>
+ *
+ * <p>An index never changes once built.  It is kept in the group member cache, so anything which flushes group
+ * memberships also discards it and the next lookup builds a new one.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public final class GroupMembershipIndex implements Serializable {
+
+    private static final long serialVersionUID = 6012397412278416351L;
+
+    /**
+     * The key the index is stored under in the group member cache.
+     */
+    public static final String CACHE_KEY = "{GroupMembershipIndex}";
+
+    private final Set<String> activeGroupIds;
+    private final Map<String, List<Membership>> membershipsByGroupId;
+    private final Map<String, List<Membership>> membershipsByMemberGroupId;
+
+    // the closures computed for the period in which no membership becomes active or inactive
+    private final long stableFrom;
+    private final long stableUntil;
+    private final ConcurrentMap<String, Set<String>> stableMemberGroupIds = new ConcurrentHashMap<String, Set<String>>();
+    private final ConcurrentMap<String, Set<String>> stableParentGroupIds = new ConcurrentHashMap<String, Set<String>>();
+
+    /**
+     * Builds an index from the ids of the active groups and all group memberships of groups in other groups.
+     *
+     * @param activeGroupIds the ids of all active groups
+     * @param groupMembers the group members of type group, regardless of their active dates
+     * @param asOfDate the date the index is built, closures as of this date are remembered
+     */
+    public static GroupMembershipIndex build(Collection<String> activeGroupIds, Collection<GroupMemberBo> groupMembers,
+            DateTime asOfDate) {
+        return new GroupMembershipIndex(activeGroupIds, groupMembers, toComparableMillis(asOfDate));
+    }
+
+    private GroupMembershipIndex(Collection<String> activeGroupIds, Collection<GroupMemberBo> groupMembers,
+            long asOfMillis) {
+        this.activeGroupIds = Collections.unmodifiableSet(new HashSet<String>(activeGroupIds));
+        Map<String, List<Membership>> byGroupId = new HashMap<String, List<Membership>>();
+        Map<String, List<Membership>> byMemberGroupId = new HashMap<String, List<Membership>>();
+        long nextChange = Long.MAX_VALUE;
+        for (GroupMemberBo groupMember : groupMembers) {
+            Membership membership = new Membership(groupMember.getGroupId(), groupMember.getMemberId(),
+                    toMillis(groupMember.getActiveFromDateValue()), toMillis(groupMember.getActiveToDateValue()));
+            add(byGroupId, membership.groupId, membership);
+            add(byMemberGroupId, membership.memberGroupId, membership);
+            nextChange = Math.min(nextChange, membership.nextChangeAfter(asOfMillis));
+        }
+        this.membershipsByGroupId = byGroupId;
+        this.membershipsByMemberGroupId = byMemberGroupId;
+        this.stableFrom = asOfMillis;
+        this.stableUntil = nextChange;
+    }
+
+    public boolean isActiveGroup(String groupId) {
+        return activeGroupIds.contains(groupId);
+    }
+
+    /**
+     * Returns the ids of the groups which are members of the given group, directly or through active groups which are
+     * themselves members.  Inactive groups are included when they are a member, but their own members are not.
+     */
+    public Set<String> getMemberGroupIds(String groupId, DateTime asOfDate) {
+        return getClosure(groupId, toComparableMillis(asOfDate), membershipsByGroupId, stableMemberGroupIds, false);
+    }
+
+    /**
+     * Returns the ids of the active groups which contain the given group, directly or through other active groups.
+     */
+    public Set<String> getParentGroupIds(String groupId, DateTime asOfDate) {
+        return getClosure(groupId, toComparableMillis(asOfDate), membershipsByMemberGroupId, stableParentGroupIds, true);
+    }
+
+    /**
+     * Returns the ids of the active groups which contain any of the given groups, directly or through other active
+     * groups.
+     */
+    public Set<String> getParentGroupIds(Collection<String> groupIds, DateTime asOfDate) {
+        long asOfMillis = toComparableMillis(asOfDate);
+        Set<String> parentGroupIds = new HashSet<String>();
+        for (String groupId : groupIds) {
+            parentGroupIds.addAll(getClosure(groupId, asOfMillis, membershipsByMemberGroupId, stableParentGroupIds,
+                    true));
+        }
+        return parentGroupIds;
+    }
+
+    private Set<String> getClosure(String groupId, long asOfMillis, Map<String, List<Membership>> memberships,
+            ConcurrentMap<String, Set<String>> stableClosures, boolean upwards) {
+        boolean stable = asOfMillis >= stableFrom && asOfMillis < stableUntil;
+        if (stable) {
+            Set<String> closure = stableClosures.get(groupId);
+            if (closure != null) {
+                return closure;
+            }
+        }
+        Set<String> closure = Collections.unmodifiableSet(
+                computeClosure(groupId, asOfMillis, memberships, upwards));
+        if (stable) {
+            stableClosures.putIfAbsent(groupId, closure);
+        }
+        return closure;
+    }
+
+    private Set<String> computeClosure(String groupId, long asOfMillis, Map<String, List<Membership>> memberships,
+            boolean upwards) {
+        Set<String> closure = new HashSet<String>();
+        Set<String> visited = new HashSet<String>();
+        Deque<String> toVisit = new ArrayDeque<String>();
+        visited.add(groupId);
+        toVisit.add(groupId);
+        while (!toVisit.isEmpty()) {
+            List<Membership> related = memberships.get(toVisit.poll());
+            if (related == null) {
+                continue;
+            }
+            for (Membership membership : related) {
+                if (!membership.isActive(asOfMillis)) {
+                    continue;
+                }
+                String relatedGroupId = upwards ? membership.groupId : membership.memberGroupId;
+                boolean active = isActiveGroup(relatedGroupId);
+                // parents have to be active to count, member groups count either way but only active ones are expanded
+                if (active || !upwards) {
+                    closure.add(relatedGroupId);
+                }
+                if (active && visited.add(relatedGroupId)) {
+                    toVisit.add(relatedGroupId);
+                }
+            }
+        }
+        return closure;
+    }
+
+    private static void add(Map<String, List<Membership>> memberships, String key, Membership membership) {
+        List<Membership> list = memberships.get(key);
+        if (list == null) {
+            list = new ArrayList<Membership>(2);
+            memberships.put(key, list);
+        }
+        list.add(membership);
+    }
+
+    private static Long toMillis(Timestamp timestamp) {
+        return timestamp == null ? null : Long.valueOf(timestamp.getTime());
+    }
+
+    /**
+     * Rounds up to the next second in the same way as
+     * {@link org.kuali.rice.kim.api.common.history.HistoryQueryUtils#between}, so the index agrees with the queries.
+     */
+    private static long toComparableMillis(DateTime asOfDate) {
+        return asOfDate.secondOfDay().roundCeilingCopy().getMillis();
+    }
+
+    private static final class Membership implements Serializable {
+
+        private static final long serialVersionUID = -2384629311730286224L;
+
+        private final String groupId;
+        private final String memberGroupId;
+        private final Long activeFrom;
+        private final Long activeTo;
+
+        private Membership(String groupId, String memberGroupId, Long activeFrom, Long activeTo) {
+            this.groupId = groupId;
+            this.memberGroupId = memberGroupId;
+            this.activeFrom = activeFrom;
+            this.activeTo = activeTo;
+        }
+
+        boolean isActive(long asOfMillis) {
+            return (activeFrom == null || activeFrom.longValue() <= asOfMillis)
+                    && (activeTo == null || activeTo.longValue() > asOfMillis);
+        }
+
+        /**
+         * @return the first time after the given one at which this membership becomes active or inactive
+         */
+        long nextChangeAfter(long asOfMillis) {
+            long next = Long.MAX_VALUE;
+            if (activeFrom != null && activeFrom.longValue() > asOfMillis) {
+                next = activeFrom.longValue();
+            }
+            if (activeTo != null && activeTo.longValue() > asOfMillis) {
+                next = Math.min(next, activeTo.longValue());
+            }
+            return next;
+        }
+    }
+
+}
@@ -53,11 +53,22 @@ import org.kuali.rice.kim.impl.common.attribute.AttributeTransform;
 import org.kuali.rice.kim.impl.common.attribute.KimAttributeDataBo;
 import org.kuali.rice.kim.impl.services.KimImplServiceLocator;
 import org.kuali.rice.krad.data.DataObjectService;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
 
 public class GroupServiceImpl extends GroupServiceBase implements GroupService {
     private static final Logger LOG = Logger.getLogger(GroupServiceImpl.class);
 
+    // the most group ids passed to a single in criteria
+    private static final int MAX_IN_CRITERIA_SIZE = 1000;
+
     private DataObjectService dataObjectService;
+    private CacheManager cacheManager;
+
+    public GroupServiceImpl() {
+        this.cacheManager = new NoOpCacheManager();
+    }
 
     @Override
     public Group getGroup(String groupId) throws RiceIllegalArgumentException {
@@ -81,13 +92,19 @@ public class GroupServiceImpl extends GroupServiceBase implements GroupService {
 
     protected List<Group> getGroupsByPrincipalIdAndNamespaceCodeInternal(String principalId, String namespaceCode) throws RiceIllegalArgumentException {
 
-        Collection<Group> directGroups = getDirectGroupsForPrincipal( principalId, namespaceCode, new DateTime(System.currentTimeMillis()) );
+        DateTime asOfDate = new DateTime(System.currentTimeMillis());
+        Collection<Group> directGroups = getDirectGroupsForPrincipal( principalId, namespaceCode, asOfDate );
 		Set<Group> groups = new HashSet<Group>();
         groups.addAll(directGroups);
+        Set<String> directGroupIds = new HashSet<String>(directGroups.size());
 		for ( Group group : directGroups ) {
-			groups.add( group );
-			groups.addAll( getParentGroups( group.getId() ) );
+			directGroupIds.add( group.getId() );
 		}
+        Set<String> parentGroupIds = getMembershipIndex().getParentGroupIds(directGroupIds, asOfDate);
+        parentGroupIds.removeAll(directGroupIds);
+        if (!parentGroupIds.isEmpty()) {
+            groups.addAll(getGroups(parentGroupIds));
+        }
 		return Collections.unmodifiableList(new ArrayList<Group>( groups ));
     }
 
@@ -196,11 +213,12 @@ public class GroupServiceImpl extends GroupServiceBase implements GroupService {
     public List<String> getMemberGroupIds(String groupId) throws RiceIllegalArgumentException {
         incomingParamCheck(groupId, "groupId");
 
-		List<GroupBo> groups = getMemberGroupBos( groupId );
-		ArrayList<String> groupIds = new ArrayList<String>( groups.size() );
-		for ( GroupBo group : groups ) {
-			if ( group.isActive() ) {
-				groupIds.add( group.getId() );
+        GroupMembershipIndex index = getMembershipIndex();
+        Set<String> memberGroupIds = index.getMemberGroupIds(groupId, new DateTime(System.currentTimeMillis()));
+		ArrayList<String> groupIds = new ArrayList<String>( memberGroupIds.size() );
+		for ( String memberGroupId : memberGroupIds ) {
+			if ( index.isActiveGroup( memberGroupId ) ) {
+				groupIds.add( memberGroupId );
 			}
 		}
 		return Collections.unmodifiableList(groupIds);
@@ -416,6 +434,11 @@ public class GroupServiceImpl extends GroupServiceBase implements GroupService {
     }
 
 
+    /**
+     * Checks whether the member belongs to the group, either directly or through the groups nested within it, using
+     * the {@link GroupMembershipIndex} rather than loading each level of the hierarchy.  Checking a principal takes a
+     * single query for the groups it belongs to directly, checking a group takes none once the index is built.
+     */
     protected boolean isMemberOfGroupInternal(String memberId,
             String groupId,
             Set<String> visitedGroupIds,
@@ -426,34 +449,81 @@ public class GroupServiceImpl extends GroupServiceBase implements GroupService {
 			return false;
 		}
 
-		// when group traversal is not needed
-		Group group = getGroup(groupId);
-		if ( group == null || !group.isActive() ) {
+        GroupMembershipIndex index = getMembershipIndex();
+		if ( !index.isActiveGroup(groupId) ) {
 			return false;
 		}
 
-        List<GroupMember> members = getMembersOfGroupWithDate(group.getId(), asOfDate);
-		// check the immediate group
-		for (String groupMemberId : getMemberIdsByType(members, memberType)) {
-			if (groupMemberId.equals(memberId)) {
-				return true;
-			}
-		}
+        if (KimConstants.KimGroupMemberTypes.GROUP_MEMBER_TYPE.equals(memberType)) {
+            return index.getMemberGroupIds(groupId, asOfDate).contains(memberId);
+        }
 
-		// check each contained group, returning as soon as a match is found
-		for ( String memberGroupId : getMemberIdsByType(members, KimConstants.KimGroupMemberTypes.GROUP_MEMBER_TYPE) ) {
-			if (!visitedGroupIds.contains(memberGroupId)){
-				visitedGroupIds.add(memberGroupId);
-				if ( isMemberOfGroupInternal( memberId, memberGroupId, visitedGroupIds, memberType, asOfDate ) ) {
-					return true;
-				}
-			}
-		}
+        Set<String> directGroupIds = getDirectGroupIdsForMember(memberId, memberType, asOfDate);
+        if (directGroupIds.contains(groupId)) {
+            return true;
+        }
+        for (String directGroupId : directGroupIds) {
+            if (index.isActiveGroup(directGroupId) && index.getParentGroupIds(directGroupId, asOfDate).contains(groupId)) {
+                return true;
+            }
+        }
 
 		// no match found, return false
 		return false;
 	}
 
+    /**
+     * Returns the ids of the groups the given member directly belongs to as of the given date, whether active or not.
+     */
+    protected Set<String> getDirectGroupIdsForMember(String memberId, MemberType memberType, DateTime asOfDate) {
+        final QueryByCriteria.Builder builder = QueryByCriteria.Builder.create();
+        builder.setPredicates(
+                and(
+                    equal(KIMPropertyConstants.GroupMember.MEMBER_ID, memberId),
+                    equal(KIMPropertyConstants.GroupMember.MEMBER_TYPE_CODE, memberType.getCode()),
+                    HistoryQueryUtils.between(KIMPropertyConstants.KimMember.ACTIVE_FROM_DATE_VALUE,
+                            KIMPropertyConstants.KimMember.ACTIVE_TO_DATE_VALUE, asOfDate)));
+        List<GroupMemberBo> groupMembers = dataObjectService.findMatching(GroupMemberBo.class, builder.build()).getResults();
+        Set<String> groupIds = new HashSet<String>(groupMembers.size());
+        for (GroupMemberBo groupMember : groupMembers) {
+            groupIds.add(groupMember.getGroupId());
+        }
+        return groupIds;
+    }
+
+    /**
+     * Returns the index of group to group memberships, building it if it is not in the group member cache.
+     */
+    protected GroupMembershipIndex getMembershipIndex() {
+        Cache cache = cacheManager.getCache(GroupMember.Cache.NAME);
+        Cache.ValueWrapper cachedValue = cache.get(GroupMembershipIndex.CACHE_KEY);
+        if (cachedValue != null && cachedValue.get() instanceof GroupMembershipIndex) {
+            return (GroupMembershipIndex) cachedValue.get();
+        }
+
+        DateTime now = DateTime.now();
+        QueryResults<GroupBo> activeGroups = dataObjectService.findMatching(GroupBo.class,
+                QueryByCriteria.Builder.fromPredicates(equal("active", Boolean.TRUE)));
+        List<String> activeGroupIds = new ArrayList<String>(activeGroups.getResults().size());
+        for (GroupBo group : activeGroups.getResults()) {
+            activeGroupIds.add(group.getId());
+        }
+        QueryResults<GroupMemberBo> groupMembers = dataObjectService.findMatching(GroupMemberBo.class,
+                QueryByCriteria.Builder.fromPredicates(equal(KIMPropertyConstants.GroupMember.MEMBER_TYPE_CODE,
+                        KimConstants.KimGroupMemberTypes.GROUP_MEMBER_TYPE.getCode())));
+        GroupMembershipIndex index = GroupMembershipIndex.build(activeGroupIds, groupMembers.getResults(), now);
+        cache.put(GroupMembershipIndex.CACHE_KEY, index);
+        return index;
+    }
+
+    /**
+     * Discards the group membership index so that changes made in the current transaction are seen by the lookups
+     * which follow them, rather than only after the caches are flushed on completion.
+     */
+    protected void invalidateMembershipIndex() {
+        cacheManager.getCache(GroupMember.Cache.NAME).evict(GroupMembershipIndex.CACHE_KEY);
+    }
+
     protected void getParentGroupsInternal( String groupId, Set<Group> groups ) {
 		List<Group> parentGroups = getDirectParentGroups( groupId, new DateTime(System.currentTimeMillis()) );
 		for ( Group group : parentGroups ) {
@@ -532,31 +602,52 @@ public class GroupServiceImpl extends GroupServiceBase implements GroupService {
 		if ( StringUtils.isEmpty(groupId) ) {
 			throw new RiceIllegalArgumentException("groupId is blank");
 		}
-		Set<Group> groups = new HashSet<Group>();
-		getParentGroupsInternal( groupId, groups );
-		return new ArrayList<Group>( groups );
+        Set<String> parentGroupIds = getMembershipIndex().getParentGroupIds(groupId,
+                new DateTime(System.currentTimeMillis()));
+        if (parentGroupIds.isEmpty()) {
+            return new ArrayList<Group>();
+        }
+		return new ArrayList<Group>( getGroups(parentGroupIds) );
 	}
 
+    /**
+     * Collects the principals of the group and of all active groups nested within it, reading the principal members
+     * of every group at once rather than level by level.
+     */
     protected List<String> getMemberPrincipalIdsInternal(String groupId, Set<String> visitedGroupIds) {
 		if ( groupId == null ) {
 			return Collections.emptyList();
 		}
-		Set<String> ids = new HashSet<String>();
-		GroupBo group = getGroupBo(groupId);
-		if ( group == null || !group.isActive()) {
+        GroupMembershipIndex index = getMembershipIndex();
+		if ( !index.isActiveGroup(groupId) ) {
 			return Collections.emptyList();
 		}
 
-        //List<String> memberIds = getMemberIdsByType(group, memberType);
-        //List<GroupMember> members = new ArrayList<GroupMember>(getMembersOfGroup(group.getId()));
-		ids.addAll( group.getMemberPrincipalIds());
-		visitedGroupIds.add(group.getId());
+        DateTime asOfDate = new DateTime(System.currentTimeMillis());
+        List<String> groupIds = new ArrayList<String>();
+        groupIds.add(groupId);
+        for (String memberGroupId : index.getMemberGroupIds(groupId, asOfDate)) {
+            if (index.isActiveGroup(memberGroupId) && !memberGroupId.equals(groupId)) {
+                groupIds.add(memberGroupId);
+            }
+        }
+        visitedGroupIds.addAll(groupIds);
 
-		for (String memberGroupId : group.getMemberGroupIds()) {
-			if (!visitedGroupIds.contains(memberGroupId)){
-				ids.addAll(getMemberPrincipalIdsInternal(memberGroupId, visitedGroupIds));
-			}
-		}
+		Set<String> ids = new HashSet<String>();
+        for (int start = 0; start < groupIds.size(); start += MAX_IN_CRITERIA_SIZE) {
+            List<String> chunk = groupIds.subList(start, Math.min(start + MAX_IN_CRITERIA_SIZE, groupIds.size()));
+            final QueryByCriteria.Builder builder = QueryByCriteria.Builder.create();
+            builder.setPredicates(
+                    and(
+                        in(KIMPropertyConstants.GroupMember.GROUP_ID, chunk.toArray(new String[chunk.size()])),
+                        equal(KIMPropertyConstants.GroupMember.MEMBER_TYPE_CODE,
+                                KimConstants.KimGroupMemberTypes.PRINCIPAL_MEMBER_TYPE.getCode()),
+                        HistoryQueryUtils.between(KIMPropertyConstants.KimMember.ACTIVE_FROM_DATE_VALUE,
+                                KIMPropertyConstants.KimMember.ACTIVE_TO_DATE_VALUE, asOfDate)));
+            for (GroupMemberBo member : dataObjectService.findMatching(GroupMemberBo.class, builder.build()).getResults()) {
+                ids.add(member.getMemberId());
+            }
+        }
 
 		return Collections.unmodifiableList(new ArrayList<String>(ids));
 	}
@@ -615,6 +706,7 @@ public class GroupServiceImpl extends GroupServiceBase implements GroupService {
         groupMember.setMemberId(childId);
 
         this.dataObjectService.save(groupMember);
+        invalidateMembershipIndex();
         return true;
     }
 
@@ -783,6 +875,7 @@ public class GroupServiceImpl extends GroupServiceBase implements GroupService {
         for (GroupMemberBo bo : toDeactivate) {
             this.dataObjectService.save(bo);
         }
+        invalidateMembershipIndex();
         List<String> memberPrincipalsAfter = groupService.getMemberPrincipalIds(groupId);
 
         if (!CollectionUtils.isEmpty(memberPrincipalsAfter)) {
@@ -809,6 +902,7 @@ public class GroupServiceImpl extends GroupServiceBase implements GroupService {
         	GroupMemberBo groupMember = groupMembers.get(0);
         	groupMember.setActiveToDateValue(today);
             this.dataObjectService.save(groupMember);
+            invalidateMembershipIndex();
             return true;
         }
 
@@ -933,6 +1027,19 @@ public class GroupServiceImpl extends GroupServiceBase implements GroupService {
         this.dataObjectService = dataObjectService;
     }
 
+    /**
+     * Sets the cache manager which this class uses to hold the {@link GroupMembershipIndex}.
+     *
+     * @param cacheManager the cache manager to use for the group membership index
+     * @throws IllegalArgumentException if a null cache manager is passed
+     */
+    public void setCacheManager(final CacheManager cacheManager) {
+        if (cacheManager == null) {
+            throw new IllegalArgumentException("cacheManager must not be null");
+        }
+        this.cacheManager = cacheManager;
+    }
+
     private void incomingParamCheck(Object object, String name) {
         if (object == null) {
             throw new RiceIllegalArgumentException(name + " was null");
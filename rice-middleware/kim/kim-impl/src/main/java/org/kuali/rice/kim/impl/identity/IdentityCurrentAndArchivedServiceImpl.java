@@ -48,8 +48,10 @@ import org.kuali.rice.kim.api.identity.visa.EntityVisa;
 import javax.jws.WebParam;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * This IdentityService implementation is largely just a knee-jerk delegator, except for
@@ -310,6 +312,35 @@ public class IdentityCurrentAndArchivedServiceImpl implements IdentityService {
         return entity;
     }
 
+    /**
+     * This method first tries the inner IdentityService impl for all of the principals, and resorts to
+     * the IdentityArchiveService for those which could not be found.
+     */
+    @Override
+    public List<EntityDefault> getEntityDefaultsByPrincipalIds(List<String> principalIds) {
+        List<EntityDefault> entities = new ArrayList<EntityDefault>(
+                getInnerIdentityService().getEntityDefaultsByPrincipalIds(principalIds));
+        Set<String> foundPrincipalIds = new HashSet<String>();
+        for (EntityDefault entity : entities) {
+            getIdentityArchiveService().saveEntityDefaultToArchive(entity);
+            for (Principal principal : entity.getPrincipals()) {
+                foundPrincipalIds.add(principal.getPrincipalId());
+            }
+        }
+        for (String principalId : principalIds) {
+            if (!foundPrincipalIds.contains(principalId)) {
+                EntityDefault entity = getIdentityArchiveService().getEntityDefaultFromArchiveByPrincipalId(principalId);
+                if (entity != null) {
+                    entities.add(entity);
+                    for (Principal principal : entity.getPrincipals()) {
+                        foundPrincipalIds.add(principal.getPrincipalId());
+                    }
+                }
+            }
+        }
+        return entities;
+    }
+
     @Override
     public EntityDefaultQueryResults findEntityDefaults( QueryByCriteria queryByCriteria) {
         return getInnerIdentityService().findEntityDefaults(queryByCriteria);
@@ -15,6 +15,7 @@
  */
 package org.kuali.rice.kim.impl.identity;
 
+import org.kuali.rice.kim.api.identity.entity.EntityDefault;
 import org.kuali.rice.kim.api.identity.principal.EntityNamePrincipalName;
 
 import java.util.List;
@@ -23,4 +24,6 @@ import java.util.Map;
 public interface IdentityServiceDao {
 
     Map<String, EntityNamePrincipalName> getDefaultNamesByPrincipalIds(List<String> principalIds);
+
+    Map<String, EntityDefault> getEntityDefaultsByPrincipalIds(List<String> principalIds);
 }
@@ -17,14 +17,19 @@ package org.kuali.rice.kim.impl.identity;
 
 import com.google.common.collect.Lists;
 import org.kuali.rice.core.api.util.Truth;
+import org.kuali.rice.kim.api.identity.entity.EntityDefault;
 import org.kuali.rice.kim.api.identity.name.EntityName;
 import org.kuali.rice.kim.api.identity.principal.EntityNamePrincipalName;
+import org.kuali.rice.kim.impl.identity.entity.EntityBo;
 import org.kuali.rice.kim.impl.identity.name.EntityNameBo;
+import org.kuali.rice.kim.impl.identity.principal.PrincipalBo;
 
 import javax.persistence.EntityManager;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class IdentityServiceDaoJpa implements IdentityServiceDao {
 
@@ -53,6 +58,28 @@ public class IdentityServiceDaoJpa implements IdentityServiceDao {
         return results;
     }
 
+    @Override
+    public Map<String, EntityDefault> getEntityDefaultsByPrincipalIds(List<String> principalIds) {
+        Map<String, EntityDefault> results = new HashMap<String, EntityDefault>();
+        Set<String> requestedPrincipalIds = new HashSet<String>(principalIds);
+
+        // partitioned for the same reason as the names above
+        List<List<String>> partitionedPrincipalIds = Lists.partition(principalIds, PARTITION_SIZE);
+        for(List<String> partition : partitionedPrincipalIds) {
+            List<EntityBo> entities = getEntityManager().createNamedQuery("EntityBo.findByPrincipalIds",
+                    EntityBo.class).setParameter("principalIds", partition).getResultList();
+            for(EntityBo entity : entities) {
+                EntityDefault entityDefault = EntityBo.toDefault(entity);
+                for(PrincipalBo principal : entity.getPrincipals()) {
+                    if (requestedPrincipalIds.contains(principal.getPrincipalId())) {
+                        results.put(principal.getPrincipalId(), entityDefault);
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
     public EntityManager getEntityManager() {
         return entityManager;
     }
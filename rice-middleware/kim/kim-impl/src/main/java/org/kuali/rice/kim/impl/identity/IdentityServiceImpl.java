@@ -79,6 +79,7 @@ import javax.jws.WebParam;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -193,6 +194,21 @@ public class IdentityServiceImpl implements IdentityService {
         return EntityBo.toDefault(entity);
     }
 
+    @Override
+    public List<EntityDefault> getEntityDefaultsByPrincipalIds(List<String> principalIds) throws RiceIllegalArgumentException {
+        incomingParamCheck(principalIds, "principalIds");
+
+        if (principalIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<String, EntityDefault> entities = new LinkedHashMap<String, EntityDefault>();
+        for (EntityDefault entity : getIdentityServiceDao().getEntityDefaultsByPrincipalIds(principalIds).values()) {
+            entities.put(entity.getEntityId(), entity);
+        }
+
+        return new ArrayList<EntityDefault>(entities.values());
+    }
+
     @Override
     public Principal getPrincipalByPrincipalNameAndPassword(String principalName,
             String password) throws RiceIllegalArgumentException {
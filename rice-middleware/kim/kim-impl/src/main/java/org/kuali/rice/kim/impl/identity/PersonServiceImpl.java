@@ -22,6 +22,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -58,6 +59,8 @@ import org.kuali.rice.krad.util.KRADConstants;
 import org.kuali.rice.krad.util.KRADPropertyConstants;
 import org.kuali.rice.krad.util.KRADUtils;
 import org.springframework.beans.PropertyAccessorUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 /**
  * This is a description of what this class does - kellerj don't forget to fill this in.
@@ -79,6 +82,8 @@ public class PersonServiceImpl implements PersonService {
 	protected static final String ENTITY_EMPLOYEE_ID_PROPERTY_PREFIX = "employmentInformation.";
 	// KULRICE-4442 Special handling for extension objects
 	protected static final String EXTENSION = "extension";
+	// the name of the request attribute remembering the people already looked up while handling the current request
+	protected static final String PERSON_REQUEST_CACHE_NAME = PersonServiceImpl.class.getName() + ".people";
 
 	private IdentityService identityService;
 	private RoleService roleService;
@@ -146,6 +151,16 @@ public class PersonServiceImpl implements PersonService {
 			return null;
 		}
 
+		Map<String,Person> requestCache = getPersonRequestCache();
+		Person person = requestCache.get(principalIdCacheKey(principalId));
+		if ( person == null ) {
+			person = loadPerson(principalId);
+			cachePerson(requestCache, person);
+		}
+		return person;
+	}
+
+	protected Person loadPerson(String principalId) {
 		// get the corresponding principal
 		final Principal principal = getIdentityService().getPrincipal( principalId );
 		// get the identity
@@ -193,6 +208,16 @@ public class PersonServiceImpl implements PersonService {
 			return null;
 		}
 
+		Map<String,Person> requestCache = getPersonRequestCache();
+		Person person = requestCache.get(principalNameCacheKey(principalName));
+		if ( person == null ) {
+			person = loadPersonByPrincipalName(principalName);
+			cachePerson(requestCache, person);
+		}
+		return person;
+	}
+
+	protected Person loadPersonByPrincipalName(String principalName) {
 		// get the corresponding principal
 		final Principal principal = getIdentityService().getPrincipalByPrincipalName( principalName );
 		// get the identity
@@ -302,7 +327,7 @@ public class PersonServiceImpl implements PersonService {
 					// trim the list down before converting to people
 					principalIds = new ArrayList<String>(principalIds).subList(0, searchResultsLimitInt); // yes, this is a little wasteful
 					people = getPeople(principalIds); // convert the results to people
-					people = new CollectionIncomplete<Person>( people.subList(0, searchResultsLimitInt), new Long(actualResultSize) );
+					people = new CollectionIncomplete<Person>( people, new Long(actualResultSize) );
 				} else {
 					people = getPeople(principalIds);
 				}
@@ -317,7 +342,7 @@ public class PersonServiceImpl implements PersonService {
 					// trim the list down before converting to people
 					principalIds = new ArrayList<String>(principalIds).subList(0, searchResultsLimitInt); // yes, this is a little wasteful
 					people = getPeople(principalIds); // convert the results to people
-					people = new CollectionIncomplete<Person>( people.subList(0, searchResultsLimitInt), new Long(actualResultSize) );
+					people = new CollectionIncomplete<Person>( people, new Long(actualResultSize) );
 				} else {
 					people = getPeople(principalIds); // convert the results to people
 				}
@@ -646,14 +671,103 @@ public class PersonServiceImpl implements PersonService {
 	}
 
 
-	protected List<Person> getPeople( Collection<String> principalIds ) {
-		List<Person> people = new ArrayList<Person>( principalIds.size() );
+	/**
+	 * @see org.kuali.rice.kim.api.identity.PersonService#getPeople(java.util.Collection)
+	 */
+	@Override
+	public List<Person> getPeople( Collection<String> principalIds ) {
+		Map<String,Person> requestCache = getPersonRequestCache();
+		Set<String> distinctPrincipalIds = new LinkedHashSet<String>( principalIds.size() );
+		Map<String,Person> people = new HashMap<String,Person>( principalIds.size() );
+		List<String> principalIdsToLoad = new ArrayList<String>();
 		for ( String principalId : principalIds ) {
-			people.add( getPerson(principalId) );
+			if ( StringUtils.isBlank(principalId) || !distinctPrincipalIds.add(principalId) ) {
+				continue;
+			}
+			Person person = requestCache.get(principalIdCacheKey(principalId));
+			if ( person != null ) {
+				people.put( principalId, person );
+			} else {
+				principalIdsToLoad.add( principalId );
+			}
+		}
+
+		if ( !principalIdsToLoad.isEmpty() ) {
+			for ( Person person : loadPeople(principalIdsToLoad).values() ) {
+				people.put( person.getPrincipalId(), person );
+				cachePerson( requestCache, person );
+			}
+		}
+
+		List<Person> results = new ArrayList<Person>( distinctPrincipalIds.size() );
+		for ( String principalId : distinctPrincipalIds ) {
+			Person person = people.get(principalId);
+			if ( person != null ) {
+				results.add( person );
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Loads the people for all of the given principals with a single call to the identity service, returning them
+	 * keyed by principal ID.
+	 */
+	protected Map<String,Person> loadPeople( List<String> principalIds ) {
+		Set<String> requestedPrincipalIds = new HashSet<String>( principalIds );
+		Map<String,Person> people = new HashMap<String,Person>( principalIds.size() );
+		for ( EntityDefault entity : getIdentityService().getEntityDefaultsByPrincipalIds(principalIds) ) {
+			for ( Principal principal : entity.getPrincipals() ) {
+				if ( requestedPrincipalIds.contains(principal.getPrincipalId()) ) {
+					Person person = convertEntityToPerson( entity, principal );
+					if ( person != null ) {
+						people.put( principal.getPrincipalId(), person );
+					}
+				}
+			}
 		}
 		return people;
 	}
 
+	/**
+	 * Returns the people already looked up while handling the current request, keyed by either principal ID or
+	 * principal name.  The map is kept as an attribute of the request bound to the current thread, so it goes away
+	 * with the request.  Outside of a request an empty map is returned which is not kept.
+	 */
+	@SuppressWarnings("unchecked")
+	protected Map<String,Person> getPersonRequestCache() {
+		RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+		if ( requestAttributes == null ) {
+			return new HashMap<String,Person>();
+		}
+		Object requestCache = requestAttributes.getAttribute(PERSON_REQUEST_CACHE_NAME, RequestAttributes.SCOPE_REQUEST);
+		if ( requestCache instanceof Map ) {
+			return (Map<String,Person>)requestCache;
+		}
+		Map<String,Person> people = new HashMap<String,Person>();
+		requestAttributes.setAttribute(PERSON_REQUEST_CACHE_NAME, people, RequestAttributes.SCOPE_REQUEST);
+		return people;
+	}
+
+	/**
+	 * Remembers the given person for the rest of the request.  Principals which could not be found are not
+	 * remembered, they may be created later in the same request.
+	 */
+	protected void cachePerson( Map<String,Person> requestCache, Person person ) {
+		if ( person != null ) {
+			requestCache.put( principalIdCacheKey(person.getPrincipalId()), person );
+			requestCache.put( principalNameCacheKey(person.getPrincipalName()), person );
+		}
+	}
+
+	private static String principalIdCacheKey( String principalId ) {
+		return "principalId=" + principalId;
+	}
+
+	private static String principalNameCacheKey( String principalName ) {
+		return "principalName=" + principalName;
+	}
+
 	protected List<String> peopleToPrincipalIds( List<Person> people ) {
 		List<String> principalIds = new ArrayList<String>();
 
@@ -25,6 +25,7 @@ import javax.persistence.Convert;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
+import javax.persistence.NamedQuery;
 import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
 import javax.persistence.PrimaryKeyJoinColumn;
@@ -73,6 +74,9 @@ import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer
 @javax.persistence.Entity
 @Cacheable(false)
 @Table(name = "KRIM_ENTITY_T")
+@NamedQuery(name = "EntityBo.findByPrincipalIds",
+        query = "SELECT DISTINCT e FROM EntityBo e, PrincipalBo p WHERE e.id = p.entityId AND p.principalId IN :principalIds"
+)
 public class EntityBo extends DataObjectBase implements EntityContract {
 
     private static final long serialVersionUID = -2448541334029932773L;
@@ -0,0 +1,116 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kim.impl.permission;
+
+import org.kuali.rice.core.api.cache.CacheKeyUtils;
+import org.kuali.rice.kim.api.permission.Permission;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The results of the authorization checks already made for a single principal, keyed by the permission (or permission
+ * template and details) checked and the qualification it was checked against.
+ *
+ * <p>One index per principal is kept in the {@link Permission.Cache#EFFECTIVE_NAME} cache and filled in lazily as
+ * checks are made.  That cache is flushed whenever anything which could change the results changes, so an index never
+ * has to be updated, only discarded.  An index holds at most a fixed number of results, recording a check beyond that
+ * drops the least recently used result.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public final class EffectivePermissionIndex implements Serializable {
+
+    private static final long serialVersionUID = 4012276498145837103L;
+
+    private final String principalId;
+    private final int maxEntries;
+    private final Map<String, Boolean> results;
+
+    public EffectivePermissionIndex(String principalId, int maxEntries) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("maxEntries must not be negative");
+        }
+        this.principalId = principalId;
+        this.maxEntries = maxEntries;
+        this.results = new LeastRecentlyUsedMap(maxEntries);
+    }
+
+    public String getPrincipalId() {
+        return principalId;
+    }
+
+    /**
+     * @return whether the principal passed the given check, or null if the check has not been recorded
+     */
+    public synchronized Boolean isAuthorized(String checkKey) {
+        return results.get(checkKey);
+    }
+
+    /**
+     * Records the result of the given check, dropping the least recently used result if the index is full.
+     */
+    public synchronized void put(String checkKey, boolean authorized) {
+        if (maxEntries > 0) {
+            results.put(checkKey, Boolean.valueOf(authorized));
+        }
+    }
+
+    public synchronized int size() {
+        return results.size();
+    }
+
+    /**
+     * @return the key of a check of the named permission against the given qualification
+     */
+    public static String permissionKey(String namespaceCode, String permissionName, Map<String, String> qualification) {
+        return new StringBuilder("permission=").append(namespaceCode).append("|").append(permissionName)
+                .append("|qualification=").append(CacheKeyUtils.mapKey(qualification)).toString();
+    }
+
+    /**
+     * @return the key of a check of the permissions of the named template matching the given details against the
+     * given qualification
+     */
+    public static String templateKey(String namespaceCode, String permissionTemplateName,
+            Map<String, String> permissionDetails, Map<String, String> qualification) {
+        return new StringBuilder("template=").append(namespaceCode).append("|").append(permissionTemplateName)
+                .append("|permissionDetails=").append(CacheKeyUtils.mapKey(permissionDetails))
+                .append("|qualification=").append(CacheKeyUtils.mapKey(qualification)).toString();
+    }
+
+    /**
+     * Access ordered map which drops its eldest entry once it holds more than the given number of entries.
+     */
+    private static final class LeastRecentlyUsedMap extends LinkedHashMap<String, Boolean> {
+
+        private static final long serialVersionUID = -2706124390135573287L;
+
+        private final int maxEntries;
+
+        LeastRecentlyUsedMap(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > maxEntries;
+        }
+    }
+
+}
@@ -73,6 +73,9 @@ import org.kuali.rice.ksb.api.registry.ServiceInfo;
 abstract class RoleServiceBase {
     private static final Logger LOG = Logger.getLogger( RoleServiceBase.class );
 
+    // the most member ids passed to a single in criteria
+    private static final int MAX_IN_CRITERIA_SIZE = 1000;
+
     protected DataObjectService dataObjectService;
     protected IdentityService identityService;
     protected NamespaceService namespaceService;
@@ -204,6 +207,30 @@ abstract class RoleServiceBase {
             groupIds = Collections.emptyList();
         }
 
+        Map<String, String> convertedQualification = convertQualificationForRoles(roleIds, qualification);
+
+        switch (daoActionToTake) {
+            case ROLE_PRINCIPALS_FOR_PRINCIPAL_ID_AND_ROLE_IDS: // Search for principal role members only.
+                return getRoleMembersForPrincipalId(roleIds, principalId, convertedQualification);
+            case ROLE_GROUPS_FOR_GROUP_IDS_AND_ROLE_IDS: // Search for group role members only.
+                return getRoleGroupsForGroupIdsAndRoleIds(roleIds, groupIds, convertedQualification);
+            case ROLE_MEMBERS_FOR_ROLE_IDS: // Search for role members with the given member type code.
+                return roleDao.getRoleMembersForRoleIds(roleIds, memberTypeCode, convertedQualification);
+            case ROLE_MEMBERSHIPS_FOR_ROLE_IDS_AS_MEMBERS: // Search for role members who are also roles.
+                return getRoleMembershipsForRoleIdsAsMembers(roleIds, convertedQualification);
+            case ROLE_MEMBERS_FOR_ROLE_IDS_WITH_FILTERS: // Search for role members that might be roles, principals, or groups.
+                return getRoleMembersForRoleIdsWithFilters(roleIds, principalId, groupIds, convertedQualification);
+            default: // This should never happen, since the previous switch block should handle this case appropriately.
+                throw new IllegalArgumentException("The 'daoActionToTake' parameter cannot refer to a non-role-member-related value!");
+        }
+    }
+
+    /**
+     * Converts the attribute names of the qualification into the ids of the matching attributes of the given roles'
+     * types, as used by the role member attribute data.
+     */
+    protected Map<String, String> convertQualificationForRoles(Collection<String> roleIds,
+            Map<String, String> qualification) {
         Map<String, String> validAttributeIds = new HashMap<String, String>();
 
         HashSet <String> kimTypeIds = new HashSet<String>();
@@ -222,23 +249,37 @@ abstract class RoleServiceBase {
             }
         }
 
+        return convertQualifierKeys(qualification, validAttributeIds);
+    }
 
-        Map<String, String> convertedQualification = convertQualifierKeys(qualification, validAttributeIds);
-
-        switch (daoActionToTake) {
-            case ROLE_PRINCIPALS_FOR_PRINCIPAL_ID_AND_ROLE_IDS: // Search for principal role members only.
-                return getRoleMembersForPrincipalId(roleIds, principalId, convertedQualification);
-            case ROLE_GROUPS_FOR_GROUP_IDS_AND_ROLE_IDS: // Search for group role members only.
-                return getRoleGroupsForGroupIdsAndRoleIds(roleIds, groupIds, convertedQualification);
-            case ROLE_MEMBERS_FOR_ROLE_IDS: // Search for role members with the given member type code.
-                return roleDao.getRoleMembersForRoleIds(roleIds, memberTypeCode, convertedQualification);
-            case ROLE_MEMBERSHIPS_FOR_ROLE_IDS_AS_MEMBERS: // Search for role members who are also roles.
-                return getRoleMembershipsForRoleIdsAsMembers(roleIds, convertedQualification);
-            case ROLE_MEMBERS_FOR_ROLE_IDS_WITH_FILTERS: // Search for role members that might be roles, principals, or groups.
-                return getRoleMembersForRoleIdsWithFilters(roleIds, principalId, groupIds, convertedQualification);
-            default: // This should never happen, since the previous switch block should handle this case appropriately.
-                throw new IllegalArgumentException("The 'daoActionToTake' parameter cannot refer to a non-role-member-related value!");
+    /**
+     * Retrieves the principal members of the given roles which are any of the given principals, querying the
+     * principals in chunks rather than one at a time.
+     */
+    protected List<RoleMemberBo> getStoredRolePrincipalsForPrincipalIdsAndRoleIds(Collection<String> roleIds,
+            Collection<String> principalIds, Map<String, String> qualification) {
+        List<RoleMemberBo> results = new ArrayList<RoleMemberBo>();
+        if (CollectionUtils.isEmpty(principalIds)) {
+            return results;
         }
+        Predicate roleQualificationPredicate = getRoleQualificationPredicate(convertQualificationForRoles(roleIds,
+                qualification));
+        List<String> principalIdList = new ArrayList<String>(principalIds);
+        for (int start = 0; start < principalIdList.size(); start += MAX_IN_CRITERIA_SIZE) {
+            List<String> chunk = principalIdList.subList(start, Math.min(start + MAX_IN_CRITERIA_SIZE,
+                    principalIdList.size()));
+            List<Predicate> criteria = new ArrayList<Predicate>();
+            if (CollectionUtils.isNotEmpty(roleIds)) {
+                criteria.add( PredicateFactory.in(KIMPropertyConstants.RoleMember.ROLE_ID, roleIds) );
+            }
+            criteria.add( PredicateFactory.in(KIMPropertyConstants.RoleMember.MEMBER_ID, chunk) );
+            criteria.add( PredicateFactory.equal(KIMPropertyConstants.RoleMember.MEMBER_TYPE_CODE, MemberType.PRINCIPAL.getCode()));
+            if ( roleQualificationPredicate != null ) {
+                criteria.add( roleQualificationPredicate );
+            }
+            results.addAll(getRoleMembershipsForPredicates(criteria));
+        }
+        return results;
     }
 
     public List<RoleMemberBo> getRoleGroupsForGroupIdsAndRoleIds(Collection<String> roleIds, Collection<String> groupIds, Map<String, String> qualification) {
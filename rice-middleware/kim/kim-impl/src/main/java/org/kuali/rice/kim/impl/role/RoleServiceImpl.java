@@ -25,6 +25,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -620,11 +621,24 @@ public class RoleServiceImpl extends RoleServiceBase implements RoleService {
         incomingParamCheck(roleNamespaceCode, "roleNamespaceCode");
         incomingParamCheck(roleName, "roleName");
 
-        List<String> subList = new ArrayList<String>();
         RoleBoLite role = getRoleBoLiteByName(roleNamespaceCode, roleName);
+        if (role == null) {
+            return Collections.emptyList();
+        }
+        return getPrincipalIdSubListWithRoleIds(principalIds, Collections.singletonList(role.getId()), qualification);
+    }
+
+    @Override
+    public List<String> getPrincipalIdSubListWithRoleIds(List<String> principalIds, List<String> roleIds,
+            Map<String, String> qualification) throws RiceIllegalStateException {
+        incomingParamCheck(principalIds, "principalIds");
+        incomingParamCheck(roleIds, "roleIds");
+
+        Set<String> principalsWithRole = getPrincipalsWithRole(new BulkContext(),
+                new LinkedHashSet<String>(principalIds), roleIds, qualification, true);
+        List<String> subList = new ArrayList<String>();
         for (String principalId : principalIds) {
-            if (this.getProxiedRoleService().principalHasRole(principalId, Collections.singletonList(role.getId()),
-                    qualification)) {
+            if (principalsWithRole.contains(principalId)) {
                 subList.add(principalId);
             }
         }
@@ -1111,9 +1125,14 @@ public class RoleServiceImpl extends RoleServiceBase implements RoleService {
         private Map<String, Boolean> isDerivedRoleTypeCache;
 
         Context(String principalId) {
+            this(principalId, new HashMap<String, RoleTypeService>(), new HashMap<String, Boolean>());
+        }
+
+        Context(String principalId, Map<String, RoleTypeService> roleTypeServiceCache,
+                Map<String, Boolean> isDerivedRoleTypeCache) {
             this.principalId = principalId;
-            this.roleTypeServiceCache = new HashMap<String, RoleTypeService>();
-            this.isDerivedRoleTypeCache = new HashMap<String, Boolean>();
+            this.roleTypeServiceCache = roleTypeServiceCache;
+            this.isDerivedRoleTypeCache = isDerivedRoleTypeCache;
         }
 
         String getPrincipalId() {
@@ -1240,6 +1259,291 @@ public class RoleServiceImpl extends RoleServiceBase implements RoleService {
         return false;
     }
 
+    /**
+     * Keeps context for an invocation of getPrincipalIdSubListWithRoleIds.  The role type services and the results of
+     * derived role checks are shared between all of the principals being evaluated, including within nested roles.
+     */
+    private final class BulkContext {
+
+        private final Map<String, RoleTypeService> roleTypeServiceCache = new HashMap<String, RoleTypeService>();
+        private final Map<String, Boolean> isDerivedRoleTypeCache = new HashMap<String, Boolean>();
+        private final Map<String, Context> principalContexts = new HashMap<String, Context>();
+        private final Map<String, Boolean> derivedRoleResults = new HashMap<String, Boolean>();
+        private final Context typeContext = new Context(null, roleTypeServiceCache, isDerivedRoleTypeCache);
+
+        Context getContext(String principalId) {
+            Context context = principalContexts.get(principalId);
+            if (context == null) {
+                context = new Context(principalId, roleTypeServiceCache, isDerivedRoleTypeCache);
+                principalContexts.put(principalId, context);
+            }
+            return context;
+        }
+
+        Context getTypeContext() {
+            return typeContext;
+        }
+
+        boolean principalHasDerivedRole(String principalId, Role role, Map<String, String> qualification,
+                RoleTypeService roleTypeService) {
+            String key = role.getId() + "|" + principalId + "|" + CacheKeyUtils.mapKey(qualification);
+            Boolean hasRole = derivedRoleResults.get(key);
+            if (hasRole == null) {
+                hasRole = Boolean.valueOf(RoleServiceImpl.this.principalHasDerivedRole(getContext(principalId),
+                        principalId, role, qualification, roleTypeService));
+                derivedRoleResults.put(key, hasRole);
+            }
+            return hasRole.booleanValue();
+        }
+    }
+
+    /**
+     * The set oriented counterpart of {@link #principalHasRole(Context, String, List, Map, boolean)}, returning
+     * which of the given principals have any of the given roles.
+     */
+    protected Set<String> getPrincipalsWithRole(BulkContext context, Set<String> principalIds, List<String> roleIds,
+            Map<String, String> qualification, boolean checkDelegations) {
+        Set<String> principalsWithRole = new HashSet<String>();
+
+        // use what is already cached, collecting which principals still need to be checked against each role
+        Map<String, Set<String>> principalsToCheck = new HashMap<String, Set<String>>();
+        for (String principalId : principalIds) {
+            for (String roleId : roleIds) {
+                Boolean hasRole = getPrincipalHasRoleFromCache(principalId, roleId, qualification, checkDelegations);
+                if (hasRole == null) {
+                    Set<String> rolePrincipalIds = principalsToCheck.get(roleId);
+                    if (rolePrincipalIds == null) {
+                        rolePrincipalIds = new LinkedHashSet<String>();
+                        principalsToCheck.put(roleId, rolePrincipalIds);
+                    }
+                    rolePrincipalIds.add(principalId);
+                } else if (hasRole.booleanValue()) {
+                    principalsWithRole.add(principalId);
+                    break;
+                }
+            }
+        }
+        if (principalsToCheck.isEmpty()) {
+            return principalsWithRole;
+        }
+
+        // load the roles, this will also filter out inactive roles!
+        List<Role> roles = loadRoles(new ArrayList<String>(principalsToCheck.keySet()));
+
+        // sort putting derived roles last since they are most expensive to check
+        LinkedList<Role> sortedRoles = new LinkedList<Role>();
+        for (Role role : roles) {
+            if (context.getTypeContext().isDerivedRoleType(role.getKimTypeId())) {
+                sortedRoles.addLast(role);
+            } else {
+                sortedRoles.addFirst(role);
+            }
+        }
+
+        for (Role role : sortedRoles) {
+            Set<String> candidates = new LinkedHashSet<String>(principalsToCheck.get(role.getId()));
+            candidates.removeAll(principalsWithRole);
+            if (candidates.isEmpty()) {
+                continue;
+            }
+            try {
+                Set<String> matches = getPrincipalsWithRole(context, candidates, role, qualification, checkDelegations);
+                principalsWithRole.addAll(matches);
+
+                RoleTypeService roleTypeService = context.getTypeContext().getRoleTypeService(role.getKimTypeId());
+                if (!context.getTypeContext().isDerivedRoleType(role.getKimTypeId()) || (roleTypeService == null)
+                        || !roleTypeService.dynamicRoleMembership(role.getNamespaceCode(), role.getName())) {
+                    for (String principalId : candidates) {
+                        putPrincipalHasRoleInCache(matches.contains(principalId), principalId, role.getId(),
+                                qualification, checkDelegations);
+                    }
+                }
+            } catch (Exception e) {
+                LOG.warn("Caught exception during a principalHasRole check of role " + role.getId(), e);
+            }
+        }
+
+        return principalsWithRole;
+    }
+
+    /**
+     * Determines which of the given principals have the given role, checking them all at once wherever the role
+     * memberships can be read together.
+     */
+    protected Set<String> getPrincipalsWithRole(BulkContext context, Set<String> principalIds, Role role,
+            Map<String, String> qualification, boolean checkDelegations) {
+        RoleTypeService roleTypeService = null;
+        try {
+            roleTypeService = context.getTypeContext().getRoleTypeService(role.getKimTypeId());
+        } catch (Exception ex) {
+            LOG.warn("Unable to find role type service with id: " + role.getKimTypeId(), ex);
+        }
+
+        Set<String> matches = new HashSet<String>();
+        if (context.getTypeContext().isDerivedRoleType(role.getKimTypeId())) {
+            // derived role type services can only be asked about one principal at a time
+            for (String principalId : principalIds) {
+                if (context.principalHasDerivedRole(principalId, role, qualification, roleTypeService)) {
+                    matches.add(principalId);
+                }
+            }
+        } else {
+            matches.addAll(getPrincipalsMatchingOnQualifications(context, principalIds, role, qualification,
+                    roleTypeService));
+            Set<String> remaining = new LinkedHashSet<String>(principalIds);
+            remaining.removeAll(matches);
+            if (!remaining.isEmpty()) {
+                matches.addAll(getPrincipalsMatchingOnNestedRoles(context, remaining, role, qualification,
+                        roleTypeService));
+            }
+        }
+
+        if (checkDelegations) {
+            Set<String> remaining = new LinkedHashSet<String>(principalIds);
+            remaining.removeAll(matches);
+            if (!remaining.isEmpty() && !getStoredDelegationImplMapFromRoleIds(Collections.singleton(role.getId()))
+                    .isEmpty()) {
+                for (String principalId : remaining) {
+                    Context principalContext = context.getContext(principalId);
+                    if (matchesOnDelegation(role.getId(), principalId, principalContext.getPrincipalGroupIds(),
+                            qualification, principalContext)) {
+                        matches.add(principalId);
+                    }
+                }
+            }
+        }
+
+        return matches;
+    }
+
+    /**
+     * The set oriented counterpart of {@link #checkForMatchOnQualifications}.  The principal and group members of the
+     * role are read once for all of the principals.
+     *
+     * <p>When the role type service does the matching, it is still asked once per principal with only that principal's
+     * own and group memberships, since a role type service may match the memberships of a principal together.</p>
+     */
+    protected Set<String> getPrincipalsMatchingOnQualifications(BulkContext context, Set<String> principalIds,
+            Role role, Map<String, String> qualification, RoleTypeService roleTypeService) {
+        Set<String> matches = new HashSet<String>();
+        List<String> roleIds = Collections.singletonList(role.getId());
+        Set<String> matchingGroupIds = new HashSet<String>();
+
+        Map<String, String> qualificationForExactMatch = getQualifiersForExactMatch(context.getTypeContext(), role,
+                qualification);
+        if (qualificationForExactMatch != null) {
+            for (RoleMemberBo roleMember : getStoredRolePrincipalsForPrincipalIdsAndRoleIds(roleIds, principalIds,
+                    qualificationForExactMatch)) {
+                matches.add(roleMember.getMemberId());
+            }
+            for (RoleMemberBo roleMember : getStoredRoleGroupsUsingExactMatchOnQualification(
+                    Collections.<String>emptyList(), role.getId(), qualification)) {
+                matchingGroupIds.add(roleMember.getMemberId());
+            }
+        } else {
+            List<RoleMemberBo> principalRoleMembers = getStoredRolePrincipalsForPrincipalIdsAndRoleIds(roleIds,
+                    principalIds, null);
+            List<RoleMemberBo> groupRoleMembers = getStoredRoleGroupsForGroupIdsAndRoleIds(roleIds,
+                    Collections.<String>emptyList(), null);
+            Map<String, List<RoleMemberBo>> principalRoleMembersById = new HashMap<String, List<RoleMemberBo>>();
+            for (RoleMemberBo roleMember : principalRoleMembers) {
+                List<RoleMemberBo> roleMembers = principalRoleMembersById.get(roleMember.getMemberId());
+                if (roleMembers == null) {
+                    roleMembers = new ArrayList<RoleMemberBo>();
+                    principalRoleMembersById.put(roleMember.getMemberId(), roleMembers);
+                }
+                roleMembers.add(roleMember);
+            }
+            try {
+                if (roleTypeService != null) {
+                    for (String principalId : principalIds) {
+                        List<RoleMemberBo> matchingPrincipalRoleMembers = principalRoleMembersById.get(principalId);
+                        if (matchingPrincipalRoleMembers == null) {
+                            matchingPrincipalRoleMembers = Collections.emptyList();
+                        }
+                        List<RoleMemberBo> matchingGroupRoleMembers = new ArrayList<RoleMemberBo>();
+                        if (!groupRoleMembers.isEmpty()) {
+                            Set<String> principalGroupIds = new HashSet<String>(context.getContext(principalId)
+                                    .getPrincipalGroupIds());
+                            for (RoleMemberBo roleMember : groupRoleMembers) {
+                                if (principalGroupIds.contains(roleMember.getMemberId())) {
+                                    matchingGroupRoleMembers.add(roleMember);
+                                }
+                            }
+                        }
+                        List<RoleMembership> roleMemberships = convertToRoleMemberships(matchingPrincipalRoleMembers,
+                                matchingGroupRoleMembers);
+                        if (!roleMemberships.isEmpty() && !roleTypeService.getMatchingRoleMemberships(qualification,
+                                roleMemberships).isEmpty()) {
+                            matches.add(principalId);
+                        }
+                    }
+                }
+            } catch (Exception ex) {
+                LOG.warn("Unable to find role type service with id: " + role.getKimTypeId());
+            }
+        }
+        matches.retainAll(principalIds);
+
+        // match groups through the group ids of each principal, as principalHasRole does, rather than expanding the
+        // groups since a group with many members could be far more expensive to expand
+        Set<String> remaining = new LinkedHashSet<String>(principalIds);
+        remaining.removeAll(matches);
+        if (!matchingGroupIds.isEmpty()) {
+            for (String principalId : remaining) {
+                if (!Collections.disjoint(matchingGroupIds, context.getContext(principalId).getPrincipalGroupIds())) {
+                    matches.add(principalId);
+                }
+            }
+        }
+
+        return matches;
+    }
+
+    /**
+     * The set oriented counterpart of {@link #checkForMatchOnNestedRoles}, checking the principals which remain
+     * against each nested role in turn.
+     */
+    protected Set<String> getPrincipalsMatchingOnNestedRoles(BulkContext context, Set<String> principalIds, Role role,
+            Map<String, String> qualification, RoleTypeService roleTypeService) {
+        Set<String> matches = new HashSet<String>();
+        Set<String> remaining = new LinkedHashSet<String>(principalIds);
+
+        List<RoleMemberBo> roleMemberBos = getStoredRoleMembersForRoleIds(Collections.singletonList(role.getId()),
+                MemberType.ROLE.getCode(), null);
+        for (RoleMemberBo roleMemberBo : roleMemberBos) {
+            if (remaining.isEmpty()) {
+                break;
+            }
+            try {
+                Set<String> nestedMatches;
+                if (roleTypeService != null) {
+                    if (!roleTypeService.doesRoleQualifierMatchQualification(qualification,
+                            roleMemberBo.getAttributes())) {
+                        continue;
+                    }
+                    RoleBoLite memberRole = getRoleBoLite(roleMemberBo.getMemberId());
+                    Map<String, String> nestedRoleQualification = getNestedQualification(memberRole,
+                            role.getNamespaceCode(), role.getName(), memberRole.getNamespaceCode(),
+                            memberRole.getName(), qualification, roleMemberBo.getAttributes());
+                    nestedMatches = getPrincipalsWithRole(context, remaining, Collections.singletonList(
+                            roleMemberBo.getMemberId()), nestedRoleQualification, true);
+                } else {
+                    // no role type service, so can't convert qualification - just pass as is
+                    nestedMatches = getPrincipalsWithRole(context, remaining, Collections.singletonList(
+                            roleMemberBo.getMemberId()), qualification, true);
+                }
+                matches.addAll(nestedMatches);
+                remaining.removeAll(nestedMatches);
+            } catch (Exception ex) {
+                LOG.warn("Not able to retrieve RoleTypeService from remote system for role Id: " + roleMemberBo
+                        .getRoleId(), ex);
+            }
+        }
+
+        return matches;
+    }
+
     protected Boolean getPrincipalHasRoleFromCache(String principalId, String roleId, Map<String, String> qualification,
             boolean checkDelegations) {
         String key = buildPrincipalHasRoleCacheKey(principalId, roleId, qualification, checkDelegations);
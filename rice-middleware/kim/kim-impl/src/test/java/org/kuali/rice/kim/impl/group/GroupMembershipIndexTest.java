@@ -0,0 +1,102 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kim.impl.group;
+
+import org.joda.time.DateTime;
+import org.junit.Test;
+import org.kuali.rice.kim.api.KimConstants;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the nested membership lookups of the {@link GroupMembershipIndex}.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class GroupMembershipIndexTest {
+
+    private static final DateTime NOW = new DateTime(2026, 10, 18, 12, 0, 0, 0);
+
+    private final List<GroupMemberBo> memberships = new ArrayList<GroupMemberBo>();
+
+    private void addMembership(String groupId, String memberGroupId, DateTime from, DateTime to) {
+        GroupMemberBo groupMember = new GroupMemberBo();
+        groupMember.setGroupId(groupId);
+        groupMember.setMemberId(memberGroupId);
+        groupMember.setType(KimConstants.KimGroupMemberTypes.GROUP_MEMBER_TYPE);
+        groupMember.setActiveFromDateValue(from == null ? null : new Timestamp(from.getMillis()));
+        groupMember.setActiveToDateValue(to == null ? null : new Timestamp(to.getMillis()));
+        memberships.add(groupMember);
+    }
+
+    private GroupMembershipIndex build(String... activeGroupIds) {
+        return GroupMembershipIndex.build(Arrays.asList(activeGroupIds), memberships, NOW);
+    }
+
+    @Test
+    public void testNestedGroups() {
+        addMembership("1", "2", null, null);
+        addMembership("2", "3", null, null);
+        addMembership("3", "4", null, null);
+        GroupMembershipIndex index = build("1", "2", "3", "4");
+
+        assertEquals(new HashSet<String>(Arrays.asList("2", "3", "4")), index.getMemberGroupIds("1", NOW));
+        assertEquals(new HashSet<String>(Arrays.asList("1", "2", "3")), index.getParentGroupIds("4", NOW));
+        assertTrue(index.getParentGroupIds("1", NOW).isEmpty());
+    }
+
+    @Test
+    public void testInactiveGroupBreaksChain() {
+        addMembership("1", "2", null, null);
+        addMembership("2", "3", null, null);
+        GroupMembershipIndex index = build("1", "3");
+
+        // the inactive group is still a member, but the groups within it are not
+        assertEquals(new HashSet<String>(Arrays.asList("2")), index.getMemberGroupIds("1", NOW));
+        assertTrue(index.getParentGroupIds("3", NOW).isEmpty());
+    }
+
+    @Test
+    public void testMembershipDates() {
+        addMembership("1", "2", NOW.minusDays(10), NOW.minusDays(1));
+        addMembership("1", "3", NOW.plusDays(1), null);
+        GroupMembershipIndex index = build("1", "2", "3");
+
+        assertTrue(index.getMemberGroupIds("1", NOW).isEmpty());
+        assertEquals(new HashSet<String>(Arrays.asList("2")), index.getMemberGroupIds("1", NOW.minusDays(5)));
+        assertEquals(new HashSet<String>(Arrays.asList("3")), index.getMemberGroupIds("1", NOW.plusDays(2)));
+        // asking about the current date again must not pick up the remembered closures of other dates
+        assertTrue(index.getParentGroupIds("3", NOW).isEmpty());
+        assertEquals(new HashSet<String>(Arrays.asList("1")), index.getParentGroupIds("3", NOW.plusDays(2)));
+    }
+
+    @Test
+    public void testCircularMemberships() {
+        addMembership("1", "2", null, null);
+        addMembership("2", "1", null, null);
+        GroupMembershipIndex index = build("1", "2");
+
+        assertEquals(new HashSet<String>(Arrays.asList("1", "2")), index.getMemberGroupIds("1", NOW));
+        assertEquals(new HashSet<String>(Arrays.asList("1", "2")), index.getParentGroupIds("2", NOW));
+    }
+
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kim.impl.identity;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kuali.rice.kim.impl.identity.entity.EntityBo;
+import org.mockito.ArgumentCaptor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the bulk entity lookup of the {@link IdentityServiceDaoJpa}.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class IdentityServiceDaoJpaTest {
+
+    private EntityManager entityManager;
+    private TypedQuery<EntityBo> query;
+    private IdentityServiceDaoJpa identityServiceDao;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        entityManager = mock(EntityManager.class);
+        query = mock(TypedQuery.class);
+        when(entityManager.createNamedQuery("EntityBo.findByPrincipalIds", EntityBo.class)).thenReturn(query);
+        when(query.setParameter(eq("principalIds"), any())).thenReturn(query);
+        when(query.getResultList()).thenReturn(Collections.<EntityBo>emptyList());
+        identityServiceDao = new IdentityServiceDaoJpa();
+        identityServiceDao.setEntityManager(entityManager);
+    }
+
+    private List<String> principalIds(int count) {
+        List<String> principalIds = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            principalIds.add("p" + i);
+        }
+        return principalIds;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testEntitiesAreQueriedInPartitionsOf500() {
+        List<String> principalIds = principalIds(1001);
+
+        identityServiceDao.getEntityDefaultsByPrincipalIds(principalIds);
+
+        ArgumentCaptor<List> partitions = ArgumentCaptor.forClass(List.class);
+        verify(query, times(3)).setParameter(eq("principalIds"), partitions.capture());
+        assertEquals(500, partitions.getAllValues().get(0).size());
+        assertEquals(500, partitions.getAllValues().get(1).size());
+        assertEquals(1, partitions.getAllValues().get(2).size());
+
+        List<String> queriedPrincipalIds = new ArrayList<String>();
+        for (List partition : partitions.getAllValues()) {
+            queriedPrincipalIds.addAll(partition);
+        }
+        assertEquals("Every principal should be queried exactly once", principalIds, queriedPrincipalIds);
+    }
+
+    @Test
+    public void testSmallLookupUsesSingleQuery() {
+        identityServiceDao.getEntityDefaultsByPrincipalIds(principalIds(500));
+
+        verify(entityManager, times(1)).createNamedQuery("EntityBo.findByPrincipalIds", EntityBo.class);
+    }
+
+}
@@ -0,0 +1,207 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kim.impl.identity;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kuali.rice.kim.api.identity.IdentityService;
+import org.kuali.rice.kim.api.identity.Person;
+import org.kuali.rice.kim.api.identity.entity.EntityDefault;
+import org.kuali.rice.kim.api.identity.principal.Principal;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the bulk and request scoped person lookups of the {@link PersonServiceImpl}.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class PersonServiceImplTest {
+
+    private IdentityService identityService;
+    private PersonServiceImpl personService;
+
+    @Before
+    public void setUp() {
+        identityService = mock(IdentityService.class);
+        personService = new PersonServiceImpl() {
+            @Override
+            protected IdentityService getIdentityService() {
+                return identityService;
+            }
+
+            @Override
+            protected PersonImpl convertEntityToPerson(EntityDefault entity, Principal principal) {
+                PersonImpl person = mock(PersonImpl.class);
+                when(person.getPrincipalId()).thenReturn(principal.getPrincipalId());
+                when(person.getPrincipalName()).thenReturn(principal.getPrincipalName());
+                return person;
+            }
+        };
+    }
+
+    @After
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private void addPrincipals(String... principalIds) {
+        List<EntityDefault> entities = new ArrayList<EntityDefault>();
+        for (String principalId : principalIds) {
+            EntityDefault entity = entity(principalId);
+            entities.add(entity);
+            when(identityService.getPrincipal(principalId)).thenReturn(entity.getPrincipals().get(0));
+            when(identityService.getPrincipalByPrincipalName(principalId + "-name")).thenReturn(
+                    entity.getPrincipals().get(0));
+            when(identityService.getEntityDefault(entity.getEntityId())).thenReturn(entity);
+        }
+        when(identityService.getEntityDefaultsByPrincipalIds(anyListOf(String.class))).thenReturn(entities);
+    }
+
+    private EntityDefault entity(String principalId) {
+        Principal.Builder principal = Principal.Builder.create(principalId + "-name");
+        principal.setPrincipalId(principalId);
+        principal.setEntityId(principalId + "-entity");
+        EntityDefault.Builder entity = EntityDefault.Builder.create(principalId + "-entity");
+        entity.setPrincipals(Collections.singletonList(principal));
+        return entity.build();
+    }
+
+    private List<String> principalIdsOf(List<Person> people) {
+        List<String> principalIds = new ArrayList<String>();
+        for (Person person : people) {
+            principalIds.add(person.getPrincipalId());
+        }
+        return principalIds;
+    }
+
+    @Test
+    public void testGetPeopleKeepsOrderAndLoadsEachPrincipalOnce() {
+        addPrincipals("1", "2", "3");
+
+        List<Person> people = personService.getPeople(Arrays.asList("3", "1", "3", "2", "1"));
+
+        assertEquals(Arrays.asList("3", "1", "2"), principalIdsOf(people));
+        verify(identityService).getEntityDefaultsByPrincipalIds(Arrays.asList("3", "1", "2"));
+    }
+
+    @Test
+    public void testGetPeopleLeavesOutMissingPrincipals() {
+        addPrincipals("1", "3");
+
+        List<Person> people = personService.getPeople(Arrays.asList("1", "missing", "3"));
+
+        assertEquals(Arrays.asList("1", "3"), principalIdsOf(people));
+    }
+
+    @Test
+    public void testPeopleAreRememberedForTheRequest() {
+        RequestContextHolder.setRequestAttributes(new MapRequestAttributes());
+        addPrincipals("1", "2");
+
+        personService.getPeople(Arrays.asList("1", "2"));
+        assertEquals("1", personService.getPerson("1").getPrincipalId());
+        assertEquals("2", personService.getPersonByPrincipalName("2-name").getPrincipalId());
+        assertEquals(Arrays.asList("2", "1"), principalIdsOf(personService.getPeople(Arrays.asList("2", "1"))));
+
+        verify(identityService, times(1)).getEntityDefaultsByPrincipalIds(anyListOf(String.class));
+        verify(identityService, never()).getPrincipal(anyString());
+        verify(identityService, never()).getPrincipalByPrincipalName(anyString());
+    }
+
+    @Test
+    public void testMissingPrincipalIsNotRemembered() {
+        RequestContextHolder.setRequestAttributes(new MapRequestAttributes());
+
+        assertNull(personService.getPerson("1"));
+        // the principal is created later in the same request
+        addPrincipals("1");
+        assertNotNull(personService.getPerson("1"));
+
+        verify(identityService, times(2)).getPrincipal("1");
+    }
+
+    @Test
+    public void testPeopleAreNotRememberedOutsideOfARequest() {
+        addPrincipals("1");
+
+        personService.getPerson("1");
+        personService.getPerson("1");
+
+        verify(identityService, times(2)).getPrincipal("1");
+    }
+
+    /**
+     * The attributes of a request bound to the current thread.
+     */
+    private static final class MapRequestAttributes implements RequestAttributes {
+
+        private final Map<String, Object> attributes = new HashMap<String, Object>();
+
+        @Override
+        public Object getAttribute(String name, int scope) {
+            return attributes.get(name);
+        }
+
+        @Override
+        public void setAttribute(String name, Object value, int scope) {
+            attributes.put(name, value);
+        }
+
+        @Override
+        public void removeAttribute(String name, int scope) {
+            attributes.remove(name);
+        }
+
+        @Override
+        public String[] getAttributeNames(int scope) {
+            return attributes.keySet().toArray(new String[attributes.size()]);
+        }
+
+        @Override
+        public void registerDestructionCallback(String name, Runnable callback, int scope) {
+        }
+
+        @Override
+        public Object resolveReference(String key) {
+            return null;
+        }
+
+        @Override
+        public String getSessionId() {
+            return "test";
+        }
+
+        @Override
+        public Object getSessionMutex() {
+            return this;
+        }
+    }
+
+}
@@ -0,0 +1,134 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kim.impl.permission;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kuali.rice.kim.api.permission.Permission;
+import org.kuali.rice.kim.api.permission.PermissionService;
+import org.kuali.rice.kim.api.role.RoleService;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyMapOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests that the effective permission index of the {@link PermissionServiceImpl} is flushed along with the permission
+ * caches, going through the same annotation driven cache eviction as the deployed service.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class EffectivePermissionIndexEvictionTest {
+
+    private static final String PRINCIPAL_ID = "fran";
+    private static final String NAMESPACE_CODE = "KR-SYS";
+    private static final String PERMISSION_NAME = "Use Screen";
+
+    private AnnotationConfigApplicationContext context;
+    private PermissionService permissionService;
+    private RoleService roleService;
+
+    @Before
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(CachingConfiguration.class);
+        permissionService = context.getBean(PermissionService.class);
+        roleService = context.getBean(RoleService.class);
+    }
+
+    @After
+    public void tearDown() {
+        context.close();
+    }
+
+    @Test
+    public void testUpdatePermissionEvictsIndex() {
+        Map<String, String> qualification = Collections.emptyMap();
+        when(roleService.principalHasRole(eq(PRINCIPAL_ID), anyListOf(String.class), anyMapOf(String.class,
+                String.class))).thenReturn(true, false);
+
+        assertTrue(permissionService.isAuthorized(PRINCIPAL_ID, NAMESPACE_CODE, PERMISSION_NAME, qualification));
+        assertTrue("second check should be answered by the index",
+                permissionService.isAuthorized(PRINCIPAL_ID, NAMESPACE_CODE, PERMISSION_NAME, qualification));
+        verify(roleService, times(1)).principalHasRole(eq(PRINCIPAL_ID), anyListOf(String.class),
+                anyMapOf(String.class, String.class));
+
+        permissionService.updatePermission(Permission.Builder.create(NAMESPACE_CODE, PERMISSION_NAME).build());
+
+        assertFalse("the index should have been evicted by the update",
+                permissionService.isAuthorized(PRINCIPAL_ID, NAMESPACE_CODE, PERMISSION_NAME, qualification));
+        verify(roleService, times(2)).principalHasRole(eq(PRINCIPAL_ID), anyListOf(String.class),
+                anyMapOf(String.class, String.class));
+    }
+
+    @Configuration
+    @EnableCaching
+    static class CachingConfiguration {
+
+        @Bean
+        public CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager();
+        }
+
+        @Bean
+        public RoleService roleService() {
+            return mock(RoleService.class);
+        }
+
+        @Bean
+        public PermissionService permissionService() {
+            PermissionServiceImpl permissionService = new StubbedPermissionServiceImpl();
+            permissionService.setRoleService(roleService());
+            permissionService.setCacheManager(cacheManager());
+            permissionService.setEffectivePermissionIndexEnabled(true);
+            return permissionService;
+        }
+    }
+
+    /**
+     * Leaves out the database, only the index and the cache annotations of the service are under test.
+     */
+    static class StubbedPermissionServiceImpl extends PermissionServiceImpl {
+
+        @Override
+        public List<String> getRoleIdsForPermission(String namespaceCode, String permissionName) {
+            return Collections.singletonList("100");
+        }
+
+        @Override
+        protected boolean hasDynamicRoleMembership(List<String> roleIds) {
+            return false;
+        }
+
+        @Override
+        public Permission updatePermission(Permission permission) {
+            return permission;
+        }
+    }
+
+}
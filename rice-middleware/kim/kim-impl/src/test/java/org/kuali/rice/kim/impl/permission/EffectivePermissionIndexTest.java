@@ -0,0 +1,73 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kim.impl.permission;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the {@link EffectivePermissionIndex}.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class EffectivePermissionIndexTest {
+
+    @Test
+    public void testKeysIgnoreQualificationOrder() {
+        Map<String, String> qualification = new LinkedHashMap<String, String>();
+        qualification.put("documentTypeName", "TravelRequest");
+        qualification.put("routeNodeName", "Initiated");
+        Map<String, String> reversed = new LinkedHashMap<String, String>();
+        reversed.put("routeNodeName", "Initiated");
+        reversed.put("documentTypeName", "TravelRequest");
+
+        assertEquals(EffectivePermissionIndex.permissionKey("KR-SYS", "Initiate Document", qualification),
+                EffectivePermissionIndex.permissionKey("KR-SYS", "Initiate Document", reversed));
+        assertFalse(EffectivePermissionIndex.permissionKey("KR-SYS", "Initiate Document", qualification).equals(
+                EffectivePermissionIndex.permissionKey("KR-SYS", "Initiate Document",
+                        Collections.<String, String>emptyMap())));
+        assertFalse(EffectivePermissionIndex.permissionKey("KR-SYS", "Initiate Document", qualification).equals(
+                EffectivePermissionIndex.templateKey("KR-SYS", "Initiate Document", null, qualification)));
+    }
+
+    @Test
+    public void testDropsLeastRecentlyUsedBeyondMaxEntries() {
+        EffectivePermissionIndex index = new EffectivePermissionIndex("admin", 2);
+        Map<String, String> qualification = new HashMap<String, String>();
+        String first = EffectivePermissionIndex.permissionKey("KR-NS", "Use Screen", qualification);
+        String second = EffectivePermissionIndex.permissionKey("KR-NS", "Look Up Records", qualification);
+        String third = EffectivePermissionIndex.permissionKey("KR-NS", "Inquire Into Records", qualification);
+
+        assertNull(index.isAuthorized(first));
+        index.put(first, true);
+        index.put(second, false);
+        // reading the first result makes the second one the least recently used
+        assertEquals(Boolean.TRUE, index.isAuthorized(first));
+        index.put(third, true);
+
+        assertEquals(Boolean.TRUE, index.isAuthorized(first));
+        assertNull(index.isAuthorized(second));
+        assertEquals(Boolean.TRUE, index.isAuthorized(third));
+        assertEquals(2, index.size());
+    }
+
+}
@@ -73,6 +73,14 @@ public interface LdapPrincipalDao {
 
 	EntityDefault getEntityDefaultByPrincipalName(String principalName);
 
+    /**
+     * Fetches the entity info for each of the given principal ids, looking up many ids per search.
+     *
+     * @param principalIds the principal ids to look the entities up for
+     * @return the entities found, keyed by principal id
+     */
+    Map<String, EntityDefault> getEntityDefaultsByPrincipalIds(List<String> principalIds);
+
 	List<String> lookupEntityIds(Map<String,String> searchCriteria);
 
 	EntityPrivacyPreferences getEntityPrivacyPreferences(String entityId);
@@ -0,0 +1,135 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kim.dao.impl;
+
+import org.kuali.rice.kim.api.identity.entity.EntityDefault;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A local, time limited cache of the {@link EntityDefault} records read from LDAP, keyed by the LDAP id (which serves
+ * as both the entity and the principal id).
+ *
+ * <p>Entries expire a fixed time after they were loaded.  Entries which have been read since they were loaded are
+ * reported by {@link #getIdsToRefresh(long)} once they come close to expiring, so that they can be reloaded in the
+ * background before anyone has to wait on LDAP for them.  Entries nobody reads are left to expire.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class LdapEntityDefaultCache {
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+    private final long timeToLive;
+    private final int maxSize;
+
+    /**
+     * @param timeToLive the number of milliseconds an entry is served for after it was loaded
+     * @param maxSize the maximum number of entries held
+     */
+    public LdapEntityDefaultCache(long timeToLive, int maxSize) {
+        this.timeToLive = timeToLive;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return the cached entity for the given id, or null if there is none or it has expired
+     */
+    public EntityDefault get(String id) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            entries.remove(id, entry);
+            return null;
+        }
+        entry.read = true;
+        return entry.entity;
+    }
+
+    public void put(String id, EntityDefault entity) {
+        if (id == null || entity == null) {
+            return;
+        }
+        if (entries.size() >= maxSize && !entries.containsKey(id)) {
+            removeExpired();
+            if (entries.size() >= maxSize) {
+                return;
+            }
+        }
+        entries.put(id, new Entry(entity, System.currentTimeMillis() + timeToLive));
+    }
+
+    /**
+     * Finds the entries which have been read since they were loaded and expire within the given number of
+     * milliseconds.  Expired entries are dropped along the way.
+     *
+     * @return the ids of the entries that should be reloaded
+     */
+    public List<String> getIdsToRefresh(long window) {
+        long now = System.currentTimeMillis();
+        List<String> ids = new ArrayList<String>();
+        for (Map.Entry<String, Entry> mapEntry : entries.entrySet()) {
+            Entry entry = mapEntry.getValue();
+            if (entry.isExpired(now)) {
+                entries.remove(mapEntry.getKey(), entry);
+            } else if (entry.read && entry.expiresAt - now <= window) {
+                ids.add(mapEntry.getKey());
+            }
+        }
+        return ids;
+    }
+
+    public void removeExpired() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, Entry> mapEntry : entries.entrySet()) {
+            if (mapEntry.getValue().isExpired(now)) {
+                entries.remove(mapEntry.getKey(), mapEntry.getValue());
+            }
+        }
+    }
+
+    public void remove(String id) {
+        entries.remove(id);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static final class Entry {
+        final EntityDefault entity;
+        final long expiresAt;
+        volatile boolean read;
+
+        Entry(EntityDefault entity, long expiresAt) {
+            this.entity = entity;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
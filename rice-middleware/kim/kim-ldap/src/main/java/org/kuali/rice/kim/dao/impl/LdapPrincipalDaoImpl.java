@@ -25,11 +25,17 @@ import org.kuali.rice.kim.api.identity.privacy.EntityPrivacyPreferences;
 import org.kuali.rice.kim.dao.LdapPrincipalDao;
 import org.kuali.rice.kim.impl.identity.PersonImpl;
 import org.kuali.rice.kim.util.Constants;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.ldap.SizeLimitExceededException;
+import org.springframework.ldap.control.PagedResultsDirContextProcessor;
 import org.springframework.ldap.core.ContextMapper;
 import org.springframework.ldap.core.ContextMapperCallbackHandler;
 import org.springframework.ldap.core.DistinguishedName;
+import org.springframework.ldap.core.LdapOperations;
 import org.springframework.ldap.core.LdapTemplate;
+import org.springframework.ldap.core.support.LdapOperationsCallback;
+import org.springframework.ldap.core.support.SingleContextSource;
 import org.springframework.ldap.filter.AndFilter;
 import org.springframework.ldap.filter.LikeFilter;
 import org.springframework.ldap.filter.NotFilter;
@@ -38,9 +44,16 @@ import org.springframework.ldap.filter.OrFilter;
 import javax.naming.directory.SearchControls;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -53,16 +66,81 @@ import static org.kuali.rice.kns.lookup.LookupUtils.getSearchResultsLimit;
  *
  * @author Kuali Rice Team (rice.collab@kuali.org)
  */
-public class LdapPrincipalDaoImpl implements LdapPrincipalDao { 
+public class LdapPrincipalDaoImpl implements LdapPrincipalDao, InitializingBean, DisposableBean { 
+    private static final int DEFAULT_BULK_LOOKUP_BATCH_SIZE = 100;
+    private static final int DEFAULT_ENTITY_DEFAULT_CACHE_SIZE = 5000;
+
     private Constants kimConstants;
     private LdapTemplate template;
     private ParameterService parameterService;
 
     
     private Map<String, ContextMapper> contextMappers;    
+
+    private int pageSize;
+    private int bulkLookupBatchSize = DEFAULT_BULK_LOOKUP_BATCH_SIZE;
+    private int entityDefaultCacheTimeToLive;
+    private int entityDefaultCacheSize = DEFAULT_ENTITY_DEFAULT_CACHE_SIZE;
+
+    private LdapEntityDefaultCache entityDefaultCache;
+    private ScheduledExecutorService entityDefaultRefresher;
     
     public LdapPrincipalDaoImpl() {
     }
+
+    /**
+     * Sets up the local {@link EntityDefault} cache when a time to live has been configured.  Entries which are read
+     * are reloaded in the background, in bulk, during the second half of their life.
+     */
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        if (entityDefaultCacheTimeToLive <= 0) {
+            return;
+        }
+        final long timeToLive = TimeUnit.SECONDS.toMillis(entityDefaultCacheTimeToLive);
+        entityDefaultCache = new LdapEntityDefaultCache(timeToLive, entityDefaultCacheSize);
+        entityDefaultRefresher = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "LdapEntityDefaultRefresher");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        final long refreshInterval = Math.max(timeToLive / 2, 1000L);
+        entityDefaultRefresher.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                refreshEntityDefaults(refreshInterval);
+            }
+        }, refreshInterval, refreshInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (entityDefaultRefresher != null) {
+            entityDefaultRefresher.shutdownNow();
+            entityDefaultRefresher = null;
+        }
+        if (entityDefaultCache != null) {
+            entityDefaultCache.clear();
+        }
+    }
+
+    /**
+     * Reloads the cached entities which have been read and expire within the given number of milliseconds.
+     */
+    protected void refreshEntityDefaults(long window) {
+        try {
+            List<String> ids = entityDefaultCache.getIdsToRefresh(window);
+            if (!ids.isEmpty()) {
+                debug("Refreshing ", ids.size(), " cached LDAP entities");
+                loadEntityDefaults(ids);
+            }
+        } catch (RuntimeException e) {
+            warn("Failed to refresh cached LDAP entities: ", e);
+        }
+    }
                             
     /**
      * In EDS, the principalId, principalName, and entityId will all be the same.
@@ -136,9 +214,13 @@ public class LdapPrincipalDaoImpl implements LdapPrincipalDao {
         ContextMapperCallbackHandler callbackHandler = new CustomContextMapperCallbackHandler(customMapper);
         
         try {
-            getLdapTemplate().search(DistinguishedName.EMPTY_PATH, 
-                                     filter.encode(), 
-                                     getSearchControls(), callbackHandler);
+            if (getPageSize() > 0) {
+                searchInPages(filter.encode(), callbackHandler);
+            } else {
+                getLdapTemplate().search(DistinguishedName.EMPTY_PATH, 
+                                         filter.encode(), 
+                                         getSearchControls(), callbackHandler);
+            }
         }
         catch (SizeLimitExceededException e) {
             // Ignore this. We want to limit our results.
@@ -147,6 +229,29 @@ public class LdapPrincipalDaoImpl implements LdapPrincipalDao {
         return callbackHandler.getList();
     }
 
+    /**
+     * Runs the search using the paged results control, so the directory hands the matches back a page at a time
+     * instead of in one response.  Each entry is mapped as it arrives.  All pages are read over the same connection,
+     * as the control requires, and reading stops once the search results limit has been reached.
+     */
+    protected void searchInPages(final String filter, final ContextMapperCallbackHandler callbackHandler) {
+        final SearchControls searchControls = getSearchControls();
+        final long limit = searchControls.getCountLimit();
+        final PagedResultsDirContextProcessor processor = new PagedResultsDirContextProcessor(getPageSize());
+
+        SingleContextSource.doWithSingleContext(getLdapTemplate().getContextSource(),
+                new LdapOperationsCallback<Object>() {
+            @Override
+            public Object doWithLdapOperations(LdapOperations operations) {
+                do {
+                    operations.search(DistinguishedName.EMPTY_PATH, filter, searchControls, callbackHandler,
+                            processor);
+                } while (processor.hasMore() && (limit <= 0 || callbackHandler.getList().size() < limit));
+                return null;
+            }
+        });
+    }
+
     protected SearchControls getSearchControls() {
         SearchControls retval = new SearchControls();
         retval.setCountLimit(getSearchResultsLimit(PersonImpl.class).longValue());
@@ -198,6 +303,12 @@ public class LdapPrincipalDaoImpl implements LdapPrincipalDao {
 	    if (entityId == null) {
 	        return null;
 	    }
+        if (entityDefaultCache != null) {
+            EntityDefault cached = entityDefaultCache.get(entityId);
+            if (cached != null) {
+                return cached;
+            }
+        }
         Map<String, Object> criteria = new HashMap();
         criteria.put(getKimConstants().getKimLdapIdProperty(), entityId);
 
@@ -206,12 +317,70 @@ public class LdapPrincipalDaoImpl implements LdapPrincipalDao {
         debug("Got results from info lookup ", results, " with size ", results.size());
 
         if (results.size() > 0) {
+            cacheEntityDefault(results.get(0));
             return results.get(0);
         }
         
         return null;
     }
 
+    /**
+     * entityid and principalId are treated as the same.  Entities which are not cached locally are looked up
+     * with one search per batch of ids.
+     */
+    public Map<String, EntityDefault> getEntityDefaultsByPrincipalIds(List<String> principalIds) {
+        Map<String, EntityDefault> retval = new HashMap<String, EntityDefault>();
+        Set<String> uncachedIds = new LinkedHashSet<String>();
+        for (String principalId : principalIds) {
+            if (StringUtils.isBlank(principalId)) {
+                continue;
+            }
+            EntityDefault cached = entityDefaultCache == null ? null : entityDefaultCache.get(principalId);
+            if (cached != null) {
+                retval.put(principalId, cached);
+            } else {
+                uncachedIds.add(principalId);
+            }
+        }
+        if (!uncachedIds.isEmpty()) {
+            retval.putAll(loadEntityDefaults(uncachedIds));
+        }
+        return retval;
+    }
+
+    /**
+     * Searches for the entities with the given ids, OR-ing together as many ids per search as the batch size (and
+     * the search results limit) allows.
+     */
+    protected Map<String, EntityDefault> loadEntityDefaults(Collection<String> ids) {
+        Map<String, EntityDefault> retval = new HashMap<String, EntityDefault>();
+        List<String> idList = new ArrayList<String>(ids);
+        int batchSize = Math.max(1, getBulkLookupBatchSize());
+        long limit = getSearchControls().getCountLimit();
+        if (limit > 0 && limit < batchSize) {
+            batchSize = (int) limit;
+        }
+        for (int i = 0; i < idList.size(); i += batchSize) {
+            List<String> batch = new ArrayList<String>(idList.subList(i, Math.min(i + batchSize, idList.size())));
+            Map<String, Object> criteria = new HashMap<String, Object>();
+            criteria.put(getKimConstants().getKimLdapIdProperty(), batch);
+            for (EntityDefault entity : search(EntityDefault.class, criteria)) {
+                // ids are matched with like filters, so only keep what was actually asked for
+                if (entity.getEntityId() != null && batch.contains(entity.getEntityId())) {
+                    retval.put(entity.getEntityId(), entity);
+                    cacheEntityDefault(entity);
+                }
+            }
+        }
+        return retval;
+    }
+
+    protected void cacheEntityDefault(EntityDefault entity) {
+        if (entityDefaultCache != null && entity != null) {
+            entityDefaultCache.put(entity.getEntityId(), entity);
+        }
+    }
+
     /**
      * entityid and principalId are treated as the same.
      * 
@@ -422,6 +591,49 @@ public class LdapPrincipalDaoImpl implements LdapPrincipalDao {
         this.contextMappers = contextMappers;
     }
 
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * @param pageSize the number of entries to request per page with the paged results control, or 0 to search
+     * without it
+     */
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public int getBulkLookupBatchSize() {
+        return bulkLookupBatchSize;
+    }
+
+    /**
+     * @param bulkLookupBatchSize the maximum number of ids OR-ed together in one search by bulk lookups
+     */
+    public void setBulkLookupBatchSize(int bulkLookupBatchSize) {
+        this.bulkLookupBatchSize = bulkLookupBatchSize;
+    }
+
+    public int getEntityDefaultCacheTimeToLive() {
+        return entityDefaultCacheTimeToLive;
+    }
+
+    /**
+     * @param entityDefaultCacheTimeToLive the number of seconds entities are cached locally for, or 0 to not cache
+     * them
+     */
+    public void setEntityDefaultCacheTimeToLive(int entityDefaultCacheTimeToLive) {
+        this.entityDefaultCacheTimeToLive = entityDefaultCacheTimeToLive;
+    }
+
+    public int getEntityDefaultCacheSize() {
+        return entityDefaultCacheSize;
+    }
+
+    public void setEntityDefaultCacheSize(int entityDefaultCacheSize) {
+        this.entityDefaultCacheSize = entityDefaultCacheSize;
+    }
+
     /**
      * Overrides the existing {@link ContextMapperCallbackHandler} because we want to 
      * intercede when there is invalid results from EDS.
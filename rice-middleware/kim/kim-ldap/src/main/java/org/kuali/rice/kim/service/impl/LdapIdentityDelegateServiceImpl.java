@@ -18,6 +18,7 @@ package org.kuali.rice.kim.service.impl;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -139,6 +140,37 @@ public class LdapIdentityDelegateServiceImpl extends IdentityServiceImpl {
             return super.getEntityDefaultByPrincipalName(principalName);
         }
 	}
+
+    /**
+     * Overridden to look each of the principals up in the directory, falling back to the database for those which
+     * are not found there.
+     */
+    @Override
+    public List<EntityDefault> getEntityDefaultsByPrincipalIds(List<String> principalIds) {
+        if (principalIds == null) {
+            throw new RiceIllegalArgumentException("principalIds is null");
+        }
+
+        Map<String, EntityDefault> entities = new LinkedHashMap<String, EntityDefault>();
+        List<String> missingPrincipalIds = new ArrayList<String>();
+        Map<String, EntityDefault> ldapEntities = getPrincipalDao().getEntityDefaultsByPrincipalIds(principalIds);
+        for (String principalId : principalIds) {
+            EntityDefault entity = ldapEntities.get(principalId);
+            if (entity != null) {
+                entities.put(entity.getEntityId(), entity);
+            } else {
+                missingPrincipalIds.add(principalId);
+            }
+        }
+        if (!missingPrincipalIds.isEmpty()) {
+            for (EntityDefault entity : super.getEntityDefaultsByPrincipalIds(missingPrincipalIds)) {
+                if (!entities.containsKey(entity.getEntityId())) {
+                    entities.put(entity.getEntityId(), entity);
+                }
+            }
+        }
+        return new ArrayList<EntityDefault>(entities.values());
+    }
     
 	
     private static <U extends CriteriaValue<?>> Object getVal(U toConv) {
@@ -0,0 +1,104 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.krms.api.engine;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of a batch of executions, with timing totals for the whole batch.
+ *
+ * <p>The results of the individual executions are only held here when no {@link EngineResultsHandler} was given
+ * for the batch.  Otherwise they have already been passed to the handler.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ * @since 2.6
+ */
+public final class BatchEngineResults {
+
+    private final List<EngineResults> results;
+    private final int executionCount;
+    private final int failureCount;
+    private final long elapsedTime;
+    private final long totalExecutionTime;
+    private final long minExecutionTime;
+    private final long maxExecutionTime;
+
+    /**
+     * @param results the results of each execution in batch order (with null for failed executions), or an empty
+     * list if they were handed to an {@link EngineResultsHandler}
+     * @param executionCount the number of fact sets executed
+     * @param failureCount the number of executions which failed
+     * @param elapsedTime the wall clock milliseconds the batch took
+     * @param totalExecutionTime the milliseconds spent in the individual executions added together
+     * @param minExecutionTime the milliseconds taken by the fastest execution
+     * @param maxExecutionTime the milliseconds taken by the slowest execution
+     */
+    public BatchEngineResults(List<EngineResults> results, int executionCount, int failureCount, long elapsedTime,
+            long totalExecutionTime, long minExecutionTime, long maxExecutionTime) {
+        this.results = results == null ? Collections.<EngineResults>emptyList() :
+                Collections.unmodifiableList(results);
+        this.executionCount = executionCount;
+        this.failureCount = failureCount;
+        this.elapsedTime = elapsedTime;
+        this.totalExecutionTime = totalExecutionTime;
+        this.minExecutionTime = minExecutionTime;
+        this.maxExecutionTime = maxExecutionTime;
+    }
+
+    public List<EngineResults> getResults() {
+        return results;
+    }
+
+    public int getExecutionCount() {
+        return executionCount;
+    }
+
+    public int getFailureCount() {
+        return failureCount;
+    }
+
+    public long getElapsedTime() {
+        return elapsedTime;
+    }
+
+    public long getTotalExecutionTime() {
+        return totalExecutionTime;
+    }
+
+    public long getMinExecutionTime() {
+        return minExecutionTime;
+    }
+
+    public long getMaxExecutionTime() {
+        return maxExecutionTime;
+    }
+
+    /**
+     * @return the average milliseconds an execution took, or 0 if nothing was executed
+     */
+    public long getAverageExecutionTime() {
+        return executionCount == 0 ? 0 : totalExecutionTime / executionCount;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchEngineResults{executionCount=" + executionCount + ", failureCount=" + failureCount
+                + ", elapsedTime=" + elapsedTime + ", totalExecutionTime=" + totalExecutionTime
+                + ", minExecutionTime=" + minExecutionTime + ", maxExecutionTime=" + maxExecutionTime + '}';
+    }
+
+}
@@ -15,6 +15,8 @@
  */
 package org.kuali.rice.krms.api.engine;
 
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.Map;
 
 /**
@@ -47,4 +49,31 @@ public interface Engine {
      */
     EngineResults execute(SelectionCriteria selectionCriteria, Map<String, Object> facts, ExecutionOptions executionOptions);
 
+    /**
+     * Executes the rules engine once for each of the given fact sets, using the same {@link SelectionCriteria}.
+     *
+     * <p>The context is selected once for the whole batch, and the fact sets are executed in parallel on a bounded
+     * pool of threads.  They are read from the iterator as the pool has room for them, so the batch never has to be
+     * held in memory at once.  The batch shares one effective execution time, taken from the selection criteria or
+     * otherwise the time the batch started.</p>
+     *
+     * <p>The invariant facts are added to every fact set.  The invariant terms are resolved once, up front, from the
+     * invariant facts alone, and their values are shared by all executions as well.  An invariant term which can't be
+     * resolved that way is resolved by each execution as usual.</p>
+     *
+     * @param selectionCriteria informs the engine of the {@link SelectionCriteria} to use for selection of contexts and agendas
+     * @param invariantFacts the facts shared by every execution in the batch, may be null
+     * @param invariantTerms terms whose values are the same for every execution in the batch, may be null
+     * @param factSets the facts of each execution
+     * @param executionOptions defines various {@link ExecutionOptions} that instruct the rules engine on how to perform it's execution
+     * @param resultsHandler receives the results of each execution as it finishes.  If null, the results are returned
+     * in the {@link BatchEngineResults} instead.
+     *
+     * @return the timing and (if no handler was given) the results of the batch, or null if no context was found
+     * @since 2.6
+     */
+    BatchEngineResults executeBatch(SelectionCriteria selectionCriteria, Facts invariantFacts,
+            Collection<Term> invariantTerms, Iterator<Facts> factSets, ExecutionOptions executionOptions,
+            EngineResultsHandler resultsHandler);
+
 }
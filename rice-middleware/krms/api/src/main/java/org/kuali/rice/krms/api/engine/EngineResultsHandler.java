@@ -0,0 +1,49 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.krms.api.engine;
+
+/**
+ * Receives the outcome of each execution in a batch started with
+ * {@link Engine#executeBatch(SelectionCriteria, Facts, java.util.Collection, java.util.Iterator, ExecutionOptions,
+ * EngineResultsHandler)} as soon as it is known.
+ *
+ * <p>Executions in a batch run in parallel and finish in no particular order, so implementations must be thread
+ * safe.  The index passed along identifies the position of the fact set in the batch.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ * @since 2.6
+ */
+public interface EngineResultsHandler {
+
+    /**
+     * Called once an execution has finished.
+     *
+     * @param index the position of the fact set in the batch, starting at 0
+     * @param facts the facts of the fact set, not including the facts shared by the batch
+     * @param engineResults the results of the execution
+     */
+    void handleResults(int index, Facts facts, EngineResults engineResults);
+
+    /**
+     * Called when an execution failed.  The other executions of the batch are not affected.
+     *
+     * @param index the position of the fact set in the batch, starting at 0
+     * @param facts the facts of the fact set, not including the facts shared by the batch
+     * @param exception the reason the execution failed
+     */
+    void handleFailure(int index, Facts facts, RuntimeException exception);
+
+}
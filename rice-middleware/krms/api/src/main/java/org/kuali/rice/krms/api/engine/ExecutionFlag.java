@@ -53,7 +53,33 @@ public enum ExecutionFlag {
 	 * set to false, the engine may skip (aka short circuit) propositions that 
 	 * do not influence the overall outcome of the proposition tree.  
 	 */
-	EVALUATE_ALL_PROPOSITIONS(false);
+	EVALUATE_ALL_PROPOSITIONS(false),
+
+	/**
+	 * Instructs the engine to record evaluation counts and times of the agendas,
+	 * rules, propositions and term resolvers it executes with the engine's
+	 * execution profiler.  Unlike {@link #LOG_EXECUTION} no result events are
+	 * created, so the overhead is low enough to leave on for a while in a
+	 * running system.  Default value is false.
+	 *
+	 * @since 2.6
+	 */
+	PROFILE_EXECUTION(false),
+
+	/**
+	 * Allows the engine to evaluate the propositions of a compound proposition
+	 * in a different order than they are defined in, putting the ones that
+	 * are cheap and likely to decide the outcome first, as observed over
+	 * earlier executions.  The outcome, including any exception, is the same
+	 * as in the defined order: a proposition which decides the outcome only
+	 * ends the evaluation once the propositions defined before it have been
+	 * evaluated as well.  Only propositions without side effects are
+	 * reordered.  Has no effect when {@link #EVALUATE_ALL_PROPOSITIONS} is
+	 * set.  Default value is false.
+	 *
+	 * @since 2.6
+	 */
+	REORDER_PROPOSITIONS(false);
 	
 	private final boolean defaultValue;
 
@@ -46,6 +46,8 @@ public interface ResultEvent {
      */
     public static final String TIMING_EVENT = "Timing Event";
 
+    public static final String PROPOSITIONS_REORDERED = "Propositions Reordered";
+
     /**
      * Returns the {@link ExecutionEnvironment} of the ResultEvent.
      * @return {@link ExecutionEnvironment} of the ResultEvent.
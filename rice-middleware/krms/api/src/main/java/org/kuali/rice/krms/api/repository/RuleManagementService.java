@@ -226,7 +226,7 @@ public interface RuleManagementService extends TranslateBusinessMethods {
      */
     @WebMethod(operationName = "createAgenda")
     @WebResult(name = "agenda")
-    @CacheEvict(value={AgendaTreeDefinition.Cache.NAME, AgendaDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME, ContextDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={AgendaTreeDefinition.Cache.NAME, AgendaDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME, ContextDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     public AgendaDefinition createAgenda(@WebParam(name = "AgendaDefinition") AgendaDefinition agendaDefinition) throws RiceIllegalArgumentException;
 
     /**
@@ -239,7 +239,7 @@ public interface RuleManagementService extends TranslateBusinessMethods {
      */
     @WebMethod(operationName = "findCreateAgenda")
     @WebResult(name = "agenda")
-    @CacheEvict(value={AgendaTreeDefinition.Cache.NAME, AgendaDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME, ContextDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={AgendaTreeDefinition.Cache.NAME, AgendaDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME, ContextDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     public AgendaDefinition findCreateAgenda(@WebParam(name = "AgendaDefinition") AgendaDefinition agendaDefinition) throws RiceIllegalArgumentException;
 
     /**
@@ -325,7 +325,7 @@ public interface RuleManagementService extends TranslateBusinessMethods {
      *                                      null or invalid
      */
     @WebMethod(operationName = "updateAgenda")
-    @CacheEvict(value={AgendaTreeDefinition.Cache.NAME, AgendaDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME, ContextDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={AgendaTreeDefinition.Cache.NAME, AgendaDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME, ContextDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     public void updateAgenda(@WebParam(name = "agendaDefinition") AgendaDefinition agendaDefinition) throws RiceIllegalArgumentException;
 
     /**
@@ -335,7 +335,7 @@ public interface RuleManagementService extends TranslateBusinessMethods {
      * @throws RiceIllegalArgumentException if the given id is null or invalid
      */
     @WebMethod(operationName = "deleteAgenda")
-    @CacheEvict(value={AgendaTreeDefinition.Cache.NAME, AgendaDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME, ContextDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={AgendaTreeDefinition.Cache.NAME, AgendaDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME, ContextDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     public void deleteAgenda(@WebParam(name = "id") String id) throws RiceIllegalArgumentException;
 
     ////
@@ -351,7 +351,7 @@ public interface RuleManagementService extends TranslateBusinessMethods {
      */
     @WebMethod(operationName = "createAgendaItem")
     @WebResult(name = "agendaItem")
-    @CacheEvict(value={AgendaTreeDefinition.Cache.NAME, AgendaDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME, ContextDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={AgendaTreeDefinition.Cache.NAME, AgendaDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME, ContextDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     public AgendaItemDefinition createAgendaItem(@WebParam(name = "AgendaItemDefinition") AgendaItemDefinition agendaItemDefinition) throws RiceIllegalArgumentException;
 
     /**
@@ -421,7 +421,7 @@ public interface RuleManagementService extends TranslateBusinessMethods {
      *                                      is null or invalid
      */
     @WebMethod(operationName = "updateAgendaItem")
-    @CacheEvict(value={AgendaTreeDefinition.Cache.NAME, AgendaDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME, ContextDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={AgendaTreeDefinition.Cache.NAME, AgendaDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME, ContextDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     public void updateAgendaItem(@WebParam(name = "agendaItemDefinition") AgendaItemDefinition agendaItemDefinition) throws RiceIllegalArgumentException;
 
     /**
@@ -431,7 +431,7 @@ public interface RuleManagementService extends TranslateBusinessMethods {
      * @throws RiceIllegalArgumentException if the given id is null or invalid
      */
     @WebMethod(operationName = "deleteAgendaItem")
-    @CacheEvict(value={AgendaTreeDefinition.Cache.NAME, AgendaDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME, ContextDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={AgendaTreeDefinition.Cache.NAME, AgendaDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME, ContextDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     public void deleteAgendaItem(@WebParam(name = "id") String id) throws RiceIllegalArgumentException;
 
     ////
@@ -447,7 +447,7 @@ public interface RuleManagementService extends TranslateBusinessMethods {
      */
     @WebMethod(operationName = "createRule")
     @WebResult(name = "rule")
-    @CacheEvict(value={RuleDefinition.Cache.NAME, PropositionDefinition.Cache.NAME, ActionDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={RuleDefinition.Cache.NAME, PropositionDefinition.Cache.NAME, ActionDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     public RuleDefinition createRule(@WebParam(name = "ruleDefinition") RuleDefinition ruleDefinition) throws RiceIllegalArgumentException;
 
     /**
@@ -518,7 +518,7 @@ public interface RuleManagementService extends TranslateBusinessMethods {
      *                                      or invalid
      */
     @WebMethod(operationName = "updateRule")
-    @CacheEvict(value={RuleDefinition.Cache.NAME, PropositionDefinition.Cache.NAME, ActionDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={RuleDefinition.Cache.NAME, PropositionDefinition.Cache.NAME, ActionDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     public void updateRule(@WebParam(name = "ruleDefinition") RuleDefinition ruleDefinition) throws RiceIllegalArgumentException;
 
     /**
@@ -528,7 +528,7 @@ public interface RuleManagementService extends TranslateBusinessMethods {
      * @throws RiceIllegalArgumentException if the given id is null or invalid
      */
     @WebMethod(operationName = "deleteRule")
-    @CacheEvict(value={RuleDefinition.Cache.NAME, PropositionDefinition.Cache.NAME, ActionDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={RuleDefinition.Cache.NAME, PropositionDefinition.Cache.NAME, ActionDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     public void deleteRule(@WebParam(name = "id") String id) throws RiceIllegalArgumentException;
 
     ////
@@ -544,7 +544,7 @@ public interface RuleManagementService extends TranslateBusinessMethods {
      */
     @WebMethod(operationName = "createAction")
     @WebResult(name = "action")
-    @CacheEvict(value={ActionDefinition.Cache.NAME, RuleDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={ActionDefinition.Cache.NAME, RuleDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     public ActionDefinition createAction(@WebParam(name = "actionDefinition") ActionDefinition actionDefinition) throws RiceIllegalArgumentException;
 
     /**
@@ -595,7 +595,7 @@ public interface RuleManagementService extends TranslateBusinessMethods {
      * or invalid
      */
     @WebMethod(operationName = "updateAction")
-    @CacheEvict(value={ActionDefinition.Cache.NAME, RuleDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={ActionDefinition.Cache.NAME, RuleDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     public void updateAction(@WebParam(name = "actionDefinition") ActionDefinition actionDefinition) throws RiceIllegalArgumentException;
 
     /**
@@ -605,7 +605,7 @@ public interface RuleManagementService extends TranslateBusinessMethods {
      * @throws RiceIllegalArgumentException if the given id is null or invalid
      */
     @WebMethod(operationName = "deleteAction")
-    @CacheEvict(value={ActionDefinition.Cache.NAME, RuleDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={ActionDefinition.Cache.NAME, RuleDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     public void deleteAction(@WebParam(name = "id") String id) throws RiceIllegalArgumentException;
 
 
@@ -622,7 +622,7 @@ public interface RuleManagementService extends TranslateBusinessMethods {
      */
     @WebMethod(operationName = "createProposition")
     @WebResult(name = "proposition")
-    @CacheEvict(value={PropositionDefinition.Cache.NAME, RuleDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={PropositionDefinition.Cache.NAME, RuleDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     public PropositionDefinition createProposition(@WebParam(name = "propositionDefinition") PropositionDefinition propositionDefinition) throws RiceIllegalArgumentException;
 
     /**
@@ -675,7 +675,7 @@ public interface RuleManagementService extends TranslateBusinessMethods {
      *                                      is null or invalid
      */
     @WebMethod(operationName = "updateProposition")
-    @CacheEvict(value={PropositionDefinition.Cache.NAME, RuleDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={PropositionDefinition.Cache.NAME, RuleDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     public void updateProposition(
             @WebParam(name = "propositionDefinition") PropositionDefinition propositionDefinition) throws RiceIllegalArgumentException;
 
@@ -686,7 +686,7 @@ public interface RuleManagementService extends TranslateBusinessMethods {
      * @throws RiceIllegalArgumentException if the given id is null or invalid
      */
     @WebMethod(operationName = "deleteProposition")
-    @CacheEvict(value={PropositionDefinition.Cache.NAME, RuleDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={PropositionDefinition.Cache.NAME, RuleDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     public void deleteProposition(@WebParam(name = "id") String id) throws RiceIllegalArgumentException;
 
     ////
@@ -784,7 +784,7 @@ public interface RuleManagementService extends TranslateBusinessMethods {
      */
     @WebMethod(operationName = "createContext")
     @WebResult(name = "context")
-    @CacheEvict(value={ContextDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={ContextDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     public ContextDefinition createContext(@WebParam(name = "contextDefinition") ContextDefinition contextDefinition) throws RiceIllegalArgumentException;
 
 
@@ -801,7 +801,7 @@ public interface RuleManagementService extends TranslateBusinessMethods {
      */
     @WebMethod(operationName = "findCreateContext")
     @WebResult(name = "context")
-    @CacheEvict(value={ContextDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={ContextDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     public ContextDefinition findCreateContext(@WebParam(name = "contextDefinition") ContextDefinition contextDefinition) throws RiceIllegalArgumentException;
 
 
@@ -814,7 +814,7 @@ public interface RuleManagementService extends TranslateBusinessMethods {
      * null or invalid
      */
     @WebMethod(operationName = "updateContext")
-    @CacheEvict(value={ContextDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={ContextDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     public void updateContext(@WebParam(name = "contextDefinition") ContextDefinition contextDefinition) throws RiceIllegalArgumentException;
 
     /**
@@ -824,7 +824,7 @@ public interface RuleManagementService extends TranslateBusinessMethods {
      * @throws RiceIllegalArgumentException if the given id is null or invalid
      */
     @WebMethod(operationName = "deleteContext")
-    @CacheEvict(value={ContextDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={ContextDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     public void deleteContext(@WebParam(name = "id") String id) throws RiceIllegalArgumentException;
 
     /**
@@ -464,6 +464,14 @@ public final class ContextDefinition extends AbstractDataTransferObject implemen
 
     public static class Cache {
         public static final String NAME = KrmsConstants.Namespaces.KRMS_NAMESPACE_2_0 + "/" + ContextDefinition.Constants.TYPE_NAME;
+
+        /**
+         * Holds the contexts translated for execution by the rules engine.  It is flushed along with any change to
+         * the repository data a context is translated from.
+         *
+         * @since 2.6
+         */
+        public static final String COMPILED_NAME = NAME + "{Compiled}";
     }
 	
 }
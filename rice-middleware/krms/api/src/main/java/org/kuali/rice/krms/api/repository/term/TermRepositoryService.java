@@ -17,6 +17,7 @@ package org.kuali.rice.krms.api.repository.term;
 
 import org.kuali.rice.core.api.exception.RiceIllegalArgumentException;
 import org.kuali.rice.krms.api.KrmsConstants;
+import org.kuali.rice.krms.api.repository.context.ContextDefinition;
 import org.springframework.cache.annotation.Cacheable;
 
 import javax.jws.WebMethod;
@@ -101,7 +102,7 @@ public interface TermRepositoryService {
      */
     @WebMethod(operationName = "createTermSpecification")
     @WebResult(name = "termSpecification")
-    @CacheEvict(value = {TermSpecificationDefinition.Cache.NAME, TermDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value = {TermSpecificationDefinition.Cache.NAME, TermDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     TermSpecificationDefinition createTermSpecification(@WebParam(name = "termSpec") TermSpecificationDefinition termSpec)
             throws RiceIllegalArgumentException;
 
@@ -115,7 +116,7 @@ public interface TermRepositoryService {
      * termSpec is null or invalid
      */
     @WebMethod(operationName = "updateTermSpecification")
-    @CacheEvict(value = {TermSpecificationDefinition.Cache.NAME, TermDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value = {TermSpecificationDefinition.Cache.NAME, TermDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     void updateTermSpecification(@WebParam(name = "termSpec") TermSpecificationDefinition termSpec)
             throws RiceIllegalArgumentException;
 
@@ -129,7 +130,7 @@ public interface TermRepositoryService {
      * id is null or invalid
      */
     @WebMethod(operationName = "deleteTermSpecification")
-    @CacheEvict(value = {TermSpecificationDefinition.Cache.NAME, TermDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value = {TermSpecificationDefinition.Cache.NAME, TermDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     void deleteTermSpecification(@WebParam(name = "id") String id)
             throws RiceIllegalArgumentException;
 
@@ -147,7 +148,7 @@ public interface TermRepositoryService {
      */
     @WebMethod(operationName = "createTerm")
     @WebResult(name = "term")
-    @CacheEvict(value = {TermDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value = {TermDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     TermDefinition createTerm(@WebParam(name = "termDef") TermDefinition termDef)
             throws RiceIllegalArgumentException;
 
@@ -162,7 +163,7 @@ public interface TermRepositoryService {
      */
     @WebMethod(operationName = "updateTerm")
     @WebResult(name = "term")
-    @CacheEvict(value = {TermDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value = {TermDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     void updateTerm(@WebParam(name = "termDef") TermDefinition termDef)
             throws RiceIllegalArgumentException;
 
@@ -178,7 +179,7 @@ public interface TermRepositoryService {
      */
     @WebMethod(operationName = "deleteTerm")
     @WebResult(name = "term")
-    @CacheEvict(value = {TermDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value = {TermDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     void deleteTerm(@WebParam(name = "id") String id)
             throws RiceIllegalArgumentException;
 
@@ -232,7 +233,7 @@ public interface TermRepositoryService {
      */
     @WebMethod(operationName = "createTermResolver")
     @WebResult(name = "termResolver")
-    @CacheEvict(value = {TermResolverDefinition.Cache.NAME, TermDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value = {TermResolverDefinition.Cache.NAME, TermDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     TermResolverDefinition createTermResolver(@WebParam(name = "termResolver") TermResolverDefinition termResolver)
             throws RiceIllegalArgumentException;
 
@@ -249,7 +250,7 @@ public interface TermRepositoryService {
      * the termResolver is null or blank.
      */
     @WebMethod(operationName = "updateTermResolver")
-    @CacheEvict(value = {TermResolverDefinition.Cache.NAME, TermDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value = {TermResolverDefinition.Cache.NAME, TermDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     void updateTermResolver(@WebParam(name = "termResolver") TermResolverDefinition termResolver)
             throws RiceIllegalArgumentException;
 
@@ -264,7 +265,7 @@ public interface TermRepositoryService {
      * the termResolver is null or blank.
      */
     @WebMethod(operationName = "deleteTermResolver")
-    @CacheEvict(value = {TermResolverDefinition.Cache.NAME, TermDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value = {TermResolverDefinition.Cache.NAME, TermDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     void deleteTermResolver(@WebParam(name = "id") String id)
             throws RiceIllegalArgumentException;
 
@@ -31,6 +31,7 @@ import javax.xml.bind.annotation.XmlElementWrapper;
 import java.util.List;
 import org.kuali.rice.krms.api.repository.typerelation.RelationshipType;
 import org.kuali.rice.krms.api.repository.typerelation.TypeTypeRelation;
+import org.kuali.rice.krms.api.repository.context.ContextDefinition;
 
 
 @WebService(name = "KRMSTypeService", targetNamespace = KrmsConstants.Namespaces.KRMS_NAMESPACE_2_0)
@@ -67,7 +68,7 @@ public interface KrmsTypeRepositoryService {
      */
     @WebMethod(operationName="createKrmsType")
     @WebResult(name = "krmsType")
-    @CacheEvict(value={KrmsTypeDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={KrmsTypeDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     KrmsTypeDefinition createKrmsType(@WebParam(name = "krmsType") KrmsTypeDefinition krmsType)
             throws RiceIllegalArgumentException, RiceIllegalStateException;
 
@@ -80,7 +81,7 @@ public interface KrmsTypeRepositoryService {
      */
     @WebMethod(operationName="updateKrmsType")
     @WebResult(name = "krmsType")
-    @CacheEvict(value={KrmsTypeDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={KrmsTypeDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     KrmsTypeDefinition updateKrmsType(@WebParam(name = "krmsType") KrmsTypeDefinition krmsType)
             throws RiceIllegalArgumentException, RiceIllegalStateException;
 
@@ -28,6 +28,8 @@ import org.kuali.rice.krms.api.repository.agenda.AgendaDefinition;
 
 public class BasicAgenda implements Agenda {
 
+	private static final String NAME_QUALIFIER = "name";
+
 	private Map<String, String> qualifiers;
 	private AgendaTree agendaTree;
 
@@ -59,4 +61,15 @@ public class BasicAgenda implements Agenda {
 		return true;
 	}
 
+    /**
+     * Returns the name qualifier of the agenda if it has one, otherwise all of its qualifiers.
+     */
+	@Override
+	public String toString() {
+		if (qualifiers != null && qualifiers.containsKey(NAME_QUALIFIER)) {
+			return qualifiers.get(NAME_QUALIFIER);
+		}
+		return String.valueOf(qualifiers);
+	}
+
 }
@@ -24,6 +24,7 @@ import org.kuali.rice.krms.api.engine.ExecutionEnvironment;
  * @author Kuali Rice Team (rice.collab@kuali.org)
  */
 public final class BasicAgendaTreeEntry implements AgendaTreeEntry {
+	private static final ExecutionProfiler PROFILER = ExecutionProfiler.getInstance();
 	
 	private final Rule rule;
 	private final AgendaTree ifTrue;
@@ -56,7 +57,7 @@ public final class BasicAgendaTreeEntry implements AgendaTreeEntry {
 	
 	@Override
 	public void execute(ExecutionEnvironment environment) {
-		boolean result = rule.evaluate(environment);
+		boolean result = PROFILER.evaluate(rule, environment);
 		if (result && ifTrue != null) {
 			ifTrue.execute(environment);
 		}
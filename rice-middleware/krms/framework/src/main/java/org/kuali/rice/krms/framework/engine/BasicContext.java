@@ -27,6 +27,7 @@ import org.kuali.rice.krms.api.engine.TermResolver;
  * @author Kuali Rice Team (rice.collab@kuali.org)
  */
 public final class BasicContext implements Context {
+	private static final ExecutionProfiler PROFILER = ExecutionProfiler.getInstance();
 	
 	private final List<Agenda> agendas;
 	private final List<TermResolver<?>> termResolvers;
@@ -48,7 +49,7 @@ public final class BasicContext implements Context {
 		}
 		List<Agenda> matchingAgendas = findMatchingAgendas(environment);
 		for (Agenda matchingAgenda : matchingAgendas) {
-			matchingAgenda.execute(environment);
+			PROFILER.execute(matchingAgenda, environment);
 		}
 	}
 
@@ -38,6 +38,7 @@ import org.kuali.rice.krms.api.engine.ResultEvent;
  * @author Kuali Rice Team (rice.collab@kuali.org)
  */
 public final class BasicExecutionEnvironment implements ExecutionEnvironment {
+	private static final ExecutionProfiler PROFILER = ExecutionProfiler.getInstance();
 
 	private final SelectionCriteria selectionCriteria;
 	private final Map<Term, Object> facts;
@@ -88,7 +89,7 @@ public final class BasicExecutionEnvironment implements ExecutionEnvironment {
 	
 	@Override
 	public void addTermResolver(TermResolver<?> termResolver) {
-		termResolutionEngine.addTermResolver(termResolver);
+		termResolutionEngine.addTermResolver(PROFILER.profile(termResolver, this));
 	}
 	
 	@Override
@@ -28,6 +28,7 @@ import org.kuali.rice.krms.framework.engine.result.BasicResult;
  */
 public class BasicRule implements Rule {
 	private static final ResultLogger LOG = ResultLogger.getInstance();
+	private static final ExecutionProfiler PROFILER = ExecutionProfiler.getInstance();
 
 	private String name;
 	private Proposition proposition;
@@ -61,7 +62,7 @@ public class BasicRule implements Rule {
 	
 	@Override
 	public boolean evaluate(ExecutionEnvironment environment) {
-		boolean result = proposition.evaluate(environment).getResult();
+		boolean result = PROFILER.evaluate(proposition, environment).getResult();
 		if (actions != null) {
 			for (Action action : actions) {
 				if (shouldExecuteAction(result)) {
@@ -31,7 +31,7 @@ import org.kuali.rice.krms.framework.engine.result.BasicResult;
  *
  * @author Kuali Rice Team (rice.collab@kuali.org)
  */
-public class ComparableTermBasedProposition<T> implements Proposition {
+public class ComparableTermBasedProposition<T> implements ReorderableProposition {
 	private static final ResultLogger LOG = ResultLogger.getInstance();
 
 	private final ComparisonOperator operator;
@@ -96,6 +96,14 @@ public class ComparableTermBasedProposition<T> implements Proposition {
 	    return false;
 	}
 
+	/**
+	 * Returns true, comparing a term has no side effects.
+	 */
+	@Override
+	public boolean isReorderable() {
+		return true;
+	}
+
 	/**
      * Returns the expectedValue
 	 * @return the expectedValue
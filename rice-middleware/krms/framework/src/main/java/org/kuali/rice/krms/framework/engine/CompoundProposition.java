@@ -16,6 +16,7 @@
 package org.kuali.rice.krms.framework.engine;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -31,13 +32,21 @@ import org.kuali.rice.krms.framework.engine.result.BasicResult;
  *
  * @author Kuali Rice Team (rice.collab@kuali.org)
  */
-public final class CompoundProposition implements Proposition {
+public final class CompoundProposition implements ReorderableProposition {
 	
     private static final ResultLogger LOG = ResultLogger.getInstance();
+    private static final ExecutionProfiler PROFILER = ExecutionProfiler.getInstance();
     
 	private final LogicalOperator logicalOperator;
 	private final List<Proposition> propositions;
 
+	// built on first use, the propositions can't change
+	private volatile String description;
+
+	// created on first use, when propositions are reordered
+	private volatile PropositionSelectivity selectivity;
+	private volatile Boolean reorderable;
+
     /**
      * Create a CompoundProposition with the given values
      * @param logicalOperator {@link LogicalOperator} to set logicalOperator to
@@ -78,21 +87,38 @@ public final class CompoundProposition implements Proposition {
 	
     private PropositionResult evaluateInner(ExecutionEnvironment environment) {
     	
-    	boolean collatedResult;
     	boolean evaluateAll = environment.getExecutionOptions().getFlag(ExecutionFlag.EVALUATE_ALL_PROPOSITIONS);
     	
+        if (!evaluateAll && propositions.size() > 1
+                && environment.getExecutionOptions().getFlag(ExecutionFlag.REORDER_PROPOSITIONS) && isReorderable()) {
+            return evaluateReordered(environment);
+        }
+        return evaluateInOrder(environment, evaluateAll);
+    }
+
+    /**
+     * Evaluates the propositions in the order they were defined in.
+     */
+    private PropositionResult evaluateInOrder(ExecutionEnvironment environment, boolean evaluateAll) {
+
+    	boolean collatedResult;
+
         if (logicalOperator == LogicalOperator.AND) {
 
             collatedResult = true;
 
-			for (Proposition proposition : propositions) {
+			for (int i = 0; i < propositions.size(); i++) {
+				Proposition proposition = propositions.get(i);
 				
-				PropositionResult singleResult = proposition.evaluate(environment);
+				PropositionResult singleResult = PROFILER.evaluate(proposition, environment);
 				logPropositionResult(proposition, singleResult, environment);
 								
 				if (!singleResult.getResult()) {
 					collatedResult = false;
-					if(!evaluateAll) break;
+					if(!evaluateAll) {
+						recordShortCircuit(i, environment);
+						break;
+					}
 				}
 			}
 			
@@ -102,14 +128,18 @@ public final class CompoundProposition implements Proposition {
 			
 		    collatedResult = false;
 			
-			for (Proposition proposition : propositions) {
+			for (int i = 0; i < propositions.size(); i++) {
+				Proposition proposition = propositions.get(i);
 				
-			    PropositionResult singleResult = proposition.evaluate(environment);
+			    PropositionResult singleResult = PROFILER.evaluate(proposition, environment);
 				logPropositionResult(proposition, singleResult, environment);
 				
 				if (singleResult.getResult()) {
 					collatedResult = true;
-					if(!evaluateAll) break;
+					if(!evaluateAll) {
+						recordShortCircuit(i, environment);
+						break;
+					}
 				}
 			}
 			
@@ -118,6 +148,108 @@ public final class CompoundProposition implements Proposition {
 		throw new IllegalStateException("Invalid logical operator: " + logicalOperator);
     }
     
+    /**
+     * Evaluates the propositions in the order the {@link PropositionSelectivity} expects to short circuit the soonest.
+     * The outcome is only decided once every proposition before the deciding one in the defined order has been
+     * evaluated, so that the result, including any exception, is the same as without reordering.
+     */
+    private PropositionResult evaluateReordered(ExecutionEnvironment environment) {
+        PropositionSelectivity localSelectivity = getSelectivity();
+        int[] order = localSelectivity.getOrder();
+        boolean decidingResult = logicalOperator == LogicalOperator.OR;
+
+        // the outcomes by defined position, and the first defined position which has not been settled yet
+        Boolean[] results = new Boolean[propositions.size()];
+        RuntimeException[] failures = new RuntimeException[propositions.size()];
+        int unsettled = 0;
+
+        Boolean collatedResult = null;
+        int evaluated = 0;
+        while (collatedResult == null) {
+            int index = order[evaluated++];
+            Proposition proposition = propositions.get(index);
+
+            long start = System.nanoTime();
+            try {
+                PropositionResult singleResult = PROFILER.evaluate(proposition, environment);
+                localSelectivity.record(index, System.nanoTime() - start, singleResult.getResult());
+                logPropositionResult(proposition, singleResult, environment);
+                results[index] = Boolean.valueOf(singleResult.getResult());
+            } catch (RuntimeException e) {
+                // counted as not deciding the result, which moves it back behind the propositions that do
+                localSelectivity.record(index, System.nanoTime() - start, !decidingResult);
+                failures[index] = e;
+            }
+
+            while (unsettled < results.length && collatedResult == null) {
+                if (failures[unsettled] != null) {
+                    throw failures[unsettled];
+                }
+                if (results[unsettled] == null) {
+                    break;
+                }
+                if (results[unsettled].booleanValue() == decidingResult) {
+                    collatedResult = Boolean.valueOf(decidingResult);
+                } else {
+                    unsettled++;
+                }
+            }
+            if (unsettled == results.length) {
+                collatedResult = Boolean.valueOf(!decidingResult);
+            }
+        }
+        recordShortCircuit(evaluated - 1, environment);
+
+        if (!localSelectivity.isDefinitionOrder(order) && LOG.isEnabled(environment)) {
+            LOG.logResult(new BasicResult("Evaluated propositions in the order " + Arrays.toString(order),
+                    ResultEvent.PROPOSITIONS_REORDERED, this, environment, collatedResult.booleanValue()));
+        }
+        return new PropositionResult(collatedResult.booleanValue());
+    }
+
+    private PropositionSelectivity getSelectivity() {
+        PropositionSelectivity localSelectivity = selectivity;
+        if (localSelectivity == null) {
+            synchronized (this) {
+                localSelectivity = selectivity;
+                if (localSelectivity == null) {
+                    selectivity = localSelectivity = new PropositionSelectivity(this, logicalOperator,
+                            propositions.size());
+                }
+            }
+        }
+        return localSelectivity;
+    }
+
+    /**
+     * Returns true if all of the propositions are reorderable.
+     */
+    @Override
+    public boolean isReorderable() {
+        Boolean localReorderable = reorderable;
+        if (localReorderable == null) {
+            localReorderable = Boolean.TRUE;
+            for (Proposition proposition : propositions) {
+                if (!(proposition instanceof ReorderableProposition)
+                        || !((ReorderableProposition) proposition).isReorderable()) {
+                    localReorderable = Boolean.FALSE;
+                    break;
+                }
+            }
+            reorderable = localReorderable;
+        }
+        return localReorderable.booleanValue();
+    }
+
+    /*
+     * Records a short circuit with the profiler if propositions after the one at the given index were skipped
+     */
+    private void recordShortCircuit(int index, ExecutionEnvironment environment) {
+        if (index < propositions.size() - 1) {
+            PROFILER.recordShortCircuit(this, environment);
+        }
+    }
+
     /*
      * Logs only if the proposition is not compound
      * and have the compound proposition log its own result
@@ -148,4 +280,20 @@ public final class CompoundProposition implements Proposition {
         return true;
     }
 
+    @Override
+    public String toString() {
+        String localDescription = description;
+        if (localDescription == null) {
+            StringBuilder sb = new StringBuilder("(");
+            for (Proposition proposition : propositions) {
+                if (sb.length() > 1) {
+                    sb.append(" ").append(logicalOperator).append(" ");
+                }
+                sb.append(proposition);
+            }
+            description = localDescription = sb.append(")").toString();
+        }
+        return localDescription;
+    }
+
 }
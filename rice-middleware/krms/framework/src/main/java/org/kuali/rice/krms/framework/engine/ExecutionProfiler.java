@@ -0,0 +1,368 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.krms.framework.engine;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.kuali.rice.krms.api.engine.ExecutionEnvironment;
+import org.kuali.rice.krms.api.engine.ExecutionFlag;
+import org.kuali.rice.krms.api.engine.TermResolutionException;
+import org.kuali.rice.krms.api.engine.TermResolver;
+import org.kuali.rice.krms.framework.engine.ProfileStatistics.ElementType;
+
+/**
+ * Records evaluation counts and times of agendas, rules, propositions and term resolvers for executions which have
+ * the {@link ExecutionFlag#PROFILE_EXECUTION} flag set.
+ *
+ * <p>Unlike the {@link ResultLogger} no result objects are created, every evaluation only updates a few atomic
+ * counters of its element, so profiling can be left on in a running system to find out which rules and term resolvers
+ * cost the most.  Elements are recorded by name, which makes the numbers of the same rule in different executions and
+ * contexts add up.  The name is the {@link ProfiledElement#getProfileName() profile name} of elements which have one,
+ * so lazily loaded repository rules and propositions are recorded under their ids without being loaded, and the
+ * {@link Object#toString()} of any other element.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ * @since 2.6
+ */
+public final class ExecutionProfiler {
+
+	/**
+	 * the most elements that are recorded, so that generated names can't grow the profile without bounds
+	 */
+	private static final int MAX_ELEMENTS = 10000;
+
+	/**
+	 * the counters of the evaluations which aren't recorded once the profile is full
+	 */
+	private static final Counters DISCARDED = new Counters();
+
+	private final Map<ElementType, ConcurrentMap<String, Counters>> counters =
+			new EnumMap<ElementType, ConcurrentMap<String, Counters>>(ElementType.class);
+
+	private ExecutionProfiler() {
+		for (ElementType elementType : ElementType.values()) {
+			counters.put(elementType, new ConcurrentHashMap<String, Counters>());
+		}
+	}
+
+	/*using inner class provides thread safety.	 */
+	private static class ExecutionProfilerLoader {
+		private static final ExecutionProfiler INSTANCE = new ExecutionProfiler();
+	}
+
+	/**
+	 * @return the profiler of the engine
+	 */
+	public static ExecutionProfiler getInstance() {
+		return ExecutionProfilerLoader.INSTANCE;
+	}
+
+	/**
+	 * Returns true if the {@link ExecutionEnvironment}'s execution options {@link ExecutionFlag#PROFILE_EXECUTION} flag
+	 * has been set.
+	 * @param environment {@link ExecutionEnvironment} to test for being enabled.
+	 * @return whether the execution is profiled
+	 */
+	public boolean isEnabled(ExecutionEnvironment environment) {
+		return environment != null
+				&& environment.getExecutionOptions() != null
+				&& environment.getExecutionOptions().getFlag(ExecutionFlag.PROFILE_EXECUTION);
+	}
+
+	/**
+	 * Executes the agenda, recording it if the execution is profiled.
+	 */
+	public void execute(Agenda agenda, ExecutionEnvironment environment) {
+		if (!isEnabled(environment)) {
+			agenda.execute(environment);
+			return;
+		}
+		Counters agendaCounters = getCounters(ElementType.AGENDA, agenda);
+		long start = System.nanoTime();
+		boolean failed = true;
+		try {
+			agenda.execute(environment);
+			failed = false;
+		} finally {
+			agendaCounters.record(System.nanoTime() - start, false, failed);
+		}
+	}
+
+	/**
+	 * Evaluates the rule, recording it if the execution is profiled.
+	 */
+	public boolean evaluate(Rule rule, ExecutionEnvironment environment) {
+		if (!isEnabled(environment)) {
+			return rule.evaluate(environment);
+		}
+		Counters ruleCounters = getCounters(ElementType.RULE, rule);
+		long start = System.nanoTime();
+		boolean result = false;
+		boolean failed = true;
+		try {
+			result = rule.evaluate(environment);
+			failed = false;
+			return result;
+		} finally {
+			ruleCounters.record(System.nanoTime() - start, result, failed);
+		}
+	}
+
+	/**
+	 * Evaluates the proposition, recording it if the execution is profiled.
+	 */
+	public PropositionResult evaluate(Proposition proposition, ExecutionEnvironment environment) {
+		if (!isEnabled(environment)) {
+			return proposition.evaluate(environment);
+		}
+		Counters propositionCounters = getCounters(ElementType.PROPOSITION, proposition);
+		long start = System.nanoTime();
+		boolean result = false;
+		boolean failed = true;
+		try {
+			PropositionResult propositionResult = proposition.evaluate(environment);
+			result = propositionResult.getResult();
+			failed = false;
+			return propositionResult;
+		} finally {
+			propositionCounters.record(System.nanoTime() - start, result, failed);
+		}
+	}
+
+	/**
+	 * Records that the compound proposition skipped some of its propositions.
+	 */
+	public void recordShortCircuit(Proposition proposition, ExecutionEnvironment environment) {
+		if (isEnabled(environment)) {
+			getCounters(ElementType.PROPOSITION, proposition).shortCircuitCount.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Wraps the term resolver so its resolutions are recorded, if the execution is profiled.
+	 * @return the term resolver to add to the environment
+	 */
+	public <T> TermResolver<T> profile(TermResolver<T> termResolver, ExecutionEnvironment environment) {
+		if (termResolver == null || !isEnabled(environment) || termResolver instanceof ProfiledTermResolver) {
+			return termResolver;
+		}
+		return new ProfiledTermResolver<T>(termResolver, getCounters(ElementType.TERM_RESOLVER, termResolver));
+	}
+
+	/**
+	 * @return the statistics of every recorded element
+	 */
+	public List<ProfileStatistics> getStatistics() {
+		List<ProfileStatistics> statistics = new ArrayList<ProfileStatistics>();
+		for (ElementType elementType : ElementType.values()) {
+			for (Map.Entry<String, Counters> entry : counters.get(elementType).entrySet()) {
+				statistics.add(entry.getValue().snapshot(elementType, entry.getKey()));
+			}
+		}
+		return statistics;
+	}
+
+	/**
+	 * @return the statistics of the recorded elements of the given type, the most expensive first
+	 */
+	public List<ProfileStatistics> getStatistics(ElementType elementType) {
+		List<ProfileStatistics> statistics = new ArrayList<ProfileStatistics>();
+		for (Map.Entry<String, Counters> entry : counters.get(elementType).entrySet()) {
+			statistics.add(entry.getValue().snapshot(elementType, entry.getKey()));
+		}
+		Collections.sort(statistics, TOTAL_TIME_DESCENDING);
+		return statistics;
+	}
+
+	/**
+	 * Writes the recorded statistics as a tab separated report, grouped by element type with the most expensive
+	 * elements first.  Times are in microseconds.
+	 */
+	public void writeReport(Writer writer) throws IOException {
+		writer.write("type\tname\tevaluations\ttrue\tfailures\tshort circuits\ttotal time\taverage time\tmax time\n");
+		for (ElementType elementType : ElementType.values()) {
+			for (ProfileStatistics statistics : getStatistics(elementType)) {
+				writer.write(elementType + "\t" + statistics.getName().replace('\t', ' ').replace('\n', ' ') + "\t"
+						+ statistics.getEvaluationCount() + "\t" + statistics.getTrueCount() + "\t"
+						+ statistics.getFailureCount() + "\t" + statistics.getShortCircuitCount() + "\t"
+						+ statistics.getTotalTime() / 1000 + "\t" + statistics.getAverageTime() / 1000 + "\t"
+						+ statistics.getMaxTime() / 1000 + "\n");
+			}
+		}
+		writer.flush();
+	}
+
+	/**
+	 * @return the report written by {@link #writeReport(Writer)}
+	 */
+	public String getReport() {
+		StringWriter writer = new StringWriter();
+		try {
+			writeReport(writer);
+		} catch (IOException e) {
+			// can't happen with a StringWriter
+			throw new IllegalStateException(e);
+		}
+		return writer.toString();
+	}
+
+	/**
+	 * Forgets everything recorded so far.
+	 */
+	public void reset() {
+		for (ConcurrentMap<String, Counters> elementCounters : counters.values()) {
+			elementCounters.clear();
+		}
+	}
+
+	private Counters getCounters(ElementType elementType, Object element) {
+		ConcurrentMap<String, Counters> typeCounters = counters.get(elementType);
+		String name = nameOf(elementType, element);
+		Counters elementCounters = typeCounters.get(name);
+		if (elementCounters == null) {
+			if (size() >= MAX_ELEMENTS) {
+				return DISCARDED;
+			}
+			elementCounters = new Counters();
+			Counters existing = typeCounters.putIfAbsent(name, elementCounters);
+			if (existing != null) {
+				elementCounters = existing;
+			}
+		}
+		return elementCounters;
+	}
+
+	private int size() {
+		int size = 0;
+		for (ConcurrentMap<String, Counters> elementCounters : counters.values()) {
+			size += elementCounters.size();
+		}
+		return size;
+	}
+
+	private static String nameOf(ElementType elementType, Object element) {
+		if (elementType == ElementType.TERM_RESOLVER) {
+			// only called once per term resolver of an execution, when it is wrapped
+			TermResolver<?> termResolver = (TermResolver<?>) element;
+			return termResolver.getOutput() + " (" + termResolver.getClass().getName() + ")";
+		}
+		String name = element instanceof ProfiledElement ? ((ProfiledElement) element).getProfileName()
+				: element.toString();
+		return name == null ? element.getClass().getName() : name;
+	}
+
+	private static final Comparator<ProfileStatistics> TOTAL_TIME_DESCENDING = new Comparator<ProfileStatistics>() {
+		@Override
+		public int compare(ProfileStatistics statistics1, ProfileStatistics statistics2) {
+			long totalTime1 = statistics1.getTotalTime();
+			long totalTime2 = statistics2.getTotalTime();
+			return totalTime1 < totalTime2 ? 1 : (totalTime1 == totalTime2 ? 0 : -1);
+		}
+	};
+
+	private static final class Counters {
+
+		private final AtomicLong evaluationCount = new AtomicLong();
+		private final AtomicLong trueCount = new AtomicLong();
+		private final AtomicLong failureCount = new AtomicLong();
+		private final AtomicLong shortCircuitCount = new AtomicLong();
+		private final AtomicLong totalTime = new AtomicLong();
+		private final AtomicLong maxTime = new AtomicLong();
+
+		void record(long time, boolean result, boolean failed) {
+			evaluationCount.incrementAndGet();
+			if (result) {
+				trueCount.incrementAndGet();
+			}
+			if (failed) {
+				failureCount.incrementAndGet();
+			}
+			totalTime.addAndGet(time);
+			long max;
+			while ((max = maxTime.get()) < time && !maxTime.compareAndSet(max, time)) { }
+		}
+
+		ProfileStatistics snapshot(ElementType elementType, String name) {
+			return new ProfileStatistics(elementType, name, evaluationCount.get(), trueCount.get(),
+					failureCount.get(), shortCircuitCount.get(), totalTime.get(), maxTime.get());
+		}
+	}
+
+	/**
+	 * A {@link TermResolver} which times the resolutions of the term resolver it wraps.
+	 */
+	private static final class ProfiledTermResolver<T> implements TermResolver<T> {
+
+		private final TermResolver<T> termResolver;
+		private final Counters resolverCounters;
+
+		ProfiledTermResolver(TermResolver<T> termResolver, Counters resolverCounters) {
+			this.termResolver = termResolver;
+			this.resolverCounters = resolverCounters;
+		}
+
+		@Override
+		public Set<String> getPrerequisites() {
+			return termResolver.getPrerequisites();
+		}
+
+		@Override
+		public String getOutput() {
+			return termResolver.getOutput();
+		}
+
+		@Override
+		public Set<String> getParameterNames() {
+			return termResolver.getParameterNames();
+		}
+
+		@Override
+		public int getCost() {
+			return termResolver.getCost();
+		}
+
+		@Override
+		public T resolve(Map<String, Object> resolvedPrereqs, Map<String, String> parameters) throws TermResolutionException {
+			long start = System.nanoTime();
+			boolean failed = true;
+			try {
+				T value = termResolver.resolve(resolvedPrereqs, parameters);
+				failed = false;
+				return value;
+			} finally {
+				resolverCounters.record(System.nanoTime() - start, false, failed);
+			}
+		}
+
+		@Override
+		public String toString() {
+			return termResolver.toString();
+		}
+	}
+
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.krms.framework.engine;
+
+/**
+ * A snapshot of what the {@link ExecutionProfiler} recorded for a single agenda, rule, proposition or term resolver.
+ *
+ * <p>Times are inclusive, so the time of an agenda contains the time of its rules, and the time of a rule contains
+ * the time of its proposition and of the terms resolved for it.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ * @since 2.6
+ */
+public final class ProfileStatistics {
+
+	/**
+	 * The kinds of elements the engine profiles.
+	 */
+	public enum ElementType {
+		AGENDA, RULE, PROPOSITION, TERM_RESOLVER
+	}
+
+	private final ElementType elementType;
+	private final String name;
+	private final long evaluationCount;
+	private final long trueCount;
+	private final long failureCount;
+	private final long shortCircuitCount;
+	private final long totalTime;
+	private final long maxTime;
+
+	ProfileStatistics(ElementType elementType, String name, long evaluationCount, long trueCount, long failureCount,
+			long shortCircuitCount, long totalTime, long maxTime) {
+		this.elementType = elementType;
+		this.name = name;
+		this.evaluationCount = evaluationCount;
+		this.trueCount = trueCount;
+		this.failureCount = failureCount;
+		this.shortCircuitCount = shortCircuitCount;
+		this.totalTime = totalTime;
+		this.maxTime = maxTime;
+	}
+
+	public ElementType getElementType() {
+		return elementType;
+	}
+
+	/**
+	 * @return the name of the element, or the description of it for propositions
+	 */
+	public String getName() {
+		return name;
+	}
+
+	public long getEvaluationCount() {
+		return evaluationCount;
+	}
+
+	/**
+	 * @return the number of evaluations of a rule or proposition that were true
+	 */
+	public long getTrueCount() {
+		return trueCount;
+	}
+
+	/**
+	 * @return the number of evaluations that ended with an exception
+	 */
+	public long getFailureCount() {
+		return failureCount;
+	}
+
+	/**
+	 * @return the number of evaluations of a compound proposition that skipped some of its propositions
+	 */
+	public long getShortCircuitCount() {
+		return shortCircuitCount;
+	}
+
+	/**
+	 * @return the total time of all evaluations, in nanoseconds
+	 */
+	public long getTotalTime() {
+		return totalTime;
+	}
+
+	/**
+	 * @return the time of the slowest evaluation, in nanoseconds
+	 */
+	public long getMaxTime() {
+		return maxTime;
+	}
+
+	/**
+	 * @return the average time of an evaluation, in nanoseconds
+	 */
+	public long getAverageTime() {
+		return evaluationCount == 0 ? 0 : totalTime / evaluationCount;
+	}
+
+	/**
+	 * @return the fraction of the evaluations that short circuited, between 0 and 1
+	 */
+	public double getShortCircuitRate() {
+		return evaluationCount == 0 ? 0 : (double) shortCircuitCount / evaluationCount;
+	}
+
+	@Override
+	public String toString() {
+		return elementType + " " + name + ": evaluations=" + evaluationCount + ", true=" + trueCount + ", failures="
+				+ failureCount + ", shortCircuits=" + shortCircuitCount + ", totalTime=" + totalTime + "ns, maxTime="
+				+ maxTime + "ns";
+	}
+
+}
@@ -0,0 +1,33 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.krms.framework.engine;
+
+/**
+ * An element of an execution which names itself for the {@link ExecutionProfiler}.  Elements which don't implement
+ * this are recorded under their {@link Object#toString()}, which is called on every evaluation.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ * @since 2.6
+ */
+public interface ProfiledElement {
+
+	/**
+	 * @return the name the element is recorded under.  It is asked for on every profiled evaluation, so it should be
+	 * built once, from what the element already holds, without loading anything.
+	 */
+	String getProfileName();
+
+}
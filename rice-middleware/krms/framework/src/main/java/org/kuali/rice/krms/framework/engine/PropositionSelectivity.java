@@ -0,0 +1,189 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.krms.framework.engine;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.log4j.Logger;
+import org.kuali.rice.krms.api.repository.LogicalOperator;
+
+/**
+ * Keeps track of how long the propositions of a {@link CompoundProposition} take to evaluate and how often they are
+ * true, and works out the order in which to evaluate them so that the compound proposition is expected to short circuit
+ * as cheaply as possible.
+ *
+ * <p>Propositions are assumed to be independent.  For an AND the propositions are ordered by their average time
+ * divided by the chance of being false, for an OR by their average time divided by the chance of being true.
+ * Propositions which haven't been evaluated often enough yet come first so that they get measured.  Once all of them
+ * have been measured a new order is only taken when it is expected to be clearly cheaper than the current one, which
+ * keeps the order from flapping between propositions that cost about the same.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+final class PropositionSelectivity {
+
+	private static final Logger LOG = Logger.getLogger(PropositionSelectivity.class);
+
+	/**
+	 * how many times a proposition must be evaluated before its numbers are trusted
+	 */
+	static final int MIN_SAMPLES = 10;
+
+	/**
+	 * how many evaluations of the compound proposition pass between working out the order again
+	 */
+	static final int REORDER_INTERVAL = 32;
+
+	/**
+	 * how much cheaper a new order must be expected to be before it replaces the current one
+	 */
+	private static final double IMPROVEMENT_THRESHOLD = 0.9;
+
+	private final CompoundProposition compoundProposition;
+	private final LogicalOperator logicalOperator;
+	private final int size;
+	private final AtomicLongArray evaluationCounts;
+	private final AtomicLongArray trueCounts;
+	private final AtomicLongArray totalTimes;
+	private final AtomicLong compoundEvaluationCount = new AtomicLong();
+	private final int[] definitionOrder;
+
+	private volatile int[] order;
+
+	PropositionSelectivity(CompoundProposition compoundProposition, LogicalOperator logicalOperator, int size) {
+		this.compoundProposition = compoundProposition;
+		this.logicalOperator = logicalOperator;
+		this.size = size;
+		this.evaluationCounts = new AtomicLongArray(size);
+		this.trueCounts = new AtomicLongArray(size);
+		this.totalTimes = new AtomicLongArray(size);
+		this.definitionOrder = new int[size];
+		for (int i = 0; i < size; i++) {
+			definitionOrder[i] = i;
+		}
+		this.order = definitionOrder;
+	}
+
+	/**
+	 * @return the indexes of the propositions in the order to evaluate them, which must not be modified
+	 */
+	int[] getOrder() {
+		if (compoundEvaluationCount.incrementAndGet() % REORDER_INTERVAL == 1) {
+			reorder();
+		}
+		return order;
+	}
+
+	/**
+	 * @return whether the given order is the order the propositions were defined in
+	 */
+	boolean isDefinitionOrder(int[] order) {
+		return order == definitionOrder;
+	}
+
+	/**
+	 * Records an evaluation of the proposition at the given index.
+	 */
+	void record(int index, long time, boolean result) {
+		evaluationCounts.incrementAndGet(index);
+		totalTimes.addAndGet(index, time);
+		if (result) {
+			trueCounts.incrementAndGet(index);
+		}
+	}
+
+	private void reorder() {
+		final double[] costs = new double[size];
+		final double[] continueChances = new double[size];
+		final boolean[] sampled = new boolean[size];
+		boolean allSampled = true;
+		for (int i = 0; i < size; i++) {
+			long evaluations = evaluationCounts.get(i);
+			sampled[i] = evaluations >= MIN_SAMPLES;
+			allSampled &= sampled[i];
+			costs[i] = evaluations == 0 ? 0 : (double) totalTimes.get(i) / evaluations;
+			// smoothed so a proposition is never taken to be certain
+			double trueChance = (trueCounts.get(i) + 1.0) / (evaluations + 2.0);
+			continueChances[i] = logicalOperator == LogicalOperator.AND ? trueChance : 1 - trueChance;
+		}
+
+		Integer[] candidate = new Integer[size];
+		for (int i = 0; i < size; i++) {
+			candidate[i] = i;
+		}
+		Arrays.sort(candidate, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer index1, Integer index2) {
+				if (sampled[index1] != sampled[index2]) {
+					return sampled[index1] ? 1 : -1;
+				}
+				if (!sampled[index1]) {
+					return index1.compareTo(index2);
+				}
+				int result = Double.compare(costs[index1] / (1 - continueChances[index1]),
+						costs[index2] / (1 - continueChances[index2]));
+				return result != 0 ? result : index1.compareTo(index2);
+			}
+		});
+		int[] candidateOrder = new int[size];
+		for (int i = 0; i < size; i++) {
+			candidateOrder[i] = candidate[i];
+		}
+
+		int[] currentOrder = order;
+		if (Arrays.equals(candidateOrder, currentOrder)) {
+			return;
+		}
+		double currentCost = expectedCost(currentOrder, costs, continueChances);
+		double candidateCost = expectedCost(candidateOrder, costs, continueChances);
+		if (!allSampled || candidateCost < currentCost * IMPROVEMENT_THRESHOLD) {
+			order = Arrays.equals(candidateOrder, definitionOrder) ? definitionOrder : candidateOrder;
+			if (LOG.isInfoEnabled()) {
+				LOG.info("Reordered the propositions of " + compoundProposition + " from " + Arrays.toString(currentOrder)
+						+ " to " + Arrays.toString(candidateOrder) + ", expected time " + Math.round(currentCost)
+						+ "ns -> " + Math.round(candidateCost) + "ns");
+			}
+		}
+	}
+
+	/**
+	 * @return the expected time to evaluate the propositions in the given order, stopping at the first one which
+	 * decides the result
+	 */
+	private static double expectedCost(int[] order, double[] costs, double[] continueChances) {
+		double expectedCost = 0;
+		double reachChance = 1;
+		for (int index : order) {
+			expectedCost += reachChance * costs[index];
+			reachChance *= continueChances[index];
+		}
+		return expectedCost;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("order=").append(Arrays.toString(order));
+		for (int i = 0; i < size; i++) {
+			sb.append(", ").append(i).append(": evaluations=").append(evaluationCounts.get(i))
+					.append(" true=").append(trueCounts.get(i)).append(" totalTime=").append(totalTimes.get(i));
+		}
+		return sb.toString();
+	}
+
+}
@@ -15,17 +15,35 @@
  */
 package org.kuali.rice.krms.framework.engine;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.joda.time.DateTime;
+import org.kuali.rice.krms.api.engine.BatchEngineResults;
 import org.kuali.rice.krms.api.engine.Engine;
 import org.kuali.rice.krms.api.engine.EngineResults;
+import org.kuali.rice.krms.api.engine.EngineResultsHandler;
 import org.kuali.rice.krms.api.engine.ExecutionEnvironment;
+import org.kuali.rice.krms.api.engine.ExecutionFlag;
 import org.kuali.rice.krms.api.engine.ExecutionOptions;
 import org.kuali.rice.krms.api.engine.Facts;
 import org.kuali.rice.krms.api.engine.ResultEvent;
 import org.kuali.rice.krms.api.engine.SelectionCriteria;
 import org.kuali.rice.krms.api.engine.Term;
+import org.kuali.rice.krms.api.engine.TermResolutionException;
+import org.kuali.rice.krms.api.engine.TermResolver;
 import org.kuali.rice.krms.framework.engine.result.TimingResult;
 
 /**
@@ -41,6 +59,17 @@ public class ProviderBasedEngine implements Engine {
 
 	private ContextProvider contextProvider;
 
+	private int batchThreadPoolSize = Runtime.getRuntime().availableProcessors();
+
+	private ExecutorService batchExecutor;
+
+	// the executor created by the engine itself when none was set, shared by all of its batches
+	private ExecutorService defaultBatchExecutor;
+
+	private boolean profileExecution = false;
+
+	private boolean reorderPropositions = false;
+
     @Override
     public EngineResults execute(SelectionCriteria selectionCriteria, Map<String, Object> facts,
             ExecutionOptions executionOptions) {
@@ -65,14 +94,253 @@ public class ProviderBasedEngine implements Engine {
 			LOG.info("Failed to locate a Context for the given qualifiers, skipping rule engine execution: " + selectionCriteria.getContextQualifiers());
 			return null;
 		}
+		return executeContext(context, environment, start);
+	}
+
+	private EngineResults executeContext(Context context, ExecutionEnvironment environment, DateTime start) {
 		context.execute(environment);
-		end = new DateTime();
+		DateTime end = new DateTime();
 		if (KLog.isEnabled(environment)){
 			KLog.logResult(new TimingResult(ResultEvent.TIMING_EVENT, this, environment, start, end));
 		}
 		return environment.getEngineResults();
 	}
 
+	@Override
+	public BatchEngineResults executeBatch(final SelectionCriteria selectionCriteria, Facts invariantFacts,
+			Collection<Term> invariantTerms, Iterator<Facts> factSets, final ExecutionOptions executionOptions,
+			EngineResultsHandler resultsHandler) {
+		if (factSets == null) {
+			throw new IllegalArgumentException("factSets must not be null");
+		}
+		long batchStart = System.currentTimeMillis();
+		if (invariantFacts == null) {
+			invariantFacts = Facts.EMPTY_FACTS;
+		}
+
+		final Context context = selectContext(selectionCriteria, invariantFacts.getFactMap(), executionOptions);
+		if (context == null) {
+			LOG.info("Failed to locate a Context for the given qualifiers, skipping rule engine execution: " + selectionCriteria.getContextQualifiers());
+			return null;
+		}
+
+		// the whole batch is executed as of the same time
+		Long effectiveExecutionTime = selectionCriteria.getEffectiveExecutionTime();
+		if (effectiveExecutionTime == null) { effectiveExecutionTime = batchStart; }
+		final Map<Term, Object> sharedFacts = resolveInvariantTerms(selectionCriteria, context,
+				invariantFacts.getFactMap(), invariantTerms, executionOptions, effectiveExecutionTime);
+
+		final BatchExecution batch = new BatchExecution(resultsHandler);
+		if (batchExecutor == null && batchThreadPoolSize <= 1) {
+			int index = 0;
+			while (factSets.hasNext()) {
+				batch.execute(index++, factSets.next(), selectionCriteria, context, sharedFacts, executionOptions);
+			}
+		} else {
+			executeInParallel(batch, factSets, selectionCriteria, context, sharedFacts, executionOptions);
+		}
+		return batch.getResults(System.currentTimeMillis() - batchStart);
+	}
+
+	/**
+	 * Runs the executions of a batch on the batch executor.  No more fact sets are read from the iterator than there
+	 * are executions running or waiting for a thread, so memory use is bounded by the pool rather than the batch.  The
+	 * executor outlives the batch, so the batch is over once every permit has been given back.
+	 */
+	private void executeInParallel(final BatchExecution batch, Iterator<Facts> factSets,
+			final SelectionCriteria selectionCriteria, final Context context, final Map<Term, Object> sharedFacts,
+			final ExecutionOptions executionOptions) {
+		ExecutorService executor = getBatchExecutor();
+		int maxPermits = Math.max(batchThreadPoolSize, 1) * 2;
+		final Semaphore permits = new Semaphore(maxPermits);
+		boolean completed = false;
+		try {
+			int index = 0;
+			while (factSets.hasNext()) {
+				final int factSetIndex = index++;
+				final Facts facts = factSets.next();
+				permits.acquire();
+				try {
+					executor.execute(new Runnable() {
+						@Override
+						public void run() {
+							try {
+								if (!batch.isCancelled()) {
+									batch.execute(factSetIndex, facts, selectionCriteria, context, sharedFacts,
+											executionOptions);
+								}
+							} finally {
+								permits.release();
+							}
+						}
+					});
+				} catch (RuntimeException e) {
+					permits.release();
+					throw e;
+				}
+			}
+			permits.acquire(maxPermits);
+			completed = true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while executing a batch of fact sets", e);
+		} finally {
+			if (!completed) {
+				// executions that haven't started yet are skipped, the executor is shared so it can't be shut down
+				batch.cancel();
+			}
+		}
+	}
+
+	/**
+	 * Returns the executor set with {@link #setBatchExecutor(ExecutorService)}, or else a pool of
+	 * {@link #setBatchThreadPoolSize(int) batchThreadPoolSize} daemon threads which is created on first use and shared
+	 * by every batch of this engine.
+	 */
+	private synchronized ExecutorService getBatchExecutor() {
+		if (batchExecutor != null) {
+			return batchExecutor;
+		}
+		if (defaultBatchExecutor == null) {
+			defaultBatchExecutor = Executors.newFixedThreadPool(batchThreadPoolSize, new ThreadFactory() {
+				private final AtomicInteger threadNumber = new AtomicInteger();
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "krms-batch-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return defaultBatchExecutor;
+	}
+
+	/**
+	 * Shuts down the batch thread pool the engine created for itself.  An executor set with
+	 * {@link #setBatchExecutor(ExecutorService)} is left to its owner.
+	 */
+	public synchronized void destroy() {
+		if (defaultBatchExecutor != null) {
+			defaultBatchExecutor.shutdown();
+			defaultBatchExecutor = null;
+		}
+	}
+
+	/**
+	 * Resolves the invariant terms of a batch once, from the invariant facts and the term resolvers of the context.
+	 *
+	 * @return the invariant facts together with the values of the invariant terms that could be resolved
+	 */
+	protected Map<Term, Object> resolveInvariantTerms(SelectionCriteria selectionCriteria, Context context,
+			Map<Term, Object> invariantFacts, Collection<Term> invariantTerms, ExecutionOptions executionOptions,
+			Long effectiveExecutionTime) {
+		Map<Term, Object> sharedFacts = new HashMap<Term, Object>(invariantFacts);
+		sharedFacts.put(effectiveExecutionTimeTerm, effectiveExecutionTime);
+		if (invariantTerms == null || invariantTerms.isEmpty()) {
+			return sharedFacts;
+		}
+
+		ExecutionEnvironment environment = establishExecutionEnvironment(selectionCriteria, sharedFacts, executionOptions);
+		if (context.getTermResolvers() != null) for (TermResolver<?> termResolver : context.getTermResolvers()) {
+			environment.addTermResolver(termResolver);
+		}
+		for (Term invariantTerm : invariantTerms) {
+			if (sharedFacts.containsKey(invariantTerm)) {
+				continue;
+			}
+			try {
+				sharedFacts.put(invariantTerm, environment.resolveTerm(invariantTerm, null));
+			} catch (TermResolutionException e) {
+				LOG.warn("Invariant term " + invariantTerm + " can't be resolved from the invariant facts, it will be resolved for each fact set: " + e.getMessage());
+			}
+		}
+		return sharedFacts;
+	}
+
+	/**
+	 * Carries out the executions of a batch and keeps the totals, possibly from many threads at once.
+	 */
+	private final class BatchExecution {
+
+		private final EngineResultsHandler resultsHandler;
+		private final Map<Integer, EngineResults> results = new ConcurrentHashMap<Integer, EngineResults>();
+		private final AtomicInteger executionCount = new AtomicInteger();
+		private final AtomicInteger failureCount = new AtomicInteger();
+		private final AtomicLong totalExecutionTime = new AtomicLong();
+		private final AtomicLong minExecutionTime = new AtomicLong(Long.MAX_VALUE);
+		private final AtomicLong maxExecutionTime = new AtomicLong();
+		private final AtomicBoolean cancelled = new AtomicBoolean();
+
+		BatchExecution(EngineResultsHandler resultsHandler) {
+			this.resultsHandler = resultsHandler;
+		}
+
+		void execute(int index, Facts facts, SelectionCriteria selectionCriteria, Context context,
+				Map<Term, Object> sharedFacts, ExecutionOptions executionOptions) {
+			DateTime start = new DateTime();
+			EngineResults engineResults;
+			try {
+				Map<Term, Object> factMap = new HashMap<Term, Object>(sharedFacts);
+				if (facts != null) {
+					factMap.putAll(facts.getFactMap());
+				}
+				ExecutionEnvironment environment = establishExecutionEnvironment(selectionCriteria, factMap, executionOptions);
+				engineResults = executeContext(context, environment, start);
+			} catch (RuntimeException e) {
+				failureCount.incrementAndGet();
+				if (resultsHandler != null) {
+					resultsHandler.handleFailure(index, facts, e);
+				} else {
+					LOG.error("Execution " + index + " of the batch failed", e);
+				}
+				return;
+			} finally {
+				executionCount.incrementAndGet();
+				recordExecutionTime(System.currentTimeMillis() - start.getMillis());
+			}
+
+			// the execution succeeded, a handler that can't take its results doesn't make it a failure
+			if (resultsHandler != null) {
+				try {
+					resultsHandler.handleResults(index, facts, engineResults);
+				} catch (RuntimeException e) {
+					LOG.error("The results handler failed on the results of execution " + index + " of the batch", e);
+				}
+			} else {
+				results.put(index, engineResults);
+			}
+		}
+
+		void cancel() {
+			cancelled.set(true);
+		}
+
+		boolean isCancelled() {
+			return cancelled.get();
+		}
+
+		private void recordExecutionTime(long executionTime) {
+			totalExecutionTime.addAndGet(executionTime);
+			long min;
+			while ((min = minExecutionTime.get()) > executionTime && !minExecutionTime.compareAndSet(min, executionTime)) { }
+			long max;
+			while ((max = maxExecutionTime.get()) < executionTime && !maxExecutionTime.compareAndSet(max, executionTime)) { }
+		}
+
+		BatchEngineResults getResults(long elapsedTime) {
+			int count = executionCount.get();
+			List<EngineResults> orderedResults = null;
+			if (resultsHandler == null) {
+				orderedResults = new ArrayList<EngineResults>(count);
+				for (int index = 0; index < count; index++) {
+					orderedResults.add(results.get(index));
+				}
+			}
+			return new BatchEngineResults(orderedResults, count, failureCount.get(), elapsedTime,
+					totalExecutionTime.get(), count == 0 ? 0 : minExecutionTime.get(), maxExecutionTime.get());
+		}
+	}
+
     /**
      * Return a {@link BasicExecutionEnvironment} using the given parameters
      * @param selectionCriteria {@link SelectionCriteria}
@@ -81,9 +349,25 @@ public class ProviderBasedEngine implements Engine {
      * @return {@link ExecutionEnvironment} created with the given parameters
      */
 	protected ExecutionEnvironment establishExecutionEnvironment(SelectionCriteria selectionCriteria, Map<Term, Object> facts, ExecutionOptions executionOptions) {
+		if (profileExecution) {
+			executionOptions = setFlagByDefault(executionOptions, ExecutionFlag.PROFILE_EXECUTION);
+		}
+		if (reorderPropositions) {
+			executionOptions = setFlagByDefault(executionOptions, ExecutionFlag.REORDER_PROPOSITIONS);
+		}
 		return new BasicExecutionEnvironment(selectionCriteria, facts, executionOptions, new TermResolutionEngineImpl());
 	}
 
+    /**
+     * Returns execution options with the given flag set, unless the given options already have a value for it
+     */
+	private ExecutionOptions setFlagByDefault(ExecutionOptions executionOptions, ExecutionFlag flag) {
+		if (executionOptions != null && executionOptions.isFlagSet(flag)) {
+			return executionOptions;
+		}
+		return new ExecutionOptions(executionOptions).setFlag(flag, true);
+	}
+
     /**
      * Load a Context from the contextProvider using the given parameters
      * @see ContextProvider loadContext
@@ -107,5 +391,42 @@ public class ProviderBasedEngine implements Engine {
 	public void setContextProvider(ContextProvider contextProvider) {
 		this.contextProvider = contextProvider;
 	}
+
+    /**
+     * Set the number of threads the executions of a batch are spread over.  With 1 or less, and no batch executor set,
+     * batches are executed in the calling thread.
+     * @param batchThreadPoolSize the number of threads to execute a batch with
+     */
+	public void setBatchThreadPoolSize(int batchThreadPoolSize) {
+		this.batchThreadPoolSize = batchThreadPoolSize;
+	}
+
+    /**
+     * Set the executor the executions of batches run on.  When it isn't set the engine creates a pool of
+     * batchThreadPoolSize threads on first use and shares it between its batches.  The batchThreadPoolSize still
+     * bounds how many fact sets of a batch are read ahead.
+     * @param batchExecutor the executor to run batch executions on
+     */
+	public void setBatchExecutor(ExecutorService batchExecutor) {
+		this.batchExecutor = batchExecutor;
+	}
+
+    /**
+     * Set whether executions are recorded by the {@link ExecutionProfiler} unless their execution options say
+     * otherwise.
+     * @param profileExecution whether to profile executions by default
+     */
+	public void setProfileExecution(boolean profileExecution) {
+		this.profileExecution = profileExecution;
+	}
+
+    /**
+     * Set whether the propositions of compound propositions may be reordered by observed cost and outcome unless the
+     * execution options say otherwise.
+     * @param reorderPropositions whether to reorder propositions by default
+     */
+	public void setReorderPropositions(boolean reorderPropositions) {
+		this.reorderPropositions = reorderPropositions;
+	}
 	
 }
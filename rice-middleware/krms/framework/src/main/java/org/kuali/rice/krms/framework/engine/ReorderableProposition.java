@@ -0,0 +1,36 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.krms.framework.engine;
+
+/**
+ * A {@link Proposition} which can say whether evaluating it has any effect besides resolving terms.  The propositions of
+ * a {@link CompoundProposition} are only evaluated in a different order than they are defined in when all of them are
+ * reorderable.
+ *
+ * @see org.kuali.rice.krms.api.engine.ExecutionFlag#REORDER_PROPOSITIONS
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ * @since 2.6
+ */
+public interface ReorderableProposition extends Proposition {
+
+	/**
+	 * @return true if evaluating the proposition has no side effects, so the order it is evaluated in with its
+	 * siblings doesn't matter
+	 */
+	boolean isReorderable();
+
+}
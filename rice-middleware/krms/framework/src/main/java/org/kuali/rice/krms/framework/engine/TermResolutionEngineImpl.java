@@ -50,6 +50,26 @@ public class TermResolutionEngineImpl implements TermResolutionEngine {
 	// should this use soft refs?  Will require some refactoring to check if the referenced object is around;
 	private final Map<Term, Object> termCache = new HashMap<Term, Object>();
 
+	private final TermResolutionPlanCache planCache;
+
+	// identifies the current set of resolvers in the plan cache, rebuilt after a resolver is added
+	private ResolverSetKey resolverSetKey;
+
+	/**
+	 * Creates a TermResolutionEngineImpl which shares its resolution plans through
+	 * {@link TermResolutionPlanCache#getInstance()}
+	 */
+	public TermResolutionEngineImpl() {
+		this(TermResolutionPlanCache.getInstance());
+	}
+
+	/**
+	 * @param planCache the cache to share resolution plans through, or null to plan every term anew
+	 */
+	public TermResolutionEngineImpl(TermResolutionPlanCache planCache) {
+		this.planCache = planCache;
+	}
+
 	@Override
 	public void addTermValue(Term term, Object value) {
 		termCache.put(term, value);
@@ -67,6 +87,7 @@ public class TermResolutionEngineImpl implements TermResolutionEngine {
 		}
 		termResolversByKey.put(new TermResolverKey(termResolver), termResolver);
 		termResolvers.add(termResolver);
+		resolverSetKey = null;
 	}
 
 	@SuppressWarnings("unchecked")
@@ -78,8 +99,7 @@ public class TermResolutionEngineImpl implements TermResolutionEngine {
 		String termName = term.getName();
 		
 		// build plan w/ termName spec for correct TermResolver selection
-		List<TermResolverKey> resolutionPlan = buildTermResolutionPlan(termName);
-		// TODO: could cache these plans somewhere, since future agendas will likely require the same plans
+		List<TermResolverKey> resolutionPlan = getTermResolutionPlan(termName);
 		
 		LOG.debug("resolutionPlan: " + (resolutionPlan == null ? "null" : StringUtils.join(resolutionPlan.iterator(), ", ")));
 		
@@ -156,6 +176,55 @@ public class TermResolutionEngineImpl implements TermResolutionEngine {
 		}
 	}
 
+	/**
+	 * Gets the plan for resolving the named term from the plan cache, only building it when the same set of resolvers
+	 * has not planned the term before with the same prerequisite terms available.
+	 *
+	 * @param termName
+	 * @return List<{@link TermResolverKey}>, or null if the term can't be resolved
+	 */
+	protected List<TermResolverKey> getTermResolutionPlan(String termName) {
+		if (planCache == null) {
+			return buildTermResolutionPlan(termName);
+		}
+		ResolverSetKey resolverSet = getResolverSetKey();
+		List<String> planKey = buildPlanKey(termName, resolverSet);
+		List<TermResolverKey> resolutionPlan = planCache.get(resolverSet, planKey);
+		if (resolutionPlan == null) {
+			resolutionPlan = buildTermResolutionPlan(termName);
+			if (resolutionPlan != null) {
+				planCache.put(resolverSet, planKey, resolutionPlan);
+			}
+		}
+		return resolutionPlan;
+	}
+
+	private ResolverSetKey getResolverSetKey() {
+		if (resolverSetKey == null) {
+			resolverSetKey = new ResolverSetKey(termResolversByOutput);
+		}
+		return resolverSetKey;
+	}
+
+	/**
+	 * The plan for a term depends on which of the prerequisites were already available when it was built, so these
+	 * are part of its key along with the term name.
+	 */
+	private List<String> buildPlanKey(String termName, ResolverSetKey resolverSet) {
+		List<String> availablePrereqs = new ArrayList<String>();
+		for (Term term : termCache.keySet()) {
+			if (term.getName() != null && term.getProperties().isEmpty()
+					&& resolverSet.isPrerequisite(term.getName())) {
+				availablePrereqs.add(term.getName());
+			}
+		}
+		Collections.sort(availablePrereqs);
+		List<String> planKey = new ArrayList<String>(availablePrereqs.size() + 1);
+		planKey.add(termName);
+		planKey.addAll(availablePrereqs);
+		return planKey;
+	}
+
     /**
      *
      * @param termName
@@ -565,6 +634,52 @@ public class TermResolutionEngineImpl implements TermResolutionEngine {
 	}
 
 
+	/**
+	 * Identifies a set of term resolvers by everything resolution planning looks at: the key, parameter names and cost
+	 * of each resolver for each output.
+	 */
+	private static final class ResolverSetKey {
+		private final List<Object> data = new ArrayList<Object>();
+		private final Set<String> prereqs = new HashSet<String>();
+		private final int hashCode;
+
+		ResolverSetKey(Map<String, List<TermResolver<?>>> termResolversByOutput) {
+			List<String> outputs = new ArrayList<String>(termResolversByOutput.keySet());
+			Collections.sort(outputs);
+			for (String output : outputs) {
+				for (TermResolver<?> resolver : termResolversByOutput.get(output)) {
+					data.add(new TermResolverKey(resolver));
+					data.add(resolver.getParameterNames() == null ? Collections.<String>emptySet() :
+							new HashSet<String>(resolver.getParameterNames()));
+					data.add(resolver.getCost());
+					if (resolver.getPrerequisites() != null) {
+						prereqs.addAll(resolver.getPrerequisites());
+					}
+				}
+			}
+			hashCode = data.hashCode();
+		}
+
+		boolean isPrerequisite(String termName) {
+			return prereqs.contains(termName);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null || getClass() != obj.getClass())
+				return false;
+			ResolverSetKey other = (ResolverSetKey) obj;
+			return hashCode == other.hashCode && data.equals(other.data);
+		}
+	}
+
 	private static class Visited {
 		private TermResolverKey resolverKey;
 		private List<TermResolverKey> pathTo;
@@ -0,0 +1,108 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.krms.framework.engine;
+
+import org.kuali.rice.krms.framework.engine.TermResolutionEngineImpl.TermResolverKey;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds the term resolution plans built by {@link TermResolutionEngineImpl}, so that executions using the same term
+ * resolvers can share them instead of each searching for their own.
+ *
+ * <p>A plan only depends on the set of term resolvers (their outputs, parameter names, prerequisites and costs), the
+ * name of the term being resolved and which prerequisite terms were already available when it was planned, never on
+ * the values of any facts.  Plans are therefore held per resolver set, and within that by term name and available
+ * prerequisites.  Both levels are bounded, and are simply cleared when they fill up.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public final class TermResolutionPlanCache {
+
+    private static final int DEFAULT_MAX_RESOLVER_SETS = 100;
+    private static final int DEFAULT_MAX_PLANS_PER_RESOLVER_SET = 1000;
+
+    private static final TermResolutionPlanCache INSTANCE =
+            new TermResolutionPlanCache(DEFAULT_MAX_RESOLVER_SETS, DEFAULT_MAX_PLANS_PER_RESOLVER_SET);
+
+    private final ConcurrentMap<Object, ConcurrentMap<Object, List<TermResolverKey>>> plansByResolverSet =
+            new ConcurrentHashMap<Object, ConcurrentMap<Object, List<TermResolverKey>>>();
+    private final int maxResolverSets;
+    private final int maxPlansPerResolverSet;
+
+    /**
+     * @param maxResolverSets the number of different resolver sets plans are held for
+     * @param maxPlansPerResolverSet the number of plans held for each resolver set
+     */
+    public TermResolutionPlanCache(int maxResolverSets, int maxPlansPerResolverSet) {
+        this.maxResolverSets = maxResolverSets;
+        this.maxPlansPerResolverSet = maxPlansPerResolverSet;
+    }
+
+    /**
+     * @return the cache shared by the term resolution engines of all executions
+     */
+    public static TermResolutionPlanCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param resolverSet identifies the set of term resolvers the plan was built with
+     * @param planKey identifies the term and the prerequisites which were available
+     * @return the plan, or null if none is held
+     */
+    List<TermResolverKey> get(Object resolverSet, Object planKey) {
+        ConcurrentMap<Object, List<TermResolverKey>> plans = plansByResolverSet.get(resolverSet);
+        return plans == null ? null : plans.get(planKey);
+    }
+
+    void put(Object resolverSet, Object planKey, List<TermResolverKey> plan) {
+        ConcurrentMap<Object, List<TermResolverKey>> plans = plansByResolverSet.get(resolverSet);
+        if (plans == null) {
+            if (plansByResolverSet.size() >= maxResolverSets) {
+                plansByResolverSet.clear();
+            }
+            plans = new ConcurrentHashMap<Object, List<TermResolverKey>>();
+            ConcurrentMap<Object, List<TermResolverKey>> existing = plansByResolverSet.putIfAbsent(resolverSet, plans);
+            if (existing != null) {
+                plans = existing;
+            }
+        }
+        if (plans.size() >= maxPlansPerResolverSet) {
+            plans.clear();
+        }
+        plans.put(planKey, Collections.unmodifiableList(plan));
+    }
+
+    /**
+     * @return the number of plans held
+     */
+    public int size() {
+        int size = 0;
+        for (ConcurrentMap<Object, List<TermResolverKey>> plans : plansByResolverSet.values()) {
+            size += plans.size();
+        }
+        return size;
+    }
+
+    public void clear() {
+        plansByResolverSet.clear();
+    }
+
+}
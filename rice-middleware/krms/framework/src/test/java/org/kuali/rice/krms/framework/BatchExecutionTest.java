@@ -0,0 +1,241 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.krms.framework;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.kuali.rice.krms.api.engine.BatchEngineResults;
+import org.kuali.rice.krms.api.engine.EngineResults;
+import org.kuali.rice.krms.api.engine.EngineResultsHandler;
+import org.kuali.rice.krms.api.engine.ExecutionOptions;
+import org.kuali.rice.krms.api.engine.Facts;
+import org.kuali.rice.krms.api.engine.SelectionCriteria;
+import org.kuali.rice.krms.api.engine.Term;
+import org.kuali.rice.krms.api.engine.TermResolver;
+import org.kuali.rice.krms.api.repository.agenda.AgendaDefinition;
+import org.kuali.rice.krms.framework.engine.Action;
+import org.kuali.rice.krms.framework.engine.Agenda;
+import org.kuali.rice.krms.framework.engine.BasicAgenda;
+import org.kuali.rice.krms.framework.engine.BasicAgendaTree;
+import org.kuali.rice.krms.framework.engine.BasicAgendaTreeEntry;
+import org.kuali.rice.krms.framework.engine.BasicContext;
+import org.kuali.rice.krms.framework.engine.BasicRule;
+import org.kuali.rice.krms.framework.engine.ComparableTermBasedProposition;
+import org.kuali.rice.krms.framework.engine.ProviderBasedEngine;
+import org.kuali.rice.krms.framework.engine.Rule;
+import org.kuali.rice.krms.framework.engine.expression.ComparisonOperator;
+import org.kuali.rice.krms.framework.engine.expression.ComparisonOperatorServiceImpl;
+
+/**
+ * Tests batch execution of the {@link ProviderBasedEngine}.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class BatchExecutionTest {
+
+	private static final Term totalCostTerm = new Term("totalCost");
+	private static final Term rateTerm = new Term("rate");
+
+	@Test
+	public void testInvariantTermsAreResolvedOnce() {
+		ComparisonOperator operatorGreaterThan = ComparisonOperator.GREATER_THAN;
+		operatorGreaterThan.setComparisonOperatorService(ComparisonOperatorServiceImpl.getInstance());
+		Rule costRule = new BasicRule("r1", new ComparableTermBasedProposition(operatorGreaterThan, totalCostTerm,
+				Integer.valueOf(10)), Collections.<Action>emptyList());
+		Rule rateRule = new BasicRule("r2", new ComparableTermBasedProposition(operatorGreaterThan, rateTerm,
+				Integer.valueOf(1)), Collections.<Action>emptyList());
+		Agenda agenda = new BasicAgenda(Collections.singletonMap(AgendaDefinition.Constants.EVENT, "test"),
+				new BasicAgendaTree(new BasicAgendaTreeEntry(costRule), new BasicAgendaTreeEntry(rateRule)));
+
+		CountingRateResolver rateResolver = new CountingRateResolver();
+		ProviderBasedEngine engine = new ProviderBasedEngine();
+		engine.setContextProvider(new ManualContextProvider(new BasicContext(Collections.singletonList(agenda),
+				Collections.<TermResolver<?>>singletonList(rateResolver))));
+		engine.setBatchThreadPoolSize(4);
+
+		List<Facts> factSets = new ArrayList<Facts>();
+		for (int i = 0; i < 25; i++) {
+			factSets.add(Facts.Builder.create().addFact(totalCostTerm, Integer.valueOf(i)).build());
+		}
+		SelectionCriteria selectionCriteria = SelectionCriteria.createCriteria(null,
+				Collections.singletonMap("docTypeName", "Proposal"),
+				Collections.singletonMap(AgendaDefinition.Constants.EVENT, "test"));
+
+		BatchEngineResults batchResults = engine.executeBatch(selectionCriteria, Facts.EMPTY_FACTS,
+				Collections.singletonList(rateTerm), factSets.iterator(), new ExecutionOptions(), null);
+
+		assertNotNull(batchResults);
+		assertEquals(25, batchResults.getExecutionCount());
+		assertEquals(0, batchResults.getFailureCount());
+		assertEquals(25, batchResults.getResults().size());
+		for (EngineResults engineResults : batchResults.getResults()) {
+			assertNotNull(engineResults);
+		}
+		assertEquals("the invariant term should only have been resolved once", 1, rateResolver.resolveCount.get());
+	}
+
+	@Test
+	public void testFailingResultsHandlerDoesNotFailTheExecution() {
+		ProviderBasedEngine engine = newCostEngine();
+		engine.setBatchThreadPoolSize(1);
+		final AtomicInteger handledFailures = new AtomicInteger();
+
+		BatchEngineResults batchResults = engine.executeBatch(newSelectionCriteria(), Facts.EMPTY_FACTS, null,
+				newFactSets(5).iterator(), new ExecutionOptions(), new EngineResultsHandler() {
+			@Override
+			public void handleResults(int index, Facts facts, EngineResults engineResults) {
+				throw new IllegalStateException("can't take the results");
+			}
+
+			@Override
+			public void handleFailure(int index, Facts facts, RuntimeException exception) {
+				handledFailures.incrementAndGet();
+			}
+		});
+
+		assertEquals(5, batchResults.getExecutionCount());
+		assertEquals(0, batchResults.getFailureCount());
+		assertEquals(0, handledFailures.get());
+	}
+
+	@Test
+	public void testBatchesShareTheEnginesThreadPool() {
+		ProviderBasedEngine engine = newCostEngine();
+		engine.setBatchThreadPoolSize(2);
+		ThreadRecordingHandler handler = new ThreadRecordingHandler();
+		try {
+			for (int batch = 0; batch < 3; batch++) {
+				engine.executeBatch(newSelectionCriteria(), Facts.EMPTY_FACTS, null, newFactSets(10).iterator(),
+						new ExecutionOptions(), handler);
+			}
+		} finally {
+			engine.destroy();
+		}
+
+		assertEquals(30, handler.handledCount.get());
+		for (String threadName : handler.threadNames.keySet()) {
+			assertTrue("batches should reuse the pool rather than create threads, ran on " + threadName,
+					"krms-batch-1".equals(threadName) || "krms-batch-2".equals(threadName));
+		}
+	}
+
+	@Test
+	public void testBatchesRunOnTheBatchExecutor() {
+		ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable runnable) {
+				return new Thread(runnable, "injected-batch");
+			}
+		});
+		ProviderBasedEngine engine = newCostEngine();
+		engine.setBatchThreadPoolSize(1);
+		engine.setBatchExecutor(executor);
+		ThreadRecordingHandler handler = new ThreadRecordingHandler();
+		try {
+			BatchEngineResults batchResults = engine.executeBatch(newSelectionCriteria(), Facts.EMPTY_FACTS, null,
+					newFactSets(10).iterator(), new ExecutionOptions(), handler);
+			engine.destroy();
+
+			assertEquals(10, batchResults.getExecutionCount());
+			assertEquals(10, handler.handledCount.get());
+			assertEquals(Collections.singleton("injected-batch"), handler.threadNames.keySet());
+			assertFalse("the engine must not shut down an executor it was given", executor.isShutdown());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static ProviderBasedEngine newCostEngine() {
+		ComparisonOperator operatorGreaterThan = ComparisonOperator.GREATER_THAN;
+		operatorGreaterThan.setComparisonOperatorService(ComparisonOperatorServiceImpl.getInstance());
+		Rule costRule = new BasicRule("r1", new ComparableTermBasedProposition(operatorGreaterThan, totalCostTerm,
+				Integer.valueOf(10)), Collections.<Action>emptyList());
+		Agenda agenda = new BasicAgenda(Collections.singletonMap(AgendaDefinition.Constants.EVENT, "test"),
+				new BasicAgendaTree(new BasicAgendaTreeEntry(costRule)));
+		ProviderBasedEngine engine = new ProviderBasedEngine();
+		engine.setContextProvider(new ManualContextProvider(new BasicContext(Collections.singletonList(agenda),
+				Collections.<TermResolver<?>>emptyList())));
+		return engine;
+	}
+
+	private static SelectionCriteria newSelectionCriteria() {
+		return SelectionCriteria.createCriteria(null, Collections.singletonMap("docTypeName", "Proposal"),
+				Collections.singletonMap(AgendaDefinition.Constants.EVENT, "test"));
+	}
+
+	private static List<Facts> newFactSets(int count) {
+		List<Facts> factSets = new ArrayList<Facts>();
+		for (int i = 0; i < count; i++) {
+			factSets.add(Facts.Builder.create().addFact(totalCostTerm, Integer.valueOf(i)).build());
+		}
+		return factSets;
+	}
+
+	private static class ThreadRecordingHandler implements EngineResultsHandler {
+
+		private final Map<String, Boolean> threadNames = new ConcurrentHashMap<String, Boolean>();
+		private final AtomicInteger handledCount = new AtomicInteger();
+
+		@Override
+		public void handleResults(int index, Facts facts, EngineResults engineResults) {
+			threadNames.put(Thread.currentThread().getName(), Boolean.TRUE);
+			handledCount.incrementAndGet();
+		}
+
+		@Override
+		public void handleFailure(int index, Facts facts, RuntimeException exception) {
+			throw exception;
+		}
+	}
+
+	private static class CountingRateResolver implements TermResolver<Integer> {
+
+		private final AtomicInteger resolveCount = new AtomicInteger();
+
+		@Override
+		public Set<String> getPrerequisites() { return Collections.emptySet(); }
+
+		@Override
+		public String getOutput() { return rateTerm.getName(); }
+
+		@Override
+		public Set<String> getParameterNames() { return Collections.emptySet(); }
+
+		@Override
+		public int getCost() { return 1; }
+
+		@Override
+		public Integer resolve(Map<String, Object> resolvedPrereqs, Map<String, String> parameters) {
+			resolveCount.incrementAndGet();
+			return Integer.valueOf(5);
+		}
+	}
+}
@@ -0,0 +1,183 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.krms.framework;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kuali.rice.krms.api.engine.ExecutionEnvironment;
+import org.kuali.rice.krms.api.engine.ExecutionFlag;
+import org.kuali.rice.krms.api.engine.ExecutionOptions;
+import org.kuali.rice.krms.api.engine.Facts;
+import org.kuali.rice.krms.api.engine.SelectionCriteria;
+import org.kuali.rice.krms.api.engine.Term;
+import org.kuali.rice.krms.api.engine.TermResolver;
+import org.kuali.rice.krms.api.repository.LogicalOperator;
+import org.kuali.rice.krms.api.repository.agenda.AgendaDefinition;
+import org.kuali.rice.krms.framework.engine.Action;
+import org.kuali.rice.krms.framework.engine.Agenda;
+import org.kuali.rice.krms.framework.engine.BasicAgenda;
+import org.kuali.rice.krms.framework.engine.BasicAgendaTree;
+import org.kuali.rice.krms.framework.engine.BasicAgendaTreeEntry;
+import org.kuali.rice.krms.framework.engine.BasicContext;
+import org.kuali.rice.krms.framework.engine.BasicExecutionEnvironment;
+import org.kuali.rice.krms.framework.engine.BasicRule;
+import org.kuali.rice.krms.framework.engine.ComparableTermBasedProposition;
+import org.kuali.rice.krms.framework.engine.CompoundProposition;
+import org.kuali.rice.krms.framework.engine.ExecutionProfiler;
+import org.kuali.rice.krms.framework.engine.ProfileStatistics;
+import org.kuali.rice.krms.framework.engine.ProfiledElement;
+import org.kuali.rice.krms.framework.engine.Proposition;
+import org.kuali.rice.krms.framework.engine.ProviderBasedEngine;
+import org.kuali.rice.krms.framework.engine.Rule;
+import org.kuali.rice.krms.framework.engine.TermResolutionEngineImpl;
+import org.kuali.rice.krms.framework.engine.expression.ComparisonOperator;
+import org.kuali.rice.krms.framework.engine.expression.ComparisonOperatorServiceImpl;
+
+/**
+ * Tests the recording of executions by the {@link ExecutionProfiler}.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class ExecutionProfilerTest {
+
+	private static final Term totalCostTerm = new Term("totalCost");
+
+	private final ExecutionProfiler profiler = ExecutionProfiler.getInstance();
+
+	private ProviderBasedEngine engine;
+	private SelectionCriteria selectionCriteria;
+
+	@Before
+	public void setUp() {
+		profiler.reset();
+
+		ComparisonOperator operatorGreaterThan = ComparisonOperator.GREATER_THAN;
+		operatorGreaterThan.setComparisonOperatorService(ComparisonOperatorServiceImpl.getInstance());
+		Proposition falseProp = new ComparableTermBasedProposition<Integer>(operatorGreaterThan, totalCostTerm, 1000);
+		Proposition trueProp = new ComparableTermBasedProposition<Integer>(operatorGreaterThan, totalCostTerm, 1);
+		Proposition andProp = new CompoundProposition(LogicalOperator.AND, Arrays.asList(falseProp, trueProp));
+		Rule rule = new BasicRule("r1", andProp, Collections.<Action>singletonList(new ActionMock("a1")));
+
+		Map<String, String> agendaQualifiers = new HashMap<String, String>();
+		agendaQualifiers.put(AgendaDefinition.Constants.EVENT, "test");
+		agendaQualifiers.put("name", "profiledAgenda");
+		Agenda agenda = new BasicAgenda(agendaQualifiers, new BasicAgendaTree(new BasicAgendaTreeEntry(rule)));
+
+		engine = new ProviderBasedEngine();
+		engine.setContextProvider(new ManualContextProvider(new BasicContext(Collections.singletonList(agenda),
+				Collections.<TermResolver<?>>singletonList(new TermResolverMock<Integer>(totalCostTerm.getName(), 10)))));
+		selectionCriteria = SelectionCriteria.createCriteria(null, Collections.singletonMap("docTypeName", "Proposal"),
+				Collections.singletonMap(AgendaDefinition.Constants.EVENT, "test"));
+	}
+
+	@After
+	public void tearDown() {
+		profiler.reset();
+	}
+
+	@Test
+	public void testProfiledExecution() {
+		ExecutionOptions executionOptions = new ExecutionOptions().setFlag(ExecutionFlag.PROFILE_EXECUTION, true);
+		engine.execute(selectionCriteria, Facts.EMPTY_FACTS, executionOptions);
+		engine.execute(selectionCriteria, Facts.EMPTY_FACTS, executionOptions);
+
+		List<ProfileStatistics> agendas = profiler.getStatistics(ProfileStatistics.ElementType.AGENDA);
+		assertEquals(1, agendas.size());
+		assertEquals("profiledAgenda", agendas.get(0).getName());
+		assertEquals(2, agendas.get(0).getEvaluationCount());
+
+		List<ProfileStatistics> rules = profiler.getStatistics(ProfileStatistics.ElementType.RULE);
+		assertEquals(1, rules.size());
+		assertEquals(2, rules.get(0).getEvaluationCount());
+		assertEquals(0, rules.get(0).getTrueCount());
+
+		// the compound proposition and the first of its propositions, the AND skips the second
+		List<ProfileStatistics> propositions = profiler.getStatistics(ProfileStatistics.ElementType.PROPOSITION);
+		assertEquals(2, propositions.size());
+		for (ProfileStatistics statistics : propositions) {
+			assertEquals(2, statistics.getEvaluationCount());
+			if (statistics.getName().startsWith("(")) {
+				assertEquals(2, statistics.getShortCircuitCount());
+			}
+		}
+
+		List<ProfileStatistics> termResolvers = profiler.getStatistics(ProfileStatistics.ElementType.TERM_RESOLVER);
+		assertEquals(1, termResolvers.size());
+		assertEquals(2, termResolvers.get(0).getEvaluationCount());
+
+		assertTrue(profiler.getReport().contains("profiledAgenda"));
+	}
+
+	@Test
+	public void testProfiledElementsAreRecordedUnderTheirProfileName() {
+		ExecutionOptions executionOptions = new ExecutionOptions().setFlag(ExecutionFlag.PROFILE_EXECUTION, true);
+		ExecutionEnvironment environment = new BasicExecutionEnvironment(selectionCriteria,
+				Collections.<Term, Object>emptyMap(), executionOptions, new TermResolutionEngineImpl());
+		Rule rule = new UnloadedRule("lazy rule (1001)");
+
+		profiler.evaluate(rule, environment);
+		profiler.evaluate(rule, environment);
+
+		List<ProfileStatistics> rules = profiler.getStatistics(ProfileStatistics.ElementType.RULE);
+		assertEquals(1, rules.size());
+		assertEquals("lazy rule (1001)", rules.get(0).getName());
+		assertEquals(2, rules.get(0).getEvaluationCount());
+	}
+
+	@Test
+	public void testUnprofiledExecution() {
+		engine.execute(selectionCriteria, Facts.EMPTY_FACTS, new ExecutionOptions());
+		assertTrue(profiler.getStatistics().isEmpty());
+	}
+
+	/**
+	 * A rule that knows its profile name without being loaded, and fails if it is described any other way.
+	 */
+	private static final class UnloadedRule implements Rule, ProfiledElement {
+
+		private final String profileName;
+
+		UnloadedRule(String profileName) {
+			this.profileName = profileName;
+		}
+
+		@Override
+		public boolean evaluate(ExecutionEnvironment environment) {
+			return true;
+		}
+
+		@Override
+		public String getProfileName() {
+			return profileName;
+		}
+
+		@Override
+		public String toString() {
+			throw new AssertionError("The profiler should not describe the rule with toString");
+		}
+	}
+
+}
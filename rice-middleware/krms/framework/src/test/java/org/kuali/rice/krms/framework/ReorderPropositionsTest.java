@@ -0,0 +1,170 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.krms.framework;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+import static junit.framework.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import org.kuali.rice.krms.api.engine.ExecutionEnvironment;
+import org.kuali.rice.krms.api.engine.ExecutionFlag;
+import org.kuali.rice.krms.api.engine.ExecutionOptions;
+import org.kuali.rice.krms.api.engine.SelectionCriteria;
+import org.kuali.rice.krms.api.engine.Term;
+import org.kuali.rice.krms.api.repository.LogicalOperator;
+import org.kuali.rice.krms.framework.engine.BasicExecutionEnvironment;
+import org.kuali.rice.krms.framework.engine.CompoundProposition;
+import org.kuali.rice.krms.framework.engine.Proposition;
+import org.kuali.rice.krms.framework.engine.PropositionResult;
+import org.kuali.rice.krms.framework.engine.ReorderableProposition;
+import org.kuali.rice.krms.framework.engine.TermResolutionEngineImpl;
+
+/**
+ * Tests the reordering of the propositions of a {@link CompoundProposition}.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class ReorderPropositionsTest {
+
+	@Test
+	public void testSelectivePropositionMovesFirst() {
+		PropositionMock expensive = new PropositionMock(true, 1);
+		PropositionMock selective = new PropositionMock(false, 0);
+		CompoundProposition and = new CompoundProposition(LogicalOperator.AND,
+				Arrays.<Proposition>asList(expensive, selective));
+
+		for (int i = 0; i < 200; i++) {
+			assertFalse(and.evaluate(newEnvironment(true)).getResult());
+		}
+		assertEquals(200, selective.evaluations);
+		// the expensive proposition comes first in the defined order, so it still has to be evaluated every time
+		assertEquals(200, expensive.evaluations);
+		assertTrue("the selective proposition should have been evaluated first",
+				selective.lastEvaluatedAt < expensive.lastEvaluatedAt);
+	}
+
+	@Test
+	public void testDefinitionOrderWithoutFlag() {
+		PropositionMock expensive = new PropositionMock(true, 0);
+		PropositionMock selective = new PropositionMock(false, 0);
+		CompoundProposition and = new CompoundProposition(LogicalOperator.AND,
+				Arrays.<Proposition>asList(expensive, selective));
+
+		for (int i = 0; i < 100; i++) {
+			assertFalse(and.evaluate(newEnvironment(false)).getResult());
+		}
+		assertEquals(100, expensive.evaluations);
+	}
+
+	@Test
+	public void testFailureOutsideOfDefinitionOrderIsHidden() {
+		PropositionMock deciding = new PropositionMock(true, 0);
+		PropositionMock failing = new PropositionMock(true, 0);
+		failing.fail = true;
+		CompoundProposition or = new CompoundProposition(LogicalOperator.OR,
+				Arrays.<Proposition>asList(deciding, failing));
+
+		// the defined order never reaches the failing proposition, so neither may the reordered one
+		for (int i = 0; i < 100; i++) {
+			assertTrue(or.evaluate(newEnvironment(true)).getResult());
+		}
+	}
+
+	@Test
+	public void testFailureInDefinitionOrderIsNotMasked() {
+		PropositionMock failing = new PropositionMock(true, 0);
+		failing.fail = true;
+		PropositionMock selective = new PropositionMock(false, 0);
+		CompoundProposition and = new CompoundProposition(LogicalOperator.AND,
+				Arrays.<Proposition>asList(failing, selective));
+
+		// the defined order always reaches the failing proposition first, so the reordered one must fail as well
+		for (int i = 0; i < 100; i++) {
+			try {
+				and.evaluate(newEnvironment(true));
+				fail("the failure of the first proposition was masked");
+			} catch (IllegalStateException e) {
+				assertEquals("failing proposition evaluated", e.getMessage());
+			}
+		}
+		assertEquals(100, failing.evaluations);
+		assertTrue("the selective proposition should have been moved first", selective.evaluations > 0);
+	}
+
+	private ExecutionEnvironment newEnvironment(boolean reorder) {
+		ExecutionOptions executionOptions = new ExecutionOptions().setFlag(ExecutionFlag.REORDER_PROPOSITIONS, reorder);
+		SelectionCriteria selectionCriteria = SelectionCriteria.createCriteria(null,
+				Collections.<String, String>emptyMap(), Collections.<String, String>emptyMap());
+		return new BasicExecutionEnvironment(selectionCriteria, Collections.<Term, Object>emptyMap(),
+				executionOptions, new TermResolutionEngineImpl());
+	}
+
+	private static final AtomicLong SEQUENCE = new AtomicLong();
+
+	private static class PropositionMock implements ReorderableProposition {
+
+		private final boolean result;
+		private final long sleepMillis;
+		private boolean fail;
+		private int evaluations;
+		private long lastEvaluatedAt;
+
+		PropositionMock(boolean result, long sleepMillis) {
+			this.result = result;
+			this.sleepMillis = sleepMillis;
+		}
+
+		@Override
+		public PropositionResult evaluate(ExecutionEnvironment environment) {
+			evaluations++;
+			lastEvaluatedAt = SEQUENCE.incrementAndGet();
+			if (fail) {
+				throw new IllegalStateException("failing proposition evaluated");
+			}
+			if (sleepMillis > 0) {
+				try {
+					Thread.sleep(sleepMillis);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return new PropositionResult(result);
+		}
+
+		@Override
+		public List<Proposition> getChildren() {
+			return Collections.emptyList();
+		}
+
+		@Override
+		public boolean isCompound() {
+			return false;
+		}
+
+		@Override
+		public boolean isReorderable() {
+			return true;
+		}
+	}
+
+}
@@ -36,6 +36,7 @@ import org.kuali.rice.krms.api.engine.TermResolutionEngine;
 import org.kuali.rice.krms.api.engine.TermResolutionException;
 import org.kuali.rice.krms.api.engine.TermResolver;
 import org.kuali.rice.krms.framework.engine.TermResolutionEngineImpl;
+import org.kuali.rice.krms.framework.engine.TermResolutionPlanCache;
 import org.springframework.util.CollectionUtils;
 
 
@@ -268,10 +269,21 @@ public class TermResolutionEngineTest {
 	}
 	
 	private static class WhiteBoxTermResolutionEngineImpl extends TermResolutionEngineImpl {
+
+		private int plansBuilt = 0;
+
+		public WhiteBoxTermResolutionEngineImpl() {
+			super();
+		}
+
+		public WhiteBoxTermResolutionEngineImpl(TermResolutionPlanCache planCache) {
+			super(planCache);
+		}
 		
 		// expose this for testing purposes
 		@Override
 		public List<TermResolverKey> buildTermResolutionPlan(String termName) {
+			plansBuilt++;
 			return super.buildTermResolutionPlan(termName);
 		}
 	}
@@ -303,6 +315,32 @@ public class TermResolutionEngineTest {
 		assertTrue("didn't choose the shortest resolution path (of length 1)", plan.size() == 1);
 	}
 	
+	@Test
+	public void testResolutionPlansAreShared() {
+		TermResolutionPlanCache planCache = new TermResolutionPlanCache(10, 10);
+
+		WhiteBoxTermResolutionEngineImpl first = createTwoStepScenario(planCache, "A");
+		WhiteBoxTermResolutionEngineImpl second = createTwoStepScenario(planCache, "A");
+		assertEquals("the first execution should plan the resolution", 1, first.plansBuilt);
+		assertEquals("the second execution should reuse the plan", 0, second.plansBuilt);
+
+		// with the intermediate term given, the plan differs
+		WhiteBoxTermResolutionEngineImpl third = createTwoStepScenario(planCache, "A", "B");
+		assertEquals("a plan should be built when other prerequisites are available", 1, third.plansBuilt);
+		assertEquals(2, planCache.size());
+	}
+
+	private WhiteBoxTermResolutionEngineImpl createTwoStepScenario(TermResolutionPlanCache planCache,
+			String ... givens) {
+		WhiteBoxTermResolutionEngineImpl engine = new WhiteBoxTermResolutionEngineImpl(planCache);
+		TestScenarioHelper testHelper = new TestScenarioHelper(engine);
+		testHelper.addGivens(givens);
+		testHelper.addResolver("B", /* <-- */ "A");
+		testHelper.addResolver("C", /* <-- */ "B");
+		testHelper.assertSuccess("C");
+		return engine;
+	}
+	
 	/*
 	 *  TODO: test exception variants:
 	 *  - TermResolver throws TermResolutionException
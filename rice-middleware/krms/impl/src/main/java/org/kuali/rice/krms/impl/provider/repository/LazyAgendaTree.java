@@ -31,7 +31,8 @@ public final class LazyAgendaTree implements AgendaTree {
 	private final AgendaDefinition agendaDefinition;
 	private final RepositoryToEngineTranslator translator;
 	
-	private AgendaTree agendaTree;
+	// volatile for double-checked locking idiom
+	private volatile AgendaTree agendaTree;
 	
 	public LazyAgendaTree(AgendaDefinition agendaDefinition, RepositoryToEngineTranslator translator) {
 		this.agendaDefinition = agendaDefinition;
@@ -43,11 +44,16 @@ public final class LazyAgendaTree implements AgendaTree {
 		agendaTree.execute(environment);
 	}
 	
+	/**
+	 * Loads the agenda tree using a lazy double-checked locking mechanism as documented in Effective Java Item 71, so
+	 * that executions sharing a loaded tree do not contend for the lock.
+	 */
 	public void initialize() {
-		// could use double-checked locking here for max efficiency
-		synchronized (mutex) {
-			if (agendaTree == null) {
-				agendaTree = translator.translateAgendaDefinitionToAgendaTree(agendaDefinition);
+		if (agendaTree == null) {
+			synchronized (mutex) {
+				if (agendaTree == null) {
+					agendaTree = translator.translateAgendaDefinitionToAgendaTree(agendaDefinition);
+				}
 			}
 		}
 	}
@@ -17,8 +17,10 @@ package org.kuali.rice.krms.impl.provider.repository;
 
 import org.kuali.rice.krms.api.engine.ExecutionEnvironment;
 import org.kuali.rice.krms.api.repository.proposition.PropositionDefinition;
+import org.kuali.rice.krms.framework.engine.ProfiledElement;
 import org.kuali.rice.krms.framework.engine.Proposition;
 import org.kuali.rice.krms.framework.engine.PropositionResult;
+import org.kuali.rice.krms.framework.engine.ReorderableProposition;
 import org.kuali.rice.krms.framework.type.PropositionTypeService;
 import org.kuali.rice.krms.impl.type.KrmsTypeResolver;
 
@@ -31,10 +33,11 @@ import java.util.List;
  * @author Kuali Rice Team (rice.collab@kuali.org)
  *
  */
-final class LazyProposition implements Proposition {
+final class LazyProposition implements ReorderableProposition, ProfiledElement {
 
 	private final PropositionDefinition propositionDefinition;
 	private final KrmsTypeResolver resolver;
+	private final String profileName;
 	
 	private final Object mutex = new Object();
 	
@@ -44,8 +47,19 @@ final class LazyProposition implements Proposition {
 	LazyProposition(PropositionDefinition propositionDefinition, KrmsTypeResolver resolver) {
 		this.propositionDefinition = propositionDefinition;
 		this.resolver = resolver;
+		this.profileName = profileNameOf(propositionDefinition);
 		this.proposition = null;
 	}
+
+	private static String profileNameOf(PropositionDefinition propositionDefinition) {
+		if (propositionDefinition == null) {
+			return "(none)";
+		}
+		if (propositionDefinition.getDescription() == null) {
+			return propositionDefinition.getId();
+		}
+		return propositionDefinition.getDescription() + " (" + propositionDefinition.getId() + ")";
+	}
 	
 	@Override
 	public PropositionResult evaluate(ExecutionEnvironment environment) {
@@ -104,4 +118,24 @@ final class LazyProposition implements Proposition {
 	public boolean isCompound() {
 	    return getProposition().isCompound();
 	}
+
+	@Override
+	public boolean isReorderable() {
+		Proposition localProposition = getProposition();
+		return localProposition instanceof ReorderableProposition
+				&& ((ReorderableProposition) localProposition).isReorderable();
+	}
+
+    /**
+     * Names the proposition by the description and id of its definition, so profiling doesn't load it.
+     */
+	@Override
+	public String getProfileName() {
+		return profileName;
+	}
+
+	@Override
+	public String toString() {
+		return profileName;
+	}
 }
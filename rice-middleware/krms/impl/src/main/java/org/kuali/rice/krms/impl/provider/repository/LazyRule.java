@@ -17,6 +17,7 @@ package org.kuali.rice.krms.impl.provider.repository;
 
 import org.kuali.rice.krms.api.engine.ExecutionEnvironment;
 import org.kuali.rice.krms.api.repository.rule.RuleDefinition;
+import org.kuali.rice.krms.framework.engine.ProfiledElement;
 import org.kuali.rice.krms.framework.engine.Rule;
 import org.kuali.rice.krms.framework.type.RuleTypeService;
 import org.kuali.rice.krms.impl.type.KrmsTypeResolver;
@@ -27,10 +28,11 @@ import org.kuali.rice.krms.impl.type.KrmsTypeResolver;
  * @author Kuali Rice Team (rice.collab@kuali.org)
  *
  */
-final class LazyRule implements Rule {
+final class LazyRule implements Rule, ProfiledElement {
 
 	private final RuleDefinition ruleDefinition;
 	private final KrmsTypeResolver typeResolver;
+	private final String profileName;
 	
 	private final Object mutex = new Object();
 	
@@ -45,6 +47,7 @@ final class LazyRule implements Rule {
 	LazyRule(RuleDefinition ruleDefinition, KrmsTypeResolver typeResolver) {
 		this.ruleDefinition = ruleDefinition;
 		this.typeResolver = typeResolver;
+		this.profileName = ruleDefinition.getName() + " (" + ruleDefinition.getId() + ")";
 		this.rule = null;
 	}
 	
@@ -87,5 +90,16 @@ final class LazyRule implements Rule {
 		return rule;
 	}
 
-	
+    /**
+     * Names the rule by the name and id of its definition, so profiling doesn't load it.
+     */
+	@Override
+	public String getProfileName() {
+		return profileName;
+	}
+
+	@Override
+	public String toString() {
+		return profileName;
+	}
 }
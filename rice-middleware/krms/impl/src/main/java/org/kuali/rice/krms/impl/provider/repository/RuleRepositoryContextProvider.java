@@ -26,6 +26,9 @@ import org.kuali.rice.krms.api.repository.context.ContextDefinition;
 import org.kuali.rice.krms.api.repository.context.ContextSelectionCriteria;
 import org.kuali.rice.krms.framework.engine.Context;
 import org.kuali.rice.krms.framework.engine.ContextProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
 
 public class RuleRepositoryContextProvider implements ContextProvider {
 
@@ -35,6 +38,7 @@ public class RuleRepositoryContextProvider implements ContextProvider {
 	
 	private RuleRepositoryService ruleRepositoryService;
 	private RepositoryToEngineTranslator repositoryToEngineTranslator;
+	private CacheManager cacheManager = new NoOpCacheManager();
 	
 	@Override
 	public Context loadContext(SelectionCriteria selectionCriteria, Map<Term, Object> facts, ExecutionOptions executionOptions) {
@@ -49,8 +53,25 @@ public class RuleRepositoryContextProvider implements ContextProvider {
 		return null;
 	}
 	
+	/**
+	 * Translates the given context definition, reusing the translation made for the same version of the context when
+	 * there is one.  A translated context does not depend on the effective date or the facts of an execution (agendas
+	 * are matched against those as the context executes), and the rules, propositions and agenda trees it holds are
+	 * only built once, so an execution with a cached context only allocates its own state.  Cached contexts are
+	 * flushed along with any change to the repository data they were translated from.
+	 */
 	protected Context loadContextFromDefinition(ContextDefinition contextDefinition) {
-		return repositoryToEngineTranslator.translateContextDefinition(contextDefinition);
+		Cache cache = cacheManager.getCache(ContextDefinition.Cache.COMPILED_NAME);
+		String cacheKey = contextDefinition.getId() + "|" + contextDefinition.getVersionNumber();
+		Cache.ValueWrapper cachedValue = cache.get(cacheKey);
+		if (cachedValue != null) {
+			return (Context) cachedValue.get();
+		}
+		Context context = repositoryToEngineTranslator.translateContextDefinition(contextDefinition);
+		if (context != null) {
+			cache.put(cacheKey, context);
+		}
+		return context;
 	}
 	
 	public void setRuleRepositoryService(RuleRepositoryService ruleRepositoryService) {
@@ -60,6 +81,13 @@ public class RuleRepositoryContextProvider implements ContextProvider {
 	public void setRepositoryToEngineTranslator(RepositoryToEngineTranslator repositoryToEngineTranslator) {
 		this.repositoryToEngineTranslator = repositoryToEngineTranslator;
 	}
+
+	/**
+	 * Sets the cache manager holding the translated contexts, which by default are not cached.
+	 */
+	public void setCacheManager(CacheManager cacheManager) {
+		this.cacheManager = cacheManager;
+	}
 	
 	protected ContextSelectionCriteria constructContextSelectionCriteria(SelectionCriteria selectionCriteria) {
 		Map<String, String> givenContextQualifiers = selectionCriteria.getContextQualifiers();
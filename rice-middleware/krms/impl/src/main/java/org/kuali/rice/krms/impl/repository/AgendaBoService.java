@@ -42,7 +42,7 @@ public interface AgendaBoService {
      * @throws IllegalArgumentException if the Agenda is null
      * @throws IllegalStateException if the Agenda already exists in the system
      */
-    @CacheEvict(value={AgendaTreeDefinition.Cache.NAME, AgendaDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME, ContextDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={AgendaTreeDefinition.Cache.NAME, AgendaDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME, ContextDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
 	public AgendaDefinition createAgenda(AgendaDefinition agenda);
 	
     /**
@@ -52,7 +52,7 @@ public interface AgendaBoService {
      * @throws IllegalArgumentException if the Agenda is null
      * @throws IllegalStateException if the Agenda does not exists in the system
      */
-    @CacheEvict(value={AgendaTreeDefinition.Cache.NAME, AgendaDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME, ContextDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={AgendaTreeDefinition.Cache.NAME, AgendaDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME, ContextDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
 	public AgendaDefinition updateAgenda(AgendaDefinition agenda);
 
     /**
@@ -63,7 +63,7 @@ public interface AgendaBoService {
      * @throws IllegalStateException if the Agenda does not exists in the system
      *
      */
-    @CacheEvict(value={AgendaTreeDefinition.Cache.NAME, AgendaDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME, ContextDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={AgendaTreeDefinition.Cache.NAME, AgendaDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME, ContextDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     public void deleteAgenda(String agendaId);
 
     /**
@@ -107,7 +107,7 @@ public interface AgendaBoService {
      * @throws IllegalArgumentException if the AgendaItemDefinition is null
      * @throws IllegalStateException if the AgendaItemDefinition already exists in the system
      */
-    @CacheEvict(value={AgendaTreeDefinition.Cache.NAME, AgendaDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME, ContextDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={AgendaTreeDefinition.Cache.NAME, AgendaDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME, ContextDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
 	public AgendaItemDefinition createAgendaItem(AgendaItemDefinition agendaItem);
 	
     /**
@@ -117,7 +117,7 @@ public interface AgendaBoService {
      * @throws IllegalArgumentException if the AgendaItemDefinition is null
      * @throws IllegalStateException if the AgendaItemDefinition does not exists in the system
      */
-    @CacheEvict(value={AgendaTreeDefinition.Cache.NAME, AgendaDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME, ContextDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={AgendaTreeDefinition.Cache.NAME, AgendaDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME, ContextDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
 	public AgendaItemDefinition updateAgendaItem(AgendaItemDefinition agendaItem);
 	
     /**
@@ -141,7 +141,7 @@ public interface AgendaBoService {
      * @throws IllegalArgumentException if the AgendaItemDefinition is null
      * @throws IllegalStateException if the parent AgendaItemDefinition does not already exists in the system
      */
-    @CacheEvict(value={AgendaTreeDefinition.Cache.NAME, AgendaDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME, ContextDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={AgendaTreeDefinition.Cache.NAME, AgendaDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME, ContextDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
 	public void addAgendaItem(AgendaItemDefinition agendaItem, String parentId, Boolean position);
 	
     /**
@@ -174,7 +174,7 @@ public interface AgendaBoService {
     public List<AgendaItemDefinition> getAgendaItemsByTypeAndContext(String typeId, String contextId)
             throws RiceIllegalArgumentException;
 
-    @CacheEvict(value={AgendaTreeDefinition.Cache.NAME, AgendaDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME, ContextDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={AgendaTreeDefinition.Cache.NAME, AgendaDefinition.Cache.NAME, AgendaItemDefinition.Cache.NAME, ContextDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     public void deleteAgendaItem(String id) throws RiceIllegalArgumentException;
 
 	/**
@@ -35,7 +35,7 @@ public interface ContextBoService {
      * @throws IllegalArgumentException if the context is null
      * @throws IllegalStateException if the context already exists in the system
      */
-    @CacheEvict(value={ContextDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={ContextDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
 	public ContextDefinition createContext(ContextDefinition context);
 
     /**
@@ -45,7 +45,7 @@ public interface ContextBoService {
      * @throws IllegalArgumentException if the Context is null
      * @throws IllegalStateException if the Context does not exists in the system
      */
-    @CacheEvict(value={ContextDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={ContextDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
 	public ContextDefinition updateContext(ContextDefinition context);
 	
 //	public void createContextAttribute(ContextAttribute contextAttribute);
@@ -20,6 +20,7 @@ import java.util.Map;
 
 import org.kuali.rice.krms.api.repository.type.KrmsAttributeDefinition;
 import org.kuali.rice.krms.api.repository.type.KrmsTypeDefinition;
+import org.kuali.rice.krms.api.repository.context.ContextDefinition;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 
@@ -32,7 +33,7 @@ public interface KrmsAttributeDefinitionService {
      * @throws IllegalArgumentException if the attribute definition is null
      * @throws IllegalStateException if the attribute definition already exists in the system
      */
-    @CacheEvict(value={KrmsAttributeDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={KrmsAttributeDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
 	public KrmsAttributeDefinition createAttributeDefinition(KrmsAttributeDefinition attributeDefinition);
 
     /**
@@ -43,7 +44,7 @@ public interface KrmsAttributeDefinitionService {
      * @throws IllegalArgumentException if the attribute definition is null
      * @throws IllegalStateException if the attribute definition does not exist in the system
      */
-    @CacheEvict(value={KrmsAttributeDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={KrmsAttributeDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
 	public void updateAttributeDefinition(KrmsAttributeDefinition attributeDefinition);
 
     /**
@@ -21,6 +21,7 @@ import java.util.Set;
 import org.kuali.rice.krms.api.repository.proposition.PropositionDefinition;
 import org.kuali.rice.krms.api.repository.proposition.PropositionParameter;
 import org.kuali.rice.krms.api.repository.rule.RuleDefinition;
+import org.kuali.rice.krms.api.repository.context.ContextDefinition;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 
@@ -40,7 +41,7 @@ public interface PropositionBoService {
      * @throws IllegalArgumentException if the proposition is null
      * @throws IllegalStateException if the proposition already exists in the system
      */
-    @CacheEvict(value={PropositionDefinition.Cache.NAME, RuleDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={PropositionDefinition.Cache.NAME, RuleDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     PropositionDefinition createProposition(PropositionDefinition prop);
 
     /**
@@ -50,7 +51,7 @@ public interface PropositionBoService {
      * @throws IllegalArgumentException if the proposition is null
      * @throws IllegalStateException if the proposition does not exist in the system
      */
-    @CacheEvict(value={PropositionDefinition.Cache.NAME, RuleDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={PropositionDefinition.Cache.NAME, RuleDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     PropositionDefinition updateProposition(PropositionDefinition prop);
 
     /**
@@ -83,7 +84,7 @@ public interface PropositionBoService {
      * @throws IllegalArgumentException if the proposition parameter is null
      * @throws IllegalStateException if the proposition parameter is already existing in the system
      */
-    @CacheEvict(value={PropositionDefinition.Cache.NAME, RuleDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={PropositionDefinition.Cache.NAME, RuleDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     void createParameter(PropositionParameter parameter);
 
     /**
@@ -94,7 +95,7 @@ public interface PropositionBoService {
      * @throws IllegalArgumentException if the proposition parameter is null
      * @throws IllegalStateException if the proposition parameter does not exist in the system
      */
-    @CacheEvict(value={PropositionDefinition.Cache.NAME, RuleDefinition.Cache.NAME}, allEntries = true)
+    @CacheEvict(value={PropositionDefinition.Cache.NAME, RuleDefinition.Cache.NAME, ContextDefinition.Cache.COMPILED_NAME}, allEntries = true)
     PropositionParameter updateParameter(PropositionParameter parameter);
 
 
@@ -447,6 +447,7 @@ public class AgendaEditorMaintainable extends MaintainableImpl {
         distributedCacheManagerDecorator.getCache(AgendaTreeDefinition.Cache.NAME).clear();
         distributedCacheManagerDecorator.getCache(AgendaDefinition.Cache.NAME).clear();
         distributedCacheManagerDecorator.getCache(ContextDefinition.Cache.NAME).clear();
+        distributedCacheManagerDecorator.getCache(ContextDefinition.Cache.COMPILED_NAME).clear();
         distributedCacheManagerDecorator.getCache(KrmsAttributeDefinition.Cache.NAME).clear();
         distributedCacheManagerDecorator.getCache(KrmsTypeDefinition.Cache.NAME).clear();
         distributedCacheManagerDecorator.getCache(RuleDefinition.Cache.NAME).clear();
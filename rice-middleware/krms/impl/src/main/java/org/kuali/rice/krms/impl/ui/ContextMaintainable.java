@@ -76,6 +76,7 @@ public class ContextMaintainable extends MaintainableImpl {
         DistributedCacheManagerDecorator distributedCacheManagerDecorator =
                 GlobalResourceLoader.getService(KrmsConstants.KRMS_DISTRIBUTED_CACHE);
         distributedCacheManagerDecorator.getCache(ContextDefinition.Cache.NAME).clear();
+        distributedCacheManagerDecorator.getCache(ContextDefinition.Cache.COMPILED_NAME).clear();
     }
 
     @Override
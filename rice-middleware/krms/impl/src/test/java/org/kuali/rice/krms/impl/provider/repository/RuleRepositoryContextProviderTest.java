@@ -0,0 +1,115 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.krms.impl.provider.repository;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.kuali.rice.krms.api.engine.SelectionCriteria;
+import org.kuali.rice.krms.api.repository.RuleRepositoryService;
+import org.kuali.rice.krms.api.repository.context.ContextDefinition;
+import org.kuali.rice.krms.api.repository.context.ContextSelectionCriteria;
+import org.kuali.rice.krms.framework.engine.Context;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the caching of translated contexts by {@link RuleRepositoryContextProvider}.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class RuleRepositoryContextProviderTest {
+
+    @Mock
+    RuleRepositoryService mockRuleRepositoryService;
+    @Mock
+    RepositoryToEngineTranslator mockTranslator;
+
+    private ConcurrentMapCacheManager cacheManager;
+    private RuleRepositoryContextProvider provider;
+    private SelectionCriteria selectionCriteria;
+
+    @Before
+    public void setUp() {
+        cacheManager = new ConcurrentMapCacheManager();
+        provider = new RuleRepositoryContextProvider();
+        provider.setRuleRepositoryService(mockRuleRepositoryService);
+        provider.setRepositoryToEngineTranslator(mockTranslator);
+        provider.setCacheManager(cacheManager);
+        selectionCriteria = SelectionCriteria.createCriteria(null, Collections.singletonMap("name", "Context1"),
+                Collections.<String, String>emptyMap());
+    }
+
+    @Test
+    public void testTranslatedContextIsReused() {
+        ContextDefinition contextDefinition = createContextDefinition(1L);
+        Context context = mock(Context.class);
+        when(mockRuleRepositoryService.selectContext(any(ContextSelectionCriteria.class))).thenReturn(
+                contextDefinition);
+        when(mockTranslator.translateContextDefinition(contextDefinition)).thenReturn(context);
+
+        assertSame(context, provider.loadContext(selectionCriteria, null, null));
+        assertSame(context, provider.loadContext(selectionCriteria, null, null));
+        verify(mockTranslator, times(1)).translateContextDefinition(contextDefinition);
+    }
+
+    @Test
+    public void testContextIsTranslatedAgainWhenChanged() {
+        ContextDefinition contextDefinition = createContextDefinition(1L);
+        ContextDefinition updatedContextDefinition = createContextDefinition(2L);
+        Context context = mock(Context.class);
+        Context updatedContext = mock(Context.class);
+        when(mockRuleRepositoryService.selectContext(any(ContextSelectionCriteria.class))).thenReturn(
+                contextDefinition, updatedContextDefinition);
+        when(mockTranslator.translateContextDefinition(contextDefinition)).thenReturn(context);
+        when(mockTranslator.translateContextDefinition(updatedContextDefinition)).thenReturn(updatedContext);
+
+        assertSame(context, provider.loadContext(selectionCriteria, null, null));
+        assertSame(updatedContext, provider.loadContext(selectionCriteria, null, null));
+    }
+
+    @Test
+    public void testFlushedContextIsTranslatedAgain() {
+        ContextDefinition contextDefinition = createContextDefinition(1L);
+        when(mockRuleRepositoryService.selectContext(any(ContextSelectionCriteria.class))).thenReturn(
+                contextDefinition);
+        when(mockTranslator.translateContextDefinition(contextDefinition)).thenReturn(mock(Context.class),
+                mock(Context.class));
+
+        Context context = provider.loadContext(selectionCriteria, null, null);
+        cacheManager.getCache(ContextDefinition.Cache.COMPILED_NAME).clear();
+        assertNotSame(context, provider.loadContext(selectionCriteria, null, null));
+    }
+
+    private ContextDefinition createContextDefinition(Long versionNumber) {
+        ContextDefinition.Builder builder = ContextDefinition.Builder.create("KR-RULE-TEST", "Context1");
+        builder.setId("CONTEXT1");
+        builder.setVersionNumber(versionNumber);
+        return builder.build();
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.api.registry;
+
+import org.apache.commons.codec.binary.Hex;
+
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Calculates the checksum returned by {@link ServiceRegistry#getOnlineServicesChecksum()}.
+ *
+ * <p>The checksum only depends on the id and the checksum of each service, so a client can calculate it over the
+ * services it already knows and skip fetching all online services when it matches the registry's.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ * @since 2.6
+ */
+public final class OnlineServicesChecksum {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private OnlineServicesChecksum() {
+        throw new UnsupportedOperationException("do not call");
+    }
+
+    /**
+     * @param services the online services, in any order
+     * @return the checksum of the given services
+     */
+    public static String calculate(Collection<? extends ServiceInfoContract> services) {
+        List<String> entries = new ArrayList<String>(services.size());
+        for (ServiceInfoContract service : services) {
+            entries.add(service.getServiceId() + ":" + service.getChecksum());
+        }
+        Collections.sort(entries);
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not available", e);
+        }
+        for (String entry : entries) {
+            digest.update(entry.getBytes(UTF_8));
+            digest.update((byte) '\n');
+        }
+        return entries.size() + "-" + Hex.encodeHexString(digest.digest());
+    }
+
+}
@@ -111,6 +111,22 @@ public interface ServiceRegistry {
 	@XmlElementWrapper(name = "serviceInfos", required = false)
 	@XmlElement(name = "serviceInfo", required = false)
 	List<ServiceInfo> getAllOnlineServices();
+
+	/**
+	 * Returns a checksum of the services in the registry that have a status of
+	 * {@link ServiceEndpointStatus#ONLINE}, as calculated by
+	 * {@link OnlineServicesChecksum}.  The checksum changes whenever an online
+	 * service is published, updated or removed, or an online service goes
+	 * offline.  Clients can compare it against the checksum of the services
+	 * they already know to avoid fetching {@link #getAllOnlineServices()} when
+	 * nothing changed.
+	 *
+	 * @return the checksum of all online services in the registry, never null
+	 * @since 2.6
+	 */
+	@WebMethod(operationName = "getOnlineServicesChecksum")
+	@WebResult(name = "checksum")
+	String getOnlineServicesChecksum();
 	
 	/**
 	 * Returns an unmodifiable list of {@link ServiceInfo} for all services in
@@ -0,0 +1,56 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.api.registry;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link OnlineServicesChecksum}.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class OnlineServicesChecksumTest {
+
+    @Test
+    public void ignoresOrder() {
+        ServiceInfo.Builder first = service("1", "a");
+        ServiceInfo.Builder second = service("2", "b");
+        assertEquals(OnlineServicesChecksum.calculate(Arrays.asList(first, second)),
+                OnlineServicesChecksum.calculate(Arrays.asList(second, first)));
+    }
+
+    @Test
+    public void changesWithServices() {
+        String checksum = OnlineServicesChecksum.calculate(Arrays.asList(service("1", "a"), service("2", "b")));
+        assertFalse(checksum.equals(OnlineServicesChecksum.calculate(Arrays.asList(service("1", "a")))));
+        assertFalse(checksum.equals(OnlineServicesChecksum.calculate(Arrays.asList(service("1", "a"),
+                service("2", "c")))));
+        assertFalse(checksum.equals(OnlineServicesChecksum.calculate(Collections.<ServiceInfo>emptyList())));
+    }
+
+    private ServiceInfo.Builder service(String serviceId, String checksum) {
+        ServiceInfo.Builder builder = ServiceInfo.Builder.create();
+        builder.setServiceId(serviceId);
+        builder.setChecksum(checksum);
+        return builder;
+    }
+
+}
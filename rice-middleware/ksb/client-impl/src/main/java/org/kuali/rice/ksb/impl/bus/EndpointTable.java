@@ -0,0 +1,98 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.impl.bus;
+
+import javax.xml.namespace.QName;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable snapshot of the endpoints known to the {@link ServiceBusImpl}.
+ *
+ * <p>Changes produce a new table which the bus publishes as a whole, so that lookups can read the current table
+ * without locking and always see a consistent set of local and remote services.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+final class EndpointTable {
+
+    static final EndpointTable EMPTY = new EndpointTable(Collections.<QName, LocalService>emptyMap(),
+            Collections.<QName, List<RemoteService>>emptyMap());
+
+    private final Map<QName, LocalService> localServices;
+    private final Map<QName, List<RemoteService>> remoteServices;
+
+    private EndpointTable(Map<QName, LocalService> localServices, Map<QName, List<RemoteService>> remoteServices) {
+        this.localServices = localServices;
+        this.remoteServices = remoteServices;
+    }
+
+    LocalService getLocalService(QName serviceName) {
+        return localServices.get(serviceName);
+    }
+
+    Map<QName, LocalService> getLocalServices() {
+        return localServices;
+    }
+
+    /**
+     * @return the remote services with the given name, an empty list if there are none
+     */
+    List<RemoteService> getRemoteServices(QName serviceName) {
+        List<RemoteService> services = remoteServices.get(serviceName);
+        if (services == null) {
+            return Collections.emptyList();
+        }
+        return services;
+    }
+
+    Map<QName, List<RemoteService>> getRemoteServices() {
+        return remoteServices;
+    }
+
+    EndpointTable withLocalService(LocalService localService) {
+        Map<QName, LocalService> newLocalServices = new HashMap<QName, LocalService>(localServices);
+        newLocalServices.put(localService.getServiceName(), localService);
+        return new EndpointTable(Collections.unmodifiableMap(newLocalServices), remoteServices);
+    }
+
+    EndpointTable withoutLocalServices(Collection<QName> serviceNames) {
+        Map<QName, LocalService> newLocalServices = new HashMap<QName, LocalService>(localServices);
+        newLocalServices.keySet().removeAll(serviceNames);
+        return new EndpointTable(Collections.unmodifiableMap(newLocalServices), remoteServices);
+    }
+
+    /**
+     * Replaces the remote services of the names in the given map, an empty list removes all remote services of a name.
+     */
+    EndpointTable withRemoteServices(Map<QName, ? extends Collection<RemoteService>> changedServices) {
+        Map<QName, List<RemoteService>> newRemoteServices = new HashMap<QName, List<RemoteService>>(remoteServices);
+        for (Map.Entry<QName, ? extends Collection<RemoteService>> entry : changedServices.entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                newRemoteServices.remove(entry.getKey());
+            } else {
+                newRemoteServices.put(entry.getKey(), Collections.unmodifiableList(
+                        new ArrayList<RemoteService>(entry.getValue())));
+            }
+        }
+        return new EndpointTable(localServices, Collections.unmodifiableMap(newRemoteServices));
+    }
+
+}
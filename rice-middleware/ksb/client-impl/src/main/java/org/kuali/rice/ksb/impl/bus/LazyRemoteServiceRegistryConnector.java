@@ -67,6 +67,11 @@ public class LazyRemoteServiceRegistryConnector implements ServiceRegistry {
 		return getDelegate().getAllOnlineServices();
 	}
 
+	@Override
+	public String getOnlineServicesChecksum() {
+		return getDelegate().getOnlineServicesChecksum();
+	}
+
 	@Override
 	public List<ServiceInfo> getAllServices() {
 		return getDelegate().getAllServices();
@@ -18,11 +18,10 @@ package org.kuali.rice.ksb.impl.bus;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -46,18 +45,28 @@ import org.kuali.rice.ksb.impl.bus.diff.CompleteServiceDiff;
 import org.kuali.rice.ksb.impl.bus.diff.LocalServicesDiff;
 import org.kuali.rice.ksb.impl.bus.diff.RemoteServicesDiff;
 import org.kuali.rice.ksb.impl.bus.diff.ServiceRegistryDiffCalculator;
+import org.kuali.rice.ksb.impl.bus.selection.EndpointSelectionStrategy;
+import org.kuali.rice.ksb.impl.bus.selection.RandomEndpointSelectionStrategy;
 import org.kuali.rice.ksb.messaging.serviceexporters.ServiceExportManager;
 import org.kuali.rice.ksb.messaging.threadpool.KSBScheduledPool;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 
+/**
+ * Reference implementation of the {@link ServiceBus}.
+ *
+ * <p>The known endpoints are kept in an immutable {@link EndpointTable} which is replaced as a whole whenever services
+ * are published, removed or synchronized with the registry.  Changes are made under the service lock, lookups read the
+ * current table without taking any lock.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
 public class ServiceBusImpl extends BaseLifecycle implements ServiceBus, InitializingBean, DisposableBean {
 	
 	private static final Logger LOG = Logger.getLogger(ServiceBusImpl.class);
 	
 	private final Object serviceLock = new Object();
 	private final Object synchronizeLock = new Object();
-	private final Random randomNumber = new Random();
 	
 	// injected values
 	private String instanceId;
@@ -65,23 +74,17 @@ public class ServiceBusImpl extends BaseLifecycle implements ServiceBus, Initial
 	private ServiceRegistryDiffCalculator diffCalculator;
 	private ServiceExportManager serviceExportManager;
 	private KSBScheduledPool scheduledPool;
+	private EndpointSelectionStrategy endpointSelectionStrategy = new RandomEndpointSelectionStrategy();
 	
 	private ScheduledFuture<?> registrySyncFuture;
 	
 	/**
-	 * Contains endpoints for services which were published by this client application.
+	 * Contains endpoints for services which were published by this client application and for services which exist
+	 * remotely.  Only ever replaced while holding the service lock.
 	 */
-	private final Map<QName, LocalService> localServices;
-	
-	/**
-	 * Contains endpoints for services which exist remotely.  This list may not be
-	 * entirely complete as entries get lazily loaded into it as services are requested.
-	 */
-	private final Map<QName, Set<RemoteService>> clientRegistryCache;
+	private volatile EndpointTable endpointTable = EndpointTable.EMPTY;
 		
 	public ServiceBusImpl() {
-		this.localServices = new HashMap<QName, LocalService>();
-		this.clientRegistryCache = new HashMap<QName, Set<RemoteService>>();
 	}
 	
 	@Override
@@ -98,6 +101,9 @@ public class ServiceBusImpl extends BaseLifecycle implements ServiceBus, Initial
 		if (scheduledPool == null) {
 			throw new IllegalStateException("scheduledPool was not injected");
 		}
+		if (endpointSelectionStrategy == null) {
+			throw new IllegalStateException("endpointSelectionStrategy was not injected");
+		}
 	}
 	
 	@Override
@@ -169,29 +175,30 @@ public class ServiceBusImpl extends BaseLifecycle implements ServiceBus, Initial
 		if (serviceName == null) {
 			throw new IllegalArgumentException("serviceName cannot be null");
 		}
+		EndpointTable table = this.endpointTable;
 		List<Endpoint> endpoints = new ArrayList<Endpoint>();
-		synchronized (serviceLock) {
-			endpoints.addAll(getRemoteEndpoints(serviceName));
-			Endpoint localEndpoint = getLocalEndpoint(serviceName);
-			if (localEndpoint != null) {
-				for (Iterator<Endpoint> iterator = endpoints.iterator(); iterator.hasNext();) {
-					Endpoint endpoint = iterator.next();
-					if (localEndpoint.getServiceConfiguration().equals(endpoint.getServiceConfiguration())) {
-						iterator.remove();
-						break;
-					}
-				}
-				if(StringUtils.isBlank(applicationId) || StringUtils.equals(localEndpoint.getServiceConfiguration().getApplicationId(), applicationId)) {
-					// add at first position, just because we like the local endpoint the best, it's our friend ;)
-					endpoints.add(0, localEndpoint);
+		for (RemoteService remoteService : table.getRemoteServices(serviceName)) {
+			endpoints.add(remoteService.getEndpoint());
+		}
+		Endpoint localEndpoint = getLocalEndpoint(table, serviceName);
+		if (localEndpoint != null) {
+			for (Iterator<Endpoint> iterator = endpoints.iterator(); iterator.hasNext();) {
+				Endpoint endpoint = iterator.next();
+				if (localEndpoint.getServiceConfiguration().equals(endpoint.getServiceConfiguration())) {
+					iterator.remove();
+					break;
 				}
 			}
-			if(StringUtils.isNotBlank(applicationId)) {
-				for (Iterator<Endpoint> iterator = endpoints.iterator(); iterator.hasNext();) {
-					Endpoint endpoint = (Endpoint) iterator.next();
-					if(!StringUtils.equals(endpoint.getServiceConfiguration().getApplicationId(), applicationId)) {
-						iterator.remove();
-					}
+			if(StringUtils.isBlank(applicationId) || StringUtils.equals(localEndpoint.getServiceConfiguration().getApplicationId(), applicationId)) {
+				// add at first position, just because we like the local endpoint the best, it's our friend ;)
+				endpoints.add(0, localEndpoint);
+			}
+		}
+		if(StringUtils.isNotBlank(applicationId)) {
+			for (Iterator<Endpoint> iterator = endpoints.iterator(); iterator.hasNext();) {
+				Endpoint endpoint = (Endpoint) iterator.next();
+				if(!StringUtils.equals(endpoint.getServiceConfiguration().getApplicationId(), applicationId)) {
+					iterator.remove();
 				}
 			}
 		}
@@ -204,13 +211,8 @@ public class ServiceBusImpl extends BaseLifecycle implements ServiceBus, Initial
 			throw new IllegalArgumentException("serviceName cannot be null");
 		}
 		List<Endpoint> endpoints = new ArrayList<Endpoint>();
-		synchronized (serviceLock) {
-			Set<RemoteService> remoteServices = clientRegistryCache.get(serviceName);
-			if (remoteServices != null) {
-				for (RemoteService remoteService : remoteServices) {
-					endpoints.add(remoteService.getEndpoint());
-				}
-			}
+		for (RemoteService remoteService : this.endpointTable.getRemoteServices(serviceName)) {
+			endpoints.add(remoteService.getEndpoint());
 		}
 		return Collections.unmodifiableList(endpoints);
 	}
@@ -220,39 +222,36 @@ public class ServiceBusImpl extends BaseLifecycle implements ServiceBus, Initial
 		if (serviceName == null) {
 			throw new IllegalArgumentException("serviceName cannot be null");
 		}
-		synchronized (serviceLock) {
-			LocalService localService = localServices.get(serviceName);
-			if (localService != null) {
-				return localService.getEndpoint();
-			}
-			return null;
+		return getLocalEndpoint(this.endpointTable, serviceName);
+	}
+
+	private Endpoint getLocalEndpoint(EndpointTable table, QName serviceName) {
+		LocalService localService = table.getLocalService(serviceName);
+		if (localService != null) {
+			return localService.getEndpoint();
 		}
+		return null;
 	}
 
 	@Override
 	public Map<QName, Endpoint> getLocalEndpoints() {
 		Map<QName, Endpoint> localEndpoints = new HashMap<QName, Endpoint>();
-		synchronized (serviceLock) {
-			for (QName localServiceName : localServices.keySet()) {
-				LocalService localService = localServices.get(localServiceName);
-				localEndpoints.put(localServiceName, localService.getEndpoint());
-			}
+		for (Map.Entry<QName, LocalService> localService : this.endpointTable.getLocalServices().entrySet()) {
+			localEndpoints.put(localService.getKey(), localService.getValue().getEndpoint());
 		}
 		return Collections.unmodifiableMap(localEndpoints);
 	}
 
 	@Override
 	public List<Endpoint> getAllEndpoints() {
+		EndpointTable table = this.endpointTable;
 		List<Endpoint> allEndpoints = new ArrayList<Endpoint>();
-		synchronized (serviceLock) {
-			for (QName serviceName : this.localServices.keySet()) {
-				allEndpoints.add(this.localServices.get(serviceName).getEndpoint());
-			}
-			for (QName serviceName : this.clientRegistryCache.keySet()) {
-				Set<RemoteService> remoteServices = clientRegistryCache.get(serviceName);
-				for (RemoteService remoteService : remoteServices) {
-					allEndpoints.add(remoteService.getEndpoint());
-				}
+		for (LocalService localService : table.getLocalServices().values()) {
+			allEndpoints.add(localService.getEndpoint());
+		}
+		for (List<RemoteService> remoteServices : table.getRemoteServices().values()) {
+			for (RemoteService remoteService : remoteServices) {
+				allEndpoints.add(remoteService.getEndpoint());
 			}
 		}
 		return Collections.unmodifiableList(allEndpoints);
@@ -268,30 +267,25 @@ public class ServiceBusImpl extends BaseLifecycle implements ServiceBus, Initial
         if (serviceName == null) {
             throw new IllegalArgumentException("serviceName cannot be null");
         }
-        Endpoint availableEndpoint = null;
-        synchronized (serviceLock) {
-            // look at local services first
-            availableEndpoint = getLocalEndpoint(serviceName);
-            if (availableEndpoint == null || (!StringUtils.isBlank(applicationId) && !availableEndpoint.getServiceConfiguration().getApplicationId().equals(applicationId))) {
-                 // TODO - would be better to return an Endpoint that contained an internal proxy to all the services so fail-over would be easier to implement!
-                Set<RemoteService> remoteServices = clientRegistryCache.get(serviceName);
-                remoteServices = filterByApplicationId(applicationId, remoteServices);
-                if (remoteServices != null && !remoteServices.isEmpty()) {
-                    // TODO - this should also probably check the current status of the service?
-                    RemoteService[] remoteServiceArray = remoteServices.toArray(new RemoteService[0]);
-                    RemoteService availableRemoteService = remoteServiceArray[this.randomNumber.nextInt(remoteServiceArray.length)];
-                    availableEndpoint = availableRemoteService.getEndpoint();
-                }
+        EndpointTable table = this.endpointTable;
+        // look at local services first
+        Endpoint availableEndpoint = getLocalEndpoint(table, serviceName);
+        if (availableEndpoint == null || (!StringUtils.isBlank(applicationId) && !availableEndpoint.getServiceConfiguration().getApplicationId().equals(applicationId))) {
+            // TODO - would be better to return an Endpoint that contained an internal proxy to all the services so fail-over would be easier to implement!
+            List<RemoteService> remoteServices = filterByApplicationId(applicationId, table.getRemoteServices(serviceName));
+            if (!remoteServices.isEmpty()) {
+                // TODO - this should also probably check the current status of the service?
+                availableEndpoint = endpointSelectionStrategy.select(serviceName, remoteServices).getEndpoint();
             }
         }
         return availableEndpoint;
     }
 	
-	protected Set<RemoteService> filterByApplicationId(String applicationId, Set<RemoteService> remoteServices) {
-	    if (StringUtils.isBlank(applicationId) || remoteServices == null || remoteServices.isEmpty()) {
+	protected List<RemoteService> filterByApplicationId(String applicationId, List<RemoteService> remoteServices) {
+	    if (StringUtils.isBlank(applicationId) || remoteServices.isEmpty()) {
 	        return remoteServices;
 	    }
-	    Set<RemoteService> filtered = new HashSet<RemoteService>();
+	    List<RemoteService> filtered = new ArrayList<RemoteService>(remoteServices.size());
 	    for (RemoteService remoteService : remoteServices) {
 	        if (remoteService.getServiceInfo().getApplicationId().equals(applicationId)) {
 	            filtered.add(remoteService);
@@ -305,16 +299,15 @@ public class ServiceBusImpl extends BaseLifecycle implements ServiceBus, Initial
 		if (serviceConfiguration == null) {
 			throw new IllegalArgumentException("serviceConfiguration cannot be null");
 		}
-		synchronized (serviceLock) {
-			Endpoint localEndpoint = getLocalEndpoint(serviceConfiguration.getServiceName());
-			if (localEndpoint != null && localEndpoint.getServiceConfiguration().equals(serviceConfiguration)) {
-				return localEndpoint;
-			}
-			List<Endpoint> remoteEndpoints = getRemoteEndpoints(serviceConfiguration.getServiceName());
-			for (Endpoint remoteEndpoint : remoteEndpoints) {
-				if (remoteEndpoint.getServiceConfiguration().equals(serviceConfiguration)) {
-					return remoteEndpoint;
-				}
+		EndpointTable table = this.endpointTable;
+		Endpoint localEndpoint = getLocalEndpoint(table, serviceConfiguration.getServiceName());
+		if (localEndpoint != null && localEndpoint.getServiceConfiguration().equals(serviceConfiguration)) {
+			return localEndpoint;
+		}
+		for (RemoteService remoteService : table.getRemoteServices(serviceConfiguration.getServiceName())) {
+			Endpoint remoteEndpoint = remoteService.getEndpoint();
+			if (remoteEndpoint.getServiceConfiguration().equals(serviceConfiguration)) {
+				return remoteEndpoint;
 			}
 		}
 		return null;
@@ -342,7 +335,7 @@ public class ServiceBusImpl extends BaseLifecycle implements ServiceBus, Initial
 		LocalService localService = new LocalService(getInstanceId(), serviceDefinition);
 		synchronized (serviceLock) {
 			serviceExportManager.exportService(serviceDefinition);
-			localServices.put(serviceDefinition.getServiceName(), localService);
+			this.endpointTable = this.endpointTable.withLocalService(localService);
 		}
 		if (synchronize) {
 			synchronize();
@@ -375,8 +368,8 @@ public class ServiceBusImpl extends BaseLifecycle implements ServiceBus, Initial
 		}
 		boolean serviceRemoved = false;
 		synchronized (serviceLock) {
-			LocalService localService = localServices.remove(serviceName);
-			serviceRemoved = localService != null;
+			serviceRemoved = this.endpointTable.getLocalService(serviceName) != null;
+			this.endpointTable = this.endpointTable.withoutLocalServices(Collections.singleton(serviceName));
 			serviceExportManager.removeService(serviceName);
 		}
 		if (serviceRemoved && synchronize) {
@@ -393,16 +386,17 @@ public class ServiceBusImpl extends BaseLifecycle implements ServiceBus, Initial
 		boolean serviceRemoved = false;
 		List<Boolean> servicesRemoved = new ArrayList<Boolean>();
 		synchronized (serviceLock) {
+			EndpointTable table = this.endpointTable;
 			for (QName serviceName : serviceNames) {
 				serviceExportManager.removeService(serviceName);
-				LocalService localService = localServices.remove(serviceName);
-				if (localService != null) {
+				if (table.getLocalService(serviceName) != null) {
 					servicesRemoved.add(Boolean.TRUE);
 					serviceRemoved = true;
 				} else {
 					servicesRemoved.add(Boolean.FALSE);
 				}
 			}
+			this.endpointTable = table.withoutLocalServices(serviceNames);
 		}
 		if (serviceRemoved && synchronize) {
 			synchronize();
@@ -413,15 +407,12 @@ public class ServiceBusImpl extends BaseLifecycle implements ServiceBus, Initial
     protected void synchronizeAndProcess(SyncProcessor processor) {
         if (!isDevMode()) {
 			synchronized (synchronizeLock) {
-				List<LocalService> localServicesList;
-				List<RemoteService> clientRegistryCacheList;
-				synchronized (serviceLock) {
-					// first, flatten the lists
-					localServicesList = new ArrayList<LocalService>(this.localServices.values());
-					clientRegistryCacheList = new ArrayList<RemoteService>();
-					for (Set<RemoteService> remoteServices : this.clientRegistryCache.values()) {
-						clientRegistryCacheList.addAll(remoteServices);
-					}
+				// first, flatten the lists
+				EndpointTable table = this.endpointTable;
+				List<LocalService> localServicesList = new ArrayList<LocalService>(table.getLocalServices().values());
+				List<RemoteService> clientRegistryCacheList = new ArrayList<RemoteService>();
+				for (List<RemoteService> remoteServices : table.getRemoteServices().values()) {
+					clientRegistryCacheList.addAll(remoteServices);
 				}
 				CompleteServiceDiff serviceDiff = diffCalculator.diffServices(getInstanceId(), localServicesList, clientRegistryCacheList);
                 logCompleteServiceDiff(serviceDiff);
@@ -489,27 +480,35 @@ public class ServiceBusImpl extends BaseLifecycle implements ServiceBus, Initial
 		// the list of local and client registry services could have changed, so that needs to be considered in the remaining code
 		synchronized (serviceLock) {
 			// first, let's update what we know about the remote services
+			EndpointTable table = this.endpointTable;
+			Map<QName, Set<RemoteService>> changedServices = new HashMap<QName, Set<RemoteService>>();
 			List<RemoteService> removedServices = remoteServicesDiff.getRemovedServices();
 			for (RemoteService removedRemoteService : removedServices) {
-				Set<RemoteService> remoteServiceSet = this.clientRegistryCache.get(removedRemoteService.getServiceName());
-				if (remoteServiceSet != null) {
-					boolean wasRemoved = remoteServiceSet.remove(removedRemoteService);
-					if (!wasRemoved) {
-						LOG.warn("Failed to remove remoteService during synchronization: " + removedRemoteService);
-					}
+				Set<RemoteService> remoteServiceSet = getChangedRemoteServices(table, changedServices, removedRemoteService.getServiceName());
+				boolean wasRemoved = remoteServiceSet.remove(removedRemoteService);
+				if (!wasRemoved) {
+					LOG.warn("Failed to remove remoteService during synchronization: " + removedRemoteService);
 				}
 			}
 			List<ServiceInfo> newServices = remoteServicesDiff.getNewServices();
 			for (ServiceInfo newService : newServices) {
-				Set<RemoteService> remoteServiceSet = clientRegistryCache.get(newService.getServiceName());
-				if (remoteServiceSet == null) {
-					remoteServiceSet = new HashSet<RemoteService>();
-					clientRegistryCache.put(newService.getServiceName(), remoteServiceSet);
-				}
+				Set<RemoteService> remoteServiceSet = getChangedRemoteServices(table, changedServices, newService.getServiceName());
 				remoteServiceSet.add(new RemoteService(newService, this.serviceRegistry));
 			}
+			if (!changedServices.isEmpty()) {
+				this.endpointTable = table.withRemoteServices(changedServices);
+			}
 		}
 	}
+
+	private Set<RemoteService> getChangedRemoteServices(EndpointTable table, Map<QName, Set<RemoteService>> changedServices, QName serviceName) {
+		Set<RemoteService> remoteServiceSet = changedServices.get(serviceName);
+		if (remoteServiceSet == null) {
+			remoteServiceSet = new LinkedHashSet<RemoteService>(table.getRemoteServices(serviceName));
+			changedServices.put(serviceName, remoteServiceSet);
+		}
+		return remoteServiceSet;
+	}
 	
 	protected void processLocalServiceDiff(LocalServicesDiff localServicesDiff) {
 		List<String> removeServiceEndpointIds = new ArrayList<String>();
@@ -549,9 +548,9 @@ public class ServiceBusImpl extends BaseLifecycle implements ServiceBus, Initial
 	protected void rebuildLocalServiceEndpointAfterPublishing(ServiceEndpoint publishedService) {
 		// verify the service is still published
 		QName serviceName = publishedService.getInfo().getServiceName();
-		if (localServices.containsKey(serviceName)) {
-			LocalService newLocalService = new LocalService(localServices.get(serviceName), publishedService);
-			localServices.put(serviceName, newLocalService);
+		LocalService localService = this.endpointTable.getLocalService(serviceName);
+		if (localService != null) {
+			this.endpointTable = this.endpointTable.withLocalService(new LocalService(localService, publishedService));
 		}
 	}
 
@@ -571,6 +570,10 @@ public class ServiceBusImpl extends BaseLifecycle implements ServiceBus, Initial
 		this.scheduledPool = scheduledPool;
 	}
 
+	public void setEndpointSelectionStrategy(EndpointSelectionStrategy endpointSelectionStrategy) {
+		this.endpointSelectionStrategy = endpointSelectionStrategy;
+	}
+
     private static interface SyncProcessor {
         void sync(CompleteServiceDiff diff);
     }
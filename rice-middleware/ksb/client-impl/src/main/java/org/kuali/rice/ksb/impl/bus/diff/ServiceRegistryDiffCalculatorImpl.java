@@ -16,6 +16,7 @@
 package org.kuali.rice.ksb.impl.bus.diff;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,6 +25,7 @@ import javax.xml.namespace.QName;
 
 import org.apache.commons.collections.MapUtils;
 import org.apache.log4j.Logger;
+import org.kuali.rice.ksb.api.registry.OnlineServicesChecksum;
 import org.kuali.rice.ksb.api.registry.ServiceInfo;
 import org.kuali.rice.ksb.api.registry.ServiceRegistry;
 import org.kuali.rice.ksb.impl.bus.LocalService;
@@ -32,6 +34,11 @@ import org.kuali.rice.ksb.impl.bus.RemoteService;
 /**
  * Default implementation of the {@link ServiceRegistryDiffCalculator} which calculates
  * differences between client service bus state and service registry state.
+ *
+ * <p>Before fetching all online services from the registry, the checksum of the registry's online services is compared
+ * with the checksum of the remote services the client already knows.  When they match, and the client's own services
+ * are among them as published, nothing changed and neither the remote nor the local services need to be fetched.
+ * Registries which do not offer the checksum yet are always fully diffed.</p>
  * 
  * @author Kuali Rice Team (rice.collab@kuali.org)
  *
@@ -41,6 +48,8 @@ public class ServiceRegistryDiffCalculatorImpl implements ServiceRegistryDiffCal
 	private static final Logger LOG = Logger.getLogger(ServiceRegistryDiffCalculatorImpl.class);
 	
 	private ServiceRegistry serviceRegistry;
+
+	private volatile boolean checksumSupported = true;
 	
 	public void setServiceRegistry(ServiceRegistry serviceRegistry) {
 		this.serviceRegistry = serviceRegistry;
@@ -48,6 +57,14 @@ public class ServiceRegistryDiffCalculatorImpl implements ServiceRegistryDiffCal
 	
 	@Override
 	public CompleteServiceDiff diffServices(String instanceId, List<LocalService> localServices, List<RemoteService> clientRegistryCache) {
+		if (isRegistryUnchanged(clientRegistryCache) && isPublished(instanceId, localServices, clientRegistryCache)) {
+			if (LOG.isDebugEnabled()) {
+				LOG.debug("Service registry is unchanged since the last synchronization of instance '" + instanceId + "'");
+			}
+			return new CompleteServiceDiff(new LocalServicesDiff(Collections.<ServiceInfo>emptyList(),
+					Collections.<LocalService>emptyList(), Collections.<LocalService, ServiceInfo>emptyMap()),
+					new RemoteServicesDiff(Collections.<ServiceInfo>emptyList(), Collections.<RemoteService>emptyList()));
+		}
         List<ServiceInfo> allRegistryServices = serviceRegistry.getAllOnlineServices();
         List<ServiceInfo> allRegistryServicesForInstance = serviceRegistry.getAllServicesForInstance(instanceId);
 		LocalServicesDiff localServicesDiff = calculateLocalServicesDiff(allRegistryServicesForInstance, instanceId, localServices);
@@ -55,6 +72,53 @@ public class ServiceRegistryDiffCalculatorImpl implements ServiceRegistryDiffCal
 		return new CompleteServiceDiff(localServicesDiff, remoteServicesDiff);
 	}
 
+	/**
+	 * Determines whether the online services of the registry are exactly the remote services the client knows.
+	 */
+	protected boolean isRegistryUnchanged(List<RemoteService> clientRegistryCache) {
+		if (!checksumSupported) {
+			return false;
+		}
+		String registryChecksum;
+		try {
+			registryChecksum = serviceRegistry.getOnlineServicesChecksum();
+		} catch (RuntimeException e) {
+			LOG.info("Service registry does not provide a checksum of its online services, always fetching all services from now on: " + e.getMessage());
+			checksumSupported = false;
+			return false;
+		}
+		List<ServiceInfo> knownServices = new ArrayList<ServiceInfo>(clientRegistryCache.size());
+		for (RemoteService remoteService : clientRegistryCache) {
+			knownServices.add(remoteService.getServiceInfo());
+		}
+		return registryChecksum != null && registryChecksum.equals(OnlineServicesChecksum.calculate(knownServices));
+	}
+
+	/**
+	 * Determines whether the client's remote services hold exactly the given local services as they were published,
+	 * which means that they do not need to be published or updated and the registry holds no stale ones.
+	 */
+	protected boolean isPublished(String instanceId, List<LocalService> localServices, List<RemoteService> clientRegistryCache) {
+		Map<String, ServiceInfo> publishedServices = new HashMap<String, ServiceInfo>();
+		for (RemoteService remoteService : clientRegistryCache) {
+			ServiceInfo serviceInfo = remoteService.getServiceInfo();
+			if (instanceId.equals(serviceInfo.getInstanceId())) {
+				publishedServices.put(serviceInfo.getServiceId(), serviceInfo);
+			}
+		}
+		if (publishedServices.size() != localServices.size()) {
+			return false;
+		}
+		for (LocalService localService : localServices) {
+			ServiceInfo localServiceInfo = localService.getServiceEndpoint().getInfo();
+			if (localServiceInfo.getServiceId() == null
+					|| !localServiceInfo.equals(publishedServices.get(localServiceInfo.getServiceId()))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	protected LocalServicesDiff calculateLocalServicesDiff(List<ServiceInfo> allRegistryServicesForInstance, String instanceId, List<LocalService> localServices) {
 		
 		List<ServiceInfo> servicesToRemoveFromRegistry = new ArrayList<ServiceInfo>();
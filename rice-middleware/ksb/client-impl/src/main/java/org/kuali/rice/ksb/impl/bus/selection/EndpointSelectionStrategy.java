@@ -0,0 +1,41 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.impl.bus.selection;
+
+import org.kuali.rice.ksb.impl.bus.RemoteService;
+
+import javax.xml.namespace.QName;
+import java.util.List;
+
+/**
+ * Picks the remote service a client of the bus is handed when several endpoints provide the same service.
+ *
+ * <p>Strategies are called concurrently by every thread resolving a service and must not block.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public interface EndpointSelectionStrategy {
+
+    /**
+     * Selects one of the candidates.
+     *
+     * @param serviceName the name of the service being resolved
+     * @param candidates the remote services to choose from, never empty
+     * @return one of the candidates
+     */
+    RemoteService select(QName serviceName, List<RemoteService> candidates);
+
+}
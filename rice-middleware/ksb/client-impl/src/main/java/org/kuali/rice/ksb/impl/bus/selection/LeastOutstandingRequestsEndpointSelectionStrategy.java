@@ -0,0 +1,51 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.impl.bus.selection;
+
+import org.kuali.rice.ksb.impl.bus.RemoteService;
+
+import javax.xml.namespace.QName;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Selects the endpoint on the bus instance with the fewest calls from this application in progress, see
+ * {@link OutstandingRequests}.
+ *
+ * <p>The scan starts at a random candidate so that ties, such as all instances being idle, are spread evenly.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class LeastOutstandingRequestsEndpointSelectionStrategy implements EndpointSelectionStrategy {
+
+    @Override
+    public RemoteService select(QName serviceName, List<RemoteService> candidates) {
+        int size = candidates.size();
+        int start = ThreadLocalRandom.current().nextInt(size);
+        RemoteService selected = null;
+        int fewest = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            RemoteService candidate = candidates.get((start + i) % size);
+            int outstanding = OutstandingRequests.get(candidate.getServiceInfo().getInstanceId());
+            if (outstanding < fewest) {
+                selected = candidate;
+                fewest = outstanding;
+            }
+        }
+        return selected;
+    }
+
+}
@@ -0,0 +1,58 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.impl.bus.selection;
+
+import org.kuali.rice.core.api.util.RiceUtilities;
+import org.kuali.rice.ksb.impl.bus.RemoteService;
+
+import javax.xml.namespace.QName;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prefers endpoints running on the same host as this application, leaving the choice among them (or among all
+ * endpoints if none is local) to a delegate strategy.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class LocalityEndpointSelectionStrategy implements EndpointSelectionStrategy {
+
+    private EndpointSelectionStrategy delegate = new RoundRobinEndpointSelectionStrategy();
+
+    @Override
+    public RemoteService select(QName serviceName, List<RemoteService> candidates) {
+        String localIpAddress = RiceUtilities.getIpNumber();
+        List<RemoteService> local = null;
+        for (RemoteService candidate : candidates) {
+            if (localIpAddress.equals(candidate.getServiceInfo().getServerIpAddress())) {
+                if (local == null) {
+                    local = new ArrayList<RemoteService>(candidates.size());
+                }
+                local.add(candidate);
+            }
+        }
+        return delegate.select(serviceName, local == null ? candidates : local);
+    }
+
+    public EndpointSelectionStrategy getDelegate() {
+        return delegate;
+    }
+
+    public void setDelegate(EndpointSelectionStrategy delegate) {
+        this.delegate = delegate;
+    }
+
+}
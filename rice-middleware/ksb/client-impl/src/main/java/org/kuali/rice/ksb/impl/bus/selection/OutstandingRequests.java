@@ -0,0 +1,67 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.impl.bus.selection;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the remote calls currently in progress from this application to each bus instance.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public final class OutstandingRequests {
+
+    private static final ConcurrentMap<String, AtomicInteger> COUNTS = new ConcurrentHashMap<String, AtomicInteger>();
+
+    private OutstandingRequests() {
+        throw new UnsupportedOperationException("do not call");
+    }
+
+    public static void started(String instanceId) {
+        if (instanceId != null) {
+            getCount(instanceId).incrementAndGet();
+        }
+    }
+
+    public static void finished(String instanceId) {
+        if (instanceId != null) {
+            getCount(instanceId).decrementAndGet();
+        }
+    }
+
+    /**
+     * @return the number of calls to the given bus instance which have not returned yet
+     */
+    public static int get(String instanceId) {
+        AtomicInteger count = instanceId == null ? null : COUNTS.get(instanceId);
+        return count == null ? 0 : count.get();
+    }
+
+    private static AtomicInteger getCount(String instanceId) {
+        AtomicInteger count = COUNTS.get(instanceId);
+        if (count == null) {
+            AtomicInteger newCount = new AtomicInteger();
+            count = COUNTS.putIfAbsent(instanceId, newCount);
+            if (count == null) {
+                count = newCount;
+            }
+        }
+        return count;
+    }
+
+}
@@ -0,0 +1,38 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.impl.bus.selection;
+
+import org.kuali.rice.ksb.impl.bus.RemoteService;
+
+import javax.xml.namespace.QName;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Selects a random endpoint, the traditional behavior of the bus.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class RandomEndpointSelectionStrategy implements EndpointSelectionStrategy {
+
+    private final Random random = new Random();
+
+    @Override
+    public RemoteService select(QName serviceName, List<RemoteService> candidates) {
+        return candidates.get(random.nextInt(candidates.size()));
+    }
+
+}
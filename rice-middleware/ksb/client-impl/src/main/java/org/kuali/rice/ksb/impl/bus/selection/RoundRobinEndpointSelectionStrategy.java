@@ -0,0 +1,50 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.impl.bus.selection;
+
+import org.kuali.rice.ksb.impl.bus.RemoteService;
+
+import javax.xml.namespace.QName;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out the endpoints of each service in turn.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class RoundRobinEndpointSelectionStrategy implements EndpointSelectionStrategy {
+
+    private final ConcurrentMap<QName, AtomicInteger> counters = new ConcurrentHashMap<QName, AtomicInteger>();
+
+    @Override
+    public RemoteService select(QName serviceName, List<RemoteService> candidates) {
+        AtomicInteger counter = counters.get(serviceName);
+        if (counter == null) {
+            AtomicInteger newCounter = new AtomicInteger();
+            counter = counters.putIfAbsent(serviceName, newCounter);
+            if (counter == null) {
+                counter = newCounter;
+            }
+        }
+        // mask the sign bit so the index stays valid once the counter overflows
+        int next = counter.getAndIncrement() & Integer.MAX_VALUE;
+        return candidates.get(next % candidates.size());
+    }
+
+}
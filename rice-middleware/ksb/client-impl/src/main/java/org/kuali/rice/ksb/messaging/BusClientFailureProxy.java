@@ -23,6 +23,7 @@ import org.kuali.rice.core.api.util.reflect.BaseTargetedInvocationHandler;
 import org.kuali.rice.ksb.api.KsbApiServiceLocator;
 import org.kuali.rice.ksb.api.bus.Endpoint;
 import org.kuali.rice.ksb.api.bus.ServiceConfiguration;
+import org.kuali.rice.ksb.impl.bus.selection.OutstandingRequests;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
@@ -56,6 +57,9 @@ public class BusClientFailureProxy extends BaseTargetedInvocationHandler<Object>
 		Set<ServiceConfiguration> servicesTried = null;
 		
 		do {
+			// counted for the least outstanding requests endpoint selection
+			String instanceId = this.serviceConfiguration.getInstanceId();
+			OutstandingRequests.started(instanceId);
 			try {
 				return method.invoke(getTarget(), params);
 			} catch (Throwable throwable) {			
@@ -90,6 +94,8 @@ public class BusClientFailureProxy extends BaseTargetedInvocationHandler<Object>
 				} else {
 					throw throwable;
 				}
+			} finally {
+				OutstandingRequests.finished(instanceId);
 			}
 		} while (true);
 	}
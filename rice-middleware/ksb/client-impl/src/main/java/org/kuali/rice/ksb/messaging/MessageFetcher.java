@@ -20,11 +20,19 @@ import org.kuali.rice.core.api.config.property.ConfigContext;
 import org.kuali.rice.ksb.messaging.service.MessageQueueService;
 import org.kuali.rice.ksb.service.KSBServiceLocator;
 import org.kuali.rice.ksb.util.KSBConstants;
-import org.springframework.transaction.TransactionStatus;
-import org.springframework.transaction.support.TransactionCallback;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Fetches messages from the db. Marks as 'R'. Gives messages to ThreadPool for execution
+ * Fetches messages from the db. Claims them for this node. Gives messages to ThreadPool for execution
+ *
+ * <p>Messages are claimed in batches by leasing them to this node (see {@link MessageLease}), so several nodes can
+ * work off the queue of an application at the same time, and messages whose lease expired because their node went
+ * away are picked up by the next fetch of any other node.</p>
+ *
+ * <p>No more messages are claimed than the thread pool's queue has room for.  If that leaves messages behind, another
+ * fetch is scheduled for them so that they stay queued in the database instead of in memory.</p>
  *
  * @author Kuali Rice Team (rice.collab@kuali.org)
  */
@@ -32,15 +40,32 @@ public class MessageFetcher implements Runnable {
 
     private static final Logger LOG = Logger.getLogger(MessageFetcher.class);
 
+    private static final long BACKLOG_FETCH_DELAY = 5000;
+
+    /**
+     * Keeps the id list of a claim well below the 1000 entries Oracle allows in an in clause.
+     */
+    private static final int CLAIM_BATCH_SIZE = 500;
+
+    /**
+     * Fetchers of the same node claim one after the other rather than competing with each other.
+     */
+    private static final Object CLAIM_LOCK = new Object();
+
     private Integer maxMessages;
     private Long routeQueueId;
+    private Integer lockVerNbr;
 
     public MessageFetcher(Integer maxMessages) {
         this.maxMessages = maxMessages;
     }
 
-    public MessageFetcher(Long routeQueueId) {
+    /**
+     * Creates a fetcher which requeues a single message, if it still is at the given version when the fetcher runs.
+     */
+    public MessageFetcher(Long routeQueueId, Integer lockVerNbr) {
         this.routeQueueId = routeQueueId;
+        this.lockVerNbr = lockVerNbr;
     }
 
     public void run() {
@@ -58,9 +83,32 @@ public class MessageFetcher implements Runnable {
     private void requeueMessages() {
         if (this.routeQueueId == null) {
             try {
-                for (PersistedMessageBO message : getRouteQueueService().getNextDocuments(maxMessages)) {
-                    message = markEnrouteAndSaveMessage(message);
-                    executeMessage(message);
+                int capacity = KSBServiceLocator.getThreadPool().getQueue().remainingCapacity();
+                if (capacity <= 0) {
+                    LOG.info("KSB thread pool queue is full, fetching messages again in " + BACKLOG_FETCH_DELAY + " ms.");
+                    scheduleFetch(maxMessages);
+                    return;
+                }
+                // an unbounded thread pool queue reports Integer.MAX_VALUE
+                boolean bounded = capacity != Integer.MAX_VALUE;
+                int remaining = maxMessages == null ? capacity : Math.min(maxMessages.intValue(), capacity);
+                int claimed = 0;
+                boolean drained = false;
+                while (remaining > 0 && !drained) {
+                    int batchSize = Math.min(remaining, CLAIM_BATCH_SIZE);
+                    List<PersistedMessageBO> messages;
+                    synchronized (CLAIM_LOCK) {
+                        messages = getRouteQueueService().claimNextMessages(batchSize);
+                    }
+                    for (PersistedMessageBO message : messages) {
+                        executeMessage(message);
+                    }
+                    claimed += messages.size();
+                    remaining -= messages.size();
+                    drained = messages.size() < batchSize;
+                }
+                if (bounded && !drained && (maxMessages == null || claimed < maxMessages.intValue())) {
+                    scheduleFetch(maxMessages == null ? null : Integer.valueOf(maxMessages.intValue() - claimed));
                 }
             } catch (Throwable t) {
                 LOG.error("Failed to fetch or process some messages during requeueMessages", t);
@@ -68,12 +116,22 @@ public class MessageFetcher implements Runnable {
         }
     }
 
+    /**
+     * Fetches the messages the thread pool had no room for once it had time to work off its queue.
+     */
+    private void scheduleFetch(Integer maxMessages) {
+        KSBServiceLocator.getScheduledPool().schedule(new MessageFetcher(maxMessages), BACKLOG_FETCH_DELAY,
+                TimeUnit.MILLISECONDS);
+    }
+
     private void requeueDocument() {
         try {
             if (this.routeQueueId != null) {
-                PersistedMessageBO message = getRouteQueueService().findByRouteQueueId(this.routeQueueId);
-                message.setQueueStatus(KSBConstants.ROUTE_QUEUE_ROUTING);
-                message = getRouteQueueService().save(message);
+                PersistedMessageBO message = getRouteQueueService().acquireLease(this.routeQueueId, this.lockVerNbr);
+                if (message == null) {
+                    LOG.info("Message " + this.routeQueueId + " is gone or leased to another invoker, not requeuing it.");
+                    return;
+                }
                 executeMessage(message);
             }
         } catch (Throwable t) {
@@ -89,20 +147,6 @@ public class MessageFetcher implements Runnable {
         }
     }
 
-    private PersistedMessageBO markEnrouteAndSaveMessage(final PersistedMessageBO message) {
-        try {
-            return KSBServiceLocator.getTransactionTemplate().execute(new TransactionCallback<PersistedMessageBO>() {
-                public PersistedMessageBO doInTransaction(TransactionStatus status) {
-                    message.setQueueStatus(KSBConstants.ROUTE_QUEUE_ROUTING);
-                    return getRouteQueueService().save(message);
-                }
-            });
-        } catch (Throwable t) {
-            LOG.error("Caught error attempting to mark message " + message + " as R", t);
-        }
-        return message;
-    }
-
     private MessageQueueService getRouteQueueService() {
         return KSBServiceLocator.getMessageQueueService();
     }
@@ -0,0 +1,91 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.messaging;
+
+import org.apache.commons.lang.StringUtils;
+import org.kuali.rice.core.api.config.CoreConfigHelper;
+import org.kuali.rice.core.api.config.property.Config;
+import org.kuali.rice.core.api.config.property.ConfigContext;
+import org.kuali.rice.core.api.util.RiceUtilities;
+import org.kuali.rice.ksb.util.KSBConstants;
+
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leases on persisted messages.
+ *
+ * <p>A node processes a persisted message only while it holds the lease on it.  New messages are leased to the node
+ * which sends them, other messages are leased by a node claiming them from the queue or when a scheduled retry fires.
+ * A message waiting for a scheduled retry stays leased to the node which scheduled it until a lease duration past its
+ * retry date, so no other node claims it early.  Once a lease expires any node of the application may claim the
+ * message, and a node gives up the leases on the messages which are due when it starts, so the lease duration
+ * ({@value KSBConstants.Config#MESSAGE_LEASE_DURATION} seconds) has to be well above both the time a message takes to
+ * process and the clock difference between the nodes.</p>
+ *
+ * <p>Right before a message is invoked the invoker renews the lease with the version of the message it was handed.
+ * Every change to the message bumps its version, so of several invokers which were handed the same message, on the
+ * same node or not, only the first one gets the lease and the others skip the message.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public final class MessageLease {
+
+    public static final long DEFAULT_DURATION = 300;
+
+    private MessageLease() {
+        throw new UnsupportedOperationException("do not call");
+    }
+
+    /**
+     * @return the lease owner id of this node, its bus instance id
+     */
+    public static String getOwner() {
+        String instanceId = ConfigContext.getCurrentContextConfig().getProperty(KSBConstants.Config.INSTANCE_ID);
+        if (StringUtils.isBlank(instanceId)) {
+            instanceId = CoreConfigHelper.getApplicationId() + "-" + RiceUtilities.getIpNumber();
+        }
+        return instanceId;
+    }
+
+    /**
+     * Leases the given message to this node, before this node saves it.
+     */
+    public static void lease(PersistedMessageBO message) {
+        message.setLeaseOwner(getOwner());
+        message.setLeaseExpirationDate(newExpirationDate());
+    }
+
+    /**
+     * @return the expiration date of a lease taken now, truncated to whole seconds so that it compares equal after a
+     * round trip through a DATE column
+     */
+    public static Timestamp newExpirationDate() {
+        return newExpirationDate(new Timestamp(System.currentTimeMillis()));
+    }
+
+    /**
+     * @return the expiration date of a lease which starts at the given date, such as the retry date of a message which
+     * stays leased to this node while it waits for its retry
+     */
+    public static Timestamp newExpirationDate(Timestamp startDate) {
+        Config config = ConfigContext.getCurrentContextConfig();
+        long duration = config.getNumericProperty(KSBConstants.Config.MESSAGE_LEASE_DURATION, DEFAULT_DURATION);
+        long expiration = startDate.getTime() + TimeUnit.SECONDS.toMillis(duration);
+        return new Timestamp(expiration - expiration % 1000);
+    }
+
+}
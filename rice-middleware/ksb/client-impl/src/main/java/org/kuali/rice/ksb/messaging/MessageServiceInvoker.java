@@ -56,11 +56,16 @@ public class MessageServiceInvoker implements Runnable {
     public void run() {
         LOG.debug("calling service from persisted message " + getMessage().getRouteQueueId());
         if(ConfigContext.getCurrentContextConfig().getBooleanProperty(Config.MESSAGE_PERSISTENCE)) {
-            PersistedMessagePayload messageFromDB = KSBServiceLocator.getMessageQueueService().findByPersistedMessageByRouteQueueId(getMessage().getRouteQueueId());
-            if(messageFromDB == null) {
-                // If the message is no longer found in the database we should skip this processing
+            // renew the lease right before invoking, this also bumps the version of the message so that no other invoker
+            // handed the same version of it gets the lease as well
+            PersistedMessageBO leasedMessage = KSBServiceLocator.getMessageQueueService().acquireLease(
+                    getMessage().getRouteQueueId(), getMessage().getLockVerNbr());
+            if(leasedMessage == null) {
+                // If the message is no longer found in the database, or another invoker or node took it over, we should skip this processing
+                LOG.info("Message " + getMessage().getRouteQueueId() + " is gone or leased to another invoker, skipping it.");
                 return;
             }
+            setMessage(leasedMessage);
         }
         Object result = null;
         try {
@@ -44,7 +44,12 @@ import java.sql.Timestamp;
 @NamedQueries({
   @NamedQuery(name="PersistedMessageBO.FindAll", query="select pm from PersistedMessageBO pm"),
   @NamedQuery(name="PersistedMessageBO.FindByServiceName", query="select pm from PersistedMessageBO pm where pm.serviceName = :serviceName and pm.methodName = :methodName"),
-  @NamedQuery(name="PersistedMessageBO.GetNextDocuments", query="select pm from PersistedMessageBO pm where pm.applicationId = :applicationId and pm.queueStatus <> :queueStatus and pm.ipNumber = :ipNumber order by pm.queuePriority asc, pm.routeQueueId asc, pm.queueDate asc")
+  @NamedQuery(name="PersistedMessageBO.GetNextDocuments", query="select pm from PersistedMessageBO pm where pm.applicationId = :applicationId and pm.queueStatus <> :queueStatus and pm.ipNumber = :ipNumber order by pm.queuePriority asc, pm.routeQueueId asc, pm.queueDate asc"),
+  @NamedQuery(name="PersistedMessageBO.FindClaimableIds", query="select pm.routeQueueId from PersistedMessageBO pm where pm.applicationId = :applicationId and pm.queueStatus <> :exceptionStatus and (pm.leaseExpirationDate is null or pm.leaseExpirationDate < :now) order by pm.queuePriority asc, pm.routeQueueId asc"),
+  @NamedQuery(name="PersistedMessageBO.Claim", query="update PersistedMessageBO pm set pm.queueStatus = :routingStatus, pm.leaseOwner = :leaseOwner, pm.leaseExpirationDate = :leaseExpirationDate, pm.ipNumber = :ipNumber, pm.lockVerNbr = pm.lockVerNbr + 1 where pm.routeQueueId in :routeQueueIds and pm.queueStatus <> :exceptionStatus and (pm.leaseExpirationDate is null or pm.leaseExpirationDate < :now)"),
+  @NamedQuery(name="PersistedMessageBO.FindClaimed", query="select pm from PersistedMessageBO pm where pm.routeQueueId in :routeQueueIds and pm.leaseOwner = :leaseOwner and pm.leaseExpirationDate = :leaseExpirationDate order by pm.queuePriority asc, pm.routeQueueId asc"),
+  @NamedQuery(name="PersistedMessageBO.ReleaseLeases", query="update PersistedMessageBO pm set pm.leaseExpirationDate = null, pm.lockVerNbr = pm.lockVerNbr + 1 where pm.leaseOwner = :leaseOwner and pm.queueDate <= :now"),
+  @NamedQuery(name="PersistedMessageBO.AcquireLease", query="update PersistedMessageBO pm set pm.queueStatus = :routingStatus, pm.leaseOwner = :leaseOwner, pm.leaseExpirationDate = :leaseExpirationDate, pm.ipNumber = :ipNumber, pm.lockVerNbr = pm.lockVerNbr + 1 where pm.routeQueueId = :routeQueueId and ((pm.leaseOwner = :leaseOwner and pm.lockVerNbr = :lockVerNbr) or pm.leaseExpirationDate is null or pm.leaseExpirationDate < :now)")
 })
 public class PersistedMessageBO implements PersistedMessage {
 
@@ -93,6 +98,12 @@ public class PersistedMessageBO implements PersistedMessage {
     @Column(name="APP_VAL_TWO")
     private String value2;
 
+    @Column(name="LEASE_OWNR_ID")
+    private String leaseOwner;
+
+    @Column(name="LEASE_EXP_DT")
+    private Timestamp leaseExpirationDate;
+
     @Transient private AsynchronousCall methodCall;
     @Transient private PersistedMessagePayload payload;
     
@@ -117,6 +128,8 @@ public class PersistedMessageBO implements PersistedMessage {
             message.setExpirationDate(new Timestamp(System.currentTimeMillis() + serviceConfiguration.getMillisToLive()));
         }
         message.setApplicationId(CoreConfigHelper.getApplicationId());
+        // the sending node invokes the message itself once it is saved, so no other fetch may claim it meanwhile
+        MessageLease.lease(message);
         message.setMethodName(methodCall.getMethodName());
         return message;
     }
@@ -136,6 +149,8 @@ public class PersistedMessageBO implements PersistedMessage {
         message.methodName = methodName;
         message.value1 = value1;
         message.value2 = value2;
+        message.leaseOwner = leaseOwner;
+        message.leaseExpirationDate = leaseExpirationDate;
         message.methodCall = methodCall;
         message.payload = payload;
         return message;
@@ -289,4 +304,26 @@ public class PersistedMessageBO implements PersistedMessage {
         this.value2 = value2;
     }
 
+    /**
+     * @return the bus instance id of the node which holds the lease on this message, see {@link MessageLease}
+     */
+    public String getLeaseOwner() {
+        return this.leaseOwner;
+    }
+
+    public void setLeaseOwner(String leaseOwner) {
+        this.leaseOwner = leaseOwner;
+    }
+
+    /**
+     * @return when the lease on this message expires and other nodes may claim it
+     */
+    public Timestamp getLeaseExpirationDate() {
+        return this.leaseExpirationDate;
+    }
+
+    public void setLeaseExpirationDate(Timestamp leaseExpirationDate) {
+        this.leaseExpirationDate = leaseExpirationDate;
+    }
+
 }
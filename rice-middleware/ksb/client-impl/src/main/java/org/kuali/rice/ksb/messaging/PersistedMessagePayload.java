@@ -17,6 +17,7 @@ package org.kuali.rice.ksb.messaging;
 
 import org.kuali.rice.core.api.util.io.SerializationUtils;
 import org.kuali.rice.ksb.api.messaging.AsynchronousCall;
+import org.kuali.rice.ksb.messaging.payload.MessagePayloadCodecs;
 
 import javax.persistence.*;
 import java.io.Serializable;
@@ -24,6 +25,9 @@ import java.io.Serializable;
 /**
  * Holds message payload content.  Needed to proxy the content so we don't have to 
  * take the hit when grabbing large amounts of persisted messages at time.
+ *
+ * <p>New payloads are stored in binary form through {@link MessagePayloadCodecs}.  Payloads written by earlier
+ * versions as base 64 encoded text are still read from the text column.</p>
  * 
  * @author Kuali Rice Team (rice.collab@kuali.org)
  *
@@ -41,6 +45,10 @@ public class PersistedMessagePayload implements Serializable {
 	@Basic(fetch=FetchType.LAZY)
 	@Column(name="MSG_PYLD", length=4000)
 	private String payload;
+    @Lob
+    @Basic(fetch=FetchType.LAZY)
+    @Column(name="MSG_PYLD_BIN")
+    private byte[] binaryPayload;
     @Transient
     private AsynchronousCall methodCall;
     @Transient
@@ -49,7 +57,7 @@ public class PersistedMessagePayload implements Serializable {
     public PersistedMessagePayload() {}
     
     public PersistedMessagePayload (AsynchronousCall methodCall, PersistedMessageBO message) {
-	this.setPayload(SerializationUtils.serializeToBase64(methodCall));
+	this.setBinaryPayload(MessagePayloadCodecs.encode(methodCall));
 	this.methodCall = methodCall;
 	this.message = message;
     }
@@ -60,6 +68,12 @@ public class PersistedMessagePayload implements Serializable {
     public void setPayload(String payload) {
         this.payload = payload;
     }
+    public byte[] getBinaryPayload() {
+        return this.binaryPayload;
+    }
+    public void setBinaryPayload(byte[] binaryPayload) {
+        this.binaryPayload = binaryPayload;
+    }
     public Long getRouteQueueId() {
         return this.routeQueueId;
     }
@@ -70,7 +84,11 @@ public class PersistedMessagePayload implements Serializable {
 	if (this.methodCall != null) {
 	    return this.methodCall;
 	} 
-	this.methodCall = (AsynchronousCall) SerializationUtils.deserializeFromBase64(getPayload());
+	if (getBinaryPayload() != null) {
+	    this.methodCall = (AsynchronousCall) MessagePayloadCodecs.decode(getBinaryPayload());
+	} else {
+	    this.methodCall = (AsynchronousCall) SerializationUtils.deserializeFromBase64(getPayload());
+	}
 	return this.methodCall;
     }
 
@@ -53,6 +53,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Used to configure the embedded workflow. This could be used to configure
@@ -285,8 +286,26 @@ public class KSBConfigurer extends ModuleConfigurer implements SmartApplicationL
         }
 
         //automatically requeue documents sitting with status of 'R'
+        if (isMessagePersistenceEnabled()) {
+            try {
+                int released = KSBServiceLocator.getMessageQueueService().releaseLeases();
+                if (released > 0) {
+                    LOG.info("Released the leases on " + released + " messages left behind by the previous run.");
+                }
+            } catch (Throwable t) {
+                LOG.error("Failed to release the message leases of the previous run", t);
+            }
+        }
         MessageFetcher messageFetcher = new MessageFetcher((Integer) null);
         KSBServiceLocator.getThreadPool().execute(messageFetcher);
+
+        // keep claiming messages so that those of nodes which went away are taken over once their leases expire
+        long fetchInterval = ConfigContext.getCurrentContextConfig().getNumericProperty(
+                KSBConstants.Config.MESSAGE_FETCH_INTERVAL, 0);
+        if (fetchInterval > 0 && isMessagePersistenceEnabled()) {
+            KSBServiceLocator.getScheduledPool().scheduleWithFixedDelay(new MessageFetcher((Integer) null),
+                    fetchInterval, fetchInterval, TimeUnit.SECONDS);
+        }
     }
 
     protected boolean isMessagePersistenceEnabled() {
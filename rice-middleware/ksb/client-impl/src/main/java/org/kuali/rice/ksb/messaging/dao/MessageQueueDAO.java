@@ -19,6 +19,7 @@ import org.kuali.rice.ksb.messaging.PersistedMessageBO;
 import org.kuali.rice.ksb.messaging.PersistedMessagePayload;
 
 import javax.xml.namespace.QName;
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.Map;
 
@@ -37,6 +38,32 @@ public interface MessageQueueDAO {
 
     public List<PersistedMessageBO> getNextDocuments(Integer maxDocuments);
 
+    /**
+     * Leases up to maxMessages queued messages of this application whose lease is unset or has expired to the given
+     * owner, marking them as routing.  Messages leased concurrently by another node are skipped.
+     *
+     * @return the messages this call leased
+     */
+    public List<PersistedMessageBO> claimNextMessages(int maxMessages, String leaseOwner, Timestamp leaseExpirationDate);
+
+    /**
+     * Leases the given message to the owner if it is still leased to the owner at the given version, unleased, or its
+     * lease has expired.
+     *
+     * @return the leased message, or null if it no longer exists, changed since the given version or is leased to
+     * another owner
+     */
+    public PersistedMessageBO acquireLease(Long routeQueueId, Integer lockVerNbr, String leaseOwner,
+            Timestamp leaseExpirationDate);
+
+    /**
+     * Lets the leases of the given owner on the messages which are due expire right away.  Messages waiting for a
+     * scheduled retry stay leased.
+     *
+     * @return the number of messages released
+     */
+    public int releaseLeases(String leaseOwner);
+
     public List<PersistedMessageBO> findByServiceName(QName serviceName, String methodName);
 
     /**
@@ -31,6 +31,8 @@ import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import javax.xml.namespace.QName;
+import java.sql.Timestamp;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -112,6 +114,77 @@ public class MessageQueueDaoJpa implements MessageQueueDAO {
         return query.getResultList();
     }
 
+    public List<PersistedMessageBO> claimNextMessages(int maxMessages, String leaseOwner,
+            Timestamp leaseExpirationDate) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        TypedQuery<Long> candidateQuery = entityManager.createNamedQuery("PersistedMessageBO.FindClaimableIds",
+                Long.class);
+        candidateQuery.setParameter("applicationId", CoreConfigHelper.getApplicationId());
+        candidateQuery.setParameter("exceptionStatus", KSBConstants.ROUTE_QUEUE_EXCEPTION);
+        candidateQuery.setParameter("now", now);
+        candidateQuery.setMaxResults(maxMessages);
+        List<Long> candidateIds = candidateQuery.getResultList();
+        if (candidateIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // the update re-checks the lease of every candidate, so only one of several nodes racing for a message wins it
+        Query claimQuery = entityManager.createNamedQuery("PersistedMessageBO.Claim");
+        claimQuery.setParameter("routingStatus", KSBConstants.ROUTE_QUEUE_ROUTING);
+        claimQuery.setParameter("leaseOwner", leaseOwner);
+        claimQuery.setParameter("leaseExpirationDate", leaseExpirationDate);
+        claimQuery.setParameter("ipNumber", RiceUtilities.getIpNumber());
+        claimQuery.setParameter("routeQueueIds", candidateIds);
+        claimQuery.setParameter("exceptionStatus", KSBConstants.ROUTE_QUEUE_EXCEPTION);
+        claimQuery.setParameter("now", now);
+        int claimed = claimQuery.executeUpdate();
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Claimed " + claimed + " of " + candidateIds.size() + " candidate messages for " + leaseOwner);
+        }
+        if (claimed == 0) {
+            return Collections.emptyList();
+        }
+
+        TypedQuery<PersistedMessageBO> claimedQuery = entityManager.createNamedQuery("PersistedMessageBO.FindClaimed",
+                PersistedMessageBO.class);
+        claimedQuery.setParameter("routeQueueIds", candidateIds);
+        claimedQuery.setParameter("leaseOwner", leaseOwner);
+        claimedQuery.setParameter("leaseExpirationDate", leaseExpirationDate);
+        List<PersistedMessageBO> messages = claimedQuery.getResultList();
+        for (PersistedMessageBO message : messages) {
+            // bulk updates bypass the persistence context
+            entityManager.refresh(message);
+        }
+        return messages;
+    }
+
+    public PersistedMessageBO acquireLease(Long routeQueueId, Integer lockVerNbr, String leaseOwner,
+            Timestamp leaseExpirationDate) {
+        Query query = entityManager.createNamedQuery("PersistedMessageBO.AcquireLease");
+        query.setParameter("routingStatus", KSBConstants.ROUTE_QUEUE_ROUTING);
+        query.setParameter("leaseOwner", leaseOwner);
+        query.setParameter("leaseExpirationDate", leaseExpirationDate);
+        query.setParameter("ipNumber", RiceUtilities.getIpNumber());
+        query.setParameter("routeQueueId", routeQueueId);
+        query.setParameter("lockVerNbr", lockVerNbr);
+        query.setParameter("now", new Timestamp(System.currentTimeMillis()));
+        if (query.executeUpdate() == 0) {
+            return null;
+        }
+        PersistedMessageBO message = entityManager.find(PersistedMessageBO.class, routeQueueId);
+        if (message != null) {
+            entityManager.refresh(message);
+        }
+        return message;
+    }
+
+    public int releaseLeases(String leaseOwner) {
+        Query query = entityManager.createNamedQuery("PersistedMessageBO.ReleaseLeases");
+        query.setParameter("leaseOwner", leaseOwner);
+        query.setParameter("now", new Timestamp(System.currentTimeMillis()));
+        return query.executeUpdate();
+    }
+
     public void remove(PersistedMessageBO routeQueue) {
         if (LOG.isDebugEnabled()) {
             LOG.debug("Removing message " + routeQueue);
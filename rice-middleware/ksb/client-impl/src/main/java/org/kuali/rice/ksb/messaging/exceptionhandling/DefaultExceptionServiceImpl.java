@@ -94,7 +94,8 @@ public class DefaultExceptionServiceImpl implements ExceptionRoutingService {
 	
 
 	public void scheduleExecution(Throwable throwable, PersistedMessageBO message, String description) throws Exception {
-		KSBServiceLocator.getMessageQueueService().delete(message);
+		// the message stays in the queue, leased to this node until its retry, see MessageServiceExecutorJob
+		message = KSBServiceLocator.getMessageQueueService().save(message);
         PersistedMessageBO messageCopy = message.copy();
 		Scheduler scheduler = KSBServiceLocator.getScheduler();
 		JobDataMap jobData = new JobDataMap();
@@ -21,6 +21,7 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.log4j.Logger;
 import org.kuali.rice.core.api.config.property.ConfigContext;
 import org.kuali.rice.ksb.api.bus.ServiceConfiguration;
+import org.kuali.rice.ksb.messaging.MessageLease;
 import org.kuali.rice.ksb.messaging.PersistedMessageBO;
 import org.kuali.rice.ksb.service.KSBServiceLocator;
 import org.kuali.rice.ksb.util.KSBConstants;
@@ -91,6 +92,9 @@ public class DefaultMessageExceptionHandler implements MessageExceptionHandler {
         message.setQueueStatus(KSBConstants.ROUTE_QUEUE_QUEUED);
         message.setRetryCount(new Integer(retryCount + 1));
         message.setQueueDate(newTime);
+        // keep the message leased to this node through its retry so that other nodes don't claim it in the meantime
+        message.setLeaseOwner(MessageLease.getOwner());
+        message.setLeaseExpirationDate(MessageLease.newExpirationDate(newTime));
         scheduleExecution(throwable, message);
     }
 
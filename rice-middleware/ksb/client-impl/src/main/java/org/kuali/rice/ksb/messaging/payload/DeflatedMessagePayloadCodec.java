@@ -0,0 +1,76 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.messaging.payload;
+
+import org.apache.commons.lang.SerializationUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Serializable;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Stores payloads as java serialization compressed with deflate.
+ *
+ * <p>The serialized form of an {@link org.kuali.rice.ksb.api.messaging.AsynchronousCall} repeats class and field
+ * names a lot, so even the fastest compression level shrinks it considerably.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class DeflatedMessagePayloadCodec implements MessagePayloadCodec {
+
+    public static final byte FORMAT_VERSION = 2;
+
+    private static final int BUFFER_SIZE = 4096;
+
+    private int compressionLevel = Deflater.BEST_SPEED;
+
+    @Override
+    public byte getFormatVersion() {
+        return FORMAT_VERSION;
+    }
+
+    @Override
+    public byte[] encode(Serializable content) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(BUFFER_SIZE);
+        Deflater deflater = new Deflater(compressionLevel);
+        try {
+            // serialize closes the stream, which finishes the compressed data
+            SerializationUtils.serialize(content, new DeflaterOutputStream(bytes, deflater, BUFFER_SIZE));
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public Serializable decode(byte[] data, int offset, int length) {
+        // deserialize closes the stream, which releases the inflater
+        return (Serializable) SerializationUtils.deserialize(
+                new InflaterInputStream(new ByteArrayInputStream(data, offset, length)));
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    public void setCompressionLevel(int compressionLevel) {
+        this.compressionLevel = compressionLevel;
+    }
+
+}
@@ -0,0 +1,40 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.messaging.payload;
+
+import java.io.Serializable;
+
+/**
+ * Turns the content of persisted messages into the bytes stored in the message payload table and back.
+ *
+ * <p>Every codec owns a format version which {@link MessagePayloadCodecs} writes in front of the bytes it produces, so
+ * that payloads stay readable after the codec used for new messages is changed.  Versions below 64 are reserved for
+ * the codecs shipped with Rice.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public interface MessagePayloadCodec {
+
+    /**
+     * @return the format version identifying the payloads encoded by this codec
+     */
+    byte getFormatVersion();
+
+    byte[] encode(Serializable content);
+
+    Serializable decode(byte[] data, int offset, int length);
+
+}
@@ -0,0 +1,130 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.messaging.payload;
+
+import org.apache.commons.lang.StringUtils;
+import org.kuali.rice.core.api.config.property.Config;
+import org.kuali.rice.core.api.config.property.ConfigContext;
+import org.kuali.rice.core.api.exception.RiceRuntimeException;
+import org.kuali.rice.core.api.util.ClassLoaderUtils;
+import org.kuali.rice.ksb.util.KSBConstants;
+
+import java.io.Serializable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Encodes and decodes binary message payloads, prefixing every payload with a header which names the format it was
+ * written in.
+ *
+ * <p>New payloads are written by the codec configured through {@value KSBConstants.Config#MESSAGE_PAYLOAD_CODEC},
+ * which defaults to {@link DeflatedMessagePayloadCodec}.  Payloads are read by the codec registered for the format
+ * version found in their header, the shipped codecs are always registered and the configured one is registered when it
+ * is first used.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public final class MessagePayloadCodecs {
+
+    private static final byte MAGIC_1 = 'K';
+    private static final byte MAGIC_2 = 'P';
+
+    static final int HEADER_LENGTH = 3;
+
+    private static final ConcurrentMap<Byte, MessagePayloadCodec> CODECS_BY_VERSION =
+            new ConcurrentHashMap<Byte, MessagePayloadCodec>();
+
+    private static final ConcurrentMap<String, MessagePayloadCodec> CODECS_BY_CLASS =
+            new ConcurrentHashMap<String, MessagePayloadCodec>();
+
+    static {
+        register(new SerializedMessagePayloadCodec());
+        register(new DeflatedMessagePayloadCodec());
+    }
+
+    private MessagePayloadCodecs() {
+        throw new UnsupportedOperationException("do not call");
+    }
+
+    /**
+     * Makes payloads written by the given codec readable, replacing the codec registered for the same format version.
+     */
+    public static void register(MessagePayloadCodec codec) {
+        CODECS_BY_VERSION.put(Byte.valueOf(codec.getFormatVersion()), codec);
+        CODECS_BY_CLASS.put(codec.getClass().getName(), codec);
+    }
+
+    /**
+     * Encodes the given content with the configured codec.
+     */
+    public static byte[] encode(Serializable content) {
+        return encode(getConfiguredCodec(), content);
+    }
+
+    public static byte[] encode(MessagePayloadCodec codec, Serializable content) {
+        if (content == null) {
+            throw new IllegalArgumentException("Cannot encode a null payload");
+        }
+        byte[] body = codec.encode(content);
+        byte[] payload = new byte[HEADER_LENGTH + body.length];
+        payload[0] = MAGIC_1;
+        payload[1] = MAGIC_2;
+        payload[2] = codec.getFormatVersion();
+        System.arraycopy(body, 0, payload, HEADER_LENGTH, body.length);
+        return payload;
+    }
+
+    /**
+     * Decodes the given payload with the codec of the format version in its header.
+     *
+     * @throws RiceRuntimeException if the payload has no header or no codec is registered for its format version
+     */
+    public static Serializable decode(byte[] payload) {
+        if (payload == null || payload.length < HEADER_LENGTH || payload[0] != MAGIC_1 || payload[1] != MAGIC_2) {
+            throw new RiceRuntimeException("Message payload does not start with a payload header");
+        }
+        MessagePayloadCodec codec = CODECS_BY_VERSION.get(Byte.valueOf(payload[2]));
+        if (codec == null) {
+            // the configured codec registers itself when it is first created
+            getConfiguredCodec();
+            codec = CODECS_BY_VERSION.get(Byte.valueOf(payload[2]));
+            if (codec == null) {
+                throw new RiceRuntimeException("No message payload codec is registered for format version " + payload[2]);
+            }
+        }
+        return codec.decode(payload, HEADER_LENGTH, payload.length - HEADER_LENGTH);
+    }
+
+    static MessagePayloadCodec getConfiguredCodec() {
+        Config config = ConfigContext.getCurrentContextConfig();
+        String className = config == null ? null : config.getProperty(KSBConstants.Config.MESSAGE_PAYLOAD_CODEC);
+        if (StringUtils.isBlank(className)) {
+            className = DeflatedMessagePayloadCodec.class.getName();
+        }
+        MessagePayloadCodec codec = CODECS_BY_CLASS.get(className);
+        if (codec == null) {
+            try {
+                codec = (MessagePayloadCodec) Class.forName(className, true,
+                        ClassLoaderUtils.getDefaultClassLoader()).newInstance();
+            } catch (Exception e) {
+                throw new RiceRuntimeException("Failed to create message payload codec " + className, e);
+            }
+            register(codec);
+        }
+        return codec;
+    }
+
+}
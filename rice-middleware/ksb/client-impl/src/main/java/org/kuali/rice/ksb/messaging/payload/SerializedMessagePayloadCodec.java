@@ -0,0 +1,47 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.messaging.payload;
+
+import org.apache.commons.lang.SerializationUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.Serializable;
+
+/**
+ * Stores payloads as plain java serialization.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class SerializedMessagePayloadCodec implements MessagePayloadCodec {
+
+    public static final byte FORMAT_VERSION = 1;
+
+    @Override
+    public byte getFormatVersion() {
+        return FORMAT_VERSION;
+    }
+
+    @Override
+    public byte[] encode(Serializable content) {
+        return SerializationUtils.serialize(content);
+    }
+
+    @Override
+    public Serializable decode(byte[] data, int offset, int length) {
+        return (Serializable) SerializationUtils.deserialize(new ByteArrayInputStream(data, offset, length));
+    }
+
+}
@@ -16,6 +16,8 @@
 package org.kuali.rice.ksb.messaging.quartz;
 
 import org.apache.log4j.Logger;
+import org.kuali.rice.core.api.config.property.ConfigContext;
+import org.kuali.rice.ksb.messaging.MessageLease;
 import org.kuali.rice.ksb.messaging.MessageServiceInvoker;
 import org.kuali.rice.ksb.messaging.PersistedMessageBO;
 import org.kuali.rice.ksb.messaging.threadpool.KSBThreadPool;
@@ -29,8 +31,14 @@ import java.io.Serializable;
 
 
 /**
- * Job saves a {@link org.kuali.rice.ksb.messaging.PersistedMessageBO} to the message queue in the state of 'R' and then puts into a
- * {@link MessageServiceInvoker} for execution in {@link KSBThreadPool}.
+ * Job which executes a {@link org.kuali.rice.ksb.messaging.PersistedMessageBO} at a scheduled date, either a delayed
+ * asynchronous call or the retry of a message which failed, by putting it into a {@link MessageServiceInvoker} for
+ * execution in {@link KSBThreadPool}.
+ *
+ * <p>A message waiting for its retry stays in the message queue, leased to the node which scheduled it (see
+ * {@link MessageLease}).  The job takes the lease before executing it and skips the message if it is gone or another
+ * node took it over in the meantime.  Messages which are not in the queue yet are saved to it in the state of 'R',
+ * leased to this node.</p>
  * 
  * @author Kuali Rice Team (rice.collab@kuali.org)
  * 
@@ -46,13 +54,33 @@ public class MessageServiceExecutorJob implements Job, Serializable {
     public void execute(JobExecutionContext jec) throws JobExecutionException {
 	try {
 	    PersistedMessageBO message = (PersistedMessageBO) jec.getJobDetail().getJobDataMap().get(MESSAGE_KEY);
- 	    message.setQueueStatus(KSBConstants.ROUTE_QUEUE_ROUTING);
-        message.setLockVerNbr(null);
-	    message = KSBServiceLocator.getMessageQueueService().save(message);
+	    if (isLeasedInQueue(message)) {
+	        PersistedMessageBO leasedMessage = KSBServiceLocator.getMessageQueueService().acquireLease(
+	                message.getRouteQueueId(), message.getLockVerNbr());
+	        if (leasedMessage == null) {
+	            LOG.info("Message " + message.getRouteQueueId() + " is gone or leased to another node, skipping its scheduled execution.");
+	            return;
+	        }
+	        message = leasedMessage;
+	    } else {
+	        message.setQueueStatus(KSBConstants.ROUTE_QUEUE_ROUTING);
+	        message.setLockVerNbr(null);
+	        MessageLease.lease(message);
+	        message = KSBServiceLocator.getMessageQueueService().save(message);
+	    }
 	    KSBServiceLocator.getThreadPool().execute(new MessageServiceInvoker(message));
 	} catch (Throwable t) {
 	    LOG.error("Caught throwable attempting to process message in exception messaging queue.", t);
 	    throw new JobExecutionException(new Exception(t));
 	}
     }
+
+    /**
+     * Returns true if the message was left in the queue, leased, when it was scheduled.  Delayed asynchronous calls
+     * have not been saved yet, and retries scheduled before retries were leased were removed from the queue.
+     */
+    protected boolean isLeasedInQueue(PersistedMessageBO message) {
+        return message.getRouteQueueId() != null && message.getLeaseOwner() != null
+                && ConfigContext.getCurrentContextConfig().getBooleanProperty(KSBConstants.Config.MESSAGE_PERSISTENCE);
+    }
 }
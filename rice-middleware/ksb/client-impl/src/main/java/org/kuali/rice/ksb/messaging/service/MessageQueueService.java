@@ -62,6 +62,31 @@ public interface MessageQueueService {
      */
     List<PersistedMessageBO> getNextDocuments(Integer maxDocuments);
 
+    /**
+     * Leases up to maxMessages queued messages to this node so that they can be processed without another node
+     * picking them up.  Only unleased messages and messages whose lease has expired are claimed.
+     *
+     * @see org.kuali.rice.ksb.messaging.MessageLease
+     */
+    List<PersistedMessageBO> claimNextMessages(int maxMessages);
+
+    /**
+     * Leases the given message to this node for the invocation which was handed the given version of it, taking it
+     * over if the lease of another node has expired.  Taking the lease bumps the version, so only one of several
+     * invocations handed the same version gets it.
+     *
+     * @return the leased message, or null if the message no longer exists, another invocation or node holds the lease
+     */
+    PersistedMessageBO acquireLease(Long routeQueueId, Integer lockVerNbr);
+
+    /**
+     * Releases the leases this node holds on the messages which are due, used on startup to requeue the messages a
+     * previous run of the node left behind without waiting for their leases to expire.
+     *
+     * @return the number of messages released
+     */
+    int releaseLeases();
+
     PersistedMessagePayload findByPersistedMessageByRouteQueueId(Long routeQueueId);
     
     /**
@@ -17,11 +17,15 @@ package org.kuali.rice.ksb.messaging.service.impl;
 
 import org.apache.log4j.Logger;
 import org.kuali.rice.core.api.config.property.ConfigContext;
+import org.kuali.rice.ksb.messaging.MessageLease;
 import org.kuali.rice.ksb.messaging.PersistedMessageBO;
 import org.kuali.rice.ksb.messaging.PersistedMessagePayload;
 import org.kuali.rice.ksb.messaging.dao.MessageQueueDAO;
 import org.kuali.rice.ksb.messaging.service.MessageQueueService;
+import org.kuali.rice.ksb.service.KSBServiceLocator;
 import org.kuali.rice.ksb.util.KSBConstants;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
 
 import javax.xml.namespace.QName;
 import java.util.List;
@@ -72,6 +76,34 @@ public class MessageQueueServiceImpl implements MessageQueueService {
         return this.getMessageQueueDao().getNextDocuments(maxDocuments);
     }
 
+    // leases are taken through bulk updates, which have to run in a transaction of their own when the caller has none
+
+    public List<PersistedMessageBO> claimNextMessages(final int maxMessages) {
+        return KSBServiceLocator.getTransactionTemplate().execute(new TransactionCallback<List<PersistedMessageBO>>() {
+            public List<PersistedMessageBO> doInTransaction(TransactionStatus status) {
+                return getMessageQueueDao().claimNextMessages(maxMessages, MessageLease.getOwner(),
+                        MessageLease.newExpirationDate());
+            }
+        });
+    }
+
+    public PersistedMessageBO acquireLease(final Long routeQueueId, final Integer lockVerNbr) {
+        return KSBServiceLocator.getTransactionTemplate().execute(new TransactionCallback<PersistedMessageBO>() {
+            public PersistedMessageBO doInTransaction(TransactionStatus status) {
+                return getMessageQueueDao().acquireLease(routeQueueId, lockVerNbr, MessageLease.getOwner(),
+                        MessageLease.newExpirationDate());
+            }
+        });
+    }
+
+    public int releaseLeases() {
+        return KSBServiceLocator.getTransactionTemplate().execute(new TransactionCallback<Integer>() {
+            public Integer doInTransaction(TransactionStatus status) {
+                return Integer.valueOf(getMessageQueueDao().releaseLeases(MessageLease.getOwner()));
+            }
+        });
+    }
+
     public MessageQueueDAO getMessageQueueDao() {
         return this.messageQueueDao;
     }
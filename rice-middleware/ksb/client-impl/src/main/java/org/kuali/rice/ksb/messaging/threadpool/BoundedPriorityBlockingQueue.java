@@ -0,0 +1,148 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.messaging.threadpool;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link PriorityBlockingQueue} which holds at most a fixed number of elements.
+ *
+ * <p>{@link #offer(Object)} fails once the queue is full, which makes a thread pool using this queue start additional
+ * threads up to its maximum size and then reject work, and {@link #offer(Object, long, TimeUnit)} and
+ * {@link #put(Object)} wait for room.  Elements removed through the iterator do not free room in the queue.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class BoundedPriorityBlockingQueue<E> extends PriorityBlockingQueue<E> {
+
+    private static final long serialVersionUID = 3245802384620367398L;
+
+    private final int capacity;
+    private final Semaphore permits;
+
+    public BoundedPriorityBlockingQueue(int capacity, Comparator<? super E> comparator) {
+        super(Math.min(capacity, 11), comparator);
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be greater than 0, was " + capacity);
+        }
+        this.capacity = capacity;
+        this.permits = new Semaphore(capacity);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+        if (!permits.tryAcquire()) {
+            return false;
+        }
+        return super.offer(e);
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+        try {
+            if (!permits.tryAcquire(timeout, unit)) {
+                return false;
+            }
+        } catch (InterruptedException ie) {
+            // the overridden method does not declare the exception
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return super.offer(e);
+    }
+
+    @Override
+    public void put(E e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+        permits.acquireUninterruptibly();
+        super.offer(e);
+    }
+
+    @Override
+    public E poll() {
+        return released(super.poll());
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return released(super.poll(timeout, unit));
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        return released(super.take());
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (super.remove(o)) {
+            permits.release();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        int drained = super.drainTo(c, maxElements);
+        if (drained > 0) {
+            permits.release(drained);
+        }
+        return drained;
+    }
+
+    @Override
+    public void clear() {
+        List<E> removed = new ArrayList<E>();
+        drainTo(removed);
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return permits.availablePermits();
+    }
+
+    private E released(E e) {
+        if (e != null) {
+            permits.release();
+        }
+        return e;
+    }
+
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.messaging.threadpool;
+
+import org.apache.log4j.Logger;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+
+import javax.sql.DataSource;
+
+/**
+ * Reads the size and usage of the connection pool behind a {@link DataSource} from its bean properties, so that the
+ * thread pool does not have to depend on a particular pool implementation.
+ *
+ * <p>XAPool, DBCP and Bitronix style properties are understood, data sources wrapped by a Spring proxy exposing a
+ * {@code targetDataSource} are unwrapped first.  Values which cannot be determined are reported as -1.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+class DataSourcePoolMonitor {
+
+    private static final Logger LOG = Logger.getLogger(DataSourcePoolMonitor.class);
+
+    private static final String TARGET_DATA_SOURCE = "targetDataSource";
+    private static final String[] MAX_SIZE_PROPERTIES = {"maxSize", "maxPoolSize", "maxActive", "maxTotal"};
+    private static final String[] ACTIVE_PROPERTIES = {"lockedObjectCount", "numActive"};
+    private static final String TOTAL_SIZE_PROPERTY = "totalPoolSize";
+    private static final String IDLE_SIZE_PROPERTY = "inPoolSize";
+
+    private final BeanWrapper dataSource;
+
+    DataSourcePoolMonitor(DataSource dataSource) {
+        this.dataSource = dataSource == null ? null : PropertyAccessorFactory.forBeanPropertyAccess(unwrap(dataSource));
+    }
+
+    /**
+     * @return the maximum number of connections in the pool, or -1 if unknown
+     */
+    int getMaxConnections() {
+        return readInt(MAX_SIZE_PROPERTIES);
+    }
+
+    /**
+     * @return the number of connections currently in use, or -1 if unknown
+     */
+    int getActiveConnections() {
+        int active = readInt(ACTIVE_PROPERTIES);
+        if (active < 0) {
+            int total = readInt(TOTAL_SIZE_PROPERTY);
+            int idle = readInt(IDLE_SIZE_PROPERTY);
+            if (total >= 0 && idle >= 0) {
+                active = total - idle;
+            }
+        }
+        return active;
+    }
+
+    /**
+     * @return true unless the pool is known to have no connection left to hand out
+     */
+    boolean hasAvailableConnections() {
+        int max = getMaxConnections();
+        int active = getActiveConnections();
+        return max < 0 || active < 0 || active < max;
+    }
+
+    private int readInt(String... propertyNames) {
+        if (dataSource == null) {
+            return -1;
+        }
+        for (String propertyName : propertyNames) {
+            if (dataSource.isReadableProperty(propertyName)) {
+                try {
+                    Object value = dataSource.getPropertyValue(propertyName);
+                    if (value instanceof Number) {
+                        return ((Number) value).intValue();
+                    }
+                } catch (RuntimeException e) {
+                    LOG.debug("Failed to read " + propertyName + " from data source", e);
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static Object unwrap(DataSource dataSource) {
+        Object target = dataSource;
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(target);
+        while (wrapper.isReadableProperty(TARGET_DATA_SOURCE)) {
+            Object next = wrapper.getPropertyValue(TARGET_DATA_SOURCE);
+            if (next == null || next == target) {
+                break;
+            }
+            target = next;
+            wrapper = PropertyAccessorFactory.forBeanPropertyAccess(target);
+        }
+        return target;
+    }
+
+}
@@ -20,16 +20,40 @@ import org.kuali.rice.core.api.config.CoreConfigHelper;
 import org.kuali.rice.core.api.config.property.Config;
 import org.kuali.rice.core.api.config.property.ConfigContext;
 import org.kuali.rice.core.api.util.ClassLoaderUtils;
+import org.kuali.rice.ksb.messaging.MessageFetcher;
+import org.kuali.rice.ksb.messaging.MessageServiceInvoker;
+import org.kuali.rice.ksb.messaging.PersistedMessageBO;
+import org.kuali.rice.ksb.service.KSBServiceLocator;
+import org.kuali.rice.ksb.util.KSBConstants;
 
+import javax.xml.namespace.QName;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A Thread Pool implementation for the KSB which implements a thread pool backed by a configuration store.
  *
+ * <p>Work waits in a bounded priority queue ({@value KSBConstants.Config#THREAD_POOL_QUEUE_CAPACITY}).  When the
+ * queue is full the pool grows up to its maximum size, after that submitters wait up to
+ * {@value KSBConstants.Config#THREAD_POOL_SUBMIT_TIMEOUT} ms for room.  Persisted messages which still do not fit are
+ * left in the message queue and fetched again later, any other work is run on the submitting thread.</p>
+ *
+ * <p>When adaptive sizing is enabled ({@value KSBConstants.Config#THREAD_POOL_ADAPTIVE}) the core pool size moves
+ * between {@value Config#THREAD_POOL_SIZE} and {@value KSBConstants.Config#THREAD_POOL_MAX_SIZE} threads, growing
+ * while messages wait in the queue longer than {@value KSBConstants.Config#THREAD_POOL_TARGET_QUEUE_WAIT} ms and the
+ * message data source still has connections to spare, and shrinking again once the queue drains.  The maximum is
+ * never set above the size of the data source's connection pool.</p>
+ *
  * @author Kuali Rice Team (rice.collab@kuali.org)
  */
 public class KSBThreadPoolImpl extends ThreadPoolExecutor implements KSBThreadPool {
@@ -37,20 +61,60 @@ public class KSBThreadPoolImpl extends ThreadPoolExecutor implements KSBThreadPo
     private static final Logger LOG = Logger.getLogger(KSBThreadPoolImpl.class);
 
     public static final int DEFAULT_POOL_SIZE = 5;
+    public static final int DEFAULT_MAX_POOL_SIZE = 20;
+    public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+    public static final long DEFAULT_TARGET_QUEUE_WAIT = 1000;
+    public static final long DEFAULT_SUBMIT_TIMEOUT = 5000;
+
+    private static final long ADJUSTMENT_INTERVAL = 5000;
+    private static final long REQUEUE_DELAY = 5000;
 
     private boolean started;
     private boolean poolSizeSet;
 
+    private final KSBThreadPoolStatistics statistics = new KSBThreadPoolStatistics();
+    private final ConcurrentMap<Runnable, Long> submitTimes = new ConcurrentHashMap<Runnable, Long>();
+    private final ThreadLocal<long[]> executionTimes = new ThreadLocal<long[]>();
+    private final AtomicLong windowQueueWait = new AtomicLong();
+    private final AtomicLong windowExecutions = new AtomicLong();
+
+    private KSBScheduledPool scheduledPool;
+    private ScheduledFuture<?> adjustment;
+    private DataSourcePoolMonitor dataSourcePoolMonitor = new DataSourcePoolMonitor(null);
+    private volatile int minPoolSize = DEFAULT_POOL_SIZE;
+    private volatile long targetQueueWaitNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_TARGET_QUEUE_WAIT);
+    private volatile long submitTimeout = DEFAULT_SUBMIT_TIMEOUT;
+
     public KSBThreadPoolImpl() {
-    	super(DEFAULT_POOL_SIZE, DEFAULT_POOL_SIZE, 60, TimeUnit.SECONDS, new PriorityBlockingQueue(1, new PriorityBlockingQueuePersistedMessageComparator()),  new KSBThreadFactory(ClassLoaderUtils.getDefaultClassLoader()), new ThreadPoolExecutor.AbortPolicy());
+    	super(DEFAULT_POOL_SIZE, DEFAULT_MAX_POOL_SIZE, 60, TimeUnit.SECONDS, createQueue(),  new KSBThreadFactory(ClassLoaderUtils.getDefaultClassLoader()), new SubmitTimeoutPolicy());
+    }
+
+    private static BlockingQueue<Runnable> createQueue() {
+        Config config = ConfigContext.getCurrentContextConfig();
+        long capacity = config == null ? DEFAULT_QUEUE_CAPACITY : config.getNumericProperty(
+                KSBConstants.Config.THREAD_POOL_QUEUE_CAPACITY, DEFAULT_QUEUE_CAPACITY);
+        if (capacity <= 0) {
+            return new PriorityBlockingQueue<Runnable>(1, new PriorityBlockingQueuePersistedMessageComparator());
+        }
+        return new BoundedPriorityBlockingQueue<Runnable>((int) Math.min(capacity, Integer.MAX_VALUE),
+                new PriorityBlockingQueuePersistedMessageComparator());
     }
 
     public void setCorePoolSize(int corePoolSize) {
 		LOG.info("Setting core pool size to " + corePoolSize + " threads.");
-		super.setCorePoolSize(corePoolSize);
+		resize(corePoolSize, Math.max(corePoolSize, getMaximumPoolSize()));
+		this.minPoolSize = corePoolSize;
 		this.poolSizeSet = true;
     }
 
+    public void setScheduledPool(KSBScheduledPool scheduledPool) {
+        this.scheduledPool = scheduledPool;
+    }
+
+    public KSBThreadPoolStatistics getStatistics() {
+        return statistics;
+    }
+
     public long getKeepAliveTime() {
 	return super.getKeepAliveTime(TimeUnit.MILLISECONDS);
     }
@@ -62,6 +126,13 @@ public class KSBThreadPoolImpl extends ThreadPoolExecutor implements KSBThreadPo
     public void start() throws Exception {
     	LOG.info("Starting the KSB thread pool...");
     	loadSettings();
+        if (isAdaptive() && scheduledPool != null) {
+            adjustment = scheduledPool.scheduleWithFixedDelay(new Runnable() {
+                public void run() {
+                    adjustPoolSize();
+                }
+            }, ADJUSTMENT_INTERVAL, ADJUSTMENT_INTERVAL, TimeUnit.MILLISECONDS);
+        }
     	this.started = true;
     	LOG.info("...KSB thread pool successfully started.");
     }
@@ -69,10 +140,15 @@ public class KSBThreadPoolImpl extends ThreadPoolExecutor implements KSBThreadPo
     public void stop() throws Exception {
 		if (isStarted()) {
 			LOG.info("Shutting down KSB thread pool...");
+            if (adjustment != null) {
+                adjustment.cancel(false);
+                adjustment = null;
+            }
 		    int pendingTasks = this.shutdownNow().size();
             LOG.info(pendingTasks + " pending tasks...");
             LOG.info("awaiting termination: " + this.awaitTermination(20, TimeUnit.SECONDS));
             LOG.info("...KSB thread pool successfully stopped, isShutdown=" + this.isShutdown() + ", isTerminated=" + this.isTerminated());
+		    submitTimes.clear();
 		    this.started = false;
 		    LOG.info("...KSB thread pool successfully shut down.");
 		}
@@ -92,6 +168,160 @@ public class KSBThreadPoolImpl extends ThreadPoolExecutor implements KSBThreadPo
 		    }
 		    setCorePoolSize(poolSize);
 		}
+        Config config = ConfigContext.getCurrentContextConfig();
+        this.targetQueueWaitNanos = TimeUnit.MILLISECONDS.toNanos(config.getNumericProperty(
+                KSBConstants.Config.THREAD_POOL_TARGET_QUEUE_WAIT, DEFAULT_TARGET_QUEUE_WAIT));
+        this.submitTimeout = config.getNumericProperty(KSBConstants.Config.THREAD_POOL_SUBMIT_TIMEOUT,
+                DEFAULT_SUBMIT_TIMEOUT);
+        try {
+            this.dataSourcePoolMonitor = new DataSourcePoolMonitor(KSBServiceLocator.getMessageDataSource());
+        } catch (RuntimeException e) {
+            LOG.debug("No message data source available to size the KSB thread pool by", e);
+        }
+        int maxPoolSize = (int) config.getNumericProperty(KSBConstants.Config.THREAD_POOL_MAX_SIZE,
+                DEFAULT_MAX_POOL_SIZE);
+        int maxConnections = dataSourcePoolMonitor.getMaxConnections();
+        if (maxConnections > 0 && maxPoolSize > maxConnections) {
+            LOG.info("Limiting the KSB thread pool to the " + maxConnections + " connections of the message data source.");
+            maxPoolSize = maxConnections;
+        }
+        maxPoolSize = Math.max(maxPoolSize, minPoolSize);
+        LOG.info("Setting maximum pool size to " + maxPoolSize + " threads.");
+        resize(getCorePoolSize(), maxPoolSize);
+    }
+
+    protected boolean isAdaptive() {
+        return ConfigContext.getCurrentContextConfig().getBooleanProperty(KSBConstants.Config.THREAD_POOL_ADAPTIVE, true);
+    }
+
+    /**
+     * Changes the core and maximum pool size in an order the executor accepts.
+     */
+    private void resize(int corePoolSize, int maxPoolSize) {
+        if (maxPoolSize >= getCorePoolSize()) {
+            super.setMaximumPoolSize(maxPoolSize);
+            super.setCorePoolSize(corePoolSize);
+        } else {
+            super.setCorePoolSize(corePoolSize);
+            super.setMaximumPoolSize(maxPoolSize);
+        }
+    }
+
+    /**
+     * Grows the core pool by a thread while work waits longer than the target in the queue, or shrinks it by a thread
+     * once work no longer waits.
+     */
+    protected void adjustPoolSize() {
+        long executions = windowExecutions.getAndSet(0);
+        long queueWait = windowQueueWait.getAndSet(0);
+        long averageQueueWait = executions == 0 ? 0 : queueWait / executions;
+        int corePoolSize = getCorePoolSize();
+        boolean backlog = !getQueue().isEmpty();
+        if (backlog && (executions == 0 || averageQueueWait > targetQueueWaitNanos)) {
+            if (corePoolSize < getMaximumPoolSize() && dataSourcePoolMonitor.hasAvailableConnections()) {
+                LOG.info("Messages waited " + TimeUnit.NANOSECONDS.toMillis(averageQueueWait)
+                        + " ms on average, growing the KSB thread pool to " + (corePoolSize + 1) + " threads.");
+                super.setCorePoolSize(corePoolSize + 1);
+            }
+        } else if (!backlog && averageQueueWait < targetQueueWaitNanos / 4 && corePoolSize > minPoolSize) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Shrinking the KSB thread pool to " + (corePoolSize - 1) + " threads.");
+            }
+            super.setCorePoolSize(corePoolSize - 1);
+        }
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (command == null) {
+            throw new NullPointerException();
+        }
+        submitTimes.put(command, System.nanoTime());
+        try {
+            super.execute(command);
+        } catch (RuntimeException e) {
+            submitTimes.remove(command);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean remove(Runnable task) {
+        boolean removed = super.remove(task);
+        if (removed) {
+            submitTimes.remove(task);
+        }
+        return removed;
+    }
+
+    @Override
+    protected void beforeExecute(Thread thread, Runnable runnable) {
+        super.beforeExecute(thread, runnable);
+        long now = System.nanoTime();
+        Long submitTime = submitTimes.remove(runnable);
+        long queueWait = submitTime == null ? 0 : now - submitTime;
+        windowQueueWait.addAndGet(queueWait);
+        windowExecutions.incrementAndGet();
+        executionTimes.set(new long[] {now, queueWait});
+    }
+
+    @Override
+    protected void afterExecute(Runnable runnable, Throwable throwable) {
+        long[] times = executionTimes.get();
+        executionTimes.remove();
+        if (times != null) {
+            statistics.recordExecution(getServiceName(runnable), times[1], System.nanoTime() - times[0]);
+        }
+        super.afterExecute(runnable, throwable);
+    }
+
+    private static QName getServiceName(Runnable runnable) {
+        if (runnable instanceof MessageServiceInvoker) {
+            PersistedMessageBO message = ((MessageServiceInvoker) runnable).getMessage();
+            if (message != null && message.getServiceName() != null) {
+                return QName.valueOf(message.getServiceName());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Handles work which does not fit into the pool, see the class description.
+     */
+    private static class SubmitTimeoutPolicy implements RejectedExecutionHandler {
+
+        public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+            KSBThreadPoolImpl pool = (KSBThreadPoolImpl) executor;
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("KSB thread pool has been shut down");
+            }
+            try {
+                if (executor.getQueue().offer(runnable, pool.submitTimeout, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            pool.submitTimes.remove(runnable);
+            pool.statistics.recordRejection(getServiceName(runnable));
+            PersistedMessageBO message = runnable instanceof MessageServiceInvoker ?
+                    ((MessageServiceInvoker) runnable).getMessage() : null;
+            Long routeQueueId = message == null ? null : message.getRouteQueueId();
+            if (routeQueueId != null && pool.scheduledPool != null && isMessagePersistenceEnabled()) {
+                LOG.warn("KSB thread pool is full, message " + routeQueueId + " will be requeued in " + REQUEUE_DELAY
+                        + " ms.");
+                pool.scheduledPool.schedule(new MessageFetcher(routeQueueId, message.getLockVerNbr()), REQUEUE_DELAY, TimeUnit.MILLISECONDS);
+            } else {
+                LOG.warn("KSB thread pool is full, running " + runnable + " on the submitting thread.");
+                runnable.run();
+            }
+        }
+
+        private static boolean isMessagePersistenceEnabled() {
+            return ConfigContext.getCurrentContextConfig().getBooleanProperty(
+                    KSBConstants.Config.MESSAGE_PERSISTENCE, false);
+        }
+
     }
 
     public Object getInstance() {
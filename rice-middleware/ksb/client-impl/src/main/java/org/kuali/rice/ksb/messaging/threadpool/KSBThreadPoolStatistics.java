@@ -0,0 +1,175 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.messaging.threadpool;
+
+import javax.xml.namespace.QName;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Queue wait time, execution time and rejection counts of the messages run by the {@link KSBThreadPoolImpl}, kept
+ * per service.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class KSBThreadPoolStatistics {
+
+    /**
+     * The name statistics are recorded under for work which is not a message for a service, such as the message
+     * fetcher.
+     */
+    public static final QName OTHER = new QName("", "other");
+
+    private final ConcurrentMap<QName, ServiceStatistics> serviceStatistics =
+            new ConcurrentHashMap<QName, ServiceStatistics>();
+
+    public void recordExecution(QName serviceName, long queueWaitNanos, long executionNanos) {
+        getOrCreate(serviceName).recordExecution(queueWaitNanos, executionNanos);
+    }
+
+    public void recordRejection(QName serviceName) {
+        getOrCreate(serviceName).rejected.incrementAndGet();
+    }
+
+    /**
+     * @return the statistics of the given service, or null if no messages for it were run or rejected
+     */
+    public ServiceStatistics getServiceStatistics(QName serviceName) {
+        return serviceStatistics.get(serviceName);
+    }
+
+    public Map<QName, ServiceStatistics> getAllServiceStatistics() {
+        return Collections.unmodifiableMap(new HashMap<QName, ServiceStatistics>(serviceStatistics));
+    }
+
+    public long getExecutedCount() {
+        long count = 0;
+        for (ServiceStatistics statistics : serviceStatistics.values()) {
+            count += statistics.getExecutedCount();
+        }
+        return count;
+    }
+
+    public long getRejectedCount() {
+        long count = 0;
+        for (ServiceStatistics statistics : serviceStatistics.values()) {
+            count += statistics.getRejectedCount();
+        }
+        return count;
+    }
+
+    /**
+     * @return one line per service summarizing its statistics, intended for JMX consoles
+     */
+    public List<String> getServiceSummaries() {
+        List<String> summaries = new ArrayList<String>();
+        for (Map.Entry<QName, ServiceStatistics> entry : serviceStatistics.entrySet()) {
+            summaries.add(entry.getKey() + ": " + entry.getValue());
+        }
+        Collections.sort(summaries);
+        return summaries;
+    }
+
+    public void reset() {
+        serviceStatistics.clear();
+    }
+
+    private ServiceStatistics getOrCreate(QName serviceName) {
+        QName key = serviceName == null ? OTHER : serviceName;
+        ServiceStatistics statistics = serviceStatistics.get(key);
+        if (statistics == null) {
+            statistics = new ServiceStatistics();
+            ServiceStatistics existing = serviceStatistics.putIfAbsent(key, statistics);
+            if (existing != null) {
+                statistics = existing;
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * The statistics of a single service.
+     */
+    public static final class ServiceStatistics {
+
+        private final AtomicLong executed = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong queueWaitNanos = new AtomicLong();
+        private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+        private final AtomicLong executionNanos = new AtomicLong();
+        private final AtomicLong maxExecutionNanos = new AtomicLong();
+
+        void recordExecution(long queueWait, long execution) {
+            executed.incrementAndGet();
+            queueWaitNanos.addAndGet(queueWait);
+            executionNanos.addAndGet(execution);
+            updateMax(maxQueueWaitNanos, queueWait);
+            updateMax(maxExecutionNanos, execution);
+        }
+
+        public long getExecutedCount() {
+            return executed.get();
+        }
+
+        public long getRejectedCount() {
+            return rejected.get();
+        }
+
+        public long getAverageQueueWaitMillis() {
+            return average(queueWaitNanos);
+        }
+
+        public long getMaxQueueWaitMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(maxQueueWaitNanos.get());
+        }
+
+        public long getAverageExecutionMillis() {
+            return average(executionNanos);
+        }
+
+        public long getMaxExecutionMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(maxExecutionNanos.get());
+        }
+
+        private long average(AtomicLong totalNanos) {
+            long count = executed.get();
+            return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalNanos.get() / count);
+        }
+
+        private static void updateMax(AtomicLong max, long value) {
+            long current = max.get();
+            while (value > current && !max.compareAndSet(current, value)) {
+                current = max.get();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return getExecutedCount() + " executed, " + getRejectedCount() + " rejected, queue wait avg "
+                    + getAverageQueueWaitMillis() + " ms max " + getMaxQueueWaitMillis() + " ms, execution avg "
+                    + getAverageExecutionMillis() + " ms max " + getMaxExecutionMillis() + " ms";
+        }
+
+    }
+
+}
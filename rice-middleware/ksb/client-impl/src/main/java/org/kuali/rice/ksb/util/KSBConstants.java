@@ -30,8 +30,16 @@ public final class KSBConstants {
         public static final String MESSAGE_PERSISTENCE = "message.persistence";
         public static final String MESSAGING_OFF = "message.off";
         public static final String MESSAGE_DELIVERY = "message.delivery";
+        public static final String MESSAGE_LEASE_DURATION = "message.lease.duration";
+        public static final String MESSAGE_FETCH_INTERVAL = "message.fetch.interval";
+        public static final String MESSAGE_PAYLOAD_CODEC = "message.payload.codec";
         public static final String INJECTED_EXCEPTION_MESSAGE_SCHEDULER_KEY = "message.injected.scheduler";
         public static final String FIXED_POOL_SIZE = "ksb.fixedPoolSize";
+        public static final String THREAD_POOL_MAX_SIZE = "threadPool.maxSize";
+        public static final String THREAD_POOL_QUEUE_CAPACITY = "threadPool.queueCapacity";
+        public static final String THREAD_POOL_ADAPTIVE = "threadPool.adaptive";
+        public static final String THREAD_POOL_TARGET_QUEUE_WAIT = "threadPool.targetQueueWait";
+        public static final String THREAD_POOL_SUBMIT_TIMEOUT = "threadPool.submitTimeout";
         public static final String ROUTE_QUEUE_MAX_RETRY_ATTEMPTS_KEY = "RouteQueue.maxRetryAttempts";
         public static final String ROUTE_QUEUE_MAX_RETRY_ATTEMPTS_OVERRIDE_KEY = "RouteQueue.maxRetryAttemptsOverride";
         public static final String ROUTE_QUEUE_TIME_INCREMENT_KEY = "RouteQueue.timeIncrement";
@@ -0,0 +1,119 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.impl.bus;
+
+import org.junit.Test;
+
+import javax.xml.namespace.QName;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.kuali.rice.ksb.impl.bus.RemoteServiceFixture.*;
+
+/**
+ * Unit tests for the {@link EndpointTable}.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class EndpointTableTest {
+
+    private static final QName SERVICE = new QName(NAMESPACE, "service");
+    private static final QName OTHER_SERVICE = new QName(NAMESPACE, "otherService");
+
+    private static Map<QName, Collection<RemoteService>> remoteServices(QName serviceName,
+            RemoteService... services) {
+        Map<QName, Collection<RemoteService>> remoteServices = new HashMap<QName, Collection<RemoteService>>();
+        remoteServices.put(serviceName, Arrays.asList(services));
+        return remoteServices;
+    }
+
+    @Test
+    public void unknownServicesHaveNoEndpoints() {
+        assertNull(EndpointTable.EMPTY.getLocalService(SERVICE));
+        assertTrue(EndpointTable.EMPTY.getRemoteServices(SERVICE).isEmpty());
+        assertTrue(EndpointTable.EMPTY.getLocalServices().isEmpty());
+        assertTrue(EndpointTable.EMPTY.getRemoteServices().isEmpty());
+    }
+
+    @Test
+    public void changesLeaveTheOriginalTableUntouched() {
+        RemoteService first = remoteService(SERVICE, "i1", REMOTE_IP_ADDRESS);
+        RemoteService second = remoteService(SERVICE, "i2", REMOTE_IP_ADDRESS);
+        EndpointTable table = EndpointTable.EMPTY.withRemoteServices(remoteServices(SERVICE, first));
+        List<RemoteService> before = table.getRemoteServices(SERVICE);
+
+        EndpointTable changed = table.withRemoteServices(remoteServices(SERVICE, first, second));
+
+        assertEquals(Collections.singletonList(first), before);
+        assertEquals(Collections.singletonList(first), table.getRemoteServices(SERVICE));
+        assertEquals(Arrays.asList(first, second), changed.getRemoteServices(SERVICE));
+        assertTrue(EndpointTable.EMPTY.getRemoteServices().isEmpty());
+    }
+
+    @Test
+    public void emptyChangeRemovesOnlyThatService() {
+        RemoteService service = remoteService(SERVICE, "i1", REMOTE_IP_ADDRESS);
+        RemoteService otherService = remoteService(OTHER_SERVICE, "i1", REMOTE_IP_ADDRESS);
+        EndpointTable table = EndpointTable.EMPTY.withRemoteServices(remoteServices(SERVICE, service))
+                .withRemoteServices(remoteServices(OTHER_SERVICE, otherService));
+
+        EndpointTable changed = table.withRemoteServices(remoteServices(SERVICE));
+
+        assertTrue(changed.getRemoteServices(SERVICE).isEmpty());
+        assertFalse(changed.getRemoteServices().containsKey(SERVICE));
+        assertEquals(Collections.singletonList(otherService), changed.getRemoteServices(OTHER_SERVICE));
+    }
+
+    @Test
+    public void remoteServiceListsCannotBeModified() {
+        Map<QName, Collection<RemoteService>> changes = remoteServices(SERVICE, remoteService(SERVICE, "i1",
+                REMOTE_IP_ADDRESS));
+        EndpointTable table = EndpointTable.EMPTY.withRemoteServices(changes);
+        changes.put(OTHER_SERVICE, Collections.singletonList(remoteService(OTHER_SERVICE, "i1", REMOTE_IP_ADDRESS)));
+
+        assertTrue("Later changes to the given map should not reach the table",
+                table.getRemoteServices(OTHER_SERVICE).isEmpty());
+        try {
+            table.getRemoteServices(SERVICE).add(remoteService(SERVICE, "i2", REMOTE_IP_ADDRESS));
+            fail("The remote services of a table should not be modifiable");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        try {
+            table.getRemoteServices().clear();
+            fail("The remote services of a table should not be modifiable");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void removingUnknownLocalServicesKeepsTheRemoteServices() {
+        RemoteService service = remoteService(SERVICE, "i1", REMOTE_IP_ADDRESS);
+        EndpointTable table = EndpointTable.EMPTY.withRemoteServices(remoteServices(SERVICE, service));
+
+        EndpointTable changed = table.withoutLocalServices(Collections.singleton(SERVICE));
+
+        assertNull(changed.getLocalService(SERVICE));
+        assertEquals(Collections.singletonList(service), changed.getRemoteServices(SERVICE));
+    }
+
+}
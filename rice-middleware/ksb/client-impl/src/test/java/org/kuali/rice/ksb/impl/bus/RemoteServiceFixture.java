@@ -0,0 +1,90 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.impl.bus;
+
+import org.kuali.rice.ksb.api.bus.support.JavaServiceConfiguration;
+import org.kuali.rice.ksb.api.registry.ServiceDescriptor;
+import org.kuali.rice.ksb.api.registry.ServiceEndpointStatus;
+import org.kuali.rice.ksb.api.registry.ServiceInfo;
+import org.kuali.rice.ksb.api.registry.ServiceRegistry;
+
+import javax.xml.namespace.QName;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+
+/**
+ * Creates remote services in the {@link #NAMESPACE} for tests of the service bus and its endpoint selection, backed
+ * by a service registry which only answers service descriptor lookups.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public final class RemoteServiceFixture {
+
+    public static final String NAMESPACE = "urn:kuali:test";
+    public static final String REMOTE_IP_ADDRESS = "192.0.2.1";
+
+    private RemoteServiceFixture() {
+        throw new UnsupportedOperationException("do not call");
+    }
+
+    public static ServiceInfo serviceInfo(QName serviceName, String instanceId, String serverIpAddress) {
+        ServiceInfo.Builder serviceInfo = ServiceInfo.Builder.create();
+        serviceInfo.setServiceId(serviceName.getLocalPart() + "-" + instanceId);
+        serviceInfo.setServiceName(serviceName);
+        serviceInfo.setEndpointUrl("http://" + serverIpAddress + "/" + instanceId + "/" + serviceName.getLocalPart());
+        serviceInfo.setInstanceId(instanceId);
+        serviceInfo.setApplicationId("TEST");
+        serviceInfo.setServerIpAddress(serverIpAddress);
+        serviceInfo.setType("JAVA");
+        serviceInfo.setServiceVersion("1.0");
+        serviceInfo.setStatus(ServiceEndpointStatus.ONLINE);
+        serviceInfo.setServiceDescriptorId(serviceInfo.getEndpointUrl());
+        serviceInfo.setChecksum("checksum");
+        return serviceInfo.build();
+    }
+
+    public static RemoteService remoteService(QName serviceName, String instanceId, String serverIpAddress) {
+        return new RemoteService(serviceInfo(serviceName, instanceId, serverIpAddress), serviceRegistry());
+    }
+
+    /**
+     * @return a service registry whose service descriptors describe a java service at the descriptor id
+     */
+    public static ServiceRegistry serviceRegistry() {
+        return (ServiceRegistry) Proxy.newProxyInstance(RemoteServiceFixture.class.getClassLoader(),
+                new Class<?>[] { ServiceRegistry.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (!"getServiceDescriptor".equals(method.getName())) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                String endpointUrl = (String) args[0];
+                JavaServiceConfiguration.Builder configuration = JavaServiceConfiguration.Builder.create();
+                configuration.setServiceName(new QName(NAMESPACE, endpointUrl.substring(
+                        endpointUrl.lastIndexOf('/') + 1)));
+                configuration.setEndpointUrl(new URL(endpointUrl));
+                ServiceDescriptor.Builder descriptor = ServiceDescriptor.Builder.create();
+                descriptor.setId(endpointUrl);
+                descriptor.setDescriptor(ServiceConfigurationSerializationHandler.marshallToXml(
+                        configuration.build()));
+                return descriptor.build();
+            }
+        });
+    }
+
+}
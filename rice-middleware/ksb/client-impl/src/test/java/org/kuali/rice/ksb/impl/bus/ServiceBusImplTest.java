@@ -0,0 +1,143 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.impl.bus;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kuali.rice.ksb.api.bus.Endpoint;
+import org.kuali.rice.ksb.api.registry.ServiceInfo;
+import org.kuali.rice.ksb.impl.bus.diff.RemoteServicesDiff;
+import org.kuali.rice.ksb.impl.bus.selection.EndpointSelectionStrategy;
+import org.kuali.rice.ksb.impl.bus.selection.RoundRobinEndpointSelectionStrategy;
+
+import javax.xml.namespace.QName;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+import static org.kuali.rice.ksb.impl.bus.RemoteServiceFixture.*;
+
+/**
+ * Tests the lookups of remote endpoints by the {@link ServiceBusImpl} while its endpoint table changes.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class ServiceBusImplTest {
+
+    private static final QName SERVICE = new QName(NAMESPACE, "service");
+
+    private ServiceBusImpl serviceBus;
+
+    @Before
+    public void setUp() {
+        serviceBus = new ServiceBusImpl();
+        serviceBus.setServiceRegistry(serviceRegistry());
+    }
+
+    private void addRemoteServices(ServiceInfo... serviceInfos) {
+        serviceBus.processRemoteServiceDiff(new RemoteServicesDiff(Arrays.asList(serviceInfos), null));
+    }
+
+    private List<RemoteService> remoteServicesOf(ServiceInfo... serviceInfos) {
+        List<RemoteService> remoteServices = new ArrayList<RemoteService>();
+        for (ServiceInfo serviceInfo : serviceInfos) {
+            remoteServices.add(new RemoteService(serviceInfo, serviceRegistry()));
+        }
+        return remoteServices;
+    }
+
+    @Test
+    public void lookupCompletesAgainstTheTableItStartedWith() {
+        final ServiceInfo first = serviceInfo(SERVICE, "i1", REMOTE_IP_ADDRESS);
+        final ServiceInfo second = serviceInfo(SERVICE, "i2", REMOTE_IP_ADDRESS);
+        addRemoteServices(first, second);
+        final List<List<RemoteService>> offered = new ArrayList<List<RemoteService>>();
+        serviceBus.setEndpointSelectionStrategy(new EndpointSelectionStrategy() {
+            @Override
+            public RemoteService select(QName serviceName, List<RemoteService> candidates) {
+                // the registry drops every endpoint of the service while the lookup is selecting one
+                serviceBus.processRemoteServiceDiff(new RemoteServicesDiff(null, remoteServicesOf(first, second)));
+                offered.add(new ArrayList<RemoteService>(candidates));
+                return candidates.get(1);
+            }
+        });
+
+        Endpoint endpoint = serviceBus.getEndpoint(SERVICE);
+
+        assertEquals(remoteServicesOf(first, second), offered.get(0));
+        assertNotNull(endpoint);
+        assertEquals(second.getEndpointUrl(), endpoint.getServiceConfiguration().getEndpointUrl().toString());
+        assertNull("Lookups after the change should see the new table", serviceBus.getEndpoint(SERVICE));
+        assertTrue(serviceBus.getRemoteEndpoints(SERVICE).isEmpty());
+    }
+
+    @Test
+    public void concurrentLookupsAlwaysSeeACompleteTable() throws Exception {
+        final ServiceInfo first = serviceInfo(SERVICE, "i1", REMOTE_IP_ADDRESS);
+        final ServiceInfo second = serviceInfo(SERVICE, "i2", REMOTE_IP_ADDRESS);
+        final ServiceInfo replacement = serviceInfo(SERVICE, "i3", REMOTE_IP_ADDRESS);
+        addRemoteServices(first, second);
+        serviceBus.setEndpointSelectionStrategy(new RoundRobinEndpointSelectionStrategy());
+
+        final AtomicBoolean done = new AtomicBoolean(false);
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            Future<?> swapper = executor.submit(new Callable<Object>() {
+                @Override
+                public Object call() {
+                    // every change replaces the endpoints of the service in one step, so there is always one left
+                    while (!done.get()) {
+                        serviceBus.processRemoteServiceDiff(new RemoteServicesDiff(
+                                Collections.singletonList(replacement), remoteServicesOf(first, second)));
+                        serviceBus.processRemoteServiceDiff(new RemoteServicesDiff(Arrays.asList(first, second),
+                                remoteServicesOf(replacement)));
+                    }
+                    return null;
+                }
+            });
+            List<Future<Object>> lookups = new ArrayList<Future<Object>>();
+            for (int i = 0; i < 4; i++) {
+                lookups.add(executor.submit(new Callable<Object>() {
+                    @Override
+                    public Object call() {
+                        for (int lookup = 0; lookup < 2000; lookup++) {
+                            assertNotNull(serviceBus.getEndpoint(SERVICE));
+                            assertFalse(serviceBus.getRemoteEndpoints(SERVICE).isEmpty());
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Object> lookup : lookups) {
+                lookup.get(60, TimeUnit.SECONDS);
+            }
+            done.set(true);
+            swapper.get(60, TimeUnit.SECONDS);
+        } finally {
+            done.set(true);
+            executor.shutdownNow();
+        }
+    }
+
+}
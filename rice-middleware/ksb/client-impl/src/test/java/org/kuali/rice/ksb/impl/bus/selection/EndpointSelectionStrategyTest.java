@@ -0,0 +1,155 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.impl.bus.selection;
+
+import org.junit.Test;
+import org.kuali.rice.core.api.util.RiceUtilities;
+import org.kuali.rice.ksb.impl.bus.RemoteService;
+
+import javax.xml.namespace.QName;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+import static org.kuali.rice.ksb.impl.bus.RemoteServiceFixture.*;
+
+/**
+ * Unit tests for the {@link EndpointSelectionStrategy} implementations.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class EndpointSelectionStrategyTest {
+
+    private static final QName SERVICE = new QName(NAMESPACE, "service");
+    private static final QName OTHER_SERVICE = new QName(NAMESPACE, "otherService");
+
+    private static List<RemoteService> candidates(QName serviceName, String... instanceIds) {
+        List<RemoteService> candidates = new ArrayList<RemoteService>();
+        for (String instanceId : instanceIds) {
+            candidates.add(remoteService(serviceName, instanceId, REMOTE_IP_ADDRESS));
+        }
+        return candidates;
+    }
+
+    private static List<String> select(EndpointSelectionStrategy strategy, QName serviceName,
+            List<RemoteService> candidates, int times) {
+        List<String> selected = new ArrayList<String>(times);
+        for (int i = 0; i < times; i++) {
+            RemoteService remoteService = strategy.select(serviceName, candidates);
+            assertTrue(candidates.contains(remoteService));
+            selected.add(remoteService.getServiceInfo().getInstanceId());
+        }
+        return selected;
+    }
+
+    @Test
+    public void randomSelectsEveryCandidateEventually() {
+        List<RemoteService> candidates = candidates(SERVICE, "random1", "random2", "random3");
+
+        Set<String> selected = new HashSet<String>(select(new RandomEndpointSelectionStrategy(), SERVICE, candidates,
+                500));
+
+        assertEquals(new HashSet<String>(Arrays.asList("random1", "random2", "random3")), selected);
+    }
+
+    @Test
+    public void singleCandidateIsAlwaysSelected() {
+        List<RemoteService> candidates = candidates(SERVICE, "single");
+        EndpointSelectionStrategy[] strategies = { new RandomEndpointSelectionStrategy(),
+                new RoundRobinEndpointSelectionStrategy(), new LeastOutstandingRequestsEndpointSelectionStrategy(),
+                new LocalityEndpointSelectionStrategy() };
+
+        for (EndpointSelectionStrategy strategy : strategies) {
+            assertEquals(Arrays.asList("single", "single"), select(strategy, SERVICE, candidates, 2));
+        }
+    }
+
+    @Test
+    public void roundRobinTakesTurnsPerService() {
+        RoundRobinEndpointSelectionStrategy strategy = new RoundRobinEndpointSelectionStrategy();
+        List<RemoteService> candidates = candidates(SERVICE, "rr1", "rr2", "rr3");
+        List<RemoteService> otherCandidates = candidates(OTHER_SERVICE, "rr1", "rr2");
+
+        assertEquals(Arrays.asList("rr1", "rr2"), select(strategy, SERVICE, candidates, 2));
+        assertEquals(Arrays.asList("rr1", "rr2", "rr1"), select(strategy, OTHER_SERVICE, otherCandidates, 3));
+        assertEquals(Arrays.asList("rr3", "rr1", "rr2"), select(strategy, SERVICE, candidates, 3));
+    }
+
+    @Test
+    public void roundRobinAdjustsToChangedCandidates() {
+        RoundRobinEndpointSelectionStrategy strategy = new RoundRobinEndpointSelectionStrategy();
+        select(strategy, SERVICE, candidates(SERVICE, "rr1", "rr2", "rr3", "rr4"), 3);
+
+        // the table was swapped for one with fewer endpoints, the next turn still falls within it
+        assertEquals(Arrays.asList("rr2", "rr1"), select(strategy, SERVICE, candidates(SERVICE, "rr1", "rr2"), 2));
+    }
+
+    @Test
+    public void leastOutstandingRequestsPrefersTheIdlestInstance() {
+        LeastOutstandingRequestsEndpointSelectionStrategy strategy =
+                new LeastOutstandingRequestsEndpointSelectionStrategy();
+        List<RemoteService> candidates = candidates(SERVICE, "lor1", "lor2", "lor3");
+        OutstandingRequests.started("lor1");
+        OutstandingRequests.started("lor1");
+        OutstandingRequests.started("lor3");
+        try {
+            assertEquals(Arrays.asList("lor2", "lor2", "lor2"), select(strategy, SERVICE, candidates, 3));
+
+            OutstandingRequests.started("lor2");
+            OutstandingRequests.started("lor2");
+            assertEquals(Arrays.asList("lor3", "lor3"), select(strategy, SERVICE, candidates, 2));
+        } finally {
+            OutstandingRequests.finished("lor1");
+            OutstandingRequests.finished("lor1");
+            OutstandingRequests.finished("lor2");
+            OutstandingRequests.finished("lor2");
+            OutstandingRequests.finished("lor3");
+        }
+    }
+
+    @Test
+    public void leastOutstandingRequestsSpreadsTies() {
+        List<RemoteService> candidates = candidates(SERVICE, "tie1", "tie2", "tie3");
+
+        Set<String> selected = new HashSet<String>(select(new LeastOutstandingRequestsEndpointSelectionStrategy(),
+                SERVICE, candidates, 500));
+
+        assertEquals(new HashSet<String>(Arrays.asList("tie1", "tie2", "tie3")), selected);
+    }
+
+    @Test
+    public void localityPrefersEndpointsOnThisHost() {
+        List<RemoteService> candidates = candidates(SERVICE, "remote1", "remote2");
+        candidates.add(1, remoteService(SERVICE, "local1", RiceUtilities.getIpNumber()));
+        candidates.add(remoteService(SERVICE, "local2", RiceUtilities.getIpNumber()));
+
+        assertEquals(Arrays.asList("local1", "local2", "local1"), select(new LocalityEndpointSelectionStrategy(),
+                SERVICE, candidates, 3));
+    }
+
+    @Test
+    public void localityFallsBackToAllEndpointsThroughItsDelegate() {
+        LocalityEndpointSelectionStrategy strategy = new LocalityEndpointSelectionStrategy();
+        strategy.setDelegate(new RoundRobinEndpointSelectionStrategy());
+        List<RemoteService> candidates = candidates(SERVICE, "remote1", "remote2");
+
+        assertEquals(Arrays.asList("remote1", "remote2", "remote1"), select(strategy, SERVICE, candidates, 3));
+    }
+
+}
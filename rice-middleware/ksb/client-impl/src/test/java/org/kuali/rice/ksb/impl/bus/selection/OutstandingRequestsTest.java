@@ -0,0 +1,95 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.impl.bus.selection;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the {@link OutstandingRequests}.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class OutstandingRequestsTest {
+
+    @Test
+    public void countsCallsInProgress() {
+        assertEquals(0, OutstandingRequests.get("count1"));
+
+        OutstandingRequests.started("count1");
+        OutstandingRequests.started("count1");
+        OutstandingRequests.started("count2");
+        assertEquals(2, OutstandingRequests.get("count1"));
+        assertEquals(1, OutstandingRequests.get("count2"));
+
+        OutstandingRequests.finished("count1");
+        OutstandingRequests.finished("count1");
+        OutstandingRequests.finished("count2");
+        assertEquals(0, OutstandingRequests.get("count1"));
+        assertEquals(0, OutstandingRequests.get("count2"));
+    }
+
+    @Test
+    public void ignoresUnknownInstances() {
+        OutstandingRequests.started(null);
+        OutstandingRequests.finished(null);
+
+        assertEquals(0, OutstandingRequests.get(null));
+    }
+
+    @Test
+    public void concurrentCallsAreCountedExactly() throws Exception {
+        final int threads = 8;
+        final int calls = 10000;
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Thread> callers = new ArrayList<Thread>(threads);
+        for (int i = 0; i < threads; i++) {
+            Thread caller = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int call = 0; call < calls; call++) {
+                        OutstandingRequests.started("concurrent");
+                        OutstandingRequests.started("concurrent");
+                        OutstandingRequests.finished("concurrent");
+                    }
+                }
+            };
+            callers.add(caller);
+            caller.start();
+        }
+        start.countDown();
+        for (Thread caller : callers) {
+            caller.join();
+        }
+
+        assertEquals(threads * calls, OutstandingRequests.get("concurrent"));
+        for (int i = 0; i < threads * calls; i++) {
+            OutstandingRequests.finished("concurrent");
+        }
+        assertEquals(0, OutstandingRequests.get("concurrent"));
+    }
+
+}
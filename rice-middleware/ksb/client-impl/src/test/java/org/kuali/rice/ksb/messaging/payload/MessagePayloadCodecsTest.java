@@ -0,0 +1,74 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.messaging.payload;
+
+import org.junit.Test;
+import org.kuali.rice.core.api.exception.RiceRuntimeException;
+import org.kuali.rice.core.api.util.io.SerializationUtils;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link MessagePayloadCodecs} and the shipped {@link MessagePayloadCodec}s.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class MessagePayloadCodecsTest {
+
+    @Test
+    public void roundTripsThroughEachCodec() {
+        Serializable content = createContent();
+        MessagePayloadCodec[] codecs = {new SerializedMessagePayloadCodec(), new DeflatedMessagePayloadCodec()};
+        for (MessagePayloadCodec codec : codecs) {
+            byte[] payload = MessagePayloadCodecs.encode(codec, content);
+            assertEquals(codec.getFormatVersion(), payload[MessagePayloadCodecs.HEADER_LENGTH - 1]);
+            assertEquals(content, MessagePayloadCodecs.decode(payload));
+        }
+    }
+
+    @Test
+    public void deflatedPayloadIsSmallerThanBase64Text() {
+        Serializable content = createContent();
+        byte[] deflated = MessagePayloadCodecs.encode(new DeflatedMessagePayloadCodec(), content);
+        byte[] serialized = MessagePayloadCodecs.encode(new SerializedMessagePayloadCodec(), content);
+        String base64 = SerializationUtils.serializeToBase64(content);
+        assertTrue(serialized.length < base64.length());
+        assertTrue(deflated.length < serialized.length / 2);
+    }
+
+    @Test(expected = RiceRuntimeException.class)
+    public void rejectsPayloadsWithoutHeader() {
+        MessagePayloadCodecs.decode(new SerializedMessagePayloadCodec().encode(createContent()));
+    }
+
+    private Serializable createContent() {
+        ArrayList<Map<String, String>> content = new ArrayList<Map<String, String>>();
+        for (int i = 0; i < 50; i++) {
+            Map<String, String> values = new HashMap<String, String>();
+            values.put("documentId", String.valueOf(1000 + i));
+            values.put("principalName", "admin");
+            values.put("actionRequested", "APPROVE");
+            content.add(values);
+        }
+        return content;
+    }
+
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.messaging.threadpool;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the {@link BoundedPriorityBlockingQueue}.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class BoundedPriorityBlockingQueueTest {
+
+    private static final Comparator<Integer> NATURAL_ORDER = new Comparator<Integer>() {
+        public int compare(Integer o1, Integer o2) {
+            return o1.compareTo(o2);
+        }
+    };
+
+    @Test
+    public void rejectsOffersOnceFull() throws Exception {
+        BoundedPriorityBlockingQueue<Integer> queue = new BoundedPriorityBlockingQueue<Integer>(2, NATURAL_ORDER);
+        assertTrue(queue.offer(3));
+        assertTrue(queue.offer(1));
+        assertEquals(0, queue.remainingCapacity());
+        assertFalse(queue.offer(2));
+        assertFalse(queue.offer(2, 10, TimeUnit.MILLISECONDS));
+
+        assertEquals(Integer.valueOf(1), queue.poll());
+        assertEquals(1, queue.remainingCapacity());
+        assertTrue(queue.offer(2));
+        assertEquals(Integer.valueOf(2), queue.take());
+    }
+
+    @Test
+    public void releasesRoomForRemovedElements() {
+        BoundedPriorityBlockingQueue<Integer> queue = new BoundedPriorityBlockingQueue<Integer>(3, NATURAL_ORDER);
+        queue.add(1);
+        queue.add(2);
+        queue.add(3);
+        assertTrue(queue.remove(Integer.valueOf(2)));
+        assertFalse(queue.remove(Integer.valueOf(2)));
+        assertEquals(1, queue.remainingCapacity());
+
+        List<Integer> drained = new ArrayList<Integer>();
+        assertEquals(2, queue.drainTo(drained));
+        assertEquals(3, queue.remainingCapacity());
+
+        queue.add(4);
+        queue.clear();
+        assertEquals(3, queue.remainingCapacity());
+        assertTrue(queue.isEmpty());
+    }
+
+}
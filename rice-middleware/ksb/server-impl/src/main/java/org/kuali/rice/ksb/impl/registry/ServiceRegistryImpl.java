@@ -20,6 +20,7 @@ import org.kuali.rice.core.api.criteria.QueryByCriteria;
 import org.kuali.rice.core.api.criteria.QueryResults;
 import org.kuali.rice.core.api.exception.RiceIllegalArgumentException;
 import org.kuali.rice.krad.data.DataObjectService;
+import org.kuali.rice.ksb.api.registry.OnlineServicesChecksum;
 import org.kuali.rice.ksb.api.registry.RemoveAndPublishResult;
 import org.kuali.rice.ksb.api.registry.ServiceDescriptor;
 import org.kuali.rice.ksb.api.registry.ServiceEndpoint;
@@ -27,11 +28,14 @@ import org.kuali.rice.ksb.api.registry.ServiceEndpointStatus;
 import org.kuali.rice.ksb.api.registry.ServiceInfo;
 import org.kuali.rice.ksb.api.registry.ServiceRegistry;
 import org.springframework.beans.factory.annotation.Required;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import javax.xml.namespace.QName;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.kuali.rice.core.api.criteria.PredicateFactory.equal;
 
@@ -40,6 +44,10 @@ import static org.kuali.rice.core.api.criteria.PredicateFactory.equal;
  * data access object that handles reading and writing data related to registry
  * entries from a backend datastore.
  *
+ * <p>The online services, which every client of the registry fetches periodically, are served from an in-memory
+ * snapshot.  Changes made through this registry drop the snapshot, changes made through other registry servers sharing
+ * the same database show up once the snapshot is older than the configured time to live.</p>
+ *
  * @author Kuali Rice Team (rice.collab@kuali.org)
  *
  */
@@ -47,6 +55,13 @@ public class ServiceRegistryImpl implements ServiceRegistry {
 
     private DataObjectService dataObjectService;
 
+    private long snapshotTimeToLive = 10000;
+
+    private volatile OnlineServicesSnapshot onlineServicesSnapshot;
+
+    // bumped by every change, so a snapshot loaded while a change was being made is not kept
+    private final AtomicLong snapshotGeneration = new AtomicLong();
+
 	@Override
 	public List<ServiceInfo> getOnlineServicesByName(QName serviceName)
 			throws RiceIllegalArgumentException {
@@ -64,6 +79,53 @@ public class ServiceRegistryImpl implements ServiceRegistry {
 
 	@Override
 	public List<ServiceInfo> getAllOnlineServices() {
+		return getOnlineServicesSnapshot().getServices();
+	}
+
+	@Override
+	public String getOnlineServicesChecksum() {
+		return getOnlineServicesSnapshot().getChecksum();
+	}
+
+	protected OnlineServicesSnapshot getOnlineServicesSnapshot() {
+		OnlineServicesSnapshot snapshot = this.onlineServicesSnapshot;
+		if (snapshot == null || snapshot.isOlderThan(snapshotTimeToLive)) {
+			long generation = snapshotGeneration.get();
+			snapshot = new OnlineServicesSnapshot(loadAllOnlineServices());
+			synchronized (snapshotGeneration) {
+				if (snapshotGeneration.get() == generation) {
+					this.onlineServicesSnapshot = snapshot;
+				}
+			}
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Drops the snapshot of the online services after a change to the registry.  Within a transaction the snapshot is
+	 * dropped again once the transaction completes, so that a snapshot loaded before the change was committed is not
+	 * kept either.
+	 */
+	protected void invalidateOnlineServicesSnapshot() {
+		dropOnlineServicesSnapshot();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCompletion(int status) {
+					dropOnlineServicesSnapshot();
+				}
+			});
+		}
+	}
+
+	private void dropOnlineServicesSnapshot() {
+		synchronized (snapshotGeneration) {
+			snapshotGeneration.incrementAndGet();
+			this.onlineServicesSnapshot = null;
+		}
+	}
+
+	protected List<ServiceInfo> loadAllOnlineServices() {
         QueryByCriteria.Builder builder = QueryByCriteria.Builder.create();
         builder.setPredicates(equal("statusCode",ServiceEndpointStatus.ONLINE.getCode()));
         List<ServiceInfoBo> serviceInfoBos = getDataObjectService().findMatching(
@@ -143,7 +205,7 @@ public class ServiceRegistryImpl implements ServiceRegistry {
 		serviceDescriptorBo = getDataObjectService().save(serviceDescriptorBo);
 		serviceInfoBo.setServiceDescriptorId(serviceDescriptorBo.getId());
         serviceInfoBo = getDataObjectService().save(serviceInfoBo);
-		
+		invalidateOnlineServicesSnapshot();
 		
 		return ServiceEndpoint.Builder.create(ServiceInfo.Builder.create(serviceInfoBo),
 				ServiceDescriptor.Builder.create(serviceDescriptorBo)).build();
@@ -170,6 +232,7 @@ public class ServiceRegistryImpl implements ServiceRegistry {
 		}
 		ServiceInfoBo serviceInfoBo = getDataObjectService().find(ServiceInfoBo.class, serviceId);
 		if (serviceInfoBo != null) {
+			invalidateOnlineServicesSnapshot();
 			ServiceDescriptorBo serviceDescriptorBo = getDataObjectService().find(
                     ServiceDescriptorBo.class,serviceInfoBo.getServiceDescriptorId());
             if(serviceDescriptorBo != null) {
@@ -234,6 +297,7 @@ public class ServiceRegistryImpl implements ServiceRegistry {
         }
         serviceInfoBo.setStatusCode(status.getCode());
         getDataObjectService().save(serviceInfoBo);
+        invalidateOnlineServicesSnapshot();
         return true;
 	}
 
@@ -267,6 +331,7 @@ public class ServiceRegistryImpl implements ServiceRegistry {
             serviceInfo.setStatusCode(ServiceEndpointStatus.OFFLINE.getCode());
             getDataObjectService().save(serviceInfo);
         }
+        invalidateOnlineServicesSnapshot();
 	}
 
 	private List<ServiceInfo> convertServiceInfoBoList(List<ServiceInfoBo> serviceInfoBos) {
@@ -290,6 +355,46 @@ public class ServiceRegistryImpl implements ServiceRegistry {
         this.dataObjectService = dataObjectService;
     }
 
+    public long getSnapshotTimeToLive() {
+        return snapshotTimeToLive;
+    }
+
+    /**
+     * Sets how long, in milliseconds, the snapshot of the online services is served before it is reloaded.
+     */
+    public void setSnapshotTimeToLive(long snapshotTimeToLive) {
+        this.snapshotTimeToLive = snapshotTimeToLive;
+    }
+
+    /**
+     * The online services of the registry at one point in time along with their checksum.
+     */
+    protected static final class OnlineServicesSnapshot {
+
+        private final List<ServiceInfo> services;
+        private final String checksum;
+        private final long loadTime;
+
+        OnlineServicesSnapshot(List<ServiceInfo> services) {
+            this.services = services;
+            this.checksum = OnlineServicesChecksum.calculate(services);
+            this.loadTime = System.currentTimeMillis();
+        }
+
+        public List<ServiceInfo> getServices() {
+            return services;
+        }
+
+        public String getChecksum() {
+            return checksum;
+        }
+
+        boolean isOlderThan(long timeToLive) {
+            return System.currentTimeMillis() - loadTime > timeToLive;
+        }
+
+    }
+
 
 
 }
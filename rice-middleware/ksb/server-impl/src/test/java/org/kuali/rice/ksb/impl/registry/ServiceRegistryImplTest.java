@@ -27,6 +27,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
@@ -105,6 +106,25 @@ public class ServiceRegistryImplTest {
         return serviceInfo;
     }
 
-
+    @Test
+    public void testSnapshotLoadedDuringChangeIsNotKept() {
+        final int[] loads = new int[1];
+        ServiceRegistryImpl racingRegistry = new ServiceRegistryImpl() {
+            @Override
+            protected List<ServiceInfo> loadAllOnlineServices() {
+                loads[0]++;
+                if (loads[0] == 1) {
+                    // a change to the registry completes while the first snapshot is being loaded
+                    invalidateOnlineServicesSnapshot();
+                }
+                return Collections.emptyList();
+            }
+        };
+        racingRegistry.getAllOnlineServices();
+        racingRegistry.getAllOnlineServices();
+        assertEquals("the snapshot loaded during the change should have been reloaded", 2, loads[0]);
+        racingRegistry.getAllOnlineServices();
+        assertEquals(2, loads[0]);
+    }
 
 }
@@ -33,8 +33,10 @@ import org.kuali.rice.ksb.api.KsbApiServiceLocator;
 import org.kuali.rice.ksb.api.messaging.AsynchronousCall;
 import org.kuali.rice.ksb.api.registry.ServiceInfo;
 import org.kuali.rice.ksb.messaging.MessageFetcher;
+import org.kuali.rice.ksb.messaging.MessageLease;
 import org.kuali.rice.ksb.messaging.MessageServiceInvoker;
 import org.kuali.rice.ksb.messaging.PersistedMessageBO;
+import org.kuali.rice.ksb.messaging.payload.MessagePayloadCodecs;
 import org.kuali.rice.ksb.messaging.service.MessageQueueService;
 import org.kuali.rice.ksb.service.KSBServiceLocator;
 import org.kuali.rice.ksb.util.KSBConstants;
@@ -94,7 +96,8 @@ public class MessageQueueAction extends KSBAction {
     public ActionForward saveAndResubmit(ActionMapping mapping, ActionForm form, HttpServletRequest request,
 	    HttpServletResponse response) throws Exception {
 	MessageQueueForm routeQueueForm = (MessageQueueForm) form;
-	PersistedMessageBO message = save(routeQueueForm);
+	// resubmitting takes the message over for this node
+	PersistedMessageBO message = save(routeQueueForm, true);
 	KSBServiceLocator.getThreadPool().execute(new MessageServiceInvoker(message));
 
 	ActionMessages messages = new ActionMessages();
@@ -142,6 +145,10 @@ public class MessageQueueAction extends KSBAction {
 //    }
 
     private PersistedMessageBO save(MessageQueueForm routeQueueForm) {
+	return save(routeQueueForm, false);
+    }
+
+    private PersistedMessageBO save(MessageQueueForm routeQueueForm, boolean lease) {
 	Long routeQueueId = routeQueueForm.getMessageQueueFromForm().getRouteQueueId();
 	if ((routeQueueId == null) || (routeQueueId.longValue() <= 0)) {
 	    throw new IllegalArgumentException("Invalid routeQueueId passed in.  Cannot save");
@@ -164,6 +171,9 @@ public class MessageQueueAction extends KSBAction {
 	existingMessage.setServiceName(message.getServiceName());
 	existingMessage.setValue1(message.getValue1());
 	existingMessage.setValue2(message.getValue2());
+	if (lease) {
+	    MessageLease.lease(existingMessage);
+	}
 	existingMessage = KSBServiceLocator.getMessageQueueService().save(existingMessage);
 	return existingMessage;
     }
@@ -181,6 +191,7 @@ public class MessageQueueAction extends KSBAction {
 	message.setQueueStatus(KSBConstants.ROUTE_QUEUE_ROUTING);
 	message.setQueueDate(new Timestamp(Calendar.getInstance().getTimeInMillis()));
 	message.setRetryCount(new Integer(0));
+	MessageLease.lease(message);
 	return getRouteQueueService().save(message);
     }
 
@@ -410,12 +421,15 @@ public class MessageQueueAction extends KSBAction {
 	if (message == null || message.getPayload() == null) {
 	    return null;
 	}
+	byte[] binaryPayload = message.getPayload().getBinaryPayload();
 	String encodedPayload = message.getPayload().getPayload();
-	if (StringUtils.isBlank(encodedPayload)) {
+	if (binaryPayload == null && StringUtils.isBlank(encodedPayload)) {
 	    return null;
 	}
 	Object decodedPayload = null;
-	if (encodedPayload != null) {
+	if (binaryPayload != null) {
+	    decodedPayload = MessagePayloadCodecs.decode(binaryPayload);
+	} else {
 	    decodedPayload = SerializationUtils.deserializeFromBase64(encodedPayload);
 	}
 	// fail fast if its not the expected type of AsynchronousCall